@@ -33,6 +33,7 @@ public class BoundingBox {
     public final Point3D globalCenter;
     public final Point3D currentCollisionDepth;
     public final List<Point3D> collidingBlockPositions = new ArrayList<>();
+    private final List<Point3D> collidingBlockPositionPool = new ArrayList<>();
     private RenderableObject wireframeRenderable;
     private RenderableObject holographicRenderable;
     private final Point3D tempGlobalCenter;
@@ -120,6 +121,18 @@ public class BoundingBox {
         return !collidingBlockPositions.isEmpty();
     }
 
+    /**
+     * Adds the passed-in block position to the collidingBlocks list.  Points are pooled and
+     * re-used every time the list is cleared, so references to them should not be held.
+     */
+    public void addCollidingBlockPosition(int x, int y, int z) {
+        int index = collidingBlockPositions.size();
+        if (index == collidingBlockPositionPool.size()) {
+            collidingBlockPositionPool.add(new Point3D());
+        }
+        collidingBlockPositions.add(collidingBlockPositionPool.get(index).set(x, y, z));
+    }
+
     /**
      * Sets the global center of this box to the position of the passed-in entity, rotated by the
      * entity's rotation and offset by the local center, or the passed-in offset if it is non-null.
@@ -7,6 +7,9 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
@@ -16,9 +19,8 @@ import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityBullet;
-import minecrafttransportsimulator.entities.instances.EntityPlacedPart;
-import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.entities.instances.PartGun;
+import minecrafttransportsimulator.entities.instances.PartInteractable;
 
 /**
  * Class that manages entities in a world or other area.
@@ -32,8 +34,11 @@ public class EntityManager {
     public final ConcurrentLinkedQueue<AEntityC_Renderable> renderableEntities = new ConcurrentLinkedQueue<>();
     private final ConcurrentHashMap<Class<? extends AEntityA_Base>, ConcurrentLinkedQueue<? extends AEntityA_Base>> entitiesByClass = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, AEntityA_Base> trackedEntityMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, AEntityA_Base> networkEntityMap = new ConcurrentHashMap<>();
+    private final AtomicInteger nextNetworkID = new AtomicInteger(1);
     private final ConcurrentHashMap<UUID, PartGun> gunMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, Map<Integer, EntityBullet>> bulletMap = new ConcurrentHashMap<>();
+    private final EntitySpatialHash spatialHash = new EntitySpatialHash();
 
     /**
      * Adds the entity to the world.  This will make it get update ticks and be rendered
@@ -58,6 +63,9 @@ public class EntityManager {
             EntityBullet bullet = (EntityBullet) entity;
             bulletMap.get(bullet.gun.uniqueUUID).put(bullet.bulletNumber, bullet);
         }
+        if (isSpatiallyHashed(entity)) {
+            spatialHash.add((AEntityE_Interactable<?>) entity);
+        }
 
         @SuppressWarnings("unchecked")
         ConcurrentLinkedQueue<EntityType> classList = (ConcurrentLinkedQueue<EntityType>) entitiesByClass.get(entity.getClass());
@@ -68,6 +76,9 @@ public class EntityManager {
         classList.add(entity);
         if (entity.shouldSync()) {
             trackedEntityMap.put(entity.uniqueUUID, entity);
+            if (entity.networkID != 0) {
+                networkEntityMap.put(entity.networkID, entity);
+            }
         }
     }
 
@@ -79,6 +90,21 @@ public class EntityManager {
         return (EntityType) trackedEntityMap.get(uniqueUUID);
     }
 
+    /**
+     * Gets the entity with the requested network ID.
+     */
+    @SuppressWarnings("unchecked")
+    public <EntityType extends AEntityA_Base> EntityType getEntityByNetworkID(int networkID) {
+        return (EntityType) networkEntityMap.get(networkID);
+    }
+
+    /**
+     * Returns a new network ID for an entity.  IDs are unique for the session, and are never 0.
+     */
+    public int getNextNetworkID() {
+        return nextNetworkID.getAndIncrement();
+    }
+
     /**
      * Returns the gun associated with the gunID.  Guns are saved when they are seen in the world and
      * remain here for query even when removed.  This allows for referencing their properties for bullets
@@ -142,6 +168,39 @@ public class EntityManager {
                 entity.world.endProfiling();
             }
         }
+        spatialHash.updateAll();
+    }
+
+    /**
+     * Returns all multiparts and interactable parts whose encompassing boxes intersect the passed-in box.
+     * Only multiparts that are not parts are returned, with the exception of {@link PartInteractable}s.
+     */
+    public List<AEntityE_Interactable<?>> queryBox(BoundingBox box) {
+        return spatialHash.queryBox(box);
+    }
+
+    /**
+     * Like {@link #queryBox(BoundingBox)}, but returns entities whose encompassing boxes are hit
+     * by the line between the passed-in points.
+     */
+    public List<AEntityE_Interactable<?>> queryRay(Point3D start, Point3D end) {
+        return spatialHash.queryRay(start, end);
+    }
+
+    /**
+     * Returns the entity from {@link #queryBox(BoundingBox)} closest to the passed-in point that is within
+     * the radius and matches the filter, or null if there are none.
+     */
+    public AEntityE_Interactable<?> nearest(Point3D point, double radius, Predicate<AEntityE_Interactable<?>> filter) {
+        return spatialHash.nearest(point, radius, filter);
+    }
+
+    /**
+     * Calls the consumer for every multipart and interactable part, as returned by {@link #queryBox(BoundingBox)},
+     * whose position is within the radius of the passed-in point.
+     */
+    public void forEachWithin(Point3D point, double radius, Consumer<AEntityE_Interactable<?>> consumer) {
+        spatialHash.forEachWithin(point, radius, consumer);
     }
 
     /**
@@ -151,21 +210,20 @@ public class EntityManager {
     public EntityInteractResult getMultipartEntityIntersect(Point3D startPoint, Point3D endPoint) {
         EntityInteractResult closestResult = null;
         BoundingBox vectorBounds = new BoundingBox(startPoint, endPoint);
-        List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
-        multiparts.addAll(getEntitiesOfType(EntityVehicleF_Physics.class));
-        multiparts.addAll(getEntitiesOfType(EntityPlacedPart.class));
-
-        for (AEntityF_Multipart<?> multipart : multiparts) {
-            if (multipart.encompassingBox.intersects(vectorBounds)) {
+        List<BoundingBox> interactionBoxes = new ArrayList<>();
+        for (AEntityE_Interactable<?> entity : spatialHash.queryRay(startPoint, endPoint)) {
+            //Parts are checked via their multipart, so skip them here.
+            if (!(entity instanceof APart)) {
+                AEntityF_Multipart<?> multipart = (AEntityF_Multipart<?>) entity;
                 //Could have hit this multipart, check if and what we did via raytracing.
-                for (BoundingBox box : multipart.allInteractionBoxes) {
-                    if (box.intersects(vectorBounds)) {
-                        Point3D intersectionPoint = box.getIntersectionPoint(startPoint, endPoint);
-                        if (intersectionPoint != null) {
-                            if (closestResult == null || startPoint.isFirstCloserThanSecond(intersectionPoint, closestResult.point)) {
-                                APart part = multipart.getPartWithBox(box);
-                                closestResult = new EntityInteractResult(part != null ? part : multipart, box, intersectionPoint);
-                            }
+                interactionBoxes.clear();
+                multipart.getInteractionBoxesWithin(vectorBounds, interactionBoxes);
+                for (BoundingBox box : interactionBoxes) {
+                    Point3D intersectionPoint = box.getIntersectionPoint(startPoint, endPoint);
+                    if (intersectionPoint != null) {
+                        if (closestResult == null || startPoint.isFirstCloserThanSecond(intersectionPoint, closestResult.point)) {
+                            APart part = multipart.getPartWithBox(box);
+                            closestResult = new EntityInteractResult(part != null ? part : multipart, box, intersectionPoint);
                         }
                     }
                 }
@@ -186,11 +244,23 @@ public class EntityManager {
         entitiesByClass.get(entity.getClass()).remove(entity);
         if (entity.shouldSync()) {
             trackedEntityMap.remove(entity.uniqueUUID);
+            networkEntityMap.remove(entity.networkID, entity);
         }
         if (entity instanceof EntityBullet) {
             EntityBullet bullet = (EntityBullet) entity;
             bulletMap.get(bullet.gun.uniqueUUID).remove(bullet.bulletNumber);
         }
+        if (isSpatiallyHashed(entity)) {
+            spatialHash.remove((AEntityE_Interactable<?>) entity);
+        }
+    }
+
+    /**
+     * Returns true if the entity should be in the spatial hash.  This is all multiparts that are
+     * not parts, as parts are handled by their multipart, plus interactable parts for loaders.
+     */
+    private static boolean isSpatiallyHashed(AEntityA_Base entity) {
+        return entity instanceof AEntityF_Multipart && (!(entity instanceof APart) || entity instanceof PartInteractable);
     }
 
     /**
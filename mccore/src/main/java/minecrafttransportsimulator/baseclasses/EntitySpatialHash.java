@@ -0,0 +1,214 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
+
+/**
+ * Spatial hash of entities, keyed by chunk-aligned columns in the XZ plane.  Each entity is stored in
+ * every column that its {@link AEntityE_Interactable#encompassingBox} touches, so queries only need to check
+ * entities in the columns they touch rather than all entities in the world.  Columns span the full world
+ * height, as most entities are spread out horizontally rather than vertically, and the encompassing box
+ * check on query handles the vertical component.
+ * <br><br>
+ * Entries are re-bucketed via {@link #updateAll()} once a tick.  Since entities may move during the tick
+ * before this happens, the columns of each entity are padded by its motion to ensure queries made mid-tick
+ * will still find it.  All methods are synchronized, as packets may query this off the main thread.
+ *
+ * @author don_bruce
+ */
+public class EntitySpatialHash {
+    private static final int COLUMN_SHIFT = 4;
+
+    private final Map<Long, List<Entry>> columns = new HashMap<>();
+    private final Map<AEntityE_Interactable<?>, Entry> entries = new HashMap<>();
+    private int currentQuery;
+
+    /**
+     * Adds the entity to this hash.
+     */
+    public synchronized void add(AEntityE_Interactable<?> entity) {
+        if (!entries.containsKey(entity)) {
+            Entry entry = new Entry(entity);
+            entries.put(entity, entry);
+            entry.setColumns();
+            addToColumns(entry);
+        }
+    }
+
+    /**
+     * Removes the entity from this hash.
+     */
+    public synchronized void remove(AEntityE_Interactable<?> entity) {
+        Entry entry = entries.remove(entity);
+        if (entry != null) {
+            removeFromColumns(entry, entry.minX, entry.minZ, entry.maxX, entry.maxZ);
+        }
+    }
+
+    /**
+     * Moves all entities to the columns that match their current encompassing boxes.
+     * Entities that haven't left their columns aren't modified.
+     */
+    public synchronized void updateAll() {
+        for (Entry entry : entries.values()) {
+            int minX = entry.minX;
+            int minZ = entry.minZ;
+            int maxX = entry.maxX;
+            int maxZ = entry.maxZ;
+            entry.setColumns();
+            if (minX != entry.minX || minZ != entry.minZ || maxX != entry.maxX || maxZ != entry.maxZ) {
+                removeFromColumns(entry, minX, minZ, maxX, maxZ);
+                addToColumns(entry);
+            }
+        }
+    }
+
+    /**
+     * Returns all entities whose encompassing boxes intersect the passed-in box.
+     */
+    public synchronized List<AEntityE_Interactable<?>> queryBox(BoundingBox box) {
+        List<AEntityE_Interactable<?>> results = new ArrayList<>();
+        forEachCandidate(box.globalCenter.x - box.widthRadius, box.globalCenter.z - box.depthRadius, box.globalCenter.x + box.widthRadius, box.globalCenter.z + box.depthRadius, entity -> {
+            if (entity.encompassingBox.intersects(box)) {
+                results.add(entity);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Returns all entities whose encompassing boxes are hit by the line between the passed-in points.
+     */
+    public synchronized List<AEntityE_Interactable<?>> queryRay(Point3D start, Point3D end) {
+        List<AEntityE_Interactable<?>> results = new ArrayList<>();
+        forEachCandidate(Math.min(start.x, end.x), Math.min(start.z, end.z), Math.max(start.x, end.x), Math.max(start.z, end.z), entity -> {
+            if (entity.encompassingBox.isPointInside(start, null) || entity.encompassingBox.getIntersectionPoint(start, end) != null) {
+                results.add(entity);
+            }
+        });
+        return results;
+    }
+
+    /**
+     * Returns the entity closest to the passed-in point that is within the radius and matches the filter.
+     * Distance is taken from the entity's position.  If no entities match, null is returned.
+     */
+    public synchronized AEntityE_Interactable<?> nearest(Point3D point, double radius, Predicate<AEntityE_Interactable<?>> filter) {
+        AEntityE_Interactable<?>[] nearest = new AEntityE_Interactable<?>[1];
+        double[] nearestDistance = new double[] { radius * radius };
+        forEachCandidate(point.x - radius, point.z - radius, point.x + radius, point.z + radius, entity -> {
+            double deltaX = entity.position.x - point.x;
+            double deltaY = entity.position.y - point.y;
+            double deltaZ = entity.position.z - point.z;
+            double distance = deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ;
+            if (distance < nearestDistance[0] && filter.test(entity)) {
+                nearest[0] = entity;
+                nearestDistance[0] = distance;
+            }
+        });
+        return nearest[0];
+    }
+
+    /**
+     * Calls the consumer for every entity whose position is within the radius of the passed-in point.
+     * This doesn't create any lists, so is better for large or frequent queries that filter their results.
+     */
+    public synchronized void forEachWithin(Point3D point, double radius, Consumer<AEntityE_Interactable<?>> consumer) {
+        double radiusSquared = radius * radius;
+        forEachCandidate(point.x - radius, point.z - radius, point.x + radius, point.z + radius, entity -> {
+            double deltaX = entity.position.x - point.x;
+            double deltaY = entity.position.y - point.y;
+            double deltaZ = entity.position.z - point.z;
+            if (deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ < radiusSquared) {
+                consumer.accept(entity);
+            }
+        });
+    }
+
+    /**
+     * Calls the consumer for every entity in the columns touched by the passed-in bounds, once per entity.
+     * If the bounds cover more columns than we have entities, all entities are checked instead, as this
+     * is quicker for long-range queries.
+     */
+    private void forEachCandidate(double minX, double minZ, double maxX, double maxZ, Consumer<AEntityE_Interactable<?>> consumer) {
+        int minColumnX = (int) Math.floor(minX) >> COLUMN_SHIFT;
+        int minColumnZ = (int) Math.floor(minZ) >> COLUMN_SHIFT;
+        int maxColumnX = (int) Math.floor(maxX) >> COLUMN_SHIFT;
+        int maxColumnZ = (int) Math.floor(maxZ) >> COLUMN_SHIFT;
+        if ((long) (maxColumnX - minColumnX + 1) * (maxColumnZ - minColumnZ + 1) > entries.size()) {
+            entries.keySet().forEach(consumer);
+        } else {
+            ++currentQuery;
+            for (int x = minColumnX; x <= maxColumnX; ++x) {
+                for (int z = minColumnZ; z <= maxColumnZ; ++z) {
+                    List<Entry> column = columns.get(getKey(x, z));
+                    if (column != null) {
+                        for (Entry entry : column) {
+                            //Entities can span multiple columns, so make sure we only check them once.
+                            if (entry.lastQuery != currentQuery) {
+                                entry.lastQuery = currentQuery;
+                                consumer.accept(entry.entity);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void addToColumns(Entry entry) {
+        for (int x = entry.minX; x <= entry.maxX; ++x) {
+            for (int z = entry.minZ; z <= entry.maxZ; ++z) {
+                columns.computeIfAbsent(getKey(x, z), k -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    private void removeFromColumns(Entry entry, int minX, int minZ, int maxX, int maxZ) {
+        for (int x = minX; x <= maxX; ++x) {
+            for (int z = minZ; z <= maxZ; ++z) {
+                Long key = getKey(x, z);
+                List<Entry> column = columns.get(key);
+                if (column != null) {
+                    column.remove(entry);
+                    if (column.isEmpty()) {
+                        columns.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long getKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static class Entry {
+        private final AEntityE_Interactable<?> entity;
+        private int minX;
+        private int minZ;
+        private int maxX;
+        private int maxZ;
+        private int lastQuery;
+
+        private Entry(AEntityE_Interactable<?> entity) {
+            this.entity = entity;
+        }
+
+        private void setColumns() {
+            BoundingBox box = entity.encompassingBox;
+            double paddingX = box.widthRadius + Math.abs(entity.motion.x) + 1;
+            double paddingZ = box.depthRadius + Math.abs(entity.motion.z) + 1;
+            minX = (int) Math.floor(box.globalCenter.x - paddingX) >> COLUMN_SHIFT;
+            minZ = (int) Math.floor(box.globalCenter.z - paddingZ) >> COLUMN_SHIFT;
+            maxX = (int) Math.floor(box.globalCenter.x + paddingX) >> COLUMN_SHIFT;
+            maxZ = (int) Math.floor(box.globalCenter.z + paddingZ) >> COLUMN_SHIFT;
+        }
+    }
+}
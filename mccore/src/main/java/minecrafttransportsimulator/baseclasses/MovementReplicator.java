@@ -0,0 +1,119 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packets.instances.PacketVehicleServerMovement;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Class that handles sending server movement of a vehicle to clients.  Rather than sending
+ * movement to all clients every tick, movement is only sent to players within the sync radius,
+ * and less frequently the further away the player is.  Movement from ticks where a player
+ * wasn't sent a packet is added up and sent with the next packet, so the total movement the
+ * client gets is the same as if it got every packet.  If a player leaves the sync radius, their
+ * pending movement is discarded, as the client will get the vehicle's current state from its
+ * data when it comes back into range.  Any movement lost to packet quantization is also kept
+ * as pending movement, so it will be sent with the next packet.
+ * <br><br>
+ * Discarding movement is only safe if the client has also unloaded the vehicle, so players within
+ * the entity tracking range of the world are always in range, no matter how small the sync radius is.
+ *
+ * @author don_bruce
+ */
+public class MovementReplicator {
+    private static final int NEAR_RATE = 1;
+    private static final int MID_RATE = 4;
+    private static final int FAR_RATE = 20;
+    private final EntityVehicleF_Physics vehicle;
+    private final Map<UUID, PendingMovement> pendingMovements = new HashMap<>();
+
+    public MovementReplicator(EntityVehicleF_Physics vehicle) {
+        this.vehicle = vehicle;
+    }
+
+    /**
+     * Adds the passed-in movement to the movement for all players in range.
+     */
+    public void addMovement(Point3D motion, Point3D rotation, double pathing) {
+        int trackingRange = vehicle.world.getEntityTrackingRange();
+        for (IWrapperPlayer player : vehicle.world.getPlayersByID().values()) {
+            if (isInRange(player, trackingRange)) {
+                PendingMovement pending = pendingMovements.get(player.getID());
+                if (pending == null) {
+                    pending = new PendingMovement();
+                    pendingMovements.put(player.getID(), pending);
+                }
+                pending.motion.add(motion);
+                pending.rotation.add(rotation);
+                pending.pathing += pathing;
+                pending.hasMovement = true;
+            }
+        }
+    }
+
+    /**
+     * Sends movement to all players that are due for it.  Should be called every tick,
+     * even if the vehicle didn't move, to ensure pending movement is sent.
+     */
+    public void sendMovement() {
+        Map<UUID, IWrapperPlayer> players = vehicle.world.getPlayersByID();
+        int trackingRange = vehicle.world.getEntityTrackingRange();
+        Iterator<Map.Entry<UUID, PendingMovement>> iterator = pendingMovements.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, PendingMovement> entry = iterator.next();
+            IWrapperPlayer player = players.get(entry.getKey());
+            if (player == null || !isInRange(player, trackingRange)) {
+                //Player left, or is too far away to have this vehicle loaded.  Drop pending movement.
+                iterator.remove();
+            } else {
+                PendingMovement pending = entry.getValue();
+                if (pending.hasMovement && vehicle.ticksExisted % getRate(player) == 0) {
+                    //Only send what the client will get after quantization, and keep the rest for the next packet.
+                    Point3D sentMotion = new Point3D(PacketVehicleServerMovement.quantize(pending.motion.x), PacketVehicleServerMovement.quantize(pending.motion.y), PacketVehicleServerMovement.quantize(pending.motion.z));
+                    Point3D sentRotation = new Point3D(PacketVehicleServerMovement.quantize(pending.rotation.x), PacketVehicleServerMovement.quantize(pending.rotation.y), PacketVehicleServerMovement.quantize(pending.rotation.z));
+                    double sentPathing = PacketVehicleServerMovement.quantize(pending.pathing);
+                    InterfaceManager.packetInterface.sendToPlayer(new PacketVehicleServerMovement(vehicle, sentMotion, sentRotation, sentPathing), player);
+                    pending.motion.subtract(sentMotion);
+                    pending.rotation.subtract(sentRotation);
+                    pending.pathing -= sentPathing;
+                    pending.hasMovement = false;
+                }
+            }
+        }
+    }
+
+    private boolean isInRange(IWrapperPlayer player, int trackingRange) {
+        //Tracking is done by X and Z distance, not by radius.
+        Point3D playerPosition = player.getPosition();
+        if (Math.abs(playerPosition.x - vehicle.position.x) <= trackingRange && Math.abs(playerPosition.z - vehicle.position.z) <= trackingRange) {
+            //Player may still have the vehicle loaded, so they need all movement.
+            return true;
+        }
+        int radius = ConfigSystem.settings.general.vehicleSyncRadius.value;
+        return playerPosition.isDistanceToCloserThan(vehicle.position, radius);
+    }
+
+    private int getRate(IWrapperPlayer player) {
+        int radius = ConfigSystem.settings.general.vehicleSyncRadius.value;
+        if (player.getPosition().isDistanceToCloserThan(vehicle.position, radius / 8D)) {
+            return NEAR_RATE;
+        } else if (player.getPosition().isDistanceToCloserThan(vehicle.position, radius / 2D)) {
+            return MID_RATE;
+        } else {
+            return FAR_RATE;
+        }
+    }
+
+    private static class PendingMovement {
+        private final Point3D motion = new Point3D();
+        private final Point3D rotation = new Point3D();
+        private double pathing;
+        private boolean hasMovement;
+    }
+}
@@ -0,0 +1,116 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Class that writes saved data to disk on a background thread.  Rather than writing data every time it
+ * changes, data is marked dirty, and a snapshot of it is written once the write delay has passed.  This
+ * means there will be at most one write per delay, no matter how many times the data changes.  Snapshots
+ * are taken on the calling thread, so the data itself never has to be thread-safe.
+ * <br><br>
+ * Data is written to a temp file and then moved over the real file, so a crash mid-write won't
+ * corrupt the prior data.  {@link #flush()} should be called when the data is no longer used to
+ * ensure any pending changes make it to disk.
+ *
+ * @author don_bruce
+ */
+public class SavedDataWriter<DataType> {
+    private static final int WRITE_DELAY = 100;
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MTS Saved Data Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final File file;
+    private final Supplier<DataType> snapshotSupplier;
+    private final DataWriter<DataType> dataWriter;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private int ticksUntilWrite;
+    private Future<?> lastWrite;
+
+    public SavedDataWriter(File file, Supplier<DataType> snapshotSupplier, DataWriter<DataType> dataWriter) {
+        this.file = file;
+        this.snapshotSupplier = snapshotSupplier;
+        this.dataWriter = dataWriter;
+    }
+
+    /**
+     * Marks the data as changed.  It will be written once the write delay has passed.
+     */
+    public void markDirty() {
+        if (!dirty.getAndSet(true)) {
+            ticksUntilWrite = WRITE_DELAY;
+        }
+    }
+
+    /**
+     * Called every tick to write the data if it's dirty and the write delay has passed.
+     */
+    public void tick() {
+        if (dirty.get() && --ticksUntilWrite <= 0) {
+            write();
+        }
+    }
+
+    /**
+     * Writes the data if it's dirty, and waits for all writes to finish.
+     */
+    public void flush() {
+        if (dirty.get()) {
+            write();
+        }
+        if (lastWrite != null) {
+            try {
+                lastWrite.get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void write() {
+        dirty.set(false);
+        ticksUntilWrite = WRITE_DELAY;
+        DataType snapshot = snapshotSupplier.get();
+        lastWrite = executor.submit(() -> {
+            File tempFile = new File(file.getPath() + ".tmp");
+            try {
+                try (OutputStream stream = Files.newOutputStream(tempFile.toPath())) {
+                    dataWriter.write(snapshot, stream);
+                }
+                try {
+                    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (Exception e) {
+                //Mark dirty so we try again after the next delay rather than losing the data.
+                e.printStackTrace();
+                InterfaceManager.coreInterface.logError("Could not save data to " + file.getPath() + ".  Will try again shortly.");
+                dirty.set(true);
+            }
+        });
+    }
+
+    /**
+     * Interface for writing the data to a stream.
+     */
+    @FunctionalInterface
+    public interface DataWriter<DataType> {
+        void write(DataType data, OutputStream stream) throws IOException;
+    }
+}
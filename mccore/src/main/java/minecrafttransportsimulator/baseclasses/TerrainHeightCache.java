@@ -0,0 +1,122 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of terrain in world columns, used to get the distance to the ground without walking down the
+ * world one block at a time.  Each column stores a bitmap of which blocks in it are not air, so finding
+ * the highest block below any point is a scan of at most a few longs.  Columns are scanned the first time
+ * they are queried, and are dropped when a block in them changes, or when they get too old.  The age limit
+ * covers changes we don't get events for, such as chunks being re-sent to clients.  Only the most recently
+ * used columns are kept, so the memory used is bounded.
+ *
+ * @author don_bruce
+ */
+public class TerrainHeightCache {
+    private static final int COLUMN_LIFETIME = 20;
+    private static final int MAX_COLUMNS = 4096;
+
+    private final ColumnScanner scanner;
+    private final Map<Long, Column> columns = new LinkedHashMap<Long, Column>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Column> eldest) {
+            return size() > MAX_COLUMNS;
+        }
+    };
+    private long currentTick;
+
+    public TerrainHeightCache(ColumnScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Called every tick to age the cached columns.
+     */
+    public void tick() {
+        ++currentTick;
+    }
+
+    /**
+     * Returns the distance from the passed-in position to highest non-air block below it, at the position's X/Z coords.
+     * If there are no blocks below the position, or the column isn't loaded, the distance to the bottom of the world is returned.
+     */
+    public double getDistance(Point3D position, int maxHeight) {
+        int blockY = (int) Math.floor(position.y);
+        if (blockY <= 0) {
+            return position.y - blockY;
+        }
+        Column column = getColumn((int) Math.floor(position.x), (int) Math.floor(position.z), maxHeight);
+        if (column != null) {
+            //Check from the position down, skipping the bottom block of the world as it's our floor anyways.
+            int startY = Math.min(blockY, column.solidBits.length * 64 - 1);
+            for (int word = startY >> 6; word >= 0; --word) {
+                long bits = column.solidBits[word];
+                if (word == startY >> 6) {
+                    bits &= -1L >>> (63 - (startY & 63));
+                }
+                if (word == 0) {
+                    bits &= ~1L;
+                }
+                if (bits != 0) {
+                    //Add 1 since we need to be above the top block.
+                    return position.y - ((word << 6) + 63 - Long.numberOfLeadingZeros(bits) + 1);
+                }
+            }
+        }
+        return position.y;
+    }
+
+    /**
+     * Drops the column at the passed-in X/Z coords.  Should be called whenever a block in the column changes.
+     */
+    public void invalidate(int x, int z) {
+        columns.remove(getKey(x, z));
+    }
+
+    private Column getColumn(int x, int z, int maxHeight) {
+        long key = getKey(x, z);
+        Column column = columns.get(key);
+        if (column == null || currentTick - column.scanTick > COLUMN_LIFETIME) {
+            long[] solidBits = column != null ? column.solidBits : new long[(maxHeight + 63) / 64];
+            Arrays.fill(solidBits, 0);
+            if (!scanner.scan(x, z, solidBits)) {
+                //Not loaded, so nothing to cache.
+                columns.remove(key);
+                return null;
+            }
+            if (column == null) {
+                column = new Column(solidBits);
+                columns.put(key, column);
+            }
+            column.scanTick = currentTick;
+        }
+        return column;
+    }
+
+    private static long getKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static class Column {
+        private final long[] solidBits;
+        private long scanTick;
+
+        private Column(long[] solidBits) {
+            this.solidBits = solidBits;
+        }
+    }
+
+    /**
+     * Interface for scanning a column of blocks.
+     */
+    @FunctionalInterface
+    public interface ColumnScanner {
+        /**
+         * Sets the bit for every non-air block in the column at the passed-in X/Z coords, indexed by Y.
+         * Returns false if the column isn't loaded.
+         */
+        boolean scan(int x, int z, long[] solidBits);
+    }
+}
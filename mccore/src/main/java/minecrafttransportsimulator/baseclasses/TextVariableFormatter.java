@@ -0,0 +1,110 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Formatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import minecrafttransportsimulator.jsondefs.JSONText;
+
+/**
+ * Class that formats the variable value for a {@link JSONText} with a variableName.  The format string is parsed
+ * once to find the precision it displays numbers at, and the last value and text are kept.  Text is only re-formatted
+ * when the value changes enough to change the displayed text, so gauges that sit at the same value don't make new
+ * strings every tick.  The formatter and its buffer are re-used for every format.  If the text has an update rate,
+ * it is also only checked that often.
+ * <br><br>
+ * Each entity needs its own formatter for each text and variable, as the last value is entity-specific.
+ *
+ * @author don_bruce
+ */
+public class TextVariableFormatter {
+    private static final Pattern CONVERSION_PATTERN = Pattern.compile("%(\\d+\\$)?[-#+ 0,(<]*(\\d+)?(\\.(\\d+))?([tT])?([a-zA-Z%])");
+    private static final int DEFAULT_PRECISION = 6;
+
+    private final JSONText textDef;
+    private final StringBuilder builder = new StringBuilder();
+    private final Formatter formatter = new Formatter(builder);
+    /**
+     * The smallest change in value that can change the formatted text, or 0 if any change can.
+     **/
+    private final double displayedStep;
+
+    private String lastText;
+    private String lastTextValue;
+    private double lastSteppedValue;
+    private long lastUpdateTick;
+
+    public TextVariableFormatter(JSONText textDef) {
+        this.textDef = textDef;
+        this.displayedStep = getDisplayedStep(textDef.variableFormat);
+    }
+
+    /**
+     * Returns true if the text should be updated on the passed-in tick.  This is always true if the text has no
+     * update rate, and will otherwise only be true once every rate ticks.  If this returns false, {@link #getText()}
+     * should be used rather than getting the value of the variable.
+     */
+    public boolean shouldUpdate(long tick) {
+        return lastText == null || textDef.variableUpdateRate == 0 || tick - lastUpdateTick >= textDef.variableUpdateRate;
+    }
+
+    /**
+     * Returns the last formatted text.
+     */
+    public String getText() {
+        return lastText;
+    }
+
+    /**
+     * Formats the passed-in numeric value, or returns the prior text if the change in value won't change the text.
+     */
+    public String format(double value, long tick) {
+        lastUpdateTick = tick;
+        double steppedValue = displayedStep != 0 ? Math.floor(value / displayedStep + 0.5) : value;
+        if (lastText == null || lastTextValue != null || Double.compare(steppedValue, lastSteppedValue) != 0) {
+            lastSteppedValue = steppedValue;
+            lastTextValue = null;
+            lastText = doFormat(value);
+        }
+        return lastText;
+    }
+
+    /**
+     * Formats the passed-in text value, or returns the prior text if the value hasn't changed.
+     */
+    public String format(String value, long tick) {
+        lastUpdateTick = tick;
+        if (lastText == null || !value.equals(lastTextValue)) {
+            lastTextValue = value;
+            lastText = doFormat(value);
+        }
+        return lastText;
+    }
+
+    private String doFormat(Object value) {
+        builder.setLength(0);
+        formatter.format(textDef.variableFormat, value);
+        return builder.toString();
+    }
+
+    /**
+     * Returns the step for the passed-in format.  This is only known if all conversions in the format
+     * are fixed-point ones, as for all others, like scientific or general, any change could change the text.
+     */
+    private static double getDisplayedStep(String format) {
+        Matcher matcher = CONVERSION_PATTERN.matcher(format);
+        int maxPrecision = -1;
+        while (matcher.find()) {
+            char conversion = matcher.group(6).charAt(0);
+            if (conversion == '%' || conversion == 'n') {
+                continue;
+            } else if (conversion == 'f' && matcher.group(5) == null) {
+                int precision = matcher.group(4) != null ? Integer.parseInt(matcher.group(4)) : DEFAULT_PRECISION;
+                maxPrecision = Math.max(maxPrecision, precision);
+            } else {
+                return 0;
+            }
+        }
+        return maxPrecision >= 0 ? Math.pow(10, -maxPrecision) : 0;
+    }
+}
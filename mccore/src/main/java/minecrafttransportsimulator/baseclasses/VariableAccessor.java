@@ -0,0 +1,21 @@
+package minecrafttransportsimulator.baseclasses;
+
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+
+/**
+ * A pre-resolved accessor for a variable on an entity.  Accessors are created once per variable name
+ * by {@link AEntityD_Definable#getVariableAccessor(String)}, which does all the string parsing and
+ * dispatching for the variable up-front.  This lets animations query the variable every frame without
+ * any string operations, as they only need to call {@link #getValue(float)} on the accessor they were given.
+ *
+ * @author don_bruce
+ */
+@FunctionalInterface
+public interface VariableAccessor {
+
+    /**
+     * Returns the raw value of the variable.  If the variable is not present, NaN
+     * is returned, just like {@link AEntityD_Definable#getRawVariableValue(String, float)}.
+     */
+    double getValue(float partialTicks);
+}
@@ -0,0 +1,263 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
+import minecrafttransportsimulator.jsondefs.JSONAnimatedObject;
+import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
+import minecrafttransportsimulator.jsondefs.JSONCameraObject;
+import minecrafttransportsimulator.jsondefs.JSONLight;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.jsondefs.JSONSound;
+import minecrafttransportsimulator.jsondefs.JSONSubDefinition;
+import minecrafttransportsimulator.jsondefs.JSONText;
+import minecrafttransportsimulator.jsondefs.JSONVariableModifier;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+
+/**
+ * Registry of variable names to integer slots.  One registry exists for each definition, and is shared between
+ * all {@link VariableStore}s for entities of that definition.  All variable names referenced by the definition's
+ * JSON are interned into slots when the registry is created.  Any other names, such as those set by code or
+ * packets, are interned the first time they are set.  Reads use {@link #findSlot(String)}, which doesn't intern.
+ * Slots are never removed, so a slot obtained from this registry is valid for the life of the definition.
+ * <br><br>
+ * Definition slots are only the same on both sides of the network if both sides have the same definition.
+ * To check this, the server sends its hash of the definition slots with each entity, and the client sends its
+ * hash back the first time it loads an entity of the definition in a world.  Agreement is tracked per connection:
+ * the client only sends slots if its hash matched the server's, and the server only sends slots if every player in
+ * the world has told it their hash matched.  Until then, names are sent, so no packets are lost during the handshake.
+ * <br><br>
+ * Registries are shared between the client and server threads in single-player, so interning is synchronized.
+ * Lookups of existing names are not, as they only need to read from the concurrent name map.
+ *
+ * @author don_bruce
+ */
+public class VariableRegistry {
+    private static final Map<AJSONMultiModelProvider, VariableRegistry> registries = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private volatile int size;
+    private final int definitionSize;
+    private final int tableHash;
+    private final Set<IWrapperPlayer> matchingPlayers = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private volatile AWrapperWorld handshakeWorld;
+    private volatile boolean serverTableMatches;
+
+    private VariableRegistry(AJSONMultiModelProvider definition) {
+        if (definition.constantValues != null) {
+            definition.constantValues.keySet().forEach(this::getSlot);
+        }
+        if (definition.initialVariables != null) {
+            definition.initialVariables.forEach(this::getSlot);
+        }
+        if (definition.definitions != null) {
+            for (JSONSubDefinition subDefinition : definition.definitions) {
+                if (subDefinition.constants != null) {
+                    subDefinition.constants.forEach(this::getSlot);
+                }
+            }
+        }
+        if (definition.variableModifiers != null) {
+            for (JSONVariableModifier modifier : definition.variableModifiers) {
+                getSlot(modifier.variable);
+                internAnimations(modifier.animations);
+            }
+        }
+        if (definition.rendering != null) {
+            if (definition.rendering.customVariables != null) {
+                definition.rendering.customVariables.forEach(this::getSlot);
+            }
+            if (definition.rendering.animatedObjects != null) {
+                for (JSONAnimatedObject animatedDef : definition.rendering.animatedObjects) {
+                    internAnimations(animatedDef.animations);
+                }
+            }
+            if (definition.rendering.lightObjects != null) {
+                for (JSONLight lightDef : definition.rendering.lightObjects) {
+                    internAnimations(lightDef.brightnessAnimations);
+                }
+            }
+            if (definition.rendering.sounds != null) {
+                for (JSONSound soundDef : definition.rendering.sounds) {
+                    internAnimations(soundDef.activeAnimations);
+                    internAnimations(soundDef.volumeAnimations);
+                    internAnimations(soundDef.pitchAnimations);
+                }
+            }
+            if (definition.rendering.particles != null) {
+                for (JSONParticle particleDef : definition.rendering.particles) {
+                    internAnimations(particleDef.activeAnimations);
+                    internAnimations(particleDef.spawningAnimations);
+                }
+            }
+            if (definition.rendering.cameraObjects != null) {
+                for (JSONCameraObject cameraDef : definition.rendering.cameraObjects) {
+                    internAnimations(cameraDef.animations);
+                }
+            }
+            if (definition.rendering.textObjects != null) {
+                for (JSONText textDef : definition.rendering.textObjects) {
+                    if (textDef.variableName != null) {
+                        getSlot(textDef.variableName);
+                    }
+                }
+            }
+        }
+        definitionSize = size;
+        int hash = definitionSize;
+        for (int i = 0; i < definitionSize; ++i) {
+            hash = 31 * hash + names[i].hashCode();
+        }
+        tableHash = hash;
+    }
+
+    /**
+     * Returns the registry for the passed-in definition, creating it if required.
+     */
+    public static VariableRegistry getRegistry(AJSONMultiModelProvider definition) {
+        return registries.computeIfAbsent(definition, VariableRegistry::new);
+    }
+
+    /**
+     * Returns the slot for the passed-in variable name, interning the name if it doesn't have a slot yet.
+     * This should only be used when a slot is needed to set the variable.
+     */
+    public int getSlot(String variable) {
+        Integer slot = slots.get(variable);
+        return slot != null ? slot : intern(variable);
+    }
+
+    /**
+     * Returns the slot for the passed-in variable name, or -1 if it doesn't have one.  Unlike {@link #getSlot(String)},
+     * this never interns the name, so it should be used for reads, as reading a variable that was never set shouldn't
+     * add a slot to every store for this definition.
+     */
+    public int findSlot(String variable) {
+        Integer slot = slots.get(variable);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Returns the slot for the passed-in variable name if it was interned from the definition, or -1 if it
+     * wasn't.  Definition slots are interned in the same order for the same definition, so unlike other slots,
+     * they will match between the client and server and may be used in place of the name in packets.
+     */
+    public int getDefinitionSlot(String variable) {
+        Integer slot = slots.get(variable);
+        return slot != null && slot < definitionSize ? slot : -1;
+    }
+
+    /**
+     * Returns a hash of the names in the definition slots, in slot order.  If this matches the hash on the
+     * other side of the network, definition slots are the same on both sides.
+     */
+    public int getTableHash() {
+        return tableHash;
+    }
+
+    /**
+     * Checks the passed-in hash from the server against this registry's hash.  This is called on the client for
+     * every entity loaded, but only the first call for each world does anything, as that's a new connection or
+     * dimension.  Returns true if that was the case, in which case the client should send its hash to the server.
+     */
+    public synchronized boolean checkServerTableHash(AWrapperWorld clientWorld, int serverTableHash) {
+        if (handshakeWorld != clientWorld) {
+            serverTableMatches = serverTableHash == tableHash;
+            handshakeWorld = clientWorld;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the hash the passed-in player's client sent for this registry.  This is called on the server.
+     * Slots won't be sent to clients until all players in the world have sent a hash that matches ours.
+     */
+    public void setPlayerTableHash(IWrapperPlayer player, int playerTableHash) {
+        if (playerTableHash == tableHash) {
+            matchingPlayers.add(player);
+        } else {
+            matchingPlayers.remove(player);
+        }
+    }
+
+    /**
+     * Returns true if definition slots can be used in packets sent from the passed-in world.  On clients, this is
+     * true once our hash has been checked against the server's and matched.  On servers, this is true if every
+     * player in the world has told us their hash matches ours.
+     */
+    public boolean canSendSlots(AWrapperWorld world) {
+        if (world.isClient()) {
+            return handshakeWorld == world && serverTableMatches;
+        } else {
+            for (IWrapperPlayer player : world.getPlayersByID().values()) {
+                if (!matchingPlayers.contains(player)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Returns true if definition slots in packets received in the passed-in world can be resolved.  Servers can always
+     * resolve them, as clients only send them after finding their hash matches ours.  Clients can only resolve them
+     * if their hash matched the server's, which will always be the case as the server won't send them otherwise.
+     */
+    public boolean canReceiveSlots(AWrapperWorld world) {
+        return !world.isClient() || (handshakeWorld == world && serverTableMatches);
+    }
+
+    /**
+     * Returns the number of slots interned from the definition.  All slots below this are definition slots.
+     */
+    public int getDefinitionSize() {
+        return definitionSize;
+    }
+
+    /**
+     * Returns the variable name for the passed-in slot.
+     */
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Returns the number of slots in this registry.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    private synchronized int intern(String variable) {
+        //Check again, as another thread may have interned this while we were waiting.
+        Integer slot = slots.get(variable);
+        if (slot == null) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+            }
+            names[size] = variable;
+            slot = size++;
+            slots.put(variable, slot);
+        }
+        return slot;
+    }
+
+    private void internAnimations(List<JSONAnimationDefinition> animations) {
+        if (animations != null) {
+            for (JSONAnimationDefinition animation : animations) {
+                if (animation.variable != null) {
+                    getSlot(animation.variable.startsWith("!") ? animation.variable.substring(1) : animation.variable);
+                }
+            }
+        }
+    }
+}
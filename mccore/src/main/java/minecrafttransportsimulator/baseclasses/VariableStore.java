@@ -0,0 +1,130 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Storage for the variables of a single entity.  Variables are addressed by slots obtained from a
+ * {@link VariableRegistry}, and are stored in a primitive array with a separate bitset of which slots
+ * are active.  This avoids both String hashing and Double boxing on every access, as a read is just
+ * a bit check and an array load.  String-based methods are provided for code that doesn't have a slot,
+ * but these should be avoided in any per-tick or per-frame code.  Only setting a variable by name will
+ * give it a slot, so reading names that were never set doesn't grow the registry.
+ * <br><br>
+ * Note that a variable may be active with a value of 0.  This happens for constants that are set to 0,
+ * and is why the active state is tracked separately from the value.
+ *
+ * @author don_bruce
+ */
+public class VariableStore {
+    public final VariableRegistry registry;
+    private double[] values;
+    private final BitSet active;
+
+    public VariableStore(VariableRegistry registry) {
+        this.registry = registry;
+        this.values = new double[registry.getSize()];
+        this.active = new BitSet(values.length);
+    }
+
+    /**
+     * Returns true if the variable in the passed-in slot is active.
+     */
+    public boolean isActive(int slot) {
+        return active.get(slot);
+    }
+
+    /**
+     * Returns the value of the variable in the passed-in slot, or 0 if it is not active.
+     */
+    public double getValue(int slot) {
+        return active.get(slot) ? values[slot] : 0;
+    }
+
+    /**
+     * Sets the value of the variable in the passed-in slot, and marks it as active.
+     */
+    public void setValue(int slot, double value) {
+        if (slot >= values.length) {
+            values = Arrays.copyOf(values, Math.max(slot + 1, registry.getSize()));
+        }
+        values[slot] = value;
+        active.set(slot);
+    }
+
+    /**
+     * Removes the variable in the passed-in slot.  Returns true if it was active prior to removal.
+     */
+    public boolean remove(int slot) {
+        if (active.get(slot)) {
+            active.clear(slot);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * String-based version of {@link #isActive(int)}.
+     */
+    public boolean isActive(String variable) {
+        int slot = registry.findSlot(variable);
+        return slot != -1 && isActive(slot);
+    }
+
+    /**
+     * String-based version of {@link #getValue(int)}.
+     */
+    public double getValue(String variable) {
+        int slot = registry.findSlot(variable);
+        return slot != -1 ? getValue(slot) : 0;
+    }
+
+    /**
+     * String-based version of {@link #setValue(int, double)}.
+     */
+    public void setValue(String variable, double value) {
+        setValue(registry.getSlot(variable), value);
+    }
+
+    /**
+     * String-based version of {@link #remove(int)}.
+     */
+    public boolean remove(String variable) {
+        int slot = registry.findSlot(variable);
+        return slot != -1 && remove(slot);
+    }
+
+    /**
+     * Sets all variables in the passed-in map to their values.
+     */
+    public void putAll(Map<String, Double> variables) {
+        variables.forEach(this::setValue);
+    }
+
+    /**
+     * Removes all active variables whose names match the passed-in filter.
+     */
+    public void removeIf(Predicate<String> filter) {
+        for (int slot = active.nextSetBit(0); slot >= 0; slot = active.nextSetBit(slot + 1)) {
+            if (filter.test(registry.getName(slot))) {
+                active.clear(slot);
+            }
+        }
+    }
+
+    /**
+     * Returns a list of the names of all active variables.  Used for saving.
+     */
+    public List<String> getActiveNames() {
+        List<String> names = new ArrayList<>(active.cardinality());
+        for (int slot = active.nextSetBit(0); slot >= 0; slot = active.nextSetBit(slot + 1)) {
+            names.add(registry.getName(slot));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,79 @@
+package minecrafttransportsimulator.baseclasses;
+
+/**
+ * View frustum of the camera, used to check if things are in view before rendering them.
+ * The planes are taken from the combined projection and model-view matrices, so the frustum is
+ * relative to the origin of those matrices.  This is normally the camera, so things need to be
+ * offset by the camera position before being checked.  This class is pure math, and has no
+ * references to the game or OpenGL, so it may be used anywhere.
+ * <br><br>
+ * The far plane isn't checked, as things past it are handled by render distances instead.
+ *
+ * @author don_bruce
+ */
+public class ViewFrustum {
+    private static final int PLANE_COUNT = 5;
+
+    private final double[] planes = new double[PLANE_COUNT * 4];
+    private final double[] combined = new double[16];
+    private boolean valid;
+
+    /**
+     * Updates the frustum to the passed-in matrices.  These should be in OpenGL column-major order.
+     */
+    public void update(float[] projection, float[] modelView) {
+        //Combined is projection * modelView, both column-major.
+        for (int column = 0; column < 4; ++column) {
+            for (int row = 0; row < 4; ++row) {
+                double value = 0;
+                for (int i = 0; i < 4; ++i) {
+                    value += projection[i * 4 + row] * modelView[column * 4 + i];
+                }
+                combined[column * 4 + row] = value;
+            }
+        }
+
+        //Planes are the last row of the matrix plus or minus the other rows.
+        //Order is left, right, bottom, top, near.
+        setPlane(0, 0, 1);
+        setPlane(1, 0, -1);
+        setPlane(2, 1, 1);
+        setPlane(3, 1, -1);
+        setPlane(4, 2, 1);
+        valid = true;
+    }
+
+    /**
+     * Invalidates the frustum.  Until the next update, all boxes will be treated as inside it.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Returns true if the axis-aligned box with the passed-in center and radius is inside, or partially inside, the frustum.
+     * The center should be relative to the origin of the matrices this frustum was updated with.
+     * This is conservative: boxes near the corners of the frustum may be reported as inside when they aren't.
+     */
+    public boolean isBoxInside(double centerX, double centerY, double centerZ, double widthRadius, double heightRadius, double depthRadius) {
+        if (valid) {
+            for (int i = 0; i < planes.length; i += 4) {
+                double a = planes[i];
+                double b = planes[i + 1];
+                double c = planes[i + 2];
+                double d = planes[i + 3];
+                //Get the distance of the corner that's furthest along the plane normal.  If that's behind the plane, the whole box is.
+                if (a * centerX + b * centerY + c * centerZ + d + Math.abs(a) * widthRadius + Math.abs(b) * heightRadius + Math.abs(c) * depthRadius < 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void setPlane(int planeIndex, int row, int sign) {
+        for (int column = 0; column < 4; ++column) {
+            planes[planeIndex * 4 + column] = combined[column * 4 + 3] + sign * combined[column * 4 + row];
+        }
+    }
+}
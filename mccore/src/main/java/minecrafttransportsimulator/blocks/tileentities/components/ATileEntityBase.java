@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.blocks.tileentities.components;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
@@ -72,16 +73,21 @@ public abstract class ATileEntityBase<JSONDefinition extends AJSONMultiModelProv
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getMaxRenderDistance() {
+        return ConfigSystem.client.renderingSettings.blockRenderDistance.value;
+    }
+
+    @Override
+    protected VariableAccessor createVariableAccessor(String variable) {
         //Check generic block variables.
         switch (variable) {
             case ("redstone_active"):
-                return world.getRedstonePower(position) > 0 ? 1 : 0;
+                return partialTicks -> world.getRedstonePower(position) > 0 ? 1 : 0;
             case ("redstone_level"):
-                return world.getRedstonePower(position);
+                return partialTicks -> world.getRedstonePower(position);
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     /**
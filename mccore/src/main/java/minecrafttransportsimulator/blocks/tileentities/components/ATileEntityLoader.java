@@ -47,15 +47,8 @@ public abstract class ATileEntityLoader extends TileEntityDecor {
 
     protected void updateNearestPart() {
         PartInteractable nearestPart = null;
-        double nearestDistance = 10;
         if (canOperate()) {
-            for (PartInteractable interactablePart : world.getEntitiesOfType(PartInteractable.class)) {
-                if (canLoadPart(interactablePart)) {
-                    if (interactablePart.position.isDistanceToCloserThan(position, nearestDistance)) {
-                        nearestPart = interactablePart;
-                    }
-                }
-            }
+            nearestPart = (PartInteractable) world.nearest(position, 10, entity -> entity instanceof PartInteractable && canLoadPart((PartInteractable) entity));
         }
         if (nearestPart != null) {
             connectToPart(nearestPart);
@@ -3,6 +3,7 @@ package minecrafttransportsimulator.blocks.tileentities.components;
 import java.util.Locale;
 
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityPole;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
@@ -44,37 +45,45 @@ public abstract class ATileEntityPole_Component extends AEntityD_Definable<JSONP
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
-        double value = super.getRawVariableValue(variable, partialTicks);
-        if (!Double.isNaN(value)) {
-            return value;
-        }
-
-        //Check connector variables.
+    protected VariableAccessor createVariableAccessor(String variable) {
+        VariableAccessor poleAccessor;
         if (variable.startsWith("neighbor_present_")) {
+            //Check connector variables.
             Axis connectionAxis = Axis.valueOf(variable.substring("neighbor_present_".length()).toUpperCase(Locale.ROOT));
-            ATileEntityBase<?> otherTile = world.getTileEntity(connectionAxis.getOffsetPoint(position));
-            return otherTile instanceof TileEntityPole ? 1 : 0;
-        }
-        if (variable.startsWith("matching_present_")) {
+            poleAccessor = partialTicks -> {
+                ATileEntityBase<?> otherTile = world.getTileEntity(connectionAxis.getOffsetPoint(position));
+                return otherTile instanceof TileEntityPole ? 1 : 0;
+            };
+        } else if (variable.startsWith("matching_present_")) {
             Axis connectionAxis = Axis.valueOf(variable.substring("matching_present_".length()).toUpperCase(Locale.ROOT));
-            ATileEntityBase<?> otherTile = world.getTileEntity(connectionAxis.getOffsetPoint(position));
-            return otherTile != null && core.definition.systemName.equals(otherTile.definition.systemName) ? 1 : 0;
-        }
-        //Check solid block variables.
-        if (variable.startsWith("solid_present_")) {
+            poleAccessor = partialTicks -> {
+                ATileEntityBase<?> otherTile = world.getTileEntity(connectionAxis.getOffsetPoint(position));
+                return otherTile != null && core.definition.systemName.equals(otherTile.definition.systemName) ? 1 : 0;
+            };
+        } else if (variable.startsWith("solid_present_")) {
+            //Check solid block variables.
             Axis connectionAxis = Axis.valueOf(variable.substring("solid_present_".length()).toUpperCase(Locale.ROOT));
-            return world.isBlockSolid(connectionAxis.getOffsetPoint(position), connectionAxis.getOpposite()) ? 1 : 0;
-        }
-        //Check slab variables.
-        switch (variable) {
-            case ("slab_present_up"):
-                return world.isBlockAboveTopSlab(position) ? 1 : 0;
-            case ("slab_present_down"):
-                return world.isBlockBelowBottomSlab(position) ? 1 : 0;
+            poleAccessor = partialTicks -> world.isBlockSolid(connectionAxis.getOffsetPoint(position), connectionAxis.getOpposite()) ? 1 : 0;
+        } else {
+            //Check slab variables.
+            switch (variable) {
+                case ("slab_present_up"):
+                    poleAccessor = partialTicks -> world.isBlockAboveTopSlab(position) ? 1 : 0;
+                    break;
+                case ("slab_present_down"):
+                    poleAccessor = partialTicks -> world.isBlockBelowBottomSlab(position) ? 1 : 0;
+                    break;
+                default:
+                    return super.createVariableAccessor(variable);
+            }
         }
 
-        return Double.NaN;
+        //Pole variables are only used if the super variables aren't present.
+        VariableAccessor superAccessor = super.createVariableAccessor(variable);
+        return partialTicks -> {
+            double value = superAccessor.getValue(partialTicks);
+            return !Double.isNaN(value) ? value : poleAccessor.getValue(partialTicks);
+        };
     }
 
     @Override
@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.blocks.tileentities.instances;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.blocks.tileentities.components.ITileEntityEnergyCharger;
 import minecrafttransportsimulator.entities.instances.AEntityVehicleE_Powered.FuelTankResult;
 import minecrafttransportsimulator.entities.instances.APart;
@@ -69,20 +70,20 @@ public class TileEntityCharger extends ATileEntityFuelPump implements ITileEntit
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("charger_active"):
-                return connectedVehicle != null ? 1 : 0;
+                return partialTicks -> connectedVehicle != null ? 1 : 0;
             case ("charger_dispensed"):
-                return fuelDispensedThisConnection;
+                return partialTicks -> fuelDispensedThisConnection;
             case ("charger_free"):
-                return isCreative ? 1 : 0;
+                return partialTicks -> isCreative ? 1 : 0;
             case ("charger_purchased"):
-                return fuelPurchased;
+                return partialTicks -> fuelPurchased;
             case ("charger_vehicle_percentage"):
-                return connectedVehicle != null ? connectedVehicle.fuelTank.getFluidLevel() / connectedVehicle.fuelTank.getMaxLevel() : 0;
+                return partialTicks -> connectedVehicle != null ? connectedVehicle.fuelTank.getFluidLevel() / connectedVehicle.fuelTank.getMaxLevel() : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 }
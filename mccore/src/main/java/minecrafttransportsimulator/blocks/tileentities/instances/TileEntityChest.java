@@ -2,6 +2,7 @@ package minecrafttransportsimulator.blocks.tileentities.instances;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.instances.EntityInventoryContainer;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperItemStack;
@@ -51,32 +52,35 @@ public class TileEntityChest extends TileEntityDecor {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
-            case ("inventory_count"): {
-                if (inventory != null) {
-                    return inventory.getCount();
-                } else {
-                    return 0;
-                }
-            }
-            case ("inventory_percent"): {
-                if (inventory != null) {
-                    return inventory.getCount() / (double) inventory.getSize();
-                } else {
-                    return 0;
-                }
-            }
-            case ("inventory_capacity"): {
-                if (inventory != null) {
-                    return inventory.getSize();
-                } else {
-                    return 0;
-                }
-            }
+            case ("inventory_count"):
+                return partialTicks -> {
+                    if (inventory != null) {
+                        return inventory.getCount();
+                    } else {
+                        return 0;
+                    }
+                };
+            case ("inventory_percent"):
+                return partialTicks -> {
+                    if (inventory != null) {
+                        return inventory.getCount() / (double) inventory.getSize();
+                    } else {
+                        return 0;
+                    }
+                };
+            case ("inventory_capacity"):
+                return partialTicks -> {
+                    if (inventory != null) {
+                        return inventory.getSize();
+                    } else {
+                        return 0;
+                    }
+                };
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     @Override
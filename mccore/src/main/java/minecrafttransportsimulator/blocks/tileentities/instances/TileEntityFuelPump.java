@@ -2,6 +2,7 @@ package minecrafttransportsimulator.blocks.tileentities.instances;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.blocks.tileentities.components.ITileEntityFluidTankProvider;
 import minecrafttransportsimulator.entities.instances.AEntityVehicleE_Powered.FuelTankResult;
 import minecrafttransportsimulator.entities.instances.EntityFluidTank;
@@ -126,21 +127,21 @@ public class TileEntityFuelPump extends ATileEntityFuelPump implements ITileEnti
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("fuelpump_active"):
-                return connectedVehicle != null ? 1 : 0;
+                return partialTicks -> connectedVehicle != null ? 1 : 0;
             case ("fuelpump_stored"):
-                return tank.getFluidLevel();
+                return partialTicks -> tank.getFluidLevel();
             case ("fuelpump_dispensed"):
-                return fuelDispensedThisConnection;
+                return partialTicks -> fuelDispensedThisConnection;
             case ("fuelpump_free"):
-                return isCreative ? 1 : 0;
+                return partialTicks -> isCreative ? 1 : 0;
             case ("fuelpump_purchased"):
-                return fuelPurchased;
+                return partialTicks -> fuelPurchased;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package minecrafttransportsimulator.blocks.tileentities.instances;
 
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityPole_Component;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntitySignalController.LightType;
@@ -41,12 +42,12 @@ public class TileEntityPole_TrafficSignal extends ATileEntityPole_Component {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("linked"):
-                return linkedController != null ? 1 : 0;
+                return partialTicks -> linkedController != null ? 1 : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 }
@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.blocks.tileentities.instances;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
@@ -35,17 +36,17 @@ public class TileEntityRadio extends TileEntityDecor {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         //Radio-specific variables.
         switch (variable) {
             case ("radio_active"):
-                return radio.isPlaying() ? 1 : 0;
+                return partialTicks -> radio.isPlaying() ? 1 : 0;
             case ("radio_volume"):
-                return radio.volume;
+                return partialTicks -> radio.volume;
             case ("radio_preset"):
-                return radio.preset;
+                return partialTicks -> radio.preset;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 }
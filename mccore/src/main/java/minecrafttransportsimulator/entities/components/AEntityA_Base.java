@@ -29,6 +29,12 @@ public abstract class AEntityA_Base {
      * A unique ID for this entity.  This is only set when this entity is first spawned, and never changes, even on save/load operations.  Ideal if you need a static reference to the entity.
      **/
     public final UUID uniqueUUID;
+    /**
+     * A per-session ID for this entity.  This is assigned by the server when the entity is created or loaded, and sent to clients with
+     * the entity's data.  Unlike the {@link #uniqueUUID}, this is not stable across saves, but is far smaller to send over the network.
+     * Will be 0 for entities that don't sync, or for client entities that weren't created from server data.
+     **/
+    public final int networkID;
     /**
      * True as long as this entity is part of the world and being ticked.  May be set false internally or externally to remove this entity from the world.
      **/
@@ -59,6 +65,15 @@ public abstract class AEntityA_Base {
         } else {
             this.uniqueUUID = UUID.randomUUID();
         }
+
+        //Servers always assign a new ID, as IDs from prior sessions may be in use.  Clients use what the server sent.
+        if (!shouldSync()) {
+            this.networkID = 0;
+        } else if (!world.isClient()) {
+            this.networkID = world.getNextNetworkID();
+        } else {
+            this.networkID = newlyCreated ? 0 : data.getInteger("networkID");
+        }
     }
 
     /**
@@ -117,6 +132,7 @@ public abstract class AEntityA_Base {
      */
     public IWrapperNBT save(IWrapperNBT data) {
         data.setUUID("uniqueUUID", uniqueUUID);
+        data.setInteger("networkID", networkID);
         return data;
     }
 }
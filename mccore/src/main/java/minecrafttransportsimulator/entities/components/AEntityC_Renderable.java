@@ -1,5 +1,6 @@
 package minecrafttransportsimulator.entities.components;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
@@ -116,6 +117,46 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing {
         }
     }
 
+    /**
+     * Called instead of {@link #render(boolean, float)} when this entity has been culled from rendering.
+     * Nothing is rendered, but partial-tick sounds and particles are still updated, as those don't depend
+     * on us being seen.  Smoke from a vehicle just off-screen, for example, can still drift into view.
+     */
+    public final void renderCulled(float partialTicks) {
+        if (!disableRendering(partialTicks)) {
+            world.beginProfiling("Particles", true);
+            updateParticles(partialTicks);
+            world.endProfiling();
+            world.beginProfiling("Sounds", true);
+            updateSounds(partialTicks);
+            world.endProfiling();
+        }
+    }
+
+    /**
+     * Called once a frame to spawn particles for this entity.  This is called when rendering the main model,
+     * or from {@link #renderCulled(float)} if we weren't rendered.
+     */
+    protected void updateParticles(float partialTicks) {
+        //Nothing to spawn by default.
+    }
+
+    /**
+     * Returns the box that encompasses this entity for render culling.  If this box is out of view, the entity
+     * won't be rendered.  Returns null if this entity has no bounds, in which case it is only culled by distance.
+     */
+    public BoundingBox getRenderBounds() {
+        return null;
+    }
+
+    /**
+     * Returns the max distance, in blocks, from the camera this entity will be rendered at.
+     * Returns 0 if this entity should be rendered at any distance.
+     */
+    public double getMaxRenderDistance() {
+        return 0;
+    }
+
     /**
      * If rendering needs to be skipped for any reason, return true here.
      */
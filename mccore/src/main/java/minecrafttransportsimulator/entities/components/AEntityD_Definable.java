@@ -5,20 +5,25 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TextVariableFormatter;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.entities.instances.APart;
-import minecrafttransportsimulator.entities.instances.EntityParticle;
+import minecrafttransportsimulator.entities.instances.EntityParticleSystem;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.items.components.AItemPack;
 import minecrafttransportsimulator.items.components.AItemSubTyped;
@@ -40,10 +45,12 @@ import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
+import minecrafttransportsimulator.packets.instances.PacketEntityVariableTable;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packloading.PackParser;
-import minecrafttransportsimulator.rendering.AModelParser;
 import minecrafttransportsimulator.rendering.DurationDelayClock;
+import minecrafttransportsimulator.rendering.ModelCache;
+import minecrafttransportsimulator.rendering.ModelLevelsOfDetail;
 import minecrafttransportsimulator.rendering.RenderText;
 import minecrafttransportsimulator.rendering.RenderableModelObject;
 import minecrafttransportsimulator.sound.SoundInstance;
@@ -57,6 +64,8 @@ import minecrafttransportsimulator.systems.ConfigSystem;
  * @author don_bruce
  */
 public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelProvider> extends AEntityC_Renderable {
+    private static final int RADAR_UPDATE_RATE = 20;
+
     /**
      * The pack definition for this entity.  May contain extra sections if the super-classes
      * have them in their respective JSONs.
@@ -79,9 +88,20 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     public final LinkedHashMap<JSONText, String> text = new LinkedHashMap<>();
 
     /**
-     * Map of variables.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.
+     * Store of variables.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.
+     * Slots in this store come from the {@link VariableRegistry} for our definition, so they are shared with all other entities of the same definition.
+     **/
+    protected final VariableStore variables;
+
+    /**
+     * Map of variable names to their accessors.  Populated on first request of a variable via {@link #getVariableAccessor(String)}.
+     **/
+    private final Map<String, VariableAccessor> variableAccessors = new HashMap<>();
+    /**
+     * Map of text definitions to their formatters, by variable name.  Instruments change the variable name of their
+     * text for each part they are for, so the same text definition can need more than one formatter.
      **/
-    protected final Map<String, Double> variables = new HashMap<>();
+    private final Map<JSONText, Map<String, TextVariableFormatter>> textVariableFormatters = new HashMap<>();
 
     private final List<JSONSound> allSoundDefs = new ArrayList<>();
     private final Map<JSONSound, AnimationSwitchbox> soundActiveSwitchboxes = new HashMap<>();
@@ -128,10 +148,15 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     public final Map<String, JSONLight> lightObjectDefinitions = new HashMap<>();
 
     /**
-     * Object lists for models parsed in for this class.  Maps are keyed by the model name.
+     * Object lists for models parsed in for this class.  Maps are keyed by the model key of the level of detail.
      **/
     protected static final Map<String, List<RenderableModelObject>> objectLists = new HashMap<>();
 
+    /**
+     * Levels of detail for models parsed in for this class.  Maps are keyed by the main model location.
+     **/
+    protected static final Map<String, ModelLevelsOfDetail> modelLevels = new HashMap<>();
+
     /**
      * Cached item to prevent pack lookups each item request.  May not be used if this is extended for other mods.
      **/
@@ -140,6 +165,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     //Radar lists.  Only updated once a tick.  Created when first requested via animations.
     public final List<EntityVehicleF_Physics> aircraftOnRadar = new ArrayList<>();
     public final List<EntityVehicleF_Physics> groundersOnRadar = new ArrayList<>();
+    private final Set<EntityVehicleF_Physics> radarContacts = new HashSet<>();
+    private final Set<EntityVehicleF_Physics> radarScanContacts = new HashSet<>();
+    private final Point3D radarSearchVector = new Point3D();
+    private final int radarUpdateOffset = Math.floorMod(networkID != 0 ? networkID : uniqueUUID.hashCode(), RADAR_UPDATE_RATE);
     private final Comparator<AEntityB_Existing> entityComparator = new Comparator<AEntityB_Existing>() {
         @Override
         public int compare(AEntityB_Existing o1, AEntityB_Existing o2) {
@@ -156,8 +185,15 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         String subName = data.getString("subName");
         AItemSubTyped<JSONDefinition> item = PackParser.getItem(data.getString("packID"), data.getString("systemName"), subName);
         this.definition = item != null ? item.definition : generateDefaultDefinition();
+        VariableRegistry registry = VariableRegistry.getRegistry(definition);
+        this.variables = new VariableStore(registry);
         updateSubDefinition(subName);
 
+        //Check our variable slots match the server's, and tell the server our slots so it knows if it can send them to us.
+        if (world.isClient() && !newlyCreated && registry.checkServerTableHash(world, data.getInteger("variableTableHash"))) {
+            InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableTable(this, InterfaceManager.clientInterface.getClientPlayer(), registry.getTableHash()));
+        }
+
         //Load text.
         if (definition.rendering != null && definition.rendering.textObjects != null) {
             for (int i = 0; i < definition.rendering.textObjects.size(); ++i) {
@@ -168,11 +204,11 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 
         //Load variables.
         for (String variableName : data.getStrings("variables")) {
-            variables.put(variableName, data.getDouble(variableName));
+            variables.setValue(variableName, data.getDouble(variableName));
         }
         if (newlyCreated && definition.initialVariables != null) {
             for (String variable : definition.initialVariables) {
-                variables.put(variable, 1D);
+                variables.setValue(variable, 1);
             }
         }
     }
@@ -183,6 +219,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     public AEntityD_Definable(AWrapperWorld world, Point3D position, Point3D motion, Point3D angles, AItemSubTyped<JSONDefinition> creatingItem) {
         super(world, position, motion, angles);
         this.definition = creatingItem.definition;
+        this.variables = new VariableStore(VariableRegistry.getRegistry(definition));
         updateSubDefinition(creatingItem.subDefinition.subName);
     }
 
@@ -200,32 +237,61 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             animationsInitialized = true;
         }
         //Only update radar once a second, and only if we requested it via variables.
-        if (definition.general.radarRange > 0 && ticksExisted % 20 == 0) {
-            Collection<EntityVehicleF_Physics> allVehicles = world.getEntitiesOfType(EntityVehicleF_Physics.class);
-            aircraftOnRadar.clear();
-            groundersOnRadar.clear();
-            Point3D searchVector = new Point3D();
-            Point3D LOSVector = new Point3D();
-            for (EntityVehicleF_Physics vehicle : allVehicles) {
-                searchVector.set(0, 0, definition.general.radarRange).rotate(orientation);
-                LOSVector.set(vehicle.position).subtract(position).normalize();
-                double coneAngle = definition.general.radarWidth;
-                double angle = Math.abs(Math.toDegrees(Math.acos(searchVector.normalize().dotProduct(LOSVector, false))));
-                if (!vehicle.outOfHealth && vehicle != this && (angle < coneAngle && vehicle.position.isDistanceToCloserThan(position, definition.general.radarRange))) {
-                    if (vehicle.definition.motorized.isAircraft) {
-                        aircraftOnRadar.add(vehicle);
-                    } else {
-                        groundersOnRadar.add(vehicle);
-                    }
-                    if (!vehicle.radarsTracking.contains(this)) {
-                        vehicle.radarsTracking.add(this);
+        //Radars are offset by their network ID so they don't all update on the same tick.
+        //IDs are sequential, so this spreads them evenly.  Entities without one use their UUID instead.
+        if (definition.general.radarRange > 0 && (ticksExisted + radarUpdateOffset) % RADAR_UPDATE_RATE == 0) {
+            updateRadar();
+        }
+        world.endProfiling();
+    }
+
+    /**
+     * Updates the radar lists with all vehicles in range and inside the radar cone.  Vehicles that enter or
+     * leave the radar are told so, which lets them track which radars are tracking them without having to check
+     * every radar each tick.
+     */
+    private void updateRadar() {
+        aircraftOnRadar.clear();
+        groundersOnRadar.clear();
+        radarSearchVector.set(0, 0, 1).rotate(orientation);
+        //Compare the cosine of the angle to the contact rather than the angle itself, as this saves an acos per contact.
+        double coneCosine = Math.cos(Math.toRadians(definition.general.radarWidth));
+        world.forEachWithin(position, definition.general.radarRange, entity -> {
+            if (entity instanceof EntityVehicleF_Physics && entity != this) {
+                EntityVehicleF_Physics vehicle = (EntityVehicleF_Physics) entity;
+                if (!vehicle.outOfHealth) {
+                    double deltaX = vehicle.position.x - position.x;
+                    double deltaY = vehicle.position.y - position.y;
+                    double deltaZ = vehicle.position.z - position.z;
+                    double distance = Math.sqrt(deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+                    if (distance > 0 && deltaX * radarSearchVector.x + deltaY * radarSearchVector.y + deltaZ * radarSearchVector.z > coneCosine * distance) {
+                        if (vehicle.definition.motorized.isAircraft) {
+                            aircraftOnRadar.add(vehicle);
+                        } else {
+                            groundersOnRadar.add(vehicle);
+                        }
+                        radarScanContacts.add(vehicle);
                     }
                 }
             }
-            aircraftOnRadar.sort(entityComparator);
-            groundersOnRadar.sort(entityComparator);
+        });
+        aircraftOnRadar.sort(entityComparator);
+        groundersOnRadar.sort(entityComparator);
+
+        //Tell vehicles that left or entered our radar about it.
+        for (EntityVehicleF_Physics contact : radarContacts) {
+            if (!radarScanContacts.contains(contact)) {
+                contact.radarsTracking.remove(this);
+            }
         }
-        world.endProfiling();
+        for (EntityVehicleF_Physics contact : radarScanContacts) {
+            if (!radarContacts.contains(contact)) {
+                contact.radarsTracking.add(this);
+            }
+        }
+        radarContacts.clear();
+        radarContacts.addAll(radarScanContacts);
+        radarScanContacts.clear();
     }
 
     /**
@@ -254,10 +320,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             if (testSubDef.subName.equals(newSubDefName)) {
                 //Remove existing constants, if we have them, then add them, if we have them.
                 if (subDefinition != null && subDefinition.constants != null) {
-                    variables.keySet().removeAll(subDefinition.constants);
+                    subDefinition.constants.forEach(variables::remove);
                 }
                 if (testSubDef.constants != null) {
-                    testSubDef.constants.forEach(var -> variables.put(var, 1D));
+                    testSubDef.constants.forEach(var -> variables.setValue(var, 1));
                 }
                 subDefinition = testSubDef;
                 cachedItem = PackParser.getItem(definition.packID, definition.systemName, subDefinition.subName);
@@ -275,6 +341,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         //Update subdef, in case this was modified.
         updateSubDefinition(subDefinition.subName);
 
+        //Reset variable accessors, as the definition may have changed what they resolve to.
+        variableAccessors.clear();
+        textVariableFormatters.clear();
+
         if (definition.rendering != null && definition.rendering.sounds != null) {
             for (SoundInstance sound : sounds) {
                 sound.stopSound = true;
@@ -387,6 +457,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             //Clear radars.
             aircraftOnRadar.clear();
             groundersOnRadar.clear();
+            for (EntityVehicleF_Physics contact : radarContacts) {
+                contact.radarsTracking.remove(this);
+            }
+            radarContacts.clear();
         }
     }
 
@@ -486,7 +560,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                             if (spawningSwitchbox != null) {
                                 spawningSwitchbox.runSwitchbox(partialTicks, false);
                             }
-                            world.addEntity(new EntityParticle(this, particleDef, spawningPosition, spawningSwitchbox));
+                            EntityParticleSystem.spawn(this, particleDef, spawningPosition, spawningSwitchbox);
                         }
                         lastParticlePosition.set(spawningPosition);
                     }
@@ -499,7 +573,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                             if (spawningSwitchbox != null) {
                                 spawningSwitchbox.runSwitchbox(partialTicks, false);
                             }
-                            world.addEntity(new EntityParticle(this, particleDef, position, spawningSwitchbox));
+                            EntityParticleSystem.spawn(this, particleDef, position, spawningSwitchbox);
                         }
                         lastTickParticleSpawned.put(particleDef, ticksExisted);
                     }
@@ -790,45 +864,90 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 
     /**
      * Returns the raw value for the passed-in variable.  If the variable is not present, NaN
-     * should be returned (calling functions need to account for this!).
-     * This should be extended on all sub-classes for them to provide their own variables.
-     * For all cases of this, the sub-classed variables should be checked first.  If none are
-     * found, then the super() method should be called to return those as a default.
+     * should be returned (calling functions need to account for this!).  This is a facade around
+     * {@link #getVariableAccessor(String)}, so sub-classes should extend {@link #createVariableAccessor(String)}
+     * to provide their own variables rather than this method.
+     */
+    public final double getRawVariableValue(String variable, float partialTicks) {
+        return getVariableAccessor(variable).getValue(partialTicks);
+    }
+
+    /**
+     * Returns the accessor for the passed-in variable.  Accessors are created on the first request
+     * for a variable and then cached, so all string parsing for a variable only happens once.
      */
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public final VariableAccessor getVariableAccessor(String variable) {
+        VariableAccessor accessor = variableAccessors.get(variable);
+        if (accessor == null) {
+            accessor = createVariableAccessor(variable);
+            variableAccessors.put(variable, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * Like {@link #getVariableAccessor(String)}, but for variables used in animations.  This handles
+     * inverted variables prefixed with "!", and returns 0 rather than NaN for variables that are not present.
+     */
+    public final VariableAccessor getAnimationVariableAccessor(String variable) {
+        if (variable.startsWith("!")) {
+            VariableAccessor accessor = getVariableAccessor(variable.substring(1));
+            return partialTicks -> {
+                double value = accessor.getValue(partialTicks);
+                return Double.isNaN(value) || value == 0 ? 1 : 0;
+            };
+        } else {
+            VariableAccessor accessor = getVariableAccessor(variable);
+            return partialTicks -> {
+                double value = accessor.getValue(partialTicks);
+                return Double.isNaN(value) ? 0 : value;
+            };
+        }
+    }
+
+    /**
+     * Creates the accessor for the passed-in variable.  This should be extended on all sub-classes for
+     * them to provide their own variables.  For all cases of this, the sub-classed variables should be
+     * checked first.  If none are found, then the super() method should be called to return those as a default.
+     * Any state that may change during the life of this entity must be checked in the returned accessor,
+     * not when creating it, as accessors are cached until animations are re-initialized.
+     */
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("tick"):
-                return ticksExisted + partialTicks;
+                return partialTicks -> ticksExisted + partialTicks;
             case ("tick_sin"):
-                return Math.sin(Math.toRadians(ticksExisted + partialTicks));
+                return partialTicks -> Math.sin(Math.toRadians(ticksExisted + partialTicks));
             case ("tick_cos"):
-                return Math.cos(Math.toRadians(ticksExisted + partialTicks));
+                return partialTicks -> Math.cos(Math.toRadians(ticksExisted + partialTicks));
             case ("time"):
-                return world.getTime();
+                return partialTicks -> world.getTime();
             case ("random"):
-                return Math.random();
+                return partialTicks -> Math.random();
             case ("rain_strength"):
-                return (int) world.getRainStrength(position);
-            case ("rain_sin"): {
-                int rainStrength = (int) world.getRainStrength(position);
-                return rainStrength > 0 ? Math.sin(rainStrength * Math.toRadians(360 * (ticksExisted + partialTicks) / 20)) / 2D + 0.5 : 0;
-            }
-            case ("rain_cos"): {
-                int rainStrength = (int) world.getRainStrength(position);
-                return rainStrength > 0 ? Math.cos(rainStrength * Math.toRadians(360 * (ticksExisted + partialTicks) / 20)) / 2D + 0.5 : 0;
-            }
+                return partialTicks -> (int) world.getRainStrength(position);
+            case ("rain_sin"):
+                return partialTicks -> {
+                    int rainStrength = (int) world.getRainStrength(position);
+                    return rainStrength > 0 ? Math.sin(rainStrength * Math.toRadians(360 * (ticksExisted + partialTicks) / 20)) / 2D + 0.5 : 0;
+                };
+            case ("rain_cos"):
+                return partialTicks -> {
+                    int rainStrength = (int) world.getRainStrength(position);
+                    return rainStrength > 0 ? Math.cos(rainStrength * Math.toRadians(360 * (ticksExisted + partialTicks) / 20)) / 2D + 0.5 : 0;
+                };
             case ("light_sunlight"):
-                return world.getLightBrightness(position, false);
+                return partialTicks -> world.getLightBrightness(position, false);
             case ("light_total"):
-                return world.getLightBrightness(position, true);
+                return partialTicks -> world.getLightBrightness(position, true);
             case ("terrain_distance"):
-                return world.getHeight(position);
+                return partialTicks -> world.getHeight(position);
             case ("inliquid"):
-                return world.isBlockLiquid(position) ? 1 : 0;
+                return partialTicks -> world.isBlockLiquid(position) ? 1 : 0;
             case ("config_simplethrottle"):
-                return ConfigSystem.client.controlSettings.simpleThrottle.value ? 1 : 0;
+                return partialTicks -> ConfigSystem.client.controlSettings.simpleThrottle.value ? 1 : 0;
             case ("config_innerwindows"):
-                return ConfigSystem.client.renderingSettings.innerWindows.value ? 1 : 0;
+                return partialTicks -> ConfigSystem.client.renderingSettings.innerWindows.value ? 1 : 0;
         }
 
         //Check if this is a cycle variable.
@@ -837,8 +956,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             int offTime = Integer.parseInt(parsedVariable[0]);
             int onTime = Integer.parseInt(parsedVariable[1]);
             int totalTime = offTime + onTime + Integer.parseInt(parsedVariable[2]);
-            long timeInCycle = ticksExisted % totalTime;
-            return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+            return partialTicks -> {
+                long timeInCycle = ticksExisted % totalTime;
+                return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+            };
         }
 
         //Check if this is a text_x_ispresent variable.
@@ -846,10 +967,11 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             if (definition.rendering != null && definition.rendering.textObjects != null) {
                 int textIndex = Integer.parseInt(variable.substring("text_".length(), variable.length() - "_present".length())) - 1;
                 if (definition.rendering.textObjects.size() > textIndex) {
-                    return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
+                    JSONText textDef = definition.rendering.textObjects.get(textIndex);
+                    return partialTicks -> !text.get(textDef).isEmpty() ? 1 : 0;
                 }
             }
-            return 0;
+            return partialTicks -> 0;
         }
 
         //Check if this is a radar variable.
@@ -865,40 +987,76 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                     break;
                 default:
                     //Can't continue, as we expect non-null.
-                    return 0;
+                    return partialTicks -> 0;
             }
             int index = Integer.parseInt(parsedVariable[2]);
-            if (index < radarList.size()) {
-                AEntityB_Existing contact = radarList.get(index);
-                switch (parsedVariable[3]) {
-                    case ("distance"):
-                        return contact.position.distanceTo(position);
-                    case ("direction"):
-                        double delta = Math.toDegrees(Math.atan2(-contact.position.z + position.z, -contact.position.x + position.x)) + 90 + orientation.angles.y;
-                        while (delta < -180)
-                            delta += 360;
-                        while (delta > 180)
-                            delta -= 360;
-                        return delta;
-                    case ("speed"):
-                        return contact.velocity;
-                    case ("altitude"):
-                        return contact.position.y;
-                    case ("angle"):
-                        return -Math.toDegrees(Math.atan2(-contact.position.y + position.y, Math.hypot(-contact.position.z + position.z, -contact.position.x + position.x))) + orientation.angles.x;
-                }
+            switch (parsedVariable[3]) {
+                case ("distance"):
+                    return partialTicks -> index < radarList.size() ? radarList.get(index).position.distanceTo(position) : 0;
+                case ("direction"):
+                    return partialTicks -> {
+                        if (index < radarList.size()) {
+                            AEntityB_Existing contact = radarList.get(index);
+                            double delta = Math.toDegrees(Math.atan2(-contact.position.z + position.z, -contact.position.x + position.x)) + 90 + orientation.angles.y;
+                            while (delta < -180)
+                                delta += 360;
+                            while (delta > 180)
+                                delta -= 360;
+                            return delta;
+                        } else {
+                            return 0;
+                        }
+                    };
+                case ("speed"):
+                    return partialTicks -> index < radarList.size() ? radarList.get(index).velocity : 0;
+                case ("altitude"):
+                    return partialTicks -> index < radarList.size() ? radarList.get(index).position.y : 0;
+                case ("angle"):
+                    return partialTicks -> {
+                        if (index < radarList.size()) {
+                            AEntityB_Existing contact = radarList.get(index);
+                            return -Math.toDegrees(Math.atan2(-contact.position.y + position.y, Math.hypot(-contact.position.z + position.z, -contact.position.x + position.x))) + orientation.angles.x;
+                        } else {
+                            return 0;
+                        }
+                    };
+                default:
+                    return partialTicks -> 0;
             }
-            return 0;
         }
 
-        //Check if this is a generic variable.  This contains lights in most cases.
-        Double variableValue = variables.get(variable);
-        if (variableValue != null) {
-            return variableValue;
+        //Not a hard-coded variable, so this is a generic variable.  This contains lights in most cases.
+        //If we don't find a variable, return NaN.
+        final int slot = variables.registry.findSlot(variable);
+        if (slot != -1) {
+            return partialTicks -> variables.isActive(slot) ? variables.getValue(slot) : Double.NaN;
+        } else {
+            return new UnsetVariableAccessor(variable);
         }
+    }
 
-        //Didn't find a variable.  Return NaN.
-        return Double.NaN;
+    /**
+     * Accessor for generic variables that didn't have a slot when the accessor was created.  Reading a variable
+     * shouldn't give it a slot, so the slot is looked up until the variable is set, and then cached.
+     */
+    private class UnsetVariableAccessor implements VariableAccessor {
+        private final String variable;
+        private int slot = -1;
+
+        private UnsetVariableAccessor(String variable) {
+            this.variable = variable;
+        }
+
+        @Override
+        public double getValue(float partialTicks) {
+            if (slot == -1) {
+                slot = variables.registry.findSlot(variable);
+                if (slot == -1) {
+                    return Double.NaN;
+                }
+            }
+            return variables.isActive(slot) ? variables.getValue(slot) : Double.NaN;
+        }
     }
 
     /**
@@ -926,16 +1084,17 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * the scale parameter as only the variable value should be scaled, not the offset..
      */
     public final double getAnimatedVariableValue(DurationDelayClock clock, double scaleFactor, double offset, float partialTicks) {
-        double value;
-        if (clock.animation.variable.startsWith("!")) {
-            value = getCleanRawVariableValue(clock.animation.variable.substring(1), partialTicks);
-            value = value == 0 ? 1 : 0;
-        } else {
-            value = getRawVariableValue(clock.animation.variable, partialTicks);
-            if (Double.isNaN(value)) {
-                value = 0;
-            }
-        }
+        return getAnimatedVariableValue(clock, clock.variableAccessor, scaleFactor, offset, partialTicks);
+    }
+
+    /**
+     * Like {@link #getAnimatedVariableValue(DurationDelayClock, double, double, float)}, but uses the passed-in
+     * accessor rather than the clock's own.  This allows for re-directing the clock to another variable, as is
+     * done on instruments that apply part-specific animations.  The accessor should come from
+     * {@link #getAnimationVariableAccessor(String)}.
+     */
+    public final double getAnimatedVariableValue(DurationDelayClock clock, VariableAccessor accessor, double scaleFactor, double offset, float partialTicks) {
+        double value = accessor.getValue(partialTicks);
         if (!clock.isUseful) {
             return clampAndScale(value, clock.animation, scaleFactor, offset);
         } else {
@@ -971,15 +1130,26 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 
     /**
      * Returns the value for the passed-in variable, subject to the formatting and factoring in the
-     * text definition.
+     * text definition.  The text is cached, and is only re-formatted if the value changes enough to
+     * change the text, and the update rate in the text definition, if any, has passed.
      */
     public final String getAnimatedTextVariableValue(JSONText textDef, float partialTicks) {
+        Map<String, TextVariableFormatter> formatters = textVariableFormatters.computeIfAbsent(textDef, k -> new HashMap<>());
+        TextVariableFormatter formatter = formatters.get(textDef.variableName);
+        if (formatter == null) {
+            formatter = new TextVariableFormatter(textDef);
+            formatters.put(textDef.variableName, formatter);
+        }
+        if (!formatter.shouldUpdate(ticksExisted)) {
+            return formatter.getText();
+        }
+
         //Check text values first, then animated values.
         String value = getRawTextVariableValue(textDef, 0);
         if (value == null) {
-            return String.format(textDef.variableFormat, getCleanRawVariableValue(textDef.variableName, 0) * textDef.variableFactor);
+            return formatter.format(getCleanRawVariableValue(textDef.variableName, 0) * textDef.variableFactor, ticksExisted);
         } else {
-            return String.format(textDef.variableFormat, value);
+            return formatter.format(value, ticksExisted);
         }
     }
 
@@ -987,10 +1157,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * Helper method to toggle a variable for this entity.
      */
     public void toggleVariable(String variable) {
-        //Try to remove the variable,this requires only one key-search operation, unlike a containsKey followed by a remove.
-        if (variables.remove(variable) == null) {
-            //No key was in this map prior, so this variable was off, set it on.
-            variables.put(variable, 1D);
+        //Try to remove the variable, this requires only one slot lookup, unlike an isActive followed by a remove.
+        if (!variables.remove(variable)) {
+            //Variable wasn't active prior, so this variable was off, set it on.
+            variables.setValue(variable, 1);
         }
     }
 
@@ -999,10 +1169,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      */
     public void setVariable(String variable, double value) {
         if (value == 0) {
-            //Remove variable from the map so we don't have as many to deal with.
+            //Remove variable from the store so we don't have as many to save.
             variables.remove(variable);
         } else {
-            variables.put(variable, value);
+            variables.setValue(variable, value);
         }
     }
 
@@ -1033,21 +1203,15 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * Helper method to get get a variable for this entity.
      */
     public double getVariable(String variable) {
-        Double value = variables.get(variable);
-        if (value == null) {
-            //Don't add the variable to the map, just return 0 here.
-            return 0;
-        } else {
-            return value;
-        }
+        return variables.getValue(variable);
     }
 
     /**
      * Helper method to check if a variable is non-zero.
-     * This is a bit quicker than getting the value due to auto-boxing off the map.
+     * Note that constants set to 0 are still active.
      */
     public boolean isVariableActive(String variable) {
-        return variables.containsKey(variable);
+        return variables.isActive(variable);
     }
 
     /**
@@ -1178,15 +1342,26 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         world.beginProfiling("LightStateUpdates", true);
         updateLightBrightness(partialTicks);
 
-        //Parse model if it hasn't been already.
+        //Get the level of detail to render based on how far we are from the camera.
         world.beginProfiling("MainModel", false);
         String modelLocation = definition.getModelLocation(subDefinition);
-        if (!objectLists.containsKey(modelLocation)) {
-            objectLists.put(modelLocation, AModelParser.generateRenderables(this));
+        ModelLevelsOfDetail levels = modelLevels.get(modelLocation);
+        if (levels == null) {
+            levels = ModelLevelsOfDetail.create(definition, subDefinition, ConfigSystem.client.renderingSettings.autoLOD.value);
+            modelLevels.put(modelLocation, levels);
+        }
+        int level = levels.getLevel(position.distanceTo(InterfaceManager.clientInterface.getClientPlayer().getEyePosition()), ConfigSystem.client.renderingSettings.lodDistanceFactor.value);
+
+        //Parse model for the level if it hasn't been already.
+        String modelKey = levels.getModelKey(level);
+        List<RenderableModelObject> modelObjects = objectLists.get(modelKey);
+        if (modelObjects == null) {
+            modelObjects = levels.generateRenderables(level);
+            objectLists.put(modelKey, modelObjects);
         }
 
         //Render model object individually.
-        for (RenderableModelObject modelObject : objectLists.get(modelLocation)) {
+        for (RenderableModelObject modelObject : modelObjects) {
             modelObject.render(this, transform, blendingEnabled, partialTicks);
         }
 
@@ -1200,14 +1375,19 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                 }
             }
         }
+        world.beginProfiling("Particles", false);
+        updateParticles(partialTicks);
+        world.endProfiling();
+    }
+
+    @Override
+    protected void updateParticles(float partialTicks) {
         //Handle particles.  Need to only do this once per frame-render.  Shaders may have us render multiple times.
         if (!InterfaceManager.clientInterface.isGamePaused() && !(ticksExisted == lastTickParticlesSpawned && partialTicks == lastPartialTickParticlesSpawned)) {
-            world.beginProfiling("Particles", false);
             spawnParticles(partialTicks);
             lastTickParticlesSpawned = ticksExisted;
             lastPartialTickParticlesSpawned = partialTicks;
         }
-        world.endProfiling();
     }
 
     @Override
@@ -1222,10 +1402,17 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     public static void clearObjectCaches(AJSONMultiModelProvider definition) {
         for (JSONSubDefinition subDef : definition.definitions) {
             String modelLocation = definition.getModelLocation(subDef);
-            List<RenderableModelObject> resetObjects = objectLists.remove(modelLocation);
-            if (resetObjects != null) {
-                for (RenderableModelObject modelObject : resetObjects) {
-                    modelObject.destroy();
+            ModelCache.clearCacheFile(modelLocation);
+            ModelLevelsOfDetail levels = modelLevels.remove(modelLocation);
+            if (levels == null) {
+                levels = new ModelLevelsOfDetail(modelLocation);
+            }
+            for (int i = 0; i < levels.getLevelCount(); ++i) {
+                List<RenderableModelObject> resetObjects = objectLists.remove(levels.getModelKey(i));
+                if (resetObjects != null) {
+                    for (RenderableModelObject modelObject : resetObjects) {
+                        modelObject.destroy();
+                    }
                 }
             }
         }
@@ -1237,13 +1424,15 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         data.setString("packID", definition.packID);
         data.setString("systemName", definition.systemName);
         data.setString("subName", subDefinition.subName);
+        data.setInteger("variableTableHash", VariableRegistry.getRegistry(definition).getTableHash());
         int lineNumber = 0;
         for (String textLine : text.values()) {
             data.setString("textLine" + lineNumber++, textLine);
         }
-        data.setStrings("variables", variables.keySet());
-        for (String variableName : variables.keySet()) {
-            data.setDouble(variableName, variables.get(variableName));
+        List<String> activeVariables = variables.getActiveNames();
+        data.setStrings("variables", activeVariables);
+        for (String variableName : activeVariables) {
+            data.setDouble(variableName, variables.getValue(variableName));
         }
         return data;
     }
@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +18,7 @@ import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.items.instances.ItemInstrument;
 import minecrafttransportsimulator.jsondefs.AJSONInteractableEntity;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
@@ -300,15 +300,15 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         if ("damage_percent".equals(variable)) {
-            return damageAmount / definition.general.health;
+            return partialTicks -> damageAmount / definition.general.health;
         } else if ("damage_totaled".equals(variable)) {
-            return outOfHealth ? 1 : 0;
+            return partialTicks -> outOfHealth ? 1 : 0;
         }
 
         //Not a towing variable, check others.
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     /**
@@ -519,14 +519,14 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
 
         //Check for doors to close on locking.
         if (locked) {
-            Iterator<String> iterator = variables.keySet().iterator();
-            while (iterator.hasNext()) {
-                String variable = iterator.next();
+            variables.removeIf(variable -> {
                 if (variable.contains("door")) {
                     InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, variable));
-                    iterator.remove();
+                    return true;
+                } else {
+                    return false;
                 }
-            }
+            });
         }
     }
 
@@ -562,6 +562,11 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         }
     }
 
+    @Override
+    public BoundingBox getRenderBounds() {
+        return encompassingBox;
+    }
+
     @Override
     public void renderBoundingBoxes(TransformationMatrix transform) {
         for (BoundingBox box : interactionBoxes) {
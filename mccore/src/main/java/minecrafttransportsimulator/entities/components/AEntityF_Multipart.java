@@ -2,6 +2,7 @@ package minecrafttransportsimulator.entities.components;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -9,6 +10,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
@@ -16,6 +19,7 @@ import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityBullet;
 import minecrafttransportsimulator.entities.instances.EntityBullet.HitType;
@@ -73,6 +77,12 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      */
     public final List<APart> partsInSlots = new ArrayList<>();
 
+    /**
+     * Cache of suffixed variable names to the part slots they reference, keyed by definition.
+     * Shared between all entities of a definition as the slots only depend on the definition's parts.
+     **/
+    private static final Map<AJSONPartProvider, PartSlotIndex> partSlotIndexes = Collections.synchronizedMap(new WeakHashMap<>());
+
     /**
      * List of block collision boxes, with all part block collision boxes included.
      **/
@@ -98,6 +108,20 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      **/
     public final List<BoundingBox> allDamageCollisionBoxes = new ArrayList<>();
 
+    /**
+     * Map of damage boxes on our parts, to the part that has them.  Used for quick lookup of
+     * the part for a box rather than checking the box lists of each part.
+     **/
+    private final Map<BoundingBox, APart> partsByBox = new HashMap<>();
+
+    /**
+     * Flags for if our {@link #interactionBoxes}, and those of our parts, are in {@link #allInteractionBoxes}.
+     * Used when descending the part hierarchy to only check boxes that are active.
+     **/
+    private boolean ownInteractionBoxesActive;
+    private boolean partInteractionBoxesActive;
+    private final List<BoundingBox> boxQueryResults = new ArrayList<>();
+
     /**
      * Map of part slot boxes.  Key is the box, value is the definition for that slot.
      **/
@@ -377,41 +401,41 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             //Get all collision boxes and check if we hit any of them.
             //Sort them by distance for later.
             TreeMap<Double, BoundingBox> hitBoxes = new TreeMap<>();
-            for (BoundingBox box : allDamageCollisionBoxes) {
-                if (!allPartSlotBoxes.containsKey(box)) {
-                    Point3D delta = box.getIntersectionPoint(pathStart, pathEnd);
-                    if (delta != null) {
-                        double boxDistance = delta.distanceTo(pathStart);
-                        boolean addBox = true;
-                        if (box.groupDef != null) {
-                            //Don't add boxes within the same group.
-                            Iterator<Entry<Double, BoundingBox>> iterator = hitBoxes.entrySet().iterator();
-                            while (iterator.hasNext()) {
-                                Entry<Double, BoundingBox> entry = iterator.next();
-                                BoundingBox otherBox = entry.getValue();
-                                if (otherBox.groupDef == box.groupDef) {
-                                    //If we have more armor, remove the prior box since it won't stop the bullet as much.
-                                    //Otherwise, just use closest box.
-                                    if (box.definition.armorThickness != 0) {
-                                        if (box.definition.armorThickness > otherBox.definition.armorThickness) {
-                                            iterator.remove();
-                                        } else {
-                                            addBox = false;
-                                        }
+            boxQueryResults.clear();
+            getDamageBoxesWithin(movementBounds, boxQueryResults);
+            for (BoundingBox box : boxQueryResults) {
+                Point3D delta = box.getIntersectionPoint(pathStart, pathEnd);
+                if (delta != null) {
+                    double boxDistance = delta.distanceTo(pathStart);
+                    boolean addBox = true;
+                    if (box.groupDef != null) {
+                        //Don't add boxes within the same group.
+                        Iterator<Entry<Double, BoundingBox>> iterator = hitBoxes.entrySet().iterator();
+                        while (iterator.hasNext()) {
+                            Entry<Double, BoundingBox> entry = iterator.next();
+                            BoundingBox otherBox = entry.getValue();
+                            if (otherBox.groupDef == box.groupDef) {
+                                //If we have more armor, remove the prior box since it won't stop the bullet as much.
+                                //Otherwise, just use closest box.
+                                if (box.definition.armorThickness != 0) {
+                                    if (box.definition.armorThickness > otherBox.definition.armorThickness) {
+                                        iterator.remove();
+                                    } else {
+                                        addBox = false;
+                                    }
+                                } else {
+                                    if (entry.getKey() > boxDistance) {
+                                        iterator.remove();
                                     } else {
-                                        if (entry.getKey() > boxDistance) {
-                                            iterator.remove();
-                                        } else {
-                                            addBox = false;
-                                        }
+                                        addBox = false;
                                     }
-                                    break;
                                 }
+                                break;
                             }
                         }
-                        if (addBox) {
-                            hitBoxes.put(delta.distanceTo(pathStart), box);
-                        }
+                    }
+                    if (addBox) {
+                        hitBoxes.put(delta.distanceTo(pathStart), box);
                     }
                 }
             }
@@ -601,25 +625,20 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         //If we have a variable with a suffix, we need to get that part first and pass
-        //it into this method rather than trying to run through the code now.
-        int partNumber = getVariableNumber(variable);
-        if (partNumber != -1) {
-            return getSpecificPartAnimation(variable, partNumber, partialTicks);
-        } else {
-            return super.getRawVariableValue(variable, partialTicks);
-        }
+        //it into the part rather than trying to run through the code now.
+        VariableAccessor partAccessor = createPartVariableAccessor(variable);
+        return partAccessor != null ? partAccessor : super.createVariableAccessor(variable);
     }
 
     @Override
     public void toggleVariable(String variable) {
-        int partNumber = getVariableNumber(variable);
-        if (partNumber != -1) {
-            APart foundPart = getSpecificPart(variable, partNumber);
+        PartSlotVariable slotVariable = getPartSlotVariable(variable);
+        if (slotVariable != null) {
+            APart foundPart = getPartInSlot(slotVariable);
             if (foundPart != null) {
-                variable = variable.substring(0, variable.lastIndexOf("_"));
-                foundPart.toggleVariable(variable);
+                foundPart.toggleVariable(slotVariable.partVariable);
             }
         } else {
             super.toggleVariable(variable);
@@ -628,11 +647,11 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 
     @Override
     public void setVariable(String variable, double value) {
-        int partNumber = getVariableNumber(variable);
-        if (partNumber != -1) {
-            APart foundPart = getSpecificPart(variable, partNumber);
+        PartSlotVariable slotVariable = getPartSlotVariable(variable);
+        if (slotVariable != null) {
+            APart foundPart = getPartInSlot(slotVariable);
             if (foundPart != null) {
-                foundPart.setVariable(variable.substring(0, variable.lastIndexOf("_")), value);
+                foundPart.setVariable(slotVariable.partVariable, value);
             }
         } else {
             super.setVariable(variable, value);
@@ -646,8 +665,22 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * define a number, then -1 is returned.
      */
     public static int getVariableNumber(String variable) {
-        if (variable.matches("^.*_\\d+$")) {
-            return Integer.parseInt(variable.substring(variable.lastIndexOf('_') + 1)) - 1;
+        //Scan back through the trailing digits by hand, this gets called far too often to use a regex.
+        int index = variable.length() - 1;
+        int number = 0;
+        int multiplier = 1;
+        while (index >= 0) {
+            char digit = variable.charAt(index);
+            if (digit >= '0' && digit <= '9') {
+                number += (digit - '0') * multiplier;
+                multiplier *= 10;
+                --index;
+            } else {
+                break;
+            }
+        }
+        if (index >= 0 && index != variable.length() - 1 && variable.charAt(index) == '_') {
+            return number - 1;
         } else {
             return -1;
         }
@@ -838,16 +871,60 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * to know exactly what it went to.
      */
     public APart getPartWithBox(BoundingBox box) {
+        return partsByBox.get(box);
+    }
+
+    /**
+     * Adds all damage boxes on this entity and its parts that intersect the passed-in bounds to the list.
+     * Part slot boxes are not included.  The encompassing boxes of our parts are used as a hierarchy, so
+     * any part whose encompassing box doesn't intersect the bounds is skipped, along with all its parts.
+     * Fake parts aren't part of our encompassing box, so they are always checked.
+     */
+    public void getDamageBoxesWithin(BoundingBox bounds, List<BoundingBox> boxes) {
+        for (BoundingBox box : damageCollisionBoxes) {
+            if (box.intersects(bounds) && !partSlotBoxes.containsKey(box)) {
+                boxes.add(box);
+            }
+        }
         for (APart part : parts) {
-            if (part.allDamageCollisionBoxes.contains(box)) {
-                if (part.damageCollisionBoxes.contains(box)) {
-                    return part;
-                } else {
-                    return part.getPartWithBox(box);
+            if (part.isFake() || part.encompassingBox.intersects(bounds)) {
+                part.getDamageBoxesWithin(bounds, boxes);
+            }
+        }
+    }
+
+    /**
+     * Like {@link #getDamageBoxesWithin(BoundingBox, List)}, but for the boxes in {@link #allInteractionBoxes}.
+     */
+    public void getInteractionBoxesWithin(BoundingBox bounds, List<BoundingBox> boxes) {
+        if (ownInteractionBoxesActive) {
+            for (BoundingBox box : interactionBoxes) {
+                if (box.intersects(bounds)) {
+                    boxes.add(box);
                 }
             }
         }
-        return null;
+        if (partInteractionBoxesActive) {
+            for (APart part : parts) {
+                if (part.isFake() || part.encompassingBox.intersects(bounds)) {
+                    part.getInteractionBoxesWithin(bounds, boxes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes our {@link #interactionBoxes} from {@link #allInteractionBoxes}, and optionally those of our parts.
+     * Should be called after {@link #updateEncompassingBox()} for cases where the boxes shouldn't be clicked.
+     */
+    protected void removeInteractionBoxes(boolean includeParts) {
+        if (includeParts) {
+            allInteractionBoxes.clear();
+            partInteractionBoxesActive = false;
+        } else {
+            allInteractionBoxes.removeAll(interactionBoxes);
+        }
+        ownInteractionBoxesActive = false;
     }
 
     /**
@@ -918,7 +995,11 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
         allPartSlotBoxes.clear();
         allPartSlotBoxes.putAll(partSlotBoxes);
 
+        ownInteractionBoxesActive = true;
+        partInteractionBoxesActive = true;
+
         //Add all part boxes.
+        partsByBox.clear();
         for (APart part : parts) {
             allEntityCollisionBoxes.addAll(part.allEntityCollisionBoxes);
             allBlockCollisionBoxes.addAll(part.allBlockCollisionBoxes);
@@ -926,6 +1007,10 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             allInteractionBoxes.addAll(part.allInteractionBoxes);
             allDamageCollisionBoxes.addAll(part.allDamageCollisionBoxes);
             allPartSlotBoxes.putAll(part.allPartSlotBoxes);
+            partsByBox.putAll(((AEntityF_Multipart<?>) part).partsByBox);
+            for (BoundingBox box : part.damageCollisionBoxes) {
+                partsByBox.put(box, part);
+            }
         }
 
         //Update encompassing bounding box to reflect all bounding boxes of all parts.
@@ -952,46 +1037,120 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
     }
 
     /**
-     * Helper method to return the part at the specific index for the passed-in variable.
-     * Returns null if the part doesn't exist.
+     * Returns the slot the passed-in suffixed variable references, or null if the variable isn't suffixed.
+     * Variables are parsed and resolved against the definition's parts once, and then cached for all
+     * entities with this definition.  The cache is re-built if the parts change due to hotloading.
      */
-    public APart getSpecificPart(String variable, int partNumber) {
-        //Iterate through our parts to find the index of the pack def for the part we want.
-        String partType = variable.substring(0, variable.indexOf("_"));
-        if (partType.equals("part")) {
-            //Shortcut as we can just get the part for the slot.
-            //Check index just in case someone screwed up a JSON.
-            return partNumber < partsInSlots.size() ? partsInSlots.get(partNumber) : null;
-        } else if (definition.parts != null) {
-            for (int i = 0; i < definition.parts.size(); ++i) {
-                JSONPartDefinition partDef = definition.parts.get(i);
-                for (String defPartType : partDef.types) {
-                    if (defPartType.startsWith(partType)) {
-                        if (partNumber == 0) {
-                            return partsInSlots.get(i);
-                        } else {
-                            --partNumber;
+    protected PartSlotVariable getPartSlotVariable(String variable) {
+        PartSlotIndex index = partSlotIndexes.get(definition);
+        if (index == null || index.parts != definition.parts) {
+            index = new PartSlotIndex(definition.parts);
+            partSlotIndexes.put(definition, index);
+        }
+        PartSlotVariable slotVariable = index.slotVariables.computeIfAbsent(variable, index::resolve);
+        return slotVariable != PartSlotVariable.NOT_SUFFIXED ? slotVariable : null;
+    }
+
+    /**
+     * Returns the part in the slot for the passed-in variable, or null if the slot is empty.
+     * This is just a list lookup, as {@link #partsInSlots} is kept current on part addition and removal.
+     */
+    public APart getPartInSlot(PartSlotVariable slotVariable) {
+        return slotVariable.slotIndex >= 0 && slotVariable.slotIndex < partsInSlots.size() ? partsInSlots.get(slotVariable.slotIndex) : null;
+    }
+
+    /**
+     * Helper method to create an accessor for the value of a variable for a specific part,
+     * as determined by the index of that part.  Returns null if the variable isn't for a part.
+     */
+    protected VariableAccessor createPartVariableAccessor(String variable) {
+        PartSlotVariable slotVariable = getPartSlotVariable(variable);
+        return slotVariable != null ? new PartVariableAccessor(slotVariable) : null;
+    }
+
+    /**
+     * A variable that references a specific part slot.  The variable for the part is
+     * the variable without the index suffix.  If the variable doesn't reference a
+     * slot on the definition, the slot index will be -1.
+     */
+    public static class PartSlotVariable {
+        private static final PartSlotVariable NOT_SUFFIXED = new PartSlotVariable(null, -1);
+
+        public final String partVariable;
+        public final int slotIndex;
+
+        private PartSlotVariable(String partVariable, int slotIndex) {
+            this.partVariable = partVariable;
+            this.slotIndex = slotIndex;
+        }
+    }
+
+    /**
+     * Index of variables to part slots for a specific list of part definitions.
+     */
+    private static class PartSlotIndex {
+        private final List<JSONPartDefinition> parts;
+        private final Map<String, PartSlotVariable> slotVariables = new ConcurrentHashMap<>();
+
+        private PartSlotIndex(List<JSONPartDefinition> parts) {
+            this.parts = parts;
+        }
+
+        private PartSlotVariable resolve(String variable) {
+            int partNumber = getVariableNumber(variable);
+            if (partNumber == -1) {
+                return PartSlotVariable.NOT_SUFFIXED;
+            }
+            String partType = variable.substring(0, variable.indexOf("_"));
+            String partVariable = variable.substring(0, variable.lastIndexOf("_"));
+            if (partType.equals("part")) {
+                //Shortcut as we can just use the index as the slot.
+                return new PartSlotVariable(partVariable, partNumber);
+            } else if (parts != null) {
+                //Iterate through our parts to find the index of the pack def for the part we want.
+                for (int i = 0; i < parts.size(); ++i) {
+                    for (String defPartType : parts.get(i).types) {
+                        if (defPartType.startsWith(partType)) {
+                            if (partNumber == 0) {
+                                return new PartSlotVariable(partVariable, i);
+                            } else {
+                                --partNumber;
+                            }
+                            break;
                         }
-                        break;
                     }
                 }
             }
-        }
 
-        //No valid sub-part definitions found.  This is an error, but not one we should crash for.  Return null.
-        return null;
+            //No valid sub-part definitions found.  This is an error, but not one we should crash for.
+            return new PartSlotVariable(partVariable, -1);
+        }
     }
 
     /**
-     * Helper method to return the value of an animation for a specific part, as
-     * determined by the index of that part.
+     * Accessor for variables of a specific part.  The accessor from the part is cached until the part in the slot changes.
      */
-    public double getSpecificPartAnimation(String variable, int partNumber, float partialTicks) {
-        APart foundPart = getSpecificPart(variable, partNumber);
-        if (foundPart != null) {
-            return foundPart.getRawVariableValue(variable.substring(0, variable.lastIndexOf("_")), partialTicks);
-        } else {
-            return 0;
+    private class PartVariableAccessor implements VariableAccessor {
+        private final PartSlotVariable slotVariable;
+        private APart lastPart;
+        private VariableAccessor lastPartAccessor;
+
+        private PartVariableAccessor(PartSlotVariable slotVariable) {
+            this.slotVariable = slotVariable;
+        }
+
+        @Override
+        public double getValue(float partialTicks) {
+            APart foundPart = getPartInSlot(slotVariable);
+            if (foundPart != null) {
+                if (foundPart != lastPart) {
+                    lastPart = foundPart;
+                    lastPartAccessor = foundPart.getVariableAccessor(slotVariable.partVariable);
+                }
+                return lastPartAccessor.getValue(partialTicks);
+            } else {
+                return 0;
+            }
         }
     }
 
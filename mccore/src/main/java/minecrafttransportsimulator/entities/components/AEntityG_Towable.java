@@ -6,6 +6,7 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.guis.components.AGUIBase;
@@ -203,50 +204,54 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         //Check if this is a hookup or hitch variable.
         if (variable.startsWith("connection")) {
             //Format is (hitch/hookup)_groupIndex_connectionIndex_animationType.
-            TowingConnection foundConnection = null;
             String[] variableData = variable.split("_");
             if (variableData.length >= 3) {
-                boolean isHookup = false;
                 int groupIndex = Integer.parseInt(variableData[1]) - 1;
                 int connectionIndex = variableData.length == 4 ? Integer.parseInt(variableData[2]) - 1 : -1;
-                if (towedByConnection != null) {
-                    if (towedByConnection.hookupGroupIndex == groupIndex && (connectionIndex == -1 || towedByConnection.hookupConnectionIndex == connectionIndex)) {
-                        isHookup = true;
-                        foundConnection = towedByConnection;
+                String connectionVariable = variableData[variableData.length == 4 ? 3 : 2];
+                VariableAccessor superAccessor = super.createVariableAccessor(connectionVariable);
+                return partialTicks -> {
+                    TowingConnection foundConnection = null;
+                    boolean isHookup = false;
+                    if (towedByConnection != null) {
+                        if (towedByConnection.hookupGroupIndex == groupIndex && (connectionIndex == -1 || towedByConnection.hookupConnectionIndex == connectionIndex)) {
+                            isHookup = true;
+                            foundConnection = towedByConnection;
+                        }
                     }
-                }
-                if (foundConnection == null && !towingConnections.isEmpty()) {
-                    for (TowingConnection towingConnection : towingConnections) {
-                        if (towingConnection.hitchGroupIndex == groupIndex && (connectionIndex == -1 || towingConnection.hitchConnectionIndex == connectionIndex)) {
-                            foundConnection = towingConnection;
-                            break;
+                    if (foundConnection == null && !towingConnections.isEmpty()) {
+                        for (TowingConnection towingConnection : towingConnections) {
+                            if (towingConnection.hitchGroupIndex == groupIndex && (connectionIndex == -1 || towingConnection.hitchConnectionIndex == connectionIndex)) {
+                                foundConnection = towingConnection;
+                                break;
+                            }
                         }
                     }
-                }
-                variable = variableData[variableData.length == 4 ? 3 : 2];
-                if (foundConnection != null) {
-                    switch (variable) {
-                        case ("connected"):
-                            return 1;
-                        case ("pitch"):
-                            return isHookup ? new Point3D(0, 0, 1).rotate(foundConnection.towingVehicle.orientation).reOrigin(orientation).getAngles(false).x : new Point3D(0, 0, 1).rotate(foundConnection.towedVehicle.orientation).reOrigin(orientation).getAngles(false).x;
-                        case ("yaw"):
-                            return isHookup ? new Point3D(0, 0, 1).rotate(foundConnection.towingVehicle.orientation).reOrigin(orientation).getAngles(false).y : new Point3D(0, 0, 1).rotate(foundConnection.towedVehicle.orientation).reOrigin(orientation).getAngles(false).y;
-                        case ("roll"):
-                            return isHookup ? new Point3D(0, 0, 1).rotate(foundConnection.towingVehicle.orientation).reOrigin(orientation).getAngles(false).z : new Point3D(0, 0, 1).rotate(foundConnection.towedVehicle.orientation).reOrigin(orientation).getAngles(false).z;
+                    if (foundConnection != null) {
+                        switch (connectionVariable) {
+                            case ("connected"):
+                                return 1;
+                            case ("pitch"):
+                                return isHookup ? new Point3D(0, 0, 1).rotate(foundConnection.towingVehicle.orientation).reOrigin(orientation).getAngles(false).x : new Point3D(0, 0, 1).rotate(foundConnection.towedVehicle.orientation).reOrigin(orientation).getAngles(false).x;
+                            case ("yaw"):
+                                return isHookup ? new Point3D(0, 0, 1).rotate(foundConnection.towingVehicle.orientation).reOrigin(orientation).getAngles(false).y : new Point3D(0, 0, 1).rotate(foundConnection.towedVehicle.orientation).reOrigin(orientation).getAngles(false).y;
+                            case ("roll"):
+                                return isHookup ? new Point3D(0, 0, 1).rotate(foundConnection.towingVehicle.orientation).reOrigin(orientation).getAngles(false).z : new Point3D(0, 0, 1).rotate(foundConnection.towedVehicle.orientation).reOrigin(orientation).getAngles(false).z;
+                        }
+                    } else if (connectionVariable.equals("present")) {
+                        return definition.connectionGroups != null && definition.connectionGroups.size() > groupIndex ? 1 : 0;
                     }
-                } else if (variable.equals("present")) {
-                    return definition.connectionGroups != null && definition.connectionGroups.size() > groupIndex ? 1 : 0;
-                }
+                    return superAccessor.getValue(partialTicks);
+                };
             }
         }
 
         //Not a towing variable, check others.
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     @Override
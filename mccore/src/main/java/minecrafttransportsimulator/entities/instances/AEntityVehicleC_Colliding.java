@@ -65,7 +65,7 @@ abstract class AEntityVehicleC_Colliding extends AEntityG_Towable<JSONVehicle> {
         //Only do this once a second to prevent lag.
         if (velocity > 0.5 && ticksExisted % 20 == 0) {
             world.beginProfiling("CloseDoors", false);
-            variables.keySet().removeIf(s -> s.startsWith("door"));
+            variables.removeIf(s -> s.startsWith("door"));
         }
 
         world.endProfiling();
@@ -2,6 +2,7 @@ package minecrafttransportsimulator.entities.instances;
 
 import minecrafttransportsimulator.baseclasses.BezierCurve;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.MovementReplicator;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
@@ -21,7 +22,6 @@ import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
-import minecrafttransportsimulator.packets.instances.PacketVehicleServerMovement;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
@@ -99,6 +99,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
     private final Point3D motionApplied = new Point3D();
     private final RotationMatrix rotationApplied = new RotationMatrix();
     private double pathingApplied;
+    private final MovementReplicator movementReplicator;
 
     private final Point3D tempBoxPosition = new Point3D();
     private final Point3D normalizedGroundVelocityVector = new Point3D();
@@ -117,6 +118,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
         this.clientDeltaR = serverDeltaR.copy();
         this.clientDeltaP = serverDeltaP;
         this.groundDeviceCollective = new VehicleGroundDeviceCollection((EntityVehicleF_Physics) this);
+        this.movementReplicator = new MovementReplicator((EntityVehicleF_Physics) this);
         this.placingPlayer = placingPlayer;
     }
 
@@ -1015,7 +1017,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
             serverDeltaR.add(rotationAdded);
             serverDeltaP += pathingAdded;
         } else {
-            //Internal call, add normally and send packet if needed.
+            //Internal call, add normally and send packets to players that are due for them.
             if (!motionApplied.isZero()) {
                 serverDeltaMApplied.set(motionApplied);
                 serverDeltaM.add(motionApplied);
@@ -1026,8 +1028,9 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
                 }
                 serverDeltaPApplied += pathingApplied;
                 serverDeltaP += pathingApplied;
-                InterfaceManager.packetInterface.sendToAllClients(new PacketVehicleServerMovement((EntityVehicleF_Physics) this, motionApplied, rotationApplied.angles, pathingApplied));
+                movementReplicator.addMovement(motionApplied, rotationApplied.angles, pathingApplied);
             }
+            movementReplicator.sendMovement();
         }
     }
 
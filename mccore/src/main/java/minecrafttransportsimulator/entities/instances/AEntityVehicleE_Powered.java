@@ -67,6 +67,7 @@ public abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving {
 
     //Map containing incoming missiles and radar info, sorted by distance.
     public final List<EntityBullet> missilesIncoming = new ArrayList<>();
+    //Radars add and remove themselves from this list as we enter and leave their range, so it's never stale.
     public final List<AEntityD_Definable<?>> radarsTracking = new ArrayList<>();
 
     public AEntityVehicleE_Powered(AWrapperWorld world, IWrapperPlayer placingPlayer, IWrapperNBT data) {
@@ -186,9 +187,6 @@ public abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving {
         //Update missile list to sort by distance.
         missilesIncoming.sort((missle1, missile2) -> missle1.targetDistance < missile2.targetDistance ? -1 : 1);
 
-        //Check to make sure we are still being tracked.
-        radarsTracking.removeIf(tracker -> !tracker.isValid || (!tracker.aircraftOnRadar.contains(this) && !tracker.groundersOnRadar.contains(this)));
-
         //If we are supposed to de-spawn, do so.
         if (outOfHealth && ConfigSystem.settings.general.vehicleDeathDespawnTime.value > 0) {
             if (++ticksOutOfHealth > ConfigSystem.settings.general.vehicleDeathDespawnTime.value * 20) {
@@ -5,10 +5,12 @@ import java.util.Iterator;
 import java.util.List;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
@@ -285,7 +287,7 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
         //Don't add our interaction boxes to the box list if we aren't active and on the client.
         //Servers need all of these since we might be active for some players and not others.
         if (world.isClient() && !canBeClicked()) {
-            allInteractionBoxes.removeAll(interactionBoxes);
+            removeInteractionBoxes(false);
             return;
         }
 
@@ -297,7 +299,7 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
 	        if (isHoldingWrench || isHoldingScrewdriver) {
 	            //If we are holding a wrench and the part requires a screwdriver, remove interaction boxes so they don't get in the way and vice versa.
 	            if ((isHoldingWrench && definition.generic.mustBeRemovedByScrewdriver) || (isHoldingScrewdriver && !definition.generic.mustBeRemovedByScrewdriver)) {
-	                allInteractionBoxes.removeAll(interactionBoxes);
+	                removeInteractionBoxes(false);
 	                return;
 	            }
 	            //If we are holding a wrench or screwdriver, and the part has children, don't add the interaction boxes.  We can't wrench those parts.
@@ -305,7 +307,7 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
 	            //Again, this only applies on clients for that client player.
 	        	for (APart childPart : parts) {
 	                if (!childPart.isPermanent && !childPart.placementDefinition.allowParentRemoval) {
-	                    allInteractionBoxes.removeAll(interactionBoxes);
+	                    removeInteractionBoxes(false);
 	                    return;
 	                }
 	            }
@@ -551,55 +553,81 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         //If the variable is prefixed with "parent_", then we need to get our parent's value.
         if (variable.startsWith("parent_")) {
-            return entityOn.getRawVariableValue(variable.substring("parent_".length()), partialTicks);
+            return new ParentVariableAccessor(variable.substring("parent_".length()));
         } else if (definition.parts != null) {
             //Check sub-parts for the part with the specified index.
-            int partNumber = getVariableNumber(variable);
-            if (partNumber != -1) {
-                return getSpecificPartAnimation(variable, partNumber, partialTicks);
+            VariableAccessor partAccessor = createPartVariableAccessor(variable);
+            if (partAccessor != null) {
+                return partAccessor;
             }
         }
 
         //Check for generic part variables.
         switch (variable) {
             case ("part_present"):
-                return 1;
+                return partialTicks -> 1;
             case ("part_ismirrored"):
-                return isMirrored ? 1 : 0;
+                return partialTicks -> isMirrored ? 1 : 0;
             case ("part_isspare"):
-                return isSpare ? 1 : 0;
+                return partialTicks -> isSpare ? 1 : 0;
             case ("part_onvehicle"):
-                return vehicleOn != null ? 1 : 0;
+                return partialTicks -> vehicleOn != null ? 1 : 0;
         }
 
         //No variables, check super variables before doing generic forwarding.
         //We need this here for position-specific values, as some
         //super variables care about position, so we can't forward those.
-        double value = super.getRawVariableValue(variable, partialTicks);
-        if (!Double.isNaN(value)) {
-            return value;
-        }
-
-        //If we are down here, we must have not found a part variable.
-        //First check all linked parts in case we want one of theirs.
-        if (!linkedParts.isEmpty() && !checkingLinkedParts) {
-            checkingLinkedParts = true;
-            for (APart part : linkedParts) {
-                value = part.getRawVariableValue(variable, partialTicks);
-                if (!Double.isNaN(value)) {
-                    checkingLinkedParts = false;
-                    return value;
+        VariableAccessor superAccessor = super.createVariableAccessor(variable);
+        ParentVariableAccessor parentAccessor = new ParentVariableAccessor(variable);
+        return partialTicks -> {
+            double value = superAccessor.getValue(partialTicks);
+            if (!Double.isNaN(value)) {
+                return value;
+            }
+
+            //If we are down here, we must have not found a part variable.
+            //First check all linked parts in case we want one of theirs.
+            if (!linkedParts.isEmpty() && !checkingLinkedParts) {
+                checkingLinkedParts = true;
+                for (APart part : linkedParts) {
+                    value = part.getRawVariableValue(variable, partialTicks);
+                    if (!Double.isNaN(value)) {
+                        checkingLinkedParts = false;
+                        return value;
+                    }
                 }
+                checkingLinkedParts = false;
             }
-            checkingLinkedParts = false;
+
+            //Not a linked part variable.
+            //Try to get the parent variable, and return whatever we get, NaN or otherwise.
+            return parentAccessor.getValue(partialTicks);
+        };
+    }
+
+    /**
+     * Accessor for variables of the entity this part is on.  The accessor from the entity is cached until the part is moved to another entity.
+     */
+    private class ParentVariableAccessor implements VariableAccessor {
+        private final String parentVariable;
+        private AEntityF_Multipart<?> lastEntityOn;
+        private VariableAccessor lastEntityAccessor;
+
+        private ParentVariableAccessor(String parentVariable) {
+            this.parentVariable = parentVariable;
         }
 
-        //Not a linked part variable.
-        //Try to get the parent variable, and return whatever we get, NaN or otherwise.
-        return entityOn.getRawVariableValue(variable, partialTicks);
+        @Override
+        public double getValue(float partialTicks) {
+            if (entityOn != lastEntityOn) {
+                lastEntityOn = entityOn;
+                lastEntityAccessor = entityOn.getVariableAccessor(parentVariable);
+            }
+            return lastEntityAccessor.getValue(partialTicks);
+        }
     }
 
     @Override
@@ -613,6 +641,17 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
         return super.disableRendering(partialTicks) || isFake() || isInvisible;
     }
 
+    @Override
+    public BoundingBox getRenderBounds() {
+        //Use master bounds, as those include all parts, and we want to be culled with the rest of the master.
+        return masterEntity.getRenderBounds();
+    }
+
+    @Override
+    public double getMaxRenderDistance() {
+        return masterEntity.getMaxRenderDistance();
+    }
+
     @Override
     public void renderBoundingBoxes(TransformationMatrix transform) {
         if (canBeClicked()) {
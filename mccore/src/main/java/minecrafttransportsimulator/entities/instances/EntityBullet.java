@@ -8,6 +8,7 @@ import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
@@ -68,6 +69,7 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
     private Point3D relativeGunPos;
     private Point3D prevRelativeGunPos;
     private final List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
+    private final List<BoundingBox> proxBoxes = new ArrayList<>();
 
     /**
      * Generic constructor for no target.
@@ -323,14 +325,25 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
                 }
 
                 //Populate multiparts for following functions.
+                //Only get those near our path, padded by our proximity fuze if we have one.
+                Point3D endPoint = position.copy().add(motion);
+                BoundingBox bulletMovementBounds = new BoundingBox(position, endPoint);
+                bulletMovementBounds.widthRadius += definition.bullet.proximityFuze;
+                bulletMovementBounds.heightRadius += definition.bullet.proximityFuze;
+                bulletMovementBounds.depthRadius += definition.bullet.proximityFuze;
                 multiparts.clear();
-                multiparts.addAll(world.getEntitiesOfType(EntityVehicleF_Physics.class));
-                multiparts.addAll(world.getEntitiesOfType(EntityPlacedPart.class));
+                for (AEntityE_Interactable<?> entity : world.queryBox(bulletMovementBounds)) {
+                    //Parts are checked via their multipart, so skip them here.
+                    if (!(entity instanceof APart)) {
+                        multiparts.add((AEntityF_Multipart<?>) entity);
+                    }
+                }
+                bulletMovementBounds.widthRadius -= definition.bullet.proximityFuze;
+                bulletMovementBounds.heightRadius -= definition.bullet.proximityFuze;
+                bulletMovementBounds.depthRadius -= definition.bullet.proximityFuze;
 
                 //Check for collided internal entities.
                 //This is a bit more involved, as we need to check all possible types and check hitbox distance.
-                Point3D endPoint = position.copy().add(motion);
-                BoundingBox bulletMovementBounds = new BoundingBox(position, endPoint);
                 for (AEntityF_Multipart<?> multipart : multiparts) {
                     //Don't attack the entity that has the gun that fired us.
                     if (!multipart.allParts.contains(gun)) {
@@ -442,8 +455,10 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
                                     //Don't attack the entity that has the gun that fired us.
                                     if (!multipart.allParts.contains(gun)) {
                                         if (multipart.encompassingBox.intersects(proxBounds)) {
-                                            //Could have hit this multipart, check all boxes.
-                                            for (BoundingBox box : multipart.allInteractionBoxes) {
+                                            //Could have hit this multipart, check all boxes near us.
+                                            proxBoxes.clear();
+                                            multipart.getInteractionBoxesWithin(proxBounds, proxBoxes);
+                                            for (BoundingBox box : proxBoxes) {
                                                 if (box.globalCenter.isDistanceToCloserThan(proxBounds.globalCenter, definition.bullet.proximityFuze)) {
                                                     targetToHit = box.globalCenter.copy();
                                                     hitType = HitType.VEHICLE;
@@ -636,25 +651,30 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("bullet_hit"):
-                return lastHit != null ? 1 : 0;
+                return partialTicks -> lastHit != null ? 1 : 0;
             case ("bullet_burntime"):
-                return ticksExisted > definition.bullet.burnTime ? 0 : definition.bullet.burnTime - ticksExisted;
+                return partialTicks -> ticksExisted > definition.bullet.burnTime ? 0 : definition.bullet.burnTime - ticksExisted;
             case ("bullet_hit_block"):
-                return HitType.BLOCK == lastHit ? 1 : 0;
+                return partialTicks -> HitType.BLOCK == lastHit ? 1 : 0;
             case ("bullet_hit_entity"):
-                return HitType.ENTITY == lastHit ? 1 : 0;
+                return partialTicks -> HitType.ENTITY == lastHit ? 1 : 0;
             case ("bullet_hit_vehicle"):
-                return HitType.VEHICLE == lastHit ? 1 : 0;
+                return partialTicks -> HitType.VEHICLE == lastHit ? 1 : 0;
             case ("bullet_hit_armor"):
-                return HitType.ARMOR == lastHit ? 1 : 0;
+                return partialTicks -> HitType.ARMOR == lastHit ? 1 : 0;
             case ("bullet_hit_burst"):
-                return HitType.BURST == lastHit ? 1 : 0;
+                return partialTicks -> HitType.BURST == lastHit ? 1 : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
+    }
+
+    @Override
+    public double getMaxRenderDistance() {
+        return ConfigSystem.client.renderingSettings.bulletRenderDistance.value;
     }
 
     @Override
@@ -2,6 +2,7 @@ package minecrafttransportsimulator.entities.instances;
 
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -9,6 +10,7 @@ import java.util.Map;
 import java.util.Random;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
@@ -19,20 +21,24 @@ import minecrafttransportsimulator.jsondefs.JSONParticle.JSONSubParticle;
 import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleRenderingOrientation;
 import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleSpawningOrientation;
 import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.rendering.AModelParser;
 import minecrafttransportsimulator.rendering.RenderableObject;
 import minecrafttransportsimulator.sound.SoundInstance;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
  * Basic particle class.  This mimic's MC's particle logic, except we can manually set
- * movement logic.
+ * movement logic.  The movement and appearance logic is in static methods here, as
+ * {@link minecrafttransportsimulator.rendering.ParticlePool} uses it for pooled particles.
  *
  * @author don_bruce
  */
 public class EntityParticle extends AEntityC_Renderable {
     private static final FloatBuffer STANDARD_RENDER_BUFFER = generateStandardBuffer();
+    private static final List<String> SMOKE_TEXTURES = generateSmokeTextures();
     private static final TransformationMatrix helperTransform = new TransformationMatrix();
     private static final RotationMatrix helperRotation = new RotationMatrix();
     private static final Point3D helperPoint = new Point3D();
@@ -47,8 +53,6 @@ public class EntityParticle extends AEntityC_Renderable {
     private final Point3D initialVelocity;
     private final IWrapperPlayer clientPlayer = InterfaceManager.clientInterface.getClientPlayer();
 
-    private ColorRGB startColor;
-    private ColorRGB endColor;
     private final ColorRGB staticColor;
     private final RenderableObject renderable;
 
@@ -57,7 +61,8 @@ public class EntityParticle extends AEntityC_Renderable {
     private float timeOfNextTexture;
     private int textureIndex;
     private int textureDelayIndex;
-    private List<String> textureList;
+    private final List<String> textures;
+    private final boolean cyclesTextures;
 
     private int timeOfCurrentColor;
     private int timeOfNextColor;
@@ -67,13 +72,9 @@ public class EntityParticle extends AEntityC_Renderable {
     public EntityParticle(AEntityC_Renderable entitySpawning, JSONParticle definition, Point3D spawingPosition, AnimationSwitchbox switchbox) {
         super(entitySpawning.world, spawingPosition, ZERO_FOR_CONSTRUCTOR, ZERO_FOR_CONSTRUCTOR);
 
-        helperTransform.resetTransforms();
+        getSpawnTransform(definition, entitySpawning, switchbox, helperTransform);
         if (definition.spawningOrientation == ParticleSpawningOrientation.ENTITY) {
             orientation.set(entitySpawning.orientation);
-            helperTransform.set(entitySpawning.orientation);
-        }
-        if (switchbox != null) {
-            helperTransform.multiply(switchbox.netMatrix);
         }
 
         if (definition.rot != null) {
@@ -89,29 +90,9 @@ public class EntityParticle extends AEntityC_Renderable {
         }
         prevOrientation.set(orientation);
 
-        if (definition.pos != null) {
-            helperPoint.set(definition.pos).multiply(entitySpawning.scale);
-        } else {
-            helperPoint.set(0, 0, 0);
-        }
-        helperPoint.transform(helperTransform);
+        getSpawnOffset(definition, entitySpawning, helperTransform, helperPoint);
         position.add(helperPoint);
-        if (definition.initialVelocity != null) {
-            if (definition.spreadRandomness != null) {
-                motion.x = 2 * definition.spreadRandomness.x * Math.random() - definition.spreadRandomness.x;
-                motion.y = 2 * definition.spreadRandomness.y * Math.random() - definition.spreadRandomness.y;
-                motion.z = 2 * definition.spreadRandomness.z * Math.random() - definition.spreadRandomness.z;
-                motion.add(definition.initialVelocity);
-            } else {
-                //Add some basic randomness so particles don't all go in a line.
-                motion.x = definition.initialVelocity.x + 0.2 - Math.random() * 0.4;
-                motion.y = definition.initialVelocity.y + 0.2 - Math.random() * 0.4;
-                motion.z = definition.initialVelocity.z + 0.2 - Math.random() * 0.4;
-            }
-            //Scale down by 10 since most of the time we go too fast.
-            motion.scale(1D / 10D);
-            motion.rotate(helperTransform);
-        }
+        getSpawnMotion(definition, helperTransform, motion);
         initialVelocity = motion.copy();
 
         this.entitySpawning = entitySpawning;
@@ -119,73 +100,16 @@ public class EntityParticle extends AEntityC_Renderable {
         boundingBox.widthRadius = definition.hitboxSize / 2D;
         boundingBox.heightRadius = boundingBox.widthRadius;
         boundingBox.depthRadius = boundingBox.widthRadius;
-        this.maxAge = generateMaxAge();
-        if (definition.color != null) {
-            if (definition.toColor != null) {
-                this.startColor = definition.color;
-                this.endColor = definition.toColor;
-                this.timeOfNextColor = maxAge;
-                this.staticColor = null;
-            } else {
-                this.staticColor = definition.color;
-            }
-        } else {
-            if (definition.colorList != null) {
-                if (definition.randomColor) {
-                    colorIndex = particleRandom.nextInt(definition.colorList.size());
-                }
-                startColor = definition.colorList.get(colorIndex);
-                if (colorIndex + 1 < definition.colorList.size()) {
-                    endColor = definition.colorList.get(colorIndex + 1);
-                } else {
-                    endColor = definition.colorList.get(0);
-                }
-
-                if (definition.colorDelays != null) {
-                    timeOfNextColor = definition.colorDelays.get(colorDelayIndex);
-                } else {
-                    timeOfNextColor = maxAge;
-                }
-                this.staticColor = null;
-            } else {
-                this.staticColor = ColorRGB.WHITE;
-            }
-        }
-
-        final String texture;
-        if (definition.texture != null) {
-            texture = definition.texture;
-        } else if (definition.type == ParticleType.BREAK) {
-            texture = RenderableObject.GLOBAL_TEXTURE_NAME;
-        } else if (definition.type == ParticleType.SMOKE) {
-            textureList = new ArrayList<String>();
-            for (int i = 0; i <= 11; ++i) {
-                textureList.add("mts:textures/particles/big_smoke_" + i + ".png");
-            }
-            texture = textureList.get(0);
-            timeOfNextTexture = (int) (maxAge / 12F);
-        } else if (definition.textureList != null) {
-            //Set initial texture delay and texture.
-            textureList = definition.textureList;
-            if (definition.randomTexture) {
-                textureIndex = particleRandom.nextInt(textureList.size());
-            }
-            texture = textureList.get(textureIndex);
-            if (definition.textureDelays != null) {
-                timeOfNextTexture = definition.textureDelays.get(textureDelayIndex);
-            } else {
-                timeOfNextTexture = maxAge;
-            }
-        } else if (definition.type == ParticleType.SMOKE) {
-            textureList = new ArrayList<String>();
-            for (int i = 0; i <= 11; ++i) {
-                textureList.add("mts:textures/particles/big_smoke_" + i + ".png");
-            }
-            texture = textureList.get(0);
-            timeOfNextTexture = maxAge / 12F;
-        } else {
-            texture = "mts:textures/particles/" + definition.type.name().toLowerCase(Locale.ROOT) + ".png";
-        }
+        this.maxAge = generateMaxAge(definition);
+        this.staticColor = getStaticColor(definition);
+        this.colorIndex = getFirstColorIndex(definition);
+        this.timeOfNextColor = getFirstColorTime(definition, maxAge);
+
+        this.textures = getTextures(definition);
+        this.cyclesTextures = cyclesTextures(definition);
+        this.textureIndex = getFirstTextureIndex(definition);
+        this.timeOfNextTexture = getFirstTextureTime(definition, maxAge);
+        final String texture = textures.get(textureIndex);
         this.textureIsTranslucent = texture.toLowerCase(Locale.ROOT).contains(AModelParser.TRANSLUCENT_OBJECT_NAME);
 
         FloatBuffer buffer;
@@ -240,88 +164,19 @@ public class EntityParticle extends AEntityC_Renderable {
 
         //Set movement.
         if (!definition.stopsOnGround || !touchingBlocks) {
-            if (definition.movementDuration != 0) {
-                if (ticksExisted <= definition.movementDuration) {
-                    Point3D velocityLastTick = initialVelocity.copy().scale((definition.movementDuration - (ticksExisted - 1)) / (float) definition.movementDuration);
-                    Point3D velocityThisTick = initialVelocity.copy().scale((definition.movementDuration - ticksExisted) / (float) definition.movementDuration);
-                    motion.add(velocityThisTick).subtract(velocityLastTick);
-                }
-            }
-
-            if (definition.movementVelocity != null) {
-                motion.add(definition.movementVelocity);
-                if (definition.terminalVelocity != null) {
-                    if (motion.x > definition.terminalVelocity.x) {
-                        motion.x = definition.terminalVelocity.x;
-                    }
-                    if (motion.x < -definition.terminalVelocity.x) {
-                        motion.x = -definition.terminalVelocity.x;
-                    }
-                    if (motion.y > definition.terminalVelocity.y) {
-                        motion.y = definition.terminalVelocity.y;
-                    }
-                    if (motion.y < -definition.terminalVelocity.y) {
-                        motion.y = -definition.terminalVelocity.y;
-                    }
-                    if (motion.z > definition.terminalVelocity.z) {
-                        motion.z = definition.terminalVelocity.z;
-                    }
-                    if (motion.z < -definition.terminalVelocity.z) {
-                        motion.z = -definition.terminalVelocity.z;
-                    }
-                }
-            } else {
-                switch (definition.type) {
-                    case SMOKE: {
-                        //Update the motions to make the smoke float up.
-                        motion.x *= 0.9;
-                        motion.y += 0.004;
-                        motion.z *= 0.9;
-                        break;
-                    }
-                    case FLAME: {
-                        //Flame just slowly drifts in the direction it was going.
-                        motion.scale(0.96);
-                        break;
-                    }
-                    case BUBBLE: {
-                        //Bubbles float up until they break the surface of the water, then they pop.
-                        if (!world.isBlockLiquid(position)) {
-                            remove();
-                        } else {
-                            motion.scale(0.85).add(0, 0.002D, 0);
-                        }
-                        break;
-                    }
-                    case BREAK: {
-                        //Breaking just fall down quickly.
-                        if (!touchingBlocks) {
-                            motion.scale(0.98).add(0D, -0.04D, 0D);
-                        } else {
-                            motion.scale(0.0);
-                        }
-                        break;
-                    }
-                    default: {
-                        //No default movement for generic particles.
-                        break;
-                    }
-                }
+            if (!updateMotion(definition, world, position, motion, initialVelocity, ticksExisted, touchingBlocks)) {
+                remove();
+                return;
             }
 
             //Check collision movement.  If we hit a block, don't move.
-            if (!definition.ignoreCollision) {
-                touchingBlocks = boundingBox.updateCollisions(world, motion, true);
-                if (touchingBlocks) {
-                    motion.subtract(boundingBox.currentCollisionDepth);
-                    if (definition.stopsOnGround && definition.groundSounds != null) {
-                        double distance = position.distanceTo(clientPlayer.getPosition());
-                        if (distance < SoundInstance.DEFAULT_MAX_DISTANCE) {
-                            SoundInstance sound = new SoundInstance(this, definition.groundSounds.get(particleRandom.nextInt(definition.groundSounds.size())));
-                            sound.volume = (float) (1 - distance / SoundInstance.DEFAULT_MAX_DISTANCE);
-                            InterfaceManager.soundInterface.playQuickSound(sound);
-                        }
-                    }
+            touchingBlocks = updateCollisions(definition, world, boundingBox, motion, touchingBlocks);
+            if (touchingBlocks && definition.stopsOnGround && definition.groundSounds != null) {
+                double distance = position.distanceTo(clientPlayer.getPosition());
+                if (distance < SoundInstance.DEFAULT_MAX_DISTANCE) {
+                    SoundInstance sound = new SoundInstance(this, definition.groundSounds.get(particleRandom.nextInt(definition.groundSounds.size())));
+                    sound.volume = (float) (1 - distance / SoundInstance.DEFAULT_MAX_DISTANCE);
+                    InterfaceManager.soundInterface.playQuickSound(sound);
                 }
             }
             position.add(motion);
@@ -335,32 +190,20 @@ public class EntityParticle extends AEntityC_Renderable {
         }
 
         //Check if we need to change textures or colors.
-        if (textureList != null && timeOfNextTexture <= ticksExisted) {
-            if (++textureIndex == textureList.size()) {
+        if (cyclesTextures && timeOfNextTexture <= ticksExisted) {
+            if (++textureIndex == textures.size()) {
                 textureIndex = 0;
             }
-            renderable.texture = textureList.get(textureIndex);
-            if (definition.textureDelays != null) {
-                if (++textureDelayIndex == definition.textureDelays.size()) {
-                    textureDelayIndex = 0;
-                }
-                timeOfNextTexture += definition.textureDelays.get(textureDelayIndex);
-            } else {
-                //Assume internal smoke, so use constant delay.
-                timeOfNextTexture += maxAge / 12F;
+            renderable.texture = textures.get(textureIndex);
+            if (definition.textureDelays != null && ++textureDelayIndex == definition.textureDelays.size()) {
+                textureDelayIndex = 0;
             }
+            timeOfNextTexture += getNextTextureTime(definition, textureDelayIndex, maxAge);
         }
         if (definition.colorDelays != null && timeOfNextColor == ticksExisted) {
             if (++colorIndex == definition.colorList.size()) {
                 colorIndex = 0;
             }
-            startColor = definition.colorList.get(colorIndex);
-            if (colorIndex + 1 < definition.colorList.size()) {
-                endColor = definition.colorList.get(colorIndex + 1);
-            } else {
-                endColor = definition.colorList.get(0);
-            }
-
             if (++colorDelayIndex == definition.colorDelays.size()) {
                 colorDelayIndex = 0;
             }
@@ -372,7 +215,7 @@ public class EntityParticle extends AEntityC_Renderable {
         if (definition.subParticles != null) {
             for (JSONSubParticle subDef : definition.subParticles) {
                 if (subDef.particle.spawnEveryTick ? subDef.time >= ticksExisted : subDef.time == ticksExisted) {
-                    world.addEntity(new EntityParticle(this, subDef.particle, position, null));
+                    EntityParticleSystem.spawn(this, subDef.particle, position, null);
                 }
             }
         }
@@ -393,38 +236,23 @@ public class EntityParticle extends AEntityC_Renderable {
         return false;
     }
 
+    @Override
+    public double getMaxRenderDistance() {
+        return ConfigSystem.client.renderingSettings.particleRenderDistance.value;
+    }
+
     @Override
     protected void renderModel(TransformationMatrix transform, boolean blendingEnabled, float partialTicks) {
-        if (definition.toTransparency != 0) {
-            renderable.alpha = interpolate(definition.transparency, definition.toTransparency, (ticksExisted + partialTicks) / maxAge, true, partialTicks);
-        } else {
-            renderable.alpha = definition.transparency != 0 ? definition.transparency : 1.0F;
-        }
-        if (definition.fadeTransparencyTime > maxAge - ticksExisted) {
-            renderable.alpha *= (maxAge - ticksExisted) / (float) definition.fadeTransparencyTime;
-        }
+        float ageFactor = (ticksExisted + partialTicks) / maxAge;
+        int ticksLeft = (int) (maxAge - ticksExisted);
+        renderable.alpha = getAlpha(definition, ageFactor, ticksLeft);
         if (!((definition.model == null || textureIsTranslucent || renderable.alpha < 1.0) ^ blendingEnabled)) {
             renderable.isTranslucent = blendingEnabled;
             if (staticColor == null) {
-                float colorDelta = (ticksExisted + partialTicks - timeOfCurrentColor) / (timeOfNextColor - timeOfCurrentColor);
-                renderable.color.red = interpolate(startColor.red, endColor.red, colorDelta, true, partialTicks);
-                renderable.color.green = interpolate(startColor.green, endColor.green, colorDelta, true, partialTicks);
-                renderable.color.blue = interpolate(startColor.blue, endColor.blue, colorDelta, true, partialTicks);
+                getColor(definition, colorIndex, (ticksExisted + partialTicks - timeOfCurrentColor) / (timeOfNextColor - timeOfCurrentColor), renderable.color);
             }
             renderable.transform.set(transform);
-            double totalScale;
-            if (definition.type == ParticleType.FLAME && definition.scale == 0 && definition.toScale == 0) {
-                totalScale = 1.0F - Math.pow((ticksExisted + partialTicks) / maxAge, 2) / 2F;
-            } else if (definition.toScale != 0) {
-                totalScale = interpolate(definition.scale, definition.toScale, (ticksExisted + partialTicks) / maxAge, false, partialTicks);
-            } else if (definition.scale != 0) {
-                totalScale = definition.scale;
-            } else {
-                totalScale = 1.0;
-            }
-            if (definition.fadeScaleTime > maxAge - ticksExisted) {
-                totalScale *= (maxAge - ticksExisted) / (float) definition.fadeScaleTime;
-            }
+            double totalScale = getScale(definition, ageFactor, ticksLeft);
             renderable.transform.applyScaling(totalScale * entitySpawning.scale.x, totalScale * entitySpawning.scale.y, totalScale * entitySpawning.scale.z);
             renderable.worldLightValue = worldLightValue;
             renderable.render();
@@ -432,22 +260,67 @@ public class EntityParticle extends AEntityC_Renderable {
     }
 
     private void updateOrientation() {
-        if (definition.renderingOrientation == ParticleRenderingOrientation.PLAYER) {
-            orientation.setToVector(clientPlayer.getEyePosition().copy().subtract(position), true);
-        } else if (definition.renderingOrientation == ParticleRenderingOrientation.YAXIS) {
-            Point3D vector = clientPlayer.getEyePosition().copy().subtract(position);
-            vector.y = 0;
-            orientation.setToVector(vector, true);
+        if (definition.renderingOrientation == ParticleRenderingOrientation.PLAYER || definition.renderingOrientation == ParticleRenderingOrientation.YAXIS) {
+            setFacingOrientation(definition, clientPlayer.getEyePosition().copy().subtract(position), orientation);
+        }
+    }
+
+    /**
+     * Sets the passed-in transform to the transform that particles of the passed-in definition spawn with.
+     */
+    public static void getSpawnTransform(JSONParticle definition, AEntityC_Renderable entitySpawning, AnimationSwitchbox switchbox, TransformationMatrix transform) {
+        transform.resetTransforms();
+        if (definition.spawningOrientation == ParticleSpawningOrientation.ENTITY) {
+            transform.set(entitySpawning.orientation);
+        }
+        if (switchbox != null) {
+            transform.multiply(switchbox.netMatrix);
+        }
+    }
+
+    /**
+     * Sets the passed-in offset to the offset from the spawning position that the particle spawns at.
+     */
+    public static void getSpawnOffset(JSONParticle definition, AEntityC_Renderable entitySpawning, TransformationMatrix spawnTransform, Point3D offset) {
+        if (definition.pos != null) {
+            offset.set(definition.pos).multiply(entitySpawning.scale);
+        } else {
+            offset.set(0, 0, 0);
+        }
+        offset.transform(spawnTransform);
+    }
+
+    /**
+     * Sets the passed-in motion to the motion that the particle spawns with.
+     */
+    public static void getSpawnMotion(JSONParticle definition, TransformationMatrix spawnTransform, Point3D motion) {
+        if (definition.initialVelocity != null) {
+            if (definition.spreadRandomness != null) {
+                motion.x = 2 * definition.spreadRandomness.x * Math.random() - definition.spreadRandomness.x;
+                motion.y = 2 * definition.spreadRandomness.y * Math.random() - definition.spreadRandomness.y;
+                motion.z = 2 * definition.spreadRandomness.z * Math.random() - definition.spreadRandomness.z;
+                motion.add(definition.initialVelocity);
+            } else {
+                //Add some basic randomness so particles don't all go in a line.
+                motion.x = definition.initialVelocity.x + 0.2 - Math.random() * 0.4;
+                motion.y = definition.initialVelocity.y + 0.2 - Math.random() * 0.4;
+                motion.z = definition.initialVelocity.z + 0.2 - Math.random() * 0.4;
+            }
+            //Scale down by 10 since most of the time we go too fast.
+            motion.scale(1D / 10D);
+            motion.rotate(spawnTransform);
+        } else {
+            motion.set(0, 0, 0);
         }
     }
 
     /**
      * Gets the max age of the particle.  This tries to use the definition's
      * maxAge, but will use Vanilla values if not set.  This should only be
-     * called once, as the Vanilla values have a random element that means
+     * called once per particle, as the Vanilla values have a random element that means
      * this function will return different values on each call for them.
      */
-    private int generateMaxAge() {
+    public static int generateMaxAge(JSONParticle definition) {
         if (definition.duration != 0) {
             return definition.duration;
         } else {
@@ -465,7 +338,215 @@ public class EntityParticle extends AEntityC_Renderable {
         }
     }
 
-    private float interpolate(float start, float end, float factor, boolean clamp, float partialTicks) {
+    /**
+     * Applies one tick of movement to the passed-in motion, not counting collisions.
+     * Returns false if the particle should be removed instead.
+     */
+    public static boolean updateMotion(JSONParticle definition, AWrapperWorld world, Point3D position, Point3D motion, Point3D initialVelocity, long ticksExisted, boolean touchingBlocks) {
+        if (definition.movementDuration != 0 && ticksExisted <= definition.movementDuration) {
+            float factorLastTick = (definition.movementDuration - (ticksExisted - 1)) / (float) definition.movementDuration;
+            float factorThisTick = (definition.movementDuration - ticksExisted) / (float) definition.movementDuration;
+            motion.x += initialVelocity.x * factorThisTick - initialVelocity.x * factorLastTick;
+            motion.y += initialVelocity.y * factorThisTick - initialVelocity.y * factorLastTick;
+            motion.z += initialVelocity.z * factorThisTick - initialVelocity.z * factorLastTick;
+        }
+
+        if (definition.movementVelocity != null) {
+            motion.add(definition.movementVelocity);
+            if (definition.terminalVelocity != null) {
+                motion.x = Math.max(-definition.terminalVelocity.x, Math.min(definition.terminalVelocity.x, motion.x));
+                motion.y = Math.max(-definition.terminalVelocity.y, Math.min(definition.terminalVelocity.y, motion.y));
+                motion.z = Math.max(-definition.terminalVelocity.z, Math.min(definition.terminalVelocity.z, motion.z));
+            }
+        } else {
+            switch (definition.type) {
+                case SMOKE: {
+                    //Update the motions to make the smoke float up.
+                    motion.x *= 0.9;
+                    motion.y += 0.004;
+                    motion.z *= 0.9;
+                    break;
+                }
+                case FLAME: {
+                    //Flame just slowly drifts in the direction it was going.
+                    motion.scale(0.96);
+                    break;
+                }
+                case BUBBLE: {
+                    //Bubbles float up until they break the surface of the water, then they pop.
+                    if (!world.isBlockLiquid(position)) {
+                        return false;
+                    }
+                    motion.scale(0.85).add(0, 0.002D, 0);
+                    break;
+                }
+                case BREAK: {
+                    //Breaking just fall down quickly.
+                    if (!touchingBlocks) {
+                        motion.scale(0.98).add(0D, -0.04D, 0D);
+                    } else {
+                        motion.scale(0.0);
+                    }
+                    break;
+                }
+                default: {
+                    //No default movement for generic particles.
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes any of the passed-in motion that would move the box into blocks.  Returns true if the box
+     * is touching blocks, or the passed-in state if the definition ignores collisions.
+     */
+    public static boolean updateCollisions(JSONParticle definition, AWrapperWorld world, BoundingBox box, Point3D motion, boolean touchingBlocks) {
+        if (definition.ignoreCollision) {
+            return touchingBlocks;
+        }
+        if (box.updateCollisions(world, motion, true)) {
+            motion.subtract(box.currentCollisionDepth);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sets the passed-in orientation to face along the passed-in vector to the viewer.  The vector
+     * will be flattened for {@link ParticleRenderingOrientation#YAXIS} particles.
+     */
+    public static void setFacingOrientation(JSONParticle definition, Point3D vectorToViewer, RotationMatrix orientation) {
+        if (definition.renderingOrientation == ParticleRenderingOrientation.YAXIS) {
+            vectorToViewer.y = 0;
+        }
+        orientation.setToVector(vectorToViewer, true);
+    }
+
+    /**
+     * Returns the textures for the particle.  If {@link #cyclesTextures(JSONParticle)} is true, the
+     * particle cycles through these, otherwise the list will only have the one texture.
+     */
+    public static List<String> getTextures(JSONParticle definition) {
+        if (definition.texture != null) {
+            return Collections.singletonList(definition.texture);
+        } else if (definition.type == ParticleType.BREAK) {
+            return Collections.singletonList(RenderableObject.GLOBAL_TEXTURE_NAME);
+        } else if (definition.type == ParticleType.SMOKE) {
+            return SMOKE_TEXTURES;
+        } else if (definition.textureList != null) {
+            return definition.textureList;
+        } else {
+            return Collections.singletonList("mts:textures/particles/" + definition.type.name().toLowerCase(Locale.ROOT) + ".png");
+        }
+    }
+
+    public static boolean cyclesTextures(JSONParticle definition) {
+        return definition.texture == null && definition.type != ParticleType.BREAK && (definition.type == ParticleType.SMOKE || definition.textureList != null);
+    }
+
+    public static int getFirstTextureIndex(JSONParticle definition) {
+        return cyclesTextures(definition) && definition.type != ParticleType.SMOKE && definition.randomTexture ? particleRandom.nextInt(definition.textureList.size()) : 0;
+    }
+
+    public static float getFirstTextureTime(JSONParticle definition, int maxAge) {
+        if (!cyclesTextures(definition)) {
+            return 0;
+        } else if (definition.type == ParticleType.SMOKE) {
+            return (int) (maxAge / (float) SMOKE_TEXTURES.size());
+        } else {
+            return definition.textureDelays != null ? definition.textureDelays.get(0) : maxAge;
+        }
+    }
+
+    /**
+     * Returns the time to wait after switching to the next texture before switching again.
+     * The texture delay index should already be incremented for the switch.
+     */
+    public static float getNextTextureTime(JSONParticle definition, int textureDelayIndex, int maxAge) {
+        //Without delays, assume internal smoke, so use constant delay.
+        return definition.textureDelays != null ? definition.textureDelays.get(textureDelayIndex) : maxAge / (float) SMOKE_TEXTURES.size();
+    }
+
+    /**
+     * Returns the color of the particle, or null if the color changes over time and
+     * needs to be calculated via {@link #getColor(JSONParticle, int, float, ColorRGB)}.
+     */
+    public static ColorRGB getStaticColor(JSONParticle definition) {
+        if (definition.color != null) {
+            return definition.toColor != null ? null : definition.color;
+        } else {
+            return definition.colorList != null ? null : ColorRGB.WHITE;
+        }
+    }
+
+    public static int getFirstColorIndex(JSONParticle definition) {
+        return definition.color == null && definition.colorList != null && definition.randomColor ? particleRandom.nextInt(definition.colorList.size()) : 0;
+    }
+
+    public static int getFirstColorTime(JSONParticle definition, int maxAge) {
+        return definition.color == null && definition.colorList != null && definition.colorDelays != null ? definition.colorDelays.get(0) : maxAge;
+    }
+
+    /**
+     * Sets the passed-in color to the color between the current color at the passed-in index and
+     * the next color.  Only valid for definitions without a static color.
+     */
+    public static void getColor(JSONParticle definition, int colorIndex, float colorDelta, ColorRGB color) {
+        ColorRGB startColor;
+        ColorRGB endColor;
+        if (definition.color != null) {
+            startColor = definition.color;
+            endColor = definition.toColor;
+        } else {
+            startColor = definition.colorList.get(colorIndex);
+            endColor = definition.colorList.get(colorIndex + 1 < definition.colorList.size() ? colorIndex + 1 : 0);
+        }
+        color.red = interpolate(startColor.red, endColor.red, colorDelta, true);
+        color.green = interpolate(startColor.green, endColor.green, colorDelta, true);
+        color.blue = interpolate(startColor.blue, endColor.blue, colorDelta, true);
+    }
+
+    /**
+     * Returns the alpha of the particle.  The age factor is the fraction of the max age
+     * the particle has existed for, including partial ticks.
+     */
+    public static float getAlpha(JSONParticle definition, float ageFactor, int ticksLeft) {
+        float alpha;
+        if (definition.toTransparency != 0) {
+            alpha = interpolate(definition.transparency, definition.toTransparency, ageFactor, true);
+        } else {
+            alpha = definition.transparency != 0 ? definition.transparency : 1.0F;
+        }
+        if (definition.fadeTransparencyTime > ticksLeft) {
+            alpha *= ticksLeft / (float) definition.fadeTransparencyTime;
+        }
+        return alpha;
+    }
+
+    /**
+     * Returns the scale of the particle, not counting the scale of the entity that spawned it.
+     * Age factor is the same as {@link #getAlpha(JSONParticle, float, int)}.
+     */
+    public static float getScale(JSONParticle definition, float ageFactor, int ticksLeft) {
+        float scale;
+        if (definition.type == ParticleType.FLAME && definition.scale == 0 && definition.toScale == 0) {
+            scale = 1.0F - ageFactor * ageFactor / 2F;
+        } else if (definition.toScale != 0) {
+            scale = interpolate(definition.scale, definition.toScale, ageFactor, false);
+        } else if (definition.scale != 0) {
+            scale = definition.scale;
+        } else {
+            scale = 1.0F;
+        }
+        if (definition.fadeScaleTime > ticksLeft) {
+            scale *= ticksLeft / (float) definition.fadeScaleTime;
+        }
+        return scale;
+    }
+
+    private static float interpolate(float start, float end, float factor, boolean clamp) {
         float value = start + (end - start) * factor;
         return clamp ? value > 1.0F ? 1.0F : (value < 0.0F ? 0.0F : value) : value;
     }
@@ -549,4 +630,12 @@ public class EntityParticle extends AEntityC_Renderable {
         buffer.flip();
         return buffer;
     }
+
+    private static List<String> generateSmokeTextures() {
+        List<String> textures = new ArrayList<>();
+        for (int i = 0; i <= 11; ++i) {
+            textures.add("mts:textures/particles/big_smoke_" + i + ".png");
+        }
+        return Collections.unmodifiableList(textures);
+    }
 }
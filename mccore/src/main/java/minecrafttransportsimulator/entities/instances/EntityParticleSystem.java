@@ -0,0 +1,199 @@
+package minecrafttransportsimulator.entities.instances;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.ParticlePool;
+import minecrafttransportsimulator.rendering.RenderableObject;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Client-side entity that updates and renders all pooled particles in the world.  There is one of these
+ * per client world, created when the first pooled particle is spawned.  It follows the client player so
+ * it's always rendered, and renders all particles in one pass with one buffer per texture, rather than
+ * one entity and renderable per particle.  Particles with the same texture, color, and lighting are
+ * rendered with one call, so the number of render calls depends on the number of states, not particles.
+ * <br><br>
+ * Particles should always be spawned via {@link #spawn(AEntityC_Renderable, JSONParticle, Point3D, AnimationSwitchbox)},
+ * which will fall back to {@link EntityParticle} for particles that can't be pooled.
+ *
+ * @author don_bruce
+ */
+public class EntityParticleSystem extends AEntityC_Renderable {
+    private static EntityParticleSystem clientSystem;
+
+    private final Map<JSONParticle, ParticlePool> pools = new HashMap<>();
+    private final Map<String, TextureBatch> batches = new HashMap<>();
+    private final IWrapperPlayer clientPlayer = InterfaceManager.clientInterface.getClientPlayer();
+
+    private EntityParticleSystem(AWrapperWorld world) {
+        super(world, InterfaceManager.clientInterface.getClientPlayer().getPosition(), ZERO_FOR_CONSTRUCTOR, ZERO_FOR_CONSTRUCTOR);
+    }
+
+    /**
+     * Spawns the particle from the passed-in entity.  Particles that can be pooled are added to this world's
+     * particle system, all others are spawned as their own {@link EntityParticle}.
+     */
+    public static void spawn(AEntityC_Renderable entitySpawning, JSONParticle definition, Point3D spawningPosition, AnimationSwitchbox switchbox) {
+        if (ParticlePool.canPool(definition)) {
+            if (clientSystem == null || !clientSystem.isValid || clientSystem.world != entitySpawning.world) {
+                clientSystem = new EntityParticleSystem(entitySpawning.world);
+                entitySpawning.world.addEntity(clientSystem);
+            }
+            ParticlePool pool = clientSystem.pools.computeIfAbsent(definition, ParticlePool::new);
+            pool.spawn(entitySpawning, spawningPosition, switchbox, ConfigSystem.client.renderingSettings.particleBudget.value, definition.type == ParticleType.BREAK ? InterfaceManager.renderingInterface.getBlockBreakTexture(entitySpawning.world, entitySpawning.position) : null);
+        } else {
+            entitySpawning.world.addEntity(new EntityParticle(entitySpawning, definition, spawningPosition, switchbox));
+        }
+    }
+
+    @Override
+    public void update() {
+        super.update();
+        //Follow the player, since we need to be rendered wherever they are.
+        position.set(clientPlayer.getPosition());
+        world.beginProfiling("ParticleUpdates", true);
+        for (ParticlePool pool : pools.values()) {
+            pool.update(world);
+            pool.updateLighting(InterfaceManager.renderingInterface::getLightingAtPosition);
+        }
+        world.endProfiling();
+    }
+
+    @Override
+    public void remove() {
+        super.remove();
+        for (ParticlePool pool : pools.values()) {
+            pool.clear();
+        }
+        pools.clear();
+        if (clientSystem == this) {
+            clientSystem = null;
+        }
+    }
+
+    @Override
+    public boolean shouldSync() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldSavePosition() {
+        return false;
+    }
+
+    @Override
+    public void renderBoundingBoxes(TransformationMatrix transform) {
+        //We're not a real object, so we have no bounding box to render.
+    }
+
+    @Override
+    protected void renderModel(TransformationMatrix transform, boolean blendingEnabled, float partialTicks) {
+        //Particles are always translucent, so only render on the blending pass.
+        if (!blendingEnabled) {
+            return;
+        }
+        Point3D eyePosition = clientPlayer.getEyePosition();
+        for (TextureBatch batch : batches.values()) {
+            batch.reset();
+        }
+        for (ParticlePool pool : pools.values()) {
+            int renderCount = pool.sortForRender(partialTicks);
+            TextureBatch batch = null;
+            long currentKey = -1;
+            for (int i = 0; i < renderCount; ++i) {
+                long key = pool.getRenderKey(i);
+                if (key != currentKey) {
+                    if (batch != null) {
+                        batch.renderGroup(transform);
+                    }
+                    currentKey = key;
+                    batch = batches.computeIfAbsent(pool.getTexture(ParticlePool.getKeyTextureIndex(key)), TextureBatch::new);
+                    batch.startGroup(pool, key);
+                }
+                batch.ensureCapacity();
+                pool.writeVertices(i, batch.buffer, partialTicks, eyePosition, position);
+            }
+            if (batch != null) {
+                batch.renderGroup(transform);
+            }
+        }
+    }
+
+    /**
+     * Buffer of vertices for all particles with a texture.  Each group of particles with the same render state
+     * is rendered with its own renderable, whose vertices are a view of the part of the buffer the group was written to.
+     * Renderables are kept between frames, so no objects are created once the buffer is large enough.
+     */
+    private static class TextureBatch {
+        private static final int INITIAL_PARTICLES = 256;
+
+        private final String texture;
+        private final List<RenderableObject> renderables = new ArrayList<>();
+        private FloatBuffer buffer;
+        private int groupIndex;
+        private int groupStart;
+
+        private TextureBatch(String texture) {
+            this.texture = texture;
+            this.buffer = ByteBuffer.allocateDirect(INITIAL_PARTICLES * ParticlePool.FLOATS_PER_PARTICLE * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+
+        private void reset() {
+            buffer.clear();
+            groupIndex = 0;
+        }
+
+        private void startGroup(ParticlePool pool, long key) {
+            if (groupIndex == renderables.size()) {
+                renderables.add(new RenderableObject("particle", texture, new ColorRGB(), buffer.duplicate(), false));
+            }
+            RenderableObject renderable = renderables.get(groupIndex);
+            renderable.color.red = ParticlePool.getKeyRed(key);
+            renderable.color.green = ParticlePool.getKeyGreen(key);
+            renderable.color.blue = ParticlePool.getKeyBlue(key);
+            renderable.alpha = ParticlePool.getKeyAlpha(key);
+            renderable.worldLightValue = ParticlePool.getKeyLightValue(key);
+            renderable.disableLighting = pool.disableLighting;
+            renderable.ignoreWorldShading = true;
+            renderable.isTranslucent = true;
+            groupStart = buffer.position();
+        }
+
+        private void ensureCapacity() {
+            if (buffer.remaining() < ParticlePool.FLOATS_PER_PARTICLE) {
+                //Prior groups have already been rendered, so only the current group needs to be copied.
+                FloatBuffer newBuffer = ByteBuffer.allocateDirect(buffer.capacity() * 2 * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+                buffer.flip();
+                newBuffer.put(buffer);
+                buffer = newBuffer;
+                for (RenderableObject renderable : renderables) {
+                    renderable.vertices = buffer.duplicate();
+                }
+            }
+        }
+
+        private void renderGroup(TransformationMatrix transform) {
+            RenderableObject renderable = renderables.get(groupIndex++);
+            renderable.vertices.limit(buffer.position());
+            renderable.vertices.position(groupStart);
+            renderable.transform.set(transform);
+            renderable.render();
+        }
+    }
+}
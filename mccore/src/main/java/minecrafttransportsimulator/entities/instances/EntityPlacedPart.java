@@ -126,6 +126,11 @@ public class EntityPlacedPart extends AEntityF_Multipart<JSONDummyPartProvider>
         return ConfigSystem.client.renderingSettings.vehicleBeams.value;
     }
 
+    @Override
+    public double getMaxRenderDistance() {
+        return ConfigSystem.client.renderingSettings.blockRenderDistance.value;
+    }
+
     @Override
     public boolean disableRendering(float partialTicks) {
         //Don't render the placed part entity.  Only render the part itself.
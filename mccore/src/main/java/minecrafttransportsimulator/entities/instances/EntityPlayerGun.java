@@ -298,6 +298,12 @@ public class EntityPlayerGun extends AEntityF_Multipart<JSONDummyPartProvider> {
         }
     }
 
+    @Override
+    public BoundingBox getRenderBounds() {
+        //Never cull the gun, it's in our hands or someone else's, and its bounds don't follow the hand.
+        return null;
+    }
+
     @Override
     public boolean disableRendering(float partialTicks) {
         //Don't render the player gun entity.  Only render the gun itself.
@@ -8,6 +8,7 @@ import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.jsondefs.JSONVariableModifier;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
@@ -780,109 +781,121 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         //If we are a forwarded variable and are a connected trailer, do that now.
-        if (definition.motorized.isTrailer && towedByConnection != null && definition.motorized.hookupVariables.contains(variable)) {
-            return towedByConnection.towingVehicle.getRawVariableValue(variable, partialTicks);
+        VariableAccessor vehicleAccessor = createVehicleVariableAccessor(variable);
+        if (definition.motorized.isTrailer && definition.motorized.hookupVariables.contains(variable)) {
+            return partialTicks -> towedByConnection != null ? towedByConnection.towingVehicle.getRawVariableValue(variable, partialTicks) : vehicleAccessor.getValue(partialTicks);
         }
 
         //Not a part of a forwarded variable.  Just return normally.
+        return vehicleAccessor;
+    }
+
+    /**
+     * Helper method to create accessors for vehicle variables, not counting any forwarded from towing vehicles.
+     */
+    private VariableAccessor createVehicleVariableAccessor(String variable) {
         switch (variable) {
             //Vehicle world state cases.
             case ("yaw"):
-                return orientation.angles.y;
+                return partialTicks -> orientation.angles.y;
             case ("heading"):
-                double heading = -orientation.angles.y;
-                if (ConfigSystem.client.controlSettings.north360.value)
-                    heading += 180;
-                while (heading < 0)
-                    heading += 360;
-                while (heading > 360)
-                    heading -= 360;
-                return heading;
+                return partialTicks -> {
+                    double heading = -orientation.angles.y;
+                    if (ConfigSystem.client.controlSettings.north360.value)
+                        heading += 180;
+                    while (heading < 0)
+                        heading += 360;
+                    while (heading > 360)
+                        heading -= 360;
+                    return heading;
+                };
             case ("pitch"):
-                return orientation.angles.x;
+                return partialTicks -> orientation.angles.x;
             case ("roll"):
-                return orientation.angles.z;
+                return partialTicks -> orientation.angles.z;
             case ("altitude"):
-                return position.y;
+                return partialTicks -> position.y;
             case ("speed"):
-                return indicatedSpeed;
+                return partialTicks -> indicatedSpeed;
             case ("speed_scaled"):
-                return indicatedSpeed / speedFactor;
+                return partialTicks -> indicatedSpeed / speedFactor;
             case ("speed_factor"):
-                return speedFactor;
+                return partialTicks -> speedFactor;
             case ("acceleration"):
-                double acceleration = motion.length() - prevMotion.length();
-                return acceleration > 0.025 || acceleration < -0.025 ? acceleration : 0;
+                return partialTicks -> {
+                    double acceleration = motion.length() - prevMotion.length();
+                    return acceleration > 0.025 || acceleration < -0.025 ? acceleration : 0;
+                };
             case ("road_angle_front"):
-                return frontFollower != null ? frontFollower.getCurrentYaw() - orientation.angles.y : 0;
+                return partialTicks -> frontFollower != null ? frontFollower.getCurrentYaw() - orientation.angles.y : 0;
             case ("road_angle_rear"):
-                return rearFollower != null ? rearFollower.getCurrentYaw() - orientation.angles.y : 0;
+                return partialTicks -> rearFollower != null ? rearFollower.getCurrentYaw() - orientation.angles.y : 0;
 
             //Vehicle state cases.
             case("autopilot_present"):
-                return definition.motorized.hasAutopilot ? 1 : 0;
+                return partialTicks -> definition.motorized.hasAutopilot ? 1 : 0;
             case ("fuel"):
-                return fuelTank.getFluidLevel() / fuelTank.getMaxLevel();
+                return partialTicks -> fuelTank.getFluidLevel() / fuelTank.getMaxLevel();
             case ("mass"):
-                return currentMass;
+                return partialTicks -> currentMass;
             case ("electric_power"):
-                return electricPower;
+                return partialTicks -> electricPower;
             case ("electric_usage"):
-                return electricFlow * 20D;
+                return partialTicks -> electricFlow * 20D;
             case ("engines_on"):
-                return enginesOn ? 1 : 0;
+                return partialTicks -> enginesOn ? 1 : 0;
             case ("engines_starting"):
-                return enginesStarting ? 1 : 0;
+                return partialTicks -> enginesStarting ? 1 : 0;
             case ("engines_running"):
-                return enginesRunning ? 1 : 0;
+                return partialTicks -> enginesRunning ? 1 : 0;
             case ("reverser"):
-                return reverseThrust ? 1 : 0;
+                return partialTicks -> reverseThrust ? 1 : 0;
             case ("reverser_present"):
-                return hasReverseThrust ? 1 : 0;
+                return partialTicks -> hasReverseThrust ? 1 : 0;
             case ("locked"):
-                return locked ? 1 : 0;
+                return partialTicks -> locked ? 1 : 0;
             case ("door"):
-                return parkingBrakeOn && velocity < 0.25 ? 1 : 0;
+                return partialTicks -> parkingBrakeOn && velocity < 0.25 ? 1 : 0;
             case ("fueling"):
-                return beingFueled ? 1 : 0;
+                return partialTicks -> beingFueled ? 1 : 0;
 
             //State cases generally used on aircraft.
             case ("flaps_actual"):
-                return flapCurrentAngle;
+                return partialTicks -> flapCurrentAngle;
             case ("flaps_moving"):
-                return flapCurrentAngle != flapDesiredAngle ? 1 : 0;
+                return partialTicks -> flapCurrentAngle != flapDesiredAngle ? 1 : 0;
             case ("vertical_speed"):
-                return motion.y * speedFactor * 20;
+                return partialTicks -> motion.y * speedFactor * 20;
             case ("lift_reserve"):
-                return -trackAngle;
+                return partialTicks -> -trackAngle;
             case ("turn_coordinator"):
-                return ((rotation.angles.z) / 10 + rotation.angles.y) / 0.15D * 25;
+                return partialTicks -> ((rotation.angles.z) / 10 + rotation.angles.y) / 0.15D * 25;
             case ("turn_indicator"):
-                return (rotation.angles.y) / 0.15F * 25F;
+                return partialTicks -> (rotation.angles.y) / 0.15F * 25F;
             case ("pitch_indicator"):
-                return (rotation.angles.x) / 0.15F * 25F;
+                return partialTicks -> (rotation.angles.x) / 0.15F * 25F;
             case ("slip"):
-                return 75 * sideVector.dotProduct(normalizedVelocityVector, true);
+                return partialTicks -> 75 * sideVector.dotProduct(normalizedVelocityVector, true);
             case ("gear_present"):
-                return definition.motorized.gearSequenceDuration != 0 ? 1 : 0;
+                return partialTicks -> definition.motorized.gearSequenceDuration != 0 ? 1 : 0;
             case ("gear_moving"):
-                return (isVariableActive(GEAR_VARIABLE) ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
+                return partialTicks -> (isVariableActive(GEAR_VARIABLE) ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
             case ("beacon_direction"):
-                return selectedBeacon != null ? orientation.angles.getClampedYDelta(Math.toDegrees(Math.atan2(selectedBeacon.position.x - position.x, selectedBeacon.position.z - position.z))) : 0;
+                return partialTicks -> selectedBeacon != null ? orientation.angles.getClampedYDelta(Math.toDegrees(Math.atan2(selectedBeacon.position.x - position.x, selectedBeacon.position.z - position.z))) : 0;
             case ("beacon_bearing_setpoint"):
-                return selectedBeacon != null ? selectedBeacon.bearing : 0;
+                return partialTicks -> selectedBeacon != null ? selectedBeacon.bearing : 0;
             case ("beacon_bearing_delta"):
-                return selectedBeacon != null ? selectedBeacon.getBearingDelta(this) : 0;
+                return partialTicks -> selectedBeacon != null ? selectedBeacon.getBearingDelta(this) : 0;
             case ("beacon_glideslope_setpoint"):
-                return selectedBeacon != null ? selectedBeacon.glideSlope : 0;
+                return partialTicks -> selectedBeacon != null ? selectedBeacon.glideSlope : 0;
             case ("beacon_glideslope_actual"):
-                return selectedBeacon != null ? Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y) / position.distanceTo(selectedBeacon.position))) : 0;
+                return partialTicks -> selectedBeacon != null ? Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y) / position.distanceTo(selectedBeacon.position))) : 0;
             case ("beacon_glideslope_delta"):
-                return selectedBeacon != null ? selectedBeacon.glideSlope - Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y) / position.distanceTo(selectedBeacon.position))) : 0;
+                return partialTicks -> selectedBeacon != null ? selectedBeacon.glideSlope - Math.toDegrees(Math.asin((position.y - selectedBeacon.position.y) / position.distanceTo(selectedBeacon.position))) : 0;
             case ("beacon_distance"):
-                return selectedBeacon != null ? Math.hypot(-selectedBeacon.position.z + position.z,-selectedBeacon.position.x + position.x) : 0;
+                return partialTicks -> selectedBeacon != null ? Math.hypot(-selectedBeacon.position.z + position.z,-selectedBeacon.position.x + position.x) : 0;
             default: {
                 //Missile incoming variables.
                 //Variable is in the form of missile_X_variablename.
@@ -890,20 +903,23 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
                     String missileVariable = variable.substring(variable.lastIndexOf("_") + 1);
                     int missileNumber = getVariableNumber(variable.substring(0, variable.lastIndexOf('_')));
                     if (missileNumber != -1) {
-                        if (missilesIncoming.size() <= missileNumber) {
-                            return 0;
-                        } else {
-                            switch (missileVariable) {
-                                case ("distance"):
-                                    return missilesIncoming.get(missileNumber).targetDistance;
-                                case ("direction"): {
-                                    Point3D missilePos = missilesIncoming.get(missileNumber).position;
-                                    return Math.toDegrees(Math.atan2(-missilePos.z + position.z, -missilePos.x + position.x)) + 90 + orientation.angles.y;
-                                }
-                            }
+                        switch (missileVariable) {
+                            case ("distance"):
+                                return partialTicks -> missilesIncoming.size() <= missileNumber ? 0 : missilesIncoming.get(missileNumber).targetDistance;
+                            case ("direction"):
+                                return partialTicks -> {
+                                    if (missilesIncoming.size() <= missileNumber) {
+                                        return 0;
+                                    } else {
+                                        Point3D missilePos = missilesIncoming.get(missileNumber).position;
+                                        return Math.toDegrees(Math.atan2(-missilePos.z + position.z, -missilePos.x + position.x)) + 90 + orientation.angles.y;
+                                    }
+                                };
                         }
+                        VariableAccessor superAccessor = super.createVariableAccessor(variable);
+                        return partialTicks -> missilesIncoming.size() <= missileNumber ? 0 : superAccessor.getValue(partialTicks);
                     } else if (missileVariable.equals("incoming")) {
-                        return missilesIncoming.isEmpty() ? 0 : 1;
+                        return partialTicks -> missilesIncoming.isEmpty() ? 0 : 1;
                     }
                 }
                 //Radar variables.
@@ -912,22 +928,25 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
                     String radarVariable = variable.substring(variable.lastIndexOf("_") + 1);
                     int radarNumber = getVariableNumber(variable.substring(0, variable.lastIndexOf('_')));
                     if (radarNumber != -1) {
-                        if (radarsTracking.size() <= radarNumber) {
-                            return 0;
-                        } else {
-                            switch (radarVariable) {
-                                case ("detected"):
-                                    return 1;
-                                case ("distance"):
-                                    return radarsTracking.get(radarNumber).position.distanceTo(position);
-                                case ("direction"): {
-                                    Point3D entityPos = radarsTracking.get(radarNumber).position;
-                                    return Math.toDegrees(Math.atan2(-entityPos.z + position.z, -entityPos.x + position.x)) + 90 + orientation.angles.y;
-                                }
-                            }
+                        switch (radarVariable) {
+                            case ("detected"):
+                                return partialTicks -> radarsTracking.size() <= radarNumber ? 0 : 1;
+                            case ("distance"):
+                                return partialTicks -> radarsTracking.size() <= radarNumber ? 0 : radarsTracking.get(radarNumber).position.distanceTo(position);
+                            case ("direction"):
+                                return partialTicks -> {
+                                    if (radarsTracking.size() <= radarNumber) {
+                                        return 0;
+                                    } else {
+                                        Point3D entityPos = radarsTracking.get(radarNumber).position;
+                                        return Math.toDegrees(Math.atan2(-entityPos.z + position.z, -entityPos.x + position.x)) + 90 + orientation.angles.y;
+                                    }
+                                };
                         }
+                        VariableAccessor superAccessor = super.createVariableAccessor(variable);
+                        return partialTicks -> radarsTracking.size() <= radarNumber ? 0 : superAccessor.getValue(partialTicks);
                     } else if (radarVariable.equals("detected")) {
-                        return radarsTracking.isEmpty() ? 0 : 1;
+                        return partialTicks -> radarsTracking.isEmpty() ? 0 : 1;
                     }
                 }
             }
@@ -936,7 +955,12 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
         //Not a vehicle variable or a part variable.  We could have an error, but likely we have an older pack,
         //a closed door, a missing part, a custom variable that's not on, or something else entirely.
         //Just return super here.
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
+    }
+
+    @Override
+    public double getMaxRenderDistance() {
+        return ConfigSystem.client.renderingSettings.vehicleRenderDistance.value;
     }
 
     @Override
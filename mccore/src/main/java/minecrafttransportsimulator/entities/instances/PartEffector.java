@@ -10,6 +10,7 @@ import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.jsondefs.JSONPart.InteractableComponentType;
 import minecrafttransportsimulator.jsondefs.JSONPartDefinition;
@@ -185,19 +186,19 @@ public class PartEffector extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("effector_active"):
-                return isActive ? 1 : 0;
+                return partialTicks -> isActive ? 1 : 0;
             case ("effector_drill_broken"):
-                return blocksBroken;
+                return partialTicks -> blocksBroken;
             case ("effector_drill_max"):
-                return definition.effector.drillDurability;
+                return partialTicks -> definition.effector.drillDurability;
             case ("effector_drill_percentage"):
-                return blocksBroken / (double) definition.effector.drillDurability;
+                return partialTicks -> blocksBroken / (double) definition.effector.drillDurability;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     @Override
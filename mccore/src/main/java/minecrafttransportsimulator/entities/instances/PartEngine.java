@@ -6,6 +6,7 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage.LanguageEntry;
@@ -840,108 +841,108 @@ public class PartEngine extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("engine_isautomatic"):
-                return currentIsAutomatic != 0 ? 1 : 0;
+                return partialTicks -> currentIsAutomatic != 0 ? 1 : 0;
             case ("engine_rotation"):
-                return getEngineRotation(partialTicks);
+                return partialTicks -> getEngineRotation(partialTicks);
             case ("engine_sin"):
-                return Math.sin(Math.toRadians(getEngineRotation(partialTicks)));
+                return partialTicks -> Math.sin(Math.toRadians(getEngineRotation(partialTicks)));
             case ("engine_cos"):
-                return Math.cos(Math.toRadians(getEngineRotation(partialTicks)));
+                return partialTicks -> Math.cos(Math.toRadians(getEngineRotation(partialTicks)));
             case ("engine_driveshaft_rotation"):
-                return getDriveshaftRotation(partialTicks);
+                return partialTicks -> getDriveshaftRotation(partialTicks);
             case ("engine_driveshaft_sin"):
-                return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks)));
+                return partialTicks -> Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks)));
             case ("engine_driveshaft_cos"):
-                return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks)));
+                return partialTicks -> Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks)));
             case ("engine_rpm"):
-                return rpm;
+                return partialTicks -> rpm;
             case ("engine_rpm_safe"):
-                return currentMaxSafeRPM;
+                return partialTicks -> currentMaxSafeRPM;
             case ("engine_rpm_max"):
-                return currentMaxRPM;
+                return partialTicks -> currentMaxRPM;
             case ("engine_rpm_revlimit"):
-                return currentRevlimitRPM;
+                return partialTicks -> currentRevlimitRPM;
             case ("engine_rpm_percent"):
-                return rpm / currentMaxRPM;
+                return partialTicks -> rpm / currentMaxRPM;
             case ("engine_rpm_percent_safe"):
-                return rpm / currentMaxSafeRPM;
+                return partialTicks -> rpm / currentMaxSafeRPM;
             case ("engine_rpm_percent_revlimit"):
-                return currentRevlimitRPM != -1 ? rpm / currentRevlimitRPM : rpm / currentMaxSafeRPM;
+                return partialTicks -> currentRevlimitRPM != -1 ? rpm / currentRevlimitRPM : rpm / currentMaxSafeRPM;
             case ("engine_rpm_target"):
-            	return engineTargetRPM;
+            	return partialTicks -> engineTargetRPM;
             case ("engine_rpm_idle"):
-            	return currentIdleRPM;
+            	return partialTicks -> currentIdleRPM;
             case ("engine_rpm_start"):
-            	return currentStartRPM;
+            	return partialTicks -> currentStartRPM;
             case ("engine_rpm_stall"):
-            	return currentStallRPM;
+            	return partialTicks -> currentStallRPM;
             case ("engine_starter_power"):
-            	return currentStarterPower;
+            	return partialTicks -> currentStarterPower;
             case ("engine_fuel_consumption"):
-                return currentFuelConsumption;
+                return partialTicks -> currentFuelConsumption;
             case ("engine_supercharger_fuel_consumption"):
-                return currentSuperchargerFuelConsumption;
+                return partialTicks -> currentSuperchargerFuelConsumption;
             case ("engine_supercharger_efficiency"):
-                return currentSuperchargerEfficiency;
+                return partialTicks -> currentSuperchargerEfficiency;
             case ("engine_fuel_flow"):
-                return fuelFlow * 20D * 60D / 1000D;
+                return partialTicks -> fuelFlow * 20D * 60D / 1000D;
             case ("engine_fuel_remaining"):
-                return (definition.engine.rocketFuel - rocketFuelUsed) / definition.engine.rocketFuel;
+                return partialTicks -> (definition.engine.rocketFuel - rocketFuelUsed) / definition.engine.rocketFuel;
             case ("engine_temp"):
-                return temp;
+                return partialTicks -> temp;
             case ("engine_temp_ambient"):
-                return ambientTemp;
+                return partialTicks -> ambientTemp;
             case ("engine_pressure"):
-                return pressure;
+                return partialTicks -> pressure;
             case ("engine_gear"):
-                return currentGear;
+                return partialTicks -> currentGear;
             case ("engine_gearshift"):
-                return getGearshiftRotation();
+                return partialTicks -> getGearshiftRotation();
             case ("engine_gearshift_hvertical"):
-                return getGearshiftPosition_Vertical();
+                return partialTicks -> getGearshiftPosition_Vertical();
             case ("engine_gearshift_hhorizontal"):
-                return getGearshiftPosition_Horizontal();
+                return partialTicks -> getGearshiftPosition_Horizontal();
             case ("engine_clutch_upshift"):
-                return upshiftCountdown > 0 ? 1 : 0;
+                return partialTicks -> upshiftCountdown > 0 ? 1 : 0;
             case ("engine_clutch_downshift"):
-                return downshiftCountdown > 0 ? 1 : 0;
+                return partialTicks -> downshiftCountdown > 0 ? 1 : 0;
             case ("engine_badshift"):
-                return badShift ? 1 : 0;
+                return partialTicks -> badShift ? 1 : 0;
             case ("engine_reversed"):
-                return currentGear < 0 ? 1 : 0;
+                return partialTicks -> currentGear < 0 ? 1 : 0;
             case ("engine_running"):
-                return running ? 1 : 0;
+                return partialTicks -> running ? 1 : 0;
             case ("engine_powered"):
-                return running || internalFuel > 0 ? 1 : 0;
+                return partialTicks -> running || internalFuel > 0 ? 1 : 0;
             case ("engine_backfired"):
-                return backfired ? 1 : 0;
+                return partialTicks -> backfired ? 1 : 0;
             case ("engine_jumper_cable"):
-                return linkedEngine != null ? 1 : 0;
+                return partialTicks -> linkedEngine != null ? 1 : 0;
             case ("engine_hours"):
-                return hours;
+                return partialTicks -> hours;
         }
         if (variable.startsWith("engine_sin_")) {
         	//engine_sin_X This will offset the engine rotation INPUT to the trig function by X
             int offset = Integer.parseInt(variable.substring("engine_sin_".length()));
-        	return Math.sin(Math.toRadians(getEngineRotation(partialTicks) + offset));
+        	return partialTicks -> Math.sin(Math.toRadians(getEngineRotation(partialTicks) + offset));
         }
         if (variable.startsWith("engine_cos_")) {
         	//engine_cos_X This will offset the engine rotation INPUT to the trig function by X
             int offset = Integer.parseInt(variable.substring("engine_cos_".length()));
-        	return Math.cos(Math.toRadians(getEngineRotation(partialTicks) + offset));
+        	return partialTicks -> Math.cos(Math.toRadians(getEngineRotation(partialTicks) + offset));
         }
         if (variable.startsWith("engine_driveshaft_sin_")) {
         	//engine_driveshaft_sin_X This will offset the driveshaft rotation INPUT to the trig function by X
             int offset = Integer.parseInt(variable.substring("engine_driveshaft_sin_".length()));
-        	return Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
+        	return partialTicks -> Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
         }
         if (variable.startsWith("engine_driveshaft_cos_")) {
         	//engine_driveshaft_sin_X This will offset the driveshaft rotation INPUT to the trig function by X
             int offset = Integer.parseInt(variable.substring("engine_driveshaft_cos_".length()));
-        	return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
+        	return partialTicks -> Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
         }
         if (variable.startsWith("engine_piston_")) {
         	//Divide the crank shaft rotation into a number of sectors, and return 1 when the crank is in the defined sector.
@@ -949,17 +950,18 @@ public class PartEngine extends APart {
         	//When suffixed with _cam, it will instead return the sector the camshaft rotation.
 
         	//If this a camshaft, set the multiplier to 2 and chop off the end of the variable string
+        	String pistonVariable = variable;
         	int camMultiplier = 1;
-        	if (variable.endsWith("_crank")) {
-        		variable = variable.substring(0, variable.length() - "_crank".length());
+        	if (pistonVariable.endsWith("_crank")) {
+        		pistonVariable = pistonVariable.substring(0, pistonVariable.length() - "_crank".length());
         	}
-        	if (variable.endsWith("_cam")) {
+        	if (pistonVariable.endsWith("_cam")) {
         		camMultiplier = 2;
-        		variable = variable.substring(0, variable.length() - "_cam".length());
+        		pistonVariable = pistonVariable.substring(0, pistonVariable.length() - "_cam".length());
         	}
         	
         	//Extract the values we need
-            String[] parsedVariable = variable.substring("engine_piston_".length()).split("_");
+            String[] parsedVariable = pistonVariable.substring("engine_piston_".length()).split("_");
             int pistonNumber = Integer.parseInt(parsedVariable[0]);
             int totalPistons = Integer.parseInt(parsedVariable[1]);
             int offset = 0;
@@ -973,17 +975,21 @@ public class PartEngine extends APart {
             	totalPistons = 2;
             }
             
-            //Map the shaft rotation to a value between 0 and 359.99...
-            double shaftRotation = Math.floorMod(Math.round(10 * (offset + getEngineRotation(partialTicks))), Math.round(3600D * camMultiplier)) / 10;
-            
-            //Calculate the angle of a 'sector'
+            //Calculate the angle of a 'sector', and where our sector starts.
             double sector = (360D * camMultiplier) / totalPistons;
-            
-            //If the crank is in the requested sector, return 1, otherwise return 0.
-            return (0 + (sector * (pistonNumber - 1)) <= shaftRotation) && (shaftRotation < sector + (sector * (pistonNumber - 1))) ? 1 : 0;
+            double sectorStart = sector * (pistonNumber - 1);
+            long shaftModulus = Math.round(3600D * camMultiplier);
+            int shaftOffset = offset;
+            return partialTicks -> {
+                //Map the shaft rotation to a value between 0 and 359.99...
+                double shaftRotation = Math.floorMod(Math.round(10 * (shaftOffset + getEngineRotation(partialTicks))), shaftModulus) / 10;
+
+                //If the crank is in the requested sector, return 1, otherwise return 0.
+                return sectorStart <= shaftRotation && shaftRotation < sector + sectorStart ? 1 : 0;
+            };
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     //--------------------START OF ENGINE STATE CHANGE METHODS--------------------
@@ -2,6 +2,7 @@ package minecrafttransportsimulator.entities.instances;
 
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.instances.ItemPartGroundDevice;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
@@ -228,27 +229,27 @@ public class PartGroundDevice extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("ground_rotation"):
-                return vehicleOn != null ? vehicleOn.speedFactor * (partialTicks != 0 ? prevAngularPosition + (angularPosition - prevAngularPosition) * partialTicks : angularPosition) * 360D : 0;
+                return partialTicks -> vehicleOn != null ? vehicleOn.speedFactor * (partialTicks != 0 ? prevAngularPosition + (angularPosition - prevAngularPosition) * partialTicks : angularPosition) * 360D : 0;
             case ("ground_rotation_normalized"):
-            	return vehicleOn != null ? Math.floorMod(Math.round(vehicleOn.speedFactor * (prevAngularPosition + (angularPosition - prevAngularPosition) * partialTicks) * 3600), 3600) / 10D : 0;
+            	return partialTicks -> vehicleOn != null ? Math.floorMod(Math.round(vehicleOn.speedFactor * (prevAngularPosition + (angularPosition - prevAngularPosition) * partialTicks) * 3600), 3600) / 10D : 0;
             case ("ground_onground"):
-                return vehicleOn != null && animateAsOnGround ? 1 : 0;
+                return partialTicks -> vehicleOn != null && animateAsOnGround ? 1 : 0;
             case ("ground_isflat"):
-                return isFlat ? 1 : 0;
+                return partialTicks -> isFlat ? 1 : 0;
             case ("ground_contacted"):
-                return contactThisTick ? 1 : 0;
+                return partialTicks -> contactThisTick ? 1 : 0;
             case ("ground_skidding"):
-                return skipAngularCalcs ? 1 : 0;
+                return partialTicks -> skipAngularCalcs ? 1 : 0;
             case ("ground_slipping"):
-                return vehicleOn != null && vehicleOn.slipping && animateAsOnGround ? 1 : 0;
+                return partialTicks -> vehicleOn != null && vehicleOn.slipping && animateAsOnGround ? 1 : 0;
             case ("ground_distance"):
-                return world.getHeight(zeroReferencePosition);
+                return partialTicks -> world.getHeight(zeroReferencePosition);
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     @Override
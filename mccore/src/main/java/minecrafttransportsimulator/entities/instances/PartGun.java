@@ -13,6 +13,8 @@ import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.components.AItemBase;
 import minecrafttransportsimulator.items.instances.ItemBullet;
@@ -719,7 +721,12 @@ public class PartGun extends APart {
                         normalizedConeVector.set(searchVector).normalize();
                         EntityVehicleF_Physics vehicleTarget = null;
                         double smallestDistance = searchVector.length();
-                        for (EntityVehicleF_Physics vehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)) {
+                        BoundingBox searchBox = new BoundingBox(startPoint, smallestDistance, smallestDistance, smallestDistance);
+                        for (AEntityE_Interactable<?> entity : world.queryBox(searchBox)) {
+                            if (!(entity instanceof EntityVehicleF_Physics)) {
+                                continue;
+                            }
+                            EntityVehicleF_Physics vehicle = (EntityVehicleF_Physics) entity;
                             //Make sure we don't lock-on to our own vehicle.  Also, ensure if we want aircraft, or ground, we only get those.
                             if (vehicle != vehicleOn && (definition.gun.targetType != TargetType.AIRCRAFT || vehicle.definition.motorized.isAircraft) && (definition.gun.targetType != TargetType.GROUND || !vehicle.definition.motorized.isAircraft)) {
                                 targetVector.set(vehicle.position).subtract(startPoint);
@@ -1116,87 +1123,87 @@ public class PartGun extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("gun_inhand"):
-                return entityOn instanceof EntityPlayerGun ? 1 : 0;
+                return partialTicks -> entityOn instanceof EntityPlayerGun ? 1 : 0;
             case ("gun_inhand_sneaking"):
-                return entityOn instanceof EntityPlayerGun && ((EntityPlayerGun) entityOn).player != null && ((EntityPlayerGun) entityOn).player.isSneaking() ? 1 : 0;
+                return partialTicks -> entityOn instanceof EntityPlayerGun && ((EntityPlayerGun) entityOn).player != null && ((EntityPlayerGun) entityOn).player.isSneaking() ? 1 : 0;
             case ("gun_inhand_aiming"):
-                return isHandHeldGunAimed ? 1 : 0;
+                return partialTicks -> isHandHeldGunAimed ? 1 : 0;
             case ("gun_controller_firstperson"):
-                return InterfaceManager.clientInterface.getClientPlayer().equals(lastController) && InterfaceManager.clientInterface.inFirstPerson() ? 1 : 0;
+                return partialTicks -> InterfaceManager.clientInterface.getClientPlayer().equals(lastController) && InterfaceManager.clientInterface.inFirstPerson() ? 1 : 0;
             case ("gun_active"):
-                return state.isAtLeast(GunState.CONTROLLED) ? 1 : 0;
+                return partialTicks -> state.isAtLeast(GunState.CONTROLLED) ? 1 : 0;
             case ("gun_firing"):
-                return state.isAtLeast(GunState.FIRING_REQUESTED) ? 1 : 0;
+                return partialTicks -> state.isAtLeast(GunState.FIRING_REQUESTED) ? 1 : 0;
             case ("gun_fired"):
-                return firedThisCheck ? 1 : 0;
+                return partialTicks -> firedThisCheck ? 1 : 0;
             case ("gun_muzzleflash"):
-                return firedThisCheck && lastMillisecondFired + 25 < System.currentTimeMillis() ? 1 : 0;
+                return partialTicks -> firedThisCheck && lastMillisecondFired + 25 < System.currentTimeMillis() ? 1 : 0;
             case ("gun_lockedon"):
-                return entityTarget != null || engineTarget != null ? 1 : 0;
+                return partialTicks -> entityTarget != null || engineTarget != null ? 1 : 0;
             case ("gun_lockedon_x"):
-                return entityTarget != null ? entityTarget.getPosition().x : (engineTarget != null ? engineTarget.position.x : 0);
+                return partialTicks -> entityTarget != null ? entityTarget.getPosition().x : (engineTarget != null ? engineTarget.position.x : 0);
             case ("gun_lockedon_y"):
-                return entityTarget != null ? entityTarget.getPosition().y : (engineTarget != null ? engineTarget.position.y : 0);
+                return partialTicks -> entityTarget != null ? entityTarget.getPosition().y : (engineTarget != null ? engineTarget.position.y : 0);
             case ("gun_lockedon_z"):
-                return entityTarget != null ? entityTarget.getPosition().z : (engineTarget != null ? engineTarget.position.z : 0);
+                return partialTicks -> entityTarget != null ? entityTarget.getPosition().z : (engineTarget != null ? engineTarget.position.z : 0);
             case ("gun_lockedon_direction"):
-                return entityTarget != null ? getLockedOnDirection() : (engineTarget != null ? getLockedOnDirection() : 0);
+                return partialTicks -> entityTarget != null ? getLockedOnDirection() : (engineTarget != null ? getLockedOnDirection() : 0);
             case ("gun_lockedon_angle"):
-                return entityTarget != null ? getLockedOnAngle() : (engineTarget != null ? getLockedOnAngle() : 0);
+                return partialTicks -> entityTarget != null ? getLockedOnAngle() : (engineTarget != null ? getLockedOnAngle() : 0);
             case ("gun_lockedon_leadpoint_direction"):
-                return entityTarget != null ? getLeadPointDirection() : (engineTarget != null ? getLeadPointDirection() : 0);
+                return partialTicks -> entityTarget != null ? getLeadPointDirection() : (engineTarget != null ? getLeadPointDirection() : 0);
             case ("gun_lockedon_leadpoint_angle"):
-                return entityTarget != null ? (-Math.toDegrees(Math.atan2(-getLockedOnLeadPoint().y + position.y,Math.hypot(-getLockedOnLeadPoint().z + position.z,-getLockedOnLeadPoint().x + position.x))) + orientation.angles.x) : (engineTarget != null ? (-Math.toDegrees(Math.atan2(-getLockedOnLeadPoint().y + position.y,Math.hypot(-getLockedOnLeadPoint().z + position.z,-getLockedOnLeadPoint().x + position.x))) + orientation.angles.x) : 0);
+                return partialTicks -> entityTarget != null ? (-Math.toDegrees(Math.atan2(-getLockedOnLeadPoint().y + position.y,Math.hypot(-getLockedOnLeadPoint().z + position.z,-getLockedOnLeadPoint().x + position.x))) + orientation.angles.x) : (engineTarget != null ? (-Math.toDegrees(Math.atan2(-getLockedOnLeadPoint().y + position.y,Math.hypot(-getLockedOnLeadPoint().z + position.z,-getLockedOnLeadPoint().x + position.x))) + orientation.angles.x) : 0);
             case ("gun_lockedon_distance"):
-                return entityTarget != null ? entityTarget.getPosition().distanceTo(position) : (engineTarget != null ? engineTarget.position.distanceTo(position) : 0);
+                return partialTicks -> entityTarget != null ? entityTarget.getPosition().distanceTo(position) : (engineTarget != null ? engineTarget.position.distanceTo(position) : 0);
             case ("gun_lockedon_leadangle_x"):
-                return entityTarget != null ? (getLeadPointDirection() - getLockedOnDirection()) : (engineTarget != null ? (getLeadPointDirection() - getLockedOnDirection()) : 0);
+                return partialTicks -> entityTarget != null ? (getLeadPointDirection() - getLockedOnDirection()) : (engineTarget != null ? (getLeadPointDirection() - getLockedOnDirection()) : 0);
             case ("gun_lockedon_leadangle_y"):
-                return entityTarget != null ? getLeadAngleY() : (engineTarget != null ? getLeadAngleY() : 0);
+                return partialTicks -> entityTarget != null ? getLeadAngleY() : (engineTarget != null ? getLeadAngleY() : 0);
             case ("gun_pitch"):
-                return partialTicks != 0 ? prevInternalOrientation.angles.x + (internalOrientation.angles.x - prevInternalOrientation.angles.x) * partialTicks : internalOrientation.angles.x;
+                return partialTicks -> partialTicks != 0 ? prevInternalOrientation.angles.x + (internalOrientation.angles.x - prevInternalOrientation.angles.x) * partialTicks : internalOrientation.angles.x;
             case ("gun_yaw"):
-                return partialTicks != 0 ? prevInternalOrientation.angles.y + (internalOrientation.angles.y - prevInternalOrientation.angles.y) * partialTicks : internalOrientation.angles.y;
+                return partialTicks -> partialTicks != 0 ? prevInternalOrientation.angles.y + (internalOrientation.angles.y - prevInternalOrientation.angles.y) * partialTicks : internalOrientation.angles.y;
             case ("gun_pitching"):
-                return Math.abs(prevInternalOrientation.angles.x - internalOrientation.angles.x) > 0.01 ? 1 : 0;
+                return partialTicks -> Math.abs(prevInternalOrientation.angles.x - internalOrientation.angles.x) > 0.01 ? 1 : 0;
             case ("gun_yawing"):
-                return Math.abs(prevInternalOrientation.angles.y - internalOrientation.angles.y) > 0.01 ? 1 : 0;
+                return partialTicks -> Math.abs(prevInternalOrientation.angles.y - internalOrientation.angles.y) > 0.01 ? 1 : 0;
             case ("gun_cooldown"):
-                return cooldownTimeRemaining > 0 ? 1 : 0;
+                return partialTicks -> cooldownTimeRemaining > 0 ? 1 : 0;
             case ("gun_windup_time"):
-                return windupTimeCurrent;
+                return partialTicks -> windupTimeCurrent;
             case ("gun_windup_rotation"):
-                return windupRotation;
+                return partialTicks -> windupRotation;
             case ("gun_windup_complete"):
-                return windupTimeCurrent == definition.gun.windupTime ? 1 : 0;
+                return partialTicks -> windupTimeCurrent == definition.gun.windupTime ? 1 : 0;
             case ("gun_reload"):
-                return reloadTimeRemaining > 0 ? 1 : 0;
+                return partialTicks -> reloadTimeRemaining > 0 ? 1 : 0;
             case ("gun_ammo_count"):
-                return bulletsLeft;
+                return partialTicks -> bulletsLeft;
             case ("gun_ammo_count_reloading"):
-                return reloadingBullet.definition.bullet.quantity;
+                return partialTicks -> reloadingBullet.definition.bullet.quantity;
             case ("gun_ammo_percent"):
-                return bulletsLeft / definition.gun.capacity;
+                return partialTicks -> bulletsLeft / definition.gun.capacity;
             case ("gun_active_muzzlegroup"):
-                return currentMuzzleGroupIndex + 1;
+                return partialTicks -> currentMuzzleGroupIndex + 1;
             case ("gun_bullet_present"):
-                return currentBullet != null ? 1 : 0;
+                return partialTicks -> currentBullet != null ? 1 : 0;
             case ("gun_bullet_x"):
-                return currentBullet != null ? currentBullet.getRelativePos(1, partialTicks) : 0;
+                return partialTicks -> currentBullet != null ? currentBullet.getRelativePos(1, partialTicks) : 0;
             case ("gun_bullet_y"):
-                return currentBullet != null ? currentBullet.getRelativePos(2, partialTicks) : 0;
+                return partialTicks -> currentBullet != null ? currentBullet.getRelativePos(2, partialTicks) : 0;
             case ("gun_bullet_z"):
-                return currentBullet != null ? currentBullet.getRelativePos(3, partialTicks) : 0;
+                return partialTicks -> currentBullet != null ? currentBullet.getRelativePos(3, partialTicks) : 0;
             case ("gun_bullet_yaw"):
-                return currentBullet != null ? currentBullet.orientation.angles.y - orientation.angles.y : 0;
+                return partialTicks -> currentBullet != null ? currentBullet.orientation.angles.y - orientation.angles.y : 0;
             case ("gun_bullet_pitch"):
-                return currentBullet != null ? currentBullet.orientation.angles.x - orientation.angles.x : 0;
+                return partialTicks -> currentBullet != null ? currentBullet.orientation.angles.x - orientation.angles.x : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     @Override
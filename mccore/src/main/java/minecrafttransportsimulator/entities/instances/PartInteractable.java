@@ -5,6 +5,7 @@ import java.util.Set;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage.LanguageEntry;
@@ -274,39 +275,41 @@ public final class PartInteractable extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
-            case ("interactable_count"): {
-                if (inventory != null) {
-                    return inventory.getCount();
-                } else {
-                    return 0;
-                }
-            }
-            case ("interactable_percent"): {
-                if (inventory != null) {
-                    return inventory.getCount() / (double) inventory.getSize();
-                } else if (tank != null) {
-                    return tank.getFluidLevel() / tank.getMaxLevel();
-                } else {
-                    return 0;
-                }
-            }
-            case ("interactable_capacity"): {
-                if (inventory != null) {
-                    return inventory.getSize();
-                } else if (tank != null) {
-                    return tank.getMaxLevel() / 1000;
-                } else {
-                    return 0;
-                }
-            }
-            case ("interactable_active"): {
-                return !playersInteracting.isEmpty() ? 1 : 0;
-            }
+            case ("interactable_count"):
+                return partialTicks -> {
+                    if (inventory != null) {
+                        return inventory.getCount();
+                    } else {
+                        return 0;
+                    }
+                };
+            case ("interactable_percent"):
+                return partialTicks -> {
+                    if (inventory != null) {
+                        return inventory.getCount() / (double) inventory.getSize();
+                    } else if (tank != null) {
+                        return tank.getFluidLevel() / tank.getMaxLevel();
+                    } else {
+                        return 0;
+                    }
+                };
+            case ("interactable_capacity"):
+                return partialTicks -> {
+                    if (inventory != null) {
+                        return inventory.getSize();
+                    } else if (tank != null) {
+                        return tank.getMaxLevel() / 1000;
+                    } else {
+                        return 0;
+                    }
+                };
+            case ("interactable_active"):
+                return partialTicks -> !playersInteracting.isEmpty() ? 1 : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     /**
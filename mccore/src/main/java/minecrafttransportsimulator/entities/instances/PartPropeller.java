@@ -6,6 +6,7 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage;
 import minecrafttransportsimulator.jsondefs.JSONConfigLanguage.LanguageEntry;
@@ -198,21 +199,21 @@ public class PartPropeller extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    protected VariableAccessor createVariableAccessor(String variable) {
         switch (variable) {
             case ("propeller_pitch_deg"):
-                return Math.toDegrees(Math.atan(currentPitch / (definition.propeller.diameter * 0.75D * Math.PI)));
+                return partialTicks -> Math.toDegrees(Math.atan(currentPitch / (definition.propeller.diameter * 0.75D * Math.PI)));
             case ("propeller_pitch_in"):
-                return currentPitch;
+                return partialTicks -> currentPitch;
             case ("propeller_pitch_percent"):
-                return 1D * (currentPitch - PartPropeller.MIN_DYNAMIC_PITCH) / (definition.propeller.pitch - PartPropeller.MIN_DYNAMIC_PITCH);
+                return partialTicks -> 1D * (currentPitch - PartPropeller.MIN_DYNAMIC_PITCH) / (definition.propeller.pitch - PartPropeller.MIN_DYNAMIC_PITCH);
             case ("propeller_rotation"):
-                return (partialTicks != 0 ? (angularPosition - (angularVelocity * (1 - partialTicks))) : angularPosition) * 360D;
+                return partialTicks -> (partialTicks != 0 ? (angularPosition - (angularVelocity * (1 - partialTicks))) : angularPosition) * 360D;
             case ("propeller_rpm"):
-                return currentRPM;
+                return partialTicks -> currentRPM;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.createVariableAccessor(variable);
     }
 
     public double addToForceOutput(Point3D force, Point3D torque) {
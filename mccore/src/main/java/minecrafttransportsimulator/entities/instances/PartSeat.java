@@ -6,6 +6,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.guis.components.AGUIBase;
@@ -129,7 +130,7 @@ public final class PartSeat extends APart {
         //Don't have any interaction boxes if we are on a client and the player is sitting in us.
         //This keeps us from clicking our own seat when we want to click other things.
         if (riderIsClient) {
-            allInteractionBoxes.clear();
+            removeInteractionBoxes(true);
         }
     }
 
@@ -442,24 +443,31 @@ public final class PartSeat extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
-        double value = super.getRawVariableValue(variable, partialTicks);
-        if (!Double.isNaN(value)) {
-            return value;
-        }
-
+    protected VariableAccessor createVariableAccessor(String variable) {
+        VariableAccessor seatAccessor;
         switch (variable) {
             case ("seat_occupied"):
-                return rider != null ? 1 : 0;
+                seatAccessor = partialTicks -> rider != null ? 1 : 0;
+                break;
             case ("seat_occupied_client"):
-                return riderIsClient ? 1 : 0;
+                seatAccessor = partialTicks -> riderIsClient ? 1 : 0;
+                break;
             case ("seat_rider_yaw"):
-                return rider != null ? (partialTicks != 0 ? prevRiderRelativeOrientation.angles.y + (riderRelativeOrientation.angles.y - prevRiderRelativeOrientation.angles.y) * partialTicks : riderRelativeOrientation.angles.y) : 0;
+                seatAccessor = partialTicks -> rider != null ? (partialTicks != 0 ? prevRiderRelativeOrientation.angles.y + (riderRelativeOrientation.angles.y - prevRiderRelativeOrientation.angles.y) * partialTicks : riderRelativeOrientation.angles.y) : 0;
+                break;
             case ("seat_rider_pitch"):
-                return rider != null ? (partialTicks != 0 ? prevRiderRelativeOrientation.angles.x + (riderRelativeOrientation.angles.x - prevRiderRelativeOrientation.angles.x) * partialTicks : riderRelativeOrientation.angles.x) : 0;
+                seatAccessor = partialTicks -> rider != null ? (partialTicks != 0 ? prevRiderRelativeOrientation.angles.x + (riderRelativeOrientation.angles.x - prevRiderRelativeOrientation.angles.x) * partialTicks : riderRelativeOrientation.angles.x) : 0;
+                break;
+            default:
+                return super.createVariableAccessor(variable);
         }
 
-        return Double.NaN;
+        //Seat variables are only used if the super variables aren't present.
+        VariableAccessor superAccessor = super.createVariableAccessor(variable);
+        return partialTicks -> {
+            double value = superAccessor.getValue(partialTicks);
+            return !Double.isNaN(value) ? value : seatAccessor.getValue(partialTicks);
+        };
     }
 
     @Override
@@ -35,11 +35,19 @@ public abstract class AJSONMultiModelProvider extends AJSONItem {
      * Returns the model location in the classpath for this definition.
      */
     public String getModelLocation(JSONSubDefinition subDefinition) {
+        return getModelLocation(subDefinition.modelName != null ? subDefinition.modelName : systemName);
+    }
+
+    /**
+     * Returns the location in the classpath for the model with the passed-in name.
+     * This will be in the same folder, and of the same type, as the main model for this definition.
+     */
+    public String getModelLocation(String modelName) {
         switch (rendering.modelType) {
             case OBJ:
-                return PackResourceLoader.getPackResource(this, ResourceType.OBJ_MODEL, subDefinition.modelName != null ? subDefinition.modelName : systemName);
+                return PackResourceLoader.getPackResource(this, ResourceType.OBJ_MODEL, modelName);
             case LITTLETILES:
-                return PackResourceLoader.getPackResource(this, ResourceType.LT_MODEL, subDefinition.modelName != null ? subDefinition.modelName : systemName);
+                return PackResourceLoader.getPackResource(this, ResourceType.LT_MODEL, modelName);
             case NONE:
                 return null;
         }
@@ -37,6 +37,17 @@ public class JSONConfigClient {
 
         public JSONConfigEntry<Boolean> playerTweaks = new JSONConfigEntry<>(true, "If true, player hands will be modified when holding guns, and hands and legs will be modified when riding in vehicles.  Set this to false (and restart the game) if mods cause issues, like two-hand rendering or player model issues.  Automatically set to false if some mods are detected.");
 
+        public JSONConfigEntry<Integer> particleBudget = new JSONConfigEntry<>(256, "The max number of live particles each vehicle or block may have of each particle type.  Particles past this number will not be spawned.  Lower this if lots of smoke or flames are causing lag.");
+
+        public JSONConfigEntry<Boolean> autoLOD = new JSONConfigEntry<>(true, "If true, simplified models will be generated for far-away vehicles and blocks that don't have their own levels of detail.  These have fewer faces and render faster.  Turn this off if far-away models look wrong.");
+        public JSONConfigEntry<Double> lodDistanceFactor = new JSONConfigEntry<>(1.0D, "How far away, relative to the normal distance, lower levels of detail will be used.  Larger values keep the full model further away.  0 will always render the full model.");
+        public JSONConfigEntry<Boolean> renderCulling = new JSONConfigEntry<>(true, "If true, vehicles, blocks, bullets, and particles that are out of view or past their render distance will not be rendered.  Turn this off if things are vanishing when they shouldn't be.");
+        public JSONConfigEntry<Integer> vehicleRenderDistance = new JSONConfigEntry<>(256, "How far away, in blocks, vehicles will be rendered.  Requires renderCulling to be true.  0 will render vehicles at any distance.  Must be a whole number.");
+        public JSONConfigEntry<Integer> blockRenderDistance = new JSONConfigEntry<>(192, "How far away, in blocks, decors, poles, roads, and placed parts will be rendered.  Requires renderCulling to be true.  0 will render these at any distance.  Must be a whole number.");
+        public JSONConfigEntry<Integer> bulletRenderDistance = new JSONConfigEntry<>(256, "How far away, in blocks, bullets will be rendered.  Requires renderCulling to be true.  0 will render bullets at any distance.  Must be a whole number.");
+        public JSONConfigEntry<Integer> particleRenderDistance = new JSONConfigEntry<>(96, "How far away, in blocks, model-based and other non-pooled particles will be rendered.  Requires renderCulling to be true.  0 will render particles at any distance.  Must be a whole number.");
+        public JSONConfigEntry<Boolean> sortedRendering = new JSONConfigEntry<>(true, "If true, vehicle and block models will be sorted by texture and color before rendering, which reduces the work done by the graphics card.  Turn this off if models look wrong with shaders or other rendering mods.");
+
     }
 
     public static class JSONControlSettings {
@@ -42,6 +42,12 @@ public class JSONConfigSettings {
         public JSONConfigEntry<Boolean> allPlanesWithNav = new JSONConfigEntry<>(false, "If true, all planes will have the ability to use beacons for navigation.  This is false to allow pack authors to define new/old planes that have this capability, but can be turned on if you don't care about realism.");
         public JSONConfigEntry<Boolean> giveManualsOnJoin = new JSONConfigEntry<>(true, "If true, then whenever a new player joins a world, they will be given a copy of the mod manuals.");
         public JSONConfigEntry<Boolean> devMode = new JSONConfigEntry<>(false, "If enabled, MTS will allow access to the dev mode GUI while sitting in vehicles.  The GUI allows editing JSONs in-game without the need to restart.");
+        public JSONConfigEntry<Integer> vehicleSyncRadius = new JSONConfigEntry<>(512, "How far away, in blocks, players will be sent vehicle movement from the server.  Players closer to vehicles get movement more often than those further away.  Players the server is still tracking vehicles for are always sent movement, even if outside this radius.  As vehicles are tracked up to the server view distance, or 512 blocks, whichever is smaller, radiuses below that only change how often players get movement, not which players get it.  Must be a whole number.");
+        public JSONConfigEntry<Boolean> compactPackets = new JSONConfigEntry<>(true, "If true, packets for entities will be sent in a compact format.  This uses short per-session IDs for entities and variables, and sends vehicle movement as fixed-point values.  This greatly reduces bandwidth, but may be turned off if you suspect it is causing issues.");
+        public JSONConfigEntry<Boolean> batchPackets = new JSONConfigEntry<>(true, "If true, packets sent to clients during a server tick will be grouped together and sent at the end of the tick as one packet per player.  Packets that are made obsolete by later packets in the same tick are not sent.  This reduces network overhead on busy servers.");
+        public JSONConfigEntry<Boolean> parallelModelParsing = new JSONConfigEntry<>(true, "If true, the objects in large OBJ models will be compiled on multiple threads.  This speeds up loading packs with large models, but may be turned off if you suspect it is causing issues.");
+        public JSONConfigEntry<Integer> packParsingThreads = new JSONConfigEntry<>(0, "How many threads to use when parsing pack JSON files on startup.  0 will use one less than the number of processors, up to 8.  1 will parse packs on the main thread, and may be used if you suspect parallel parsing is causing issues.  Must be a whole number.");
+        public JSONConfigEntry<Double> packetQuantizationEpsilon = new JSONConfigEntry<>(0.0001D, "The precision to send vehicle movement with when compact packets are on.  Movement is rounded to multiples of this value, with the remainder carried over to the next packet so vehicles don't drift.  Larger values save more bandwidth, but make movement less smooth.");
         public JSONConfigEntry<Integer> roadMaxLength = new JSONConfigEntry<>(32, "How long a single segment of road can be, in blocks.  While you can have longer segements, be aware they have more collision boxes and will generate more lag when broken or interacted with, and may not render if outside the chunk they are in.  Must be a whole number.");
         public JSONConfigEntry<Double> aircraftSpeedFactor = new JSONConfigEntry<>(0.35D, "Factor to apply to aircraft movement.  1 is the realistic value, but this makes vehicles move too fast for Minecraft. Adjust with caution.");
         public JSONConfigEntry<Double> carSpeedFactor = new JSONConfigEntry<>(0.35D, "Factor to apply to car movement.  1 is the realistic value, but this makes vehicles move too fast for Minecraft. Adjust with caution.");
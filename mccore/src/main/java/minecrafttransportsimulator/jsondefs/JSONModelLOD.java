@@ -0,0 +1,13 @@
+package minecrafttransportsimulator.jsondefs;
+
+import minecrafttransportsimulator.packloading.JSONParser.JSONDescription;
+import minecrafttransportsimulator.packloading.JSONParser.JSONRequired;
+
+public class JSONModelLOD {
+    @JSONRequired
+    @JSONDescription("The name of the model to use for this level of detail.  This is found in the same folder as the main model, and must be the same model type.  Object names should match the main model, as animations, lights, and text are applied to objects by name.")
+    public String modelName;
+
+    @JSONDescription("The distance, in blocks, from the camera past which this model will be rendered instead of the main model or any closer levels of detail.")
+    public float distance;
+}
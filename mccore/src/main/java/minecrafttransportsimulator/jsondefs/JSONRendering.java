@@ -34,6 +34,12 @@ public class JSONRendering {
     @JSONDescription("The type of model that this entity will render from.")
     public ModelType modelType;
 
+    @JSONDescription("A listing of lower-detail models to render when this entity is far from the camera.  Each entry has the distance it starts being used at, and they need not be in order.  If this is not present, MTS will generate simplified models automatically, unless disableAutoLOD is set.")
+    public List<JSONModelLOD> levelsOfDetail;
+
+    @JSONDescription("If true, MTS will not generate simplified models for this entity when it is far away.  Use this if the generated models look wrong, or if you have a model that doesn't have many faces to start with.  Has no effect if levelsOfDetail are present.")
+    public boolean disableAutoLOD;
+
     public enum ModelType {
         OBJ,
         LITTLETILES,
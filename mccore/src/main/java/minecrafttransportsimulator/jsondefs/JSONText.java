@@ -32,6 +32,9 @@ public class JSONText {
     @JSONDescription("The format to display the variable in.  This follows the Java String.format() format, with the input being a floating-point number (%f) for normal variables, and a string (%s) for text variables.  This has many different ways of formatting things.  Google will be your friend here, this documentation shall not.")
     public String variableFormat;
 
+    @JSONDescription("How often, in ticks, to update the variable for this text.  If not set, the variable is checked every tick, though the text is only re-formatted when the formatted value would change.  Useful for reducing flicker on fast-changing values, or for text that doesn't need to update often, like trip meters.")
+    public int variableUpdateRate;
+
     @JSONDescription("An optional folder of a font to use for this field.  If included, this text will be rendered with this font rather than the default font.  Format is [packID:fontname].  Fonts are then named: assets/packID/textures/fonts/unicode_page_xx.png, where xx corresponds with the default font you are replacing.")
     public String fontName;
 
@@ -1,13 +1,16 @@
 package minecrafttransportsimulator.mcinterface;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.EntityManager;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TerrainHeightCache;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.components.ABlockBase.BlockMaterial;
@@ -30,6 +33,27 @@ import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
  * @author don_bruce
  */
 public abstract class AWrapperWorld extends EntityManager {
+    private final TerrainHeightCache terrainHeightCache = new TerrainHeightCache(this::scanTerrainColumn);
+    private final Map<UUID, IWrapperPlayer> playersByID = new HashMap<>();
+
+    @Override
+    public void tickAll() {
+        //Index players before ticking, as entities may need to find them many times a tick.
+        playersByID.clear();
+        for (IWrapperPlayer player : getPlayers()) {
+            playersByID.put(player.getID(), player);
+        }
+        super.tickAll();
+        terrainHeightCache.tick();
+    }
+
+    /**
+     * Returns all players in this world, keyed by their IDs.  This is only updated at the start of
+     * every tick, so it's much cheaper than {@link #getPlayers()}, but should only be used during ticks.
+     */
+    public Map<UUID, IWrapperPlayer> getPlayersByID() {
+        return playersByID;
+    }
 
     /**
      * Returns true if this is a client world, false if we're on the server.
@@ -115,6 +139,18 @@ public abstract class AWrapperWorld extends EntityManager {
      */
     public abstract List<IWrapperPlayer> getPlayersWithin(BoundingBox box);
 
+    /**
+     * Returns all players in this world.
+     */
+    public abstract List<IWrapperPlayer> getPlayers();
+
+    /**
+     * Returns the range, in blocks, that the server tracks our entities for players at.  Players within this
+     * range on both the X and Z axis will have the entity loaded.  This is limited by the server view distance,
+     * so it may change while the server is running.  Only valid on servers.
+     */
+    public abstract int getEntityTrackingRange();
+
     /**
      * Returns a list of all hostile entities in the specified radius.
      */
@@ -211,8 +247,25 @@ public abstract class AWrapperWorld extends EntityManager {
     /**
      * Returns the distance from the passed-in position to highest block below this position in the world, at the position's X/Z coords.
      * This may or may not be the highest block in the column depending on block layout.
+     * Columns are cached, so this is safe to call every frame.
+     */
+    public double getHeight(Point3D position) {
+        return terrainHeightCache.getDistance(position, (int) getMaxHeight());
+    }
+
+    /**
+     * Sets the bit for every non-air block in the column at the passed-in X/Z coords, indexed by Y.
+     * Returns false if the column isn't loaded.  Used to populate the cache for {@link #getHeight(Point3D)}.
      */
-    public abstract double getHeight(Point3D position);
+    protected abstract boolean scanTerrainColumn(int x, int z, long[] solidBits);
+
+    /**
+     * Marks the terrain at the passed-in X/Z coords as changed, so the next call to {@link #getHeight(Point3D)}
+     * there will re-scan the column.  Should be called whenever a block is changed in the world.
+     */
+    public void markTerrainChanged(int x, int z) {
+        terrainHeightCache.invalidate(x, z);
+    }
 
     /**
      * Updates the blocks and depths of collisions for the passed-in BoundingBox to the box's internal variables.
@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.mcinterface;
 
 import java.io.InputStream;
+import java.net.URL;
 import java.util.List;
 
 import minecrafttransportsimulator.items.components.AItemBase;
@@ -44,11 +45,22 @@ public interface IInterfaceCore {
      */
     InputStream getPackResource(String resource);
 
+    /**
+     * Like {@link #getPackResource(String)}, but returns the URL of the resource rather than opening it.
+     * This allows getting information about the resource without reading it.  Returns null if not found.
+     */
+    URL getPackResourceURL(String resource);
+
     /**
      * Logs an error to the logging system.
      */
     void logError(String message);
 
+    /**
+     * Logs an informational message to the logging system.
+     */
+    void logInfo(String message);
+
     /**
      * Returns a new NBT IWrapper instance with no data.
      */
@@ -1,5 +1,7 @@
 package minecrafttransportsimulator.mcinterface;
 
+import java.util.function.Function;
+
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.packets.components.APacketBase;
 
@@ -15,9 +17,10 @@ import minecrafttransportsimulator.packets.components.APacketBase;
 public interface IInterfacePacket {
 
     /**
-     * Registers the passed-in packet with the interface.
+     * Registers the passed-in packet with the interface.  The factory is used to create
+     * the packet from the buffer when it arrives, and should be the packet's buffer constructor.
      */
-    void registerPacket(byte packetIndex, Class<? extends APacketBase> packetClass);
+    <PacketType extends APacketBase> void registerPacket(byte packetIndex, Class<PacketType> packetClass, Function<ByteBuf, PacketType> packetFactory);
 
     /**
      * Gets the index for the passed-in packet from the mapping.
@@ -41,6 +44,19 @@ public interface IInterfacePacket {
      */
     void sendToPlayer(APacketBase packet, IWrapperPlayer player);
 
+    /**
+     * Starts batching packets sent to clients from the calling thread.  While batching,
+     * packets sent to clients are queued rather than sent, and all packets for each player
+     * are sent as a single payload when {@link #endBatching()} is called.  Should only be
+     * called on the server, and does nothing if batching is disabled in the config.
+     */
+    void beginBatching();
+
+    /**
+     * Ends batching and sends all queued packets.  Does nothing if not batching.
+     */
+    void endBatching();
+
     /**
      * Helper method to write NBT data to the buffer.
      * Note: there is a limit to the size of an NBT tag.
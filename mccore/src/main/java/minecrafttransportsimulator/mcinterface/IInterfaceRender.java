@@ -4,6 +4,8 @@ import java.io.InputStream;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.guis.components.GUIComponentItem;
+import minecrafttransportsimulator.rendering.RenderCommand;
+import minecrafttransportsimulator.rendering.RenderQueue;
 import minecrafttransportsimulator.rendering.RenderableObject;
 
 /**
@@ -51,14 +53,25 @@ public interface IInterfaceRender {
     void deleteVertices(RenderableObject object);
 
     /**
-     * Downloads the passed-in texture to be parsed and bound.  The texture is downloaded from the
-     * URL and then added to the texture rendering system.  The integer of the The instance
-     * of the texture is cached in this class once created for later use, so feel free to not
-     * cache the string URL that is passed-in.  If the texture downloading was successful, null is
-     * returned.  Otherwise, an error message is returned.  Use the new texture by setting 
-     * {@link RenderableObject#texture} to the URL.
+     * Sets the render states for the passed-in {@link RenderCommand} from a {@link RenderQueue}.
+     * The current states are those of the passed-in last command, so only states that differ from
+     * it need to be set.  If the last command is null, this is the first command, and all states
+     * should be set.
      */
-    String downloadURLTexture(String textureURL);
+    void setRenderState(RenderCommand command, RenderCommand lastCommand);
+
+    /**
+     * Renders the vertices for the passed-in {@link RenderCommand} with the current render states,
+     * as set by {@link #setRenderState(RenderCommand, RenderCommand)}.  Vertices are cached the
+     * same way as {@link #renderVertices(RenderableObject)}.
+     */
+    void renderCommand(RenderCommand command);
+
+    /**
+     * Resets the render states after all commands from a {@link RenderQueue} are rendered.
+     * The current states are those of the passed-in last command.
+     */
+    void resetRenderState(RenderCommand lastCommand);
 
     /**
      * Returns an integer that represents the lighting state at the position.
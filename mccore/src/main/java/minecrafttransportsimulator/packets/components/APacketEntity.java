@@ -7,6 +7,7 @@ import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityBas
 import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
  * Packet class that includes a default implementation for transmitting an entity
@@ -15,27 +16,34 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
  * @author don_bruce
  */
 public abstract class APacketEntity<EntityType extends AEntityA_Base> extends APacketBase {
+    private final int networkID;
     private final UUID uniqueUUID;
 
     public APacketEntity(AEntityA_Base entity) {
         super(null);
+        this.networkID = ConfigSystem.settings.general.compactPackets.value ? entity.networkID : 0;
         this.uniqueUUID = entity.uniqueUUID;
     }
 
     public APacketEntity(ByteBuf buf) {
         super(buf);
-        this.uniqueUUID = readUUIDFromBuffer(buf);
+        //Network ID of 0 means the entity doesn't have one, or compact packets are off, so the full UUID follows.
+        this.networkID = readVarIntFromBuffer(buf);
+        this.uniqueUUID = networkID == 0 ? readUUIDFromBuffer(buf) : null;
     }
 
     @Override
     public void writeToBuffer(ByteBuf buf) {
         super.writeToBuffer(buf);
-        writeUUIDToBuffer(uniqueUUID, buf);
+        writeVarIntToBuffer(networkID, buf);
+        if (networkID == 0) {
+            writeUUIDToBuffer(uniqueUUID, buf);
+        }
     }
 
     @Override
     public void handle(AWrapperWorld world) {
-        EntityType entity = world.getEntity(uniqueUUID);
+        EntityType entity = networkID != 0 ? world.getEntityByNetworkID(networkID) : world.getEntity(uniqueUUID);
         if (entity != null && handle(world, entity) && !world.isClient()) {
             InterfaceManager.packetInterface.sendToAllClients(this);
             if (entity instanceof ATileEntityBase) {
@@ -45,6 +53,20 @@ public abstract class APacketEntity<EntityType extends AEntityA_Base> extends AP
         }
     }
 
+    /**
+     * Returns a key for the entity this packet is for.  Packets for the same entity will have equal keys.
+     */
+    protected Object getEntityKey() {
+        return networkID != 0 ? Integer.valueOf(networkID) : uniqueUUID;
+    }
+
+    /**
+     * Returns true if the passed-in packet is for the same entity as this packet.
+     */
+    protected boolean isSameEntity(APacketEntity<?> packet) {
+        return networkID == packet.networkID && (networkID != 0 || uniqueUUID.equals(packet.uniqueUUID));
+    }
+
     /**
      * Helper method for handling clamped values.  Mainly comes from
      * control packets where we could go outside our desired bounds if we
@@ -0,0 +1,85 @@
+package minecrafttransportsimulator.packets.components;
+
+import java.util.Arrays;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Packet class that includes a default implementation for transmitting a variable
+ * of an entity.  If the variable is one defined in the entity's definition, then it is
+ * sent as its definition slot rather than its name, as long as the slots have been found to match on both
+ * sides of the network.  Variables not in the definition, variables of definitions whose slots don't match or
+ * haven't been checked yet, or all variables if compact packets are off, are sent by name.  Packets forwarded
+ * by the server to clients re-check this, as the client that sent the packet may match when others don't.
+ *
+ * @author don_bruce
+ */
+public abstract class APacketEntityVariable extends APacketEntity<AEntityD_Definable<?>> {
+    private int variableID;
+    private String variableName;
+
+    public APacketEntityVariable(AEntityD_Definable<?> entity, String variableName) {
+        super(entity);
+        VariableRegistry registry = VariableRegistry.getRegistry(entity.definition);
+        this.variableID = ConfigSystem.settings.general.compactPackets.value && registry.canSendSlots(entity.world) ? registry.getDefinitionSlot(variableName) + 1 : 0;
+        this.variableName = variableName;
+    }
+
+    public APacketEntityVariable(ByteBuf buf) {
+        super(buf);
+        //Variable ID of 0 means the name follows, otherwise it's the definition slot plus 1.
+        this.variableID = readVarIntFromBuffer(buf);
+        this.variableName = variableID == 0 ? readStringFromBuffer(buf) : null;
+    }
+
+    @Override
+    public void writeToBuffer(ByteBuf buf) {
+        super.writeToBuffer(buf);
+        writeVarIntToBuffer(variableID, buf);
+        if (variableID == 0) {
+            writeStringToBuffer(variableName, buf);
+        }
+    }
+
+    @Override
+    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity) {
+        VariableRegistry registry = VariableRegistry.getRegistry(entity.definition);
+        if (variableName == null) {
+            if (!registry.canReceiveSlots(world) || variableID > registry.getDefinitionSize()) {
+                //Definitions don't match between client and server.  Can't resolve this variable.
+                return false;
+            }
+            variableName = registry.getName(variableID - 1);
+        }
+        if (!world.isClient()) {
+            //This packet may be forwarded to all clients, so check if they can all take the slot.
+            variableID = ConfigSystem.settings.general.compactPackets.value && registry.canSendSlots(world) ? registry.getDefinitionSlot(variableName) + 1 : 0;
+        }
+        return handle(world, entity, variableName);
+    }
+
+    /**
+     * Returns a key for the entity and variable this packet is for.  Packets for the same entity and variable will have equal keys.
+     */
+    protected Object getVariableKey() {
+        return Arrays.asList(getEntityKey(), variableName);
+    }
+
+    /**
+     * Returns true if the passed-in packet is for the same entity and variable as this packet.
+     * Only valid for packets created on this side, or that have been handled, as otherwise the name may not be known.
+     */
+    protected boolean isSameVariable(APacketEntityVariable packet) {
+        return isSameEntity(packet) && variableName.equals(packet.variableName);
+    }
+
+    /**
+     * Handler method with an extra parameter for the variable name that this packet
+     * is associated with.  Return value is the same as {@link #handle(AWrapperWorld, AEntityD_Definable)}.
+     */
+    protected abstract boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity, String variableName);
+}
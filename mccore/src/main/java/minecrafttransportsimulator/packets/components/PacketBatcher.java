@@ -0,0 +1,169 @@
+package minecrafttransportsimulator.packets.components;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import minecrafttransportsimulator.mcinterface.IInterfacePacket;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+
+/**
+ * Class used by {@link IInterfacePacket} implementations to batch packets sent to clients.
+ * While batching, packets are queued rather than sent.  When batching ends, all queued packets
+ * are grouped by the player they are going to and handed back to the interface to send as
+ * one payload per player.  Packets are kept in the order they were queued for each player,
+ * and packets that are superseded by later packets via {@link APacketBase#supersedes(APacketBase)}
+ * are removed from the queue, with the packet that superseded them added to the end.  The later packet
+ * can't take the place of the earlier one, as then it would be sent before any packets queued between
+ * them, such as toggles of the same variable.  Packets that may be superseded are found by their
+ * {@link APacketBase#getSupersedeKey()}, so queueing is constant-time.
+ * <br><br>
+ * Only packets sent from the thread that started batching are queued.  Packets from other threads,
+ * such as the networking threads, should be sent as normal, as they may happen at any time.
+ *
+ * @author don_bruce
+ */
+public class PacketBatcher {
+    /**
+     * Max bytes in a single batch.  MC limits payloads to 1MB, so we stay well under that.
+     */
+    private static final int MAX_BATCH_BYTES = 512 * 1024;
+
+    private final List<QueuedPacket> queue = new ArrayList<>();
+    private final Map<SupersedeKey, Integer> supersedableIndexes = new HashMap<>();
+    private volatile Thread batchingThread;
+
+    /**
+     * Starts batching packets from the calling thread.  Any packets still queued
+     * from a prior batch will be sent with this batch.
+     */
+    public void begin() {
+        batchingThread = Thread.currentThread();
+    }
+
+    /**
+     * Returns true if packets from the calling thread should be queued rather than sent.
+     */
+    public boolean isBatching() {
+        return batchingThread == Thread.currentThread();
+    }
+
+    /**
+     * Queues the packet to be sent to the passed-in player, or all players if the player is null.
+     */
+    public void queue(APacketBase packet, IWrapperPlayer player) {
+        UUID recipientID = player != null ? player.getID() : null;
+        Object packetKey = packet.getSupersedeKey();
+        if (packetKey != null) {
+            //Packets supersede at most one prior packet, as that packet will have superseded any before it.
+            SupersedeKey key = new SupersedeKey(packet.getClass(), packetKey, recipientID);
+            Integer queuedIndex = supersedableIndexes.get(key);
+            if (queuedIndex != null && packet.supersedes(queue.get(queuedIndex).packet)) {
+                //Leave a null in place of the superseded packet, as removing it would shift the indexes of later packets.
+                queue.set(queuedIndex, null);
+            }
+            supersedableIndexes.put(key, queue.size());
+            queue.add(new QueuedPacket(packet, player, recipientID));
+        } else {
+            queue.add(new QueuedPacket(packet, player, recipientID));
+        }
+    }
+
+    /**
+     * Ends batching and sends all queued packets.  Packets for all players are sent to the passed-in players.
+     * Each packet is converted to bytes by the encoder once, and then the bytes for each player are passed to the
+     * sender.  Batches that would be too large are split, so the sender may be called more than once per player.
+     */
+    public void end(Collection<IWrapperPlayer> allPlayers, Function<APacketBase, byte[]> encoder, BiConsumer<IWrapperPlayer, List<byte[]>> sender) {
+        batchingThread = null;
+        if (queue.isEmpty()) {
+            return;
+        }
+        try {
+            //Get all players we need to send to.  This includes players that only have player-specific packets.
+            Map<UUID, IWrapperPlayer> recipients = new LinkedHashMap<>();
+            for (IWrapperPlayer player : allPlayers) {
+                recipients.put(player.getID(), player);
+            }
+            for (QueuedPacket queued : queue) {
+                if (queued != null && queued.recipient != null) {
+                    recipients.putIfAbsent(queued.recipientID, queued.recipient);
+                }
+            }
+
+            byte[][] encodedPackets = new byte[queue.size()][];
+            for (IWrapperPlayer player : recipients.values()) {
+                UUID playerID = player.getID();
+                List<byte[]> batch = new ArrayList<>();
+                int batchBytes = 0;
+                for (int i = 0; i < queue.size(); ++i) {
+                    QueuedPacket queued = queue.get(i);
+                    if (queued != null && (queued.recipientID == null || queued.recipientID.equals(playerID))) {
+                        if (encodedPackets[i] == null) {
+                            encodedPackets[i] = encoder.apply(queued.packet);
+                        }
+                        if (!batch.isEmpty() && batchBytes + encodedPackets[i].length > MAX_BATCH_BYTES) {
+                            sender.accept(player, batch);
+                            batch = new ArrayList<>();
+                            batchBytes = 0;
+                        }
+                        batch.add(encodedPackets[i]);
+                        batchBytes += encodedPackets[i].length;
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    sender.accept(player, batch);
+                }
+            }
+        } finally {
+            queue.clear();
+            supersedableIndexes.clear();
+        }
+    }
+
+    private static class SupersedeKey {
+        private final Class<? extends APacketBase> packetClass;
+        private final Object packetKey;
+        private final UUID recipientID;
+
+        private SupersedeKey(Class<? extends APacketBase> packetClass, Object packetKey, UUID recipientID) {
+            this.packetClass = packetClass;
+            this.packetKey = packetKey;
+            this.recipientID = recipientID;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (object instanceof SupersedeKey) {
+                SupersedeKey other = (SupersedeKey) object;
+                return packetClass == other.packetClass && packetKey.equals(other.packetKey) && Objects.equals(recipientID, other.recipientID);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return (packetClass.hashCode() * 31 + packetKey.hashCode()) * 31 + Objects.hashCode(recipientID);
+        }
+    }
+
+    private static class QueuedPacket {
+        private final APacketBase packet;
+        private final IWrapperPlayer recipient;
+        private final UUID recipientID;
+
+        private QueuedPacket(APacketBase packet, IWrapperPlayer recipient, UUID recipientID) {
+            this.packet = packet;
+            this.recipient = recipient;
+            this.recipientID = recipientID;
+        }
+    }
+}
@@ -3,7 +3,7 @@ package minecrafttransportsimulator.packets.instances;
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.packets.components.APacketEntityVariable;
 
 /**
  * Packet used to increment variable states.  Sent from clients to servers to
@@ -13,15 +13,13 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  *
  * @author don_bruce
  */
-public class PacketEntityVariableIncrement extends APacketEntity<AEntityD_Definable<?>> {
-    private final String variableName;
+public class PacketEntityVariableIncrement extends APacketEntityVariable {
     private final double incrementValue;
     private final double minValue;
     private final double maxValue;
 
     public PacketEntityVariableIncrement(AEntityD_Definable<?> entity, String variableName, double incrementValue, double minValue, double maxValue) {
-        super(entity);
-        this.variableName = variableName;
+        super(entity, variableName);
         this.incrementValue = incrementValue;
         this.minValue = minValue;
         this.maxValue = maxValue;
@@ -33,7 +31,6 @@ public class PacketEntityVariableIncrement extends APacketEntity<AEntityD_Defina
 
     public PacketEntityVariableIncrement(ByteBuf buf) {
         super(buf);
-        this.variableName = readStringFromBuffer(buf);
         this.incrementValue = buf.readDouble();
         this.minValue = buf.readDouble();
         this.maxValue = buf.readDouble();
@@ -42,14 +39,13 @@ public class PacketEntityVariableIncrement extends APacketEntity<AEntityD_Defina
     @Override
     public void writeToBuffer(ByteBuf buf) {
         super.writeToBuffer(buf);
-        writeStringToBuffer(variableName, buf);
         buf.writeDouble(incrementValue);
         buf.writeDouble(minValue);
         buf.writeDouble(maxValue);
     }
 
     @Override
-    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity) {
+    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity, String variableName) {
         return entity.incrementVariable(variableName, incrementValue, minValue, maxValue);
     }
 }
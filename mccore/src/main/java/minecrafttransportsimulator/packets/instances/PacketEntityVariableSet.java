@@ -3,7 +3,8 @@ package minecrafttransportsimulator.packets.instances;
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.packets.components.APacketBase;
+import minecrafttransportsimulator.packets.components.APacketEntityVariable;
 
 /**
  * Packet used to set variable states.  Sent from clients to servers to
@@ -16,32 +17,39 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  *
  * @author don_bruce
  */
-public class PacketEntityVariableSet extends APacketEntity<AEntityD_Definable<?>> {
-    private final String variableName;
+public class PacketEntityVariableSet extends APacketEntityVariable {
     private final double variableValue;
 
     public PacketEntityVariableSet(AEntityD_Definable<?> entity, String variableName, double variableValue) {
-        super(entity);
-        this.variableName = variableName;
+        super(entity, variableName);
         this.variableValue = variableValue;
     }
 
     public PacketEntityVariableSet(ByteBuf buf) {
         super(buf);
-        this.variableName = readStringFromBuffer(buf);
         this.variableValue = buf.readDouble();
     }
 
     @Override
     public void writeToBuffer(ByteBuf buf) {
         super.writeToBuffer(buf);
-        writeStringToBuffer(variableName, buf);
         buf.writeDouble(variableValue);
     }
 
     @Override
-    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity) {
+    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity, String variableName) {
         entity.setVariable(variableName, variableValue);
         return true;
     }
+
+    @Override
+    public Object getSupersedeKey() {
+        return getVariableKey();
+    }
+
+    @Override
+    public boolean supersedes(APacketBase queuedPacket) {
+        //Only the last value set matters, so we can just replace the prior packet.
+        return isSameVariable((PacketEntityVariableSet) queuedPacket);
+    }
 }
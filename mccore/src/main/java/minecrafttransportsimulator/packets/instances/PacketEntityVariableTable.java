@@ -0,0 +1,42 @@
+package minecrafttransportsimulator.packets.instances;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.VariableRegistry;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+import minecrafttransportsimulator.packets.components.APacketEntityInteract;
+
+/**
+ * Packet sent from clients to servers the first time the client loads an entity of a definition in a world.
+ * This contains the client's hash of the variable slots for the definition, which the server checks against
+ * its own.  The server won't send slots for variables of that definition until every player in the world
+ * has sent a hash that matches.
+ *
+ * @author don_bruce
+ */
+public class PacketEntityVariableTable extends APacketEntityInteract<AEntityD_Definable<?>, IWrapperPlayer> {
+    private final int tableHash;
+
+    public PacketEntityVariableTable(AEntityD_Definable<?> entity, IWrapperPlayer player, int tableHash) {
+        super(entity, player);
+        this.tableHash = tableHash;
+    }
+
+    public PacketEntityVariableTable(ByteBuf buf) {
+        super(buf);
+        this.tableHash = buf.readInt();
+    }
+
+    @Override
+    public void writeToBuffer(ByteBuf buf) {
+        super.writeToBuffer(buf);
+        buf.writeInt(tableHash);
+    }
+
+    @Override
+    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity, IWrapperPlayer player) {
+        VariableRegistry.getRegistry(entity.definition).setPlayerTableHash(player, tableHash);
+        return false;
+    }
+}
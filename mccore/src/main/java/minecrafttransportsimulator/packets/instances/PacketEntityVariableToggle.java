@@ -3,7 +3,7 @@ package minecrafttransportsimulator.packets.instances;
 import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
-import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.packets.components.APacketEntityVariable;
 
 /**
  * Packet used to toggle variable states.  Sent from clients to servers to
@@ -12,27 +12,17 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  *
  * @author don_bruce
  */
-public class PacketEntityVariableToggle extends APacketEntity<AEntityD_Definable<?>> {
-    private final String variableName;
-
+public class PacketEntityVariableToggle extends APacketEntityVariable {
     public PacketEntityVariableToggle(AEntityD_Definable<?> entity, String variableName) {
-        super(entity);
-        this.variableName = variableName;
+        super(entity, variableName);
     }
 
     public PacketEntityVariableToggle(ByteBuf buf) {
         super(buf);
-        this.variableName = readStringFromBuffer(buf);
-    }
-
-    @Override
-    public void writeToBuffer(ByteBuf buf) {
-        super.writeToBuffer(buf);
-        writeStringToBuffer(variableName, buf);
     }
 
     @Override
-    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity) {
+    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity, String variableName) {
         entity.toggleVariable(variableName);
         return true;
     }
@@ -4,7 +4,9 @@ import io.netty.buffer.ByteBuf;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.packets.components.APacketBase;
 import minecrafttransportsimulator.packets.components.APacketEntity;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
  * Packet used to send server vehicle movement to clients.  This packet doesn't directly
@@ -15,34 +17,59 @@ import minecrafttransportsimulator.packets.components.APacketEntity;
  * the position and rotation.  This system of syncing has the side-effect of significant
  * rubberbanding when server TPS suffers or networking goes bad, but it's far better than
  * the alternatives when the connection is good, hence why we use it.
+ * <br><br>
+ * If compact packets are on, values are sent as fixed-point multiples of the quantization epsilon.
+ * The epsilon is sent with the packet, with a value of 0 meaning the full values follow.  Callers
+ * should use {@link #quantize(double)} on the values they pass in and carry the remainder over to
+ * the next packet, otherwise rounding errors will add up on clients.
  *
  * @author don_bruce
  */
 public class PacketVehicleServerMovement extends APacketEntity<EntityVehicleF_Physics> {
     private final Point3D motion;
     private final Point3D rotation;
-    private final double pathing;
+    private double pathing;
+    private final float epsilon;
 
     public PacketVehicleServerMovement(EntityVehicleF_Physics vehicle, Point3D motion, Point3D rotation, double pathing) {
         super(vehicle);
         this.motion = motion;
         this.rotation = rotation;
         this.pathing = pathing;
+        this.epsilon = getEpsilon();
     }
 
     public PacketVehicleServerMovement(ByteBuf buf) {
         super(buf);
-        this.motion = readPoint3dFromBuffer(buf);
-        this.rotation = readPoint3dFromBuffer(buf);
-        this.pathing = buf.readDouble();
+        this.epsilon = buf.readFloat();
+        if (epsilon != 0) {
+            this.motion = new Point3D(readVarLongFromBuffer(buf) * (double) epsilon, readVarLongFromBuffer(buf) * (double) epsilon, readVarLongFromBuffer(buf) * (double) epsilon);
+            this.rotation = new Point3D(readVarLongFromBuffer(buf) * (double) epsilon, readVarLongFromBuffer(buf) * (double) epsilon, readVarLongFromBuffer(buf) * (double) epsilon);
+            this.pathing = readVarLongFromBuffer(buf) * (double) epsilon;
+        } else {
+            this.motion = readPoint3dFromBuffer(buf);
+            this.rotation = readPoint3dFromBuffer(buf);
+            this.pathing = buf.readDouble();
+        }
     }
 
     @Override
     public void writeToBuffer(ByteBuf buf) {
         super.writeToBuffer(buf);
-        writePoint3dToBuffer(motion, buf);
-        writePoint3dToBuffer(rotation, buf);
-        buf.writeDouble(pathing);
+        buf.writeFloat(epsilon);
+        if (epsilon != 0) {
+            writeVarLongToBuffer(Math.round(motion.x / epsilon), buf);
+            writeVarLongToBuffer(Math.round(motion.y / epsilon), buf);
+            writeVarLongToBuffer(Math.round(motion.z / epsilon), buf);
+            writeVarLongToBuffer(Math.round(rotation.x / epsilon), buf);
+            writeVarLongToBuffer(Math.round(rotation.y / epsilon), buf);
+            writeVarLongToBuffer(Math.round(rotation.z / epsilon), buf);
+            writeVarLongToBuffer(Math.round(pathing / epsilon), buf);
+        } else {
+            writePoint3dToBuffer(motion, buf);
+            writePoint3dToBuffer(rotation, buf);
+            buf.writeDouble(pathing);
+        }
     }
 
     @Override
@@ -50,4 +77,35 @@ public class PacketVehicleServerMovement extends APacketEntity<EntityVehicleF_Ph
         vehicle.addToServerDeltas(motion, rotation, pathing);
         return false;
     }
+
+    @Override
+    public Object getSupersedeKey() {
+        return getEntityKey();
+    }
+
+    @Override
+    public boolean supersedes(APacketBase queuedPacket) {
+        //Movement is a delta, so combine the prior packet's movement with ours.
+        PacketVehicleServerMovement packet = (PacketVehicleServerMovement) queuedPacket;
+        if (isSameEntity(packet) && epsilon == packet.epsilon) {
+            motion.add(packet.motion);
+            rotation.add(packet.rotation);
+            pathing += packet.pathing;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the passed-in value rounded to what clients will get from this packet.
+     */
+    public static double quantize(double value) {
+        float epsilon = getEpsilon();
+        return epsilon != 0 ? Math.round(value / epsilon) * (double) epsilon : value;
+    }
+
+    private static float getEpsilon() {
+        return ConfigSystem.settings.general.compactPackets.value ? ConfigSystem.settings.general.packetQuantizationEpsilon.value.floatValue() : 0;
+    }
 }
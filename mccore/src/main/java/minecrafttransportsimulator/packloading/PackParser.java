@@ -1,6 +1,8 @@
 package minecrafttransportsimulator.packloading;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Enumeration;
@@ -10,6 +12,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -52,6 +56,8 @@ import minecrafttransportsimulator.systems.ConfigSystem;
  * @author don_bruce
  */
 public final class PackParser {
+    private static final int MAX_PARSING_THREADS = 8;
+
     /**
      * Links packs to the jar files that they are a part of.  Used for pack loading only: asset loading uses Java classpath systems.
      **/
@@ -319,7 +325,12 @@ public final class PackParser {
      * create and register your pack items and use {@link #registerItem(AJSONItem)}.
      */
     private static void parseAllPacks() {
+        //Index stage: find all JSON files we need to parse.
+        //Each jar is opened and its entries listed once, even if it has multiple packs or sub-directories.
+        long indexStart = System.nanoTime();
         List<String> packIDs = new ArrayList<>(packMap.keySet());
+        Map<File, PackJarIndex> jarIndexes = new HashMap<>();
+        List<PackEntry> packEntries = new ArrayList<>();
         for (String s : packMap.keySet()) {
             JSONPack packDef = packMap.get(s);
             //Don't parse the core pack.  THat's all internal.
@@ -371,83 +382,199 @@ public final class PackParser {
                 }
             }
 
-            //Load the pack components into the game.
+            //Get the index for the jar the pack is in.
+            File packJar = packJarMap.get(packDef.packID);
+            PackJarIndex jarIndex = jarIndexes.get(packJar);
+            if (jarIndex == null) {
+                try {
+                    jarIndex = new PackJarIndex(packJar);
+                    jarIndexes.put(packJar, jarIndex);
+                } catch (Exception e) {
+                    InterfaceManager.coreInterface.logError("Could not start parsing of pack: " + packDef.packID);
+                    e.printStackTrace();
+                    continue;
+                }
+            }
+
+            //Find the pack components to load into the game.
             //We iterate over all the sub-folders we found from the packDef checks.
             PackStructure structure = PackStructure.values()[packDef.fileStructure];
-            for (String subDirectory : validSubDirectories) {
+            for (int subDirectoryIndex = 0; subDirectoryIndex < validSubDirectories.size(); ++subDirectoryIndex) {
+                String subDirectory = validSubDirectories.get(subDirectoryIndex);
                 String assetPathPrefix = "assets/" + packDef.packID + "/";
                 if (!subDirectory.isEmpty()) {
                     assetPathPrefix += subDirectory + "/";
                 }
 
-                try {
-                    ZipFile jarFile = new ZipFile(packJarMap.get(packDef.packID));
-                    Enumeration<? extends ZipEntry> entries = jarFile.entries();
-                    while (entries.hasMoreElements()) {
-                        //Get next entry and path.
-                        ZipEntry entry = entries.nextElement();
-                        String entryFullPath = entry.getName();
-                        if (entryFullPath.startsWith(assetPathPrefix) && entryFullPath.endsWith(".json")) {
-                            //JSON is in correct folder.  Get path properties and ensure they match our specs.
-                            //Need the asset folder structure between the main prefix and the asset itself.
-                            //This lets us know what asset we need to create as all assets are in their own folders.
-                            String fileName = entryFullPath.substring(entryFullPath.lastIndexOf('/') + 1);
-                            String assetPath = entryFullPath.substring(assetPathPrefix.length(), entryFullPath.substring(0, entryFullPath.length() - fileName.length()).lastIndexOf("/") + 1);
-                            if (!structure.equals(PackStructure.MODULAR)) {
-                                //Need to trim the jsondefs folder to get correct sub-folder of jsondefs data.
-                                //Modular structure does not have a jsondefs folder, so we don't need to trim it off for that.
-                                //If we aren't modular, and aren't in a jsondefs folder, skip this entry.
-                                if (assetPath.startsWith("jsondefs/")) {
-                                    assetPath = assetPath.substring("jsondefs/".length());
-                                } else {
-                                    continue;
-                                }
+                for (ZipEntry entry : jarIndex.jsonEntries) {
+                    String entryFullPath = entry.getName();
+                    if (entryFullPath.startsWith(assetPathPrefix)) {
+                        //JSON is in correct folder.  Get path properties and ensure they match our specs.
+                        //Need the asset folder structure between the main prefix and the asset itself.
+                        //This lets us know what asset we need to create as all assets are in their own folders.
+                        String fileName = entryFullPath.substring(entryFullPath.lastIndexOf('/') + 1);
+                        String assetPath = entryFullPath.substring(assetPathPrefix.length(), entryFullPath.substring(0, entryFullPath.length() - fileName.length()).lastIndexOf("/") + 1);
+                        if (!structure.equals(PackStructure.MODULAR)) {
+                            //Need to trim the jsondefs folder to get correct sub-folder of jsondefs data.
+                            //Modular structure does not have a jsondefs folder, so we don't need to trim it off for that.
+                            //If we aren't modular, and aren't in a jsondefs folder, skip this entry.
+                            if (assetPath.startsWith("jsondefs/")) {
+                                assetPath = assetPath.substring("jsondefs/".length());
+                            } else {
+                                continue;
                             }
+                        }
 
-                            //Check to make sure json isn't an item JSON or our pack definition.
-                            if (!fileName.equals("packdefinition.json") && (structure.equals(PackStructure.MODULAR) ? !fileName.endsWith("_item.json") : entryFullPath.contains("jsondefs"))) {
-                                //Get classification and JSON class type to use with GSON system.
-                                ItemClassification classification;
-                                try {
-                                    classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
-                                } catch (Exception e) {
-                                    InterfaceManager.coreInterface.logError("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
-                                    continue;
-                                }
-
-                                //Create the JSON instance.
-                                String systemName = fileName.substring(0, fileName.length() - ".json".length());
-                                AJSONBase definition;
-                                try {
-                                    definition = JSONParser.parseStream(jarFile.getInputStream(entry), classification.representingClass, packDef.packID, systemName);
-                                } catch (Exception e) {
-                                    InterfaceManager.coreInterface.logError("Could not parse: " + packDef.packID + ":" + fileName);
-                                    InterfaceManager.coreInterface.logError(e.getMessage());
-                                    continue;
-                                }
-
-                                //Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
-                                //Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
-                                //if we are loading a non-default pack format.
-                                definition.packID = packDef.packID;
-                                definition.systemName = systemName;
-                                definition.classification = classification;
-                                definition.prefixFolders = assetPath.substring(classification.toDirectory().length());
-                                registerItem(definition);
+                        //Check to make sure json isn't an item JSON or our pack definition.
+                        if (!fileName.equals("packdefinition.json") && (structure.equals(PackStructure.MODULAR) ? !fileName.endsWith("_item.json") : entryFullPath.contains("jsondefs"))) {
+                            //Get classification and JSON class type to use with GSON system.
+                            ItemClassification classification;
+                            try {
+                                classification = ItemClassification.fromDirectory(assetPath.substring(0, assetPath.indexOf("/") + 1));
+                            } catch (Exception e) {
+                                InterfaceManager.coreInterface.logError("Was given an invalid classifcation sub-folder for asset: " + fileName + ".  Check your folder paths.");
+                                continue;
                             }
+                            packEntries.add(new PackEntry(packDef, jarIndex.jarFile, entry, subDirectoryIndex, fileName, assetPath, classification));
                         }
                     }
+                }
+            }
+        }
 
-                    //Done parsing.  Close the jarfile.
-                    jarFile.close();
-                } catch (Exception e) {
-                    InterfaceManager.coreInterface.logError("Could not start parsing of pack: " + packDef.packID);
-                    e.printStackTrace();
+        //Parse stage: parse, update, and validate all JSONs.  These only touch their own definition,
+        //so they can be done in parallel.  The pool is bounded so we don't take over the whole machine.
+        long parseStart = System.nanoTime();
+        int threads = ConfigSystem.settings.general.packParsingThreads.value;
+        if (threads <= 0) {
+            threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() - 1, MAX_PARSING_THREADS));
+        }
+        if (threads > 1 && packEntries.size() > 1) {
+            ForkJoinPool parsingPool = new ForkJoinPool(threads);
+            try {
+                List<ForkJoinTask<?>> parsingTasks = new ArrayList<>(packEntries.size());
+                for (PackEntry packEntry : packEntries) {
+                    parsingTasks.add(parsingPool.submit(packEntry::parse));
+                }
+                for (ForkJoinTask<?> parsingTask : parsingTasks) {
+                    parsingTask.join();
+                }
+            } finally {
+                parsingPool.shutdown();
+            }
+        } else {
+            for (PackEntry packEntry : packEntries) {
+                packEntry.parse();
+            }
+        }
+
+        //Done parsing.  Close the jarfiles.
+        for (PackJarIndex jarIndex : jarIndexes.values()) {
+            try {
+                jarIndex.jarFile.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+
+        //Register stage: create the items from the parsed definitions.  This is done on this thread in sorted order,
+        //so registration is the same every launch and doesn't depend on which thread finished first.
+        long registerStart = System.nanoTime();
+        packEntries.sort(null);
+        int registeredCount = 0;
+        for (PackEntry packEntry : packEntries) {
+            if (packEntry.definition != null) {
+                createItems(packEntry.definition);
+                ++registeredCount;
+            }
+        }
+        long registerEnd = System.nanoTime();
+
+        InterfaceManager.coreInterface.logInfo(String.format("Parsed %d of %d pack JSONs from %d jars on %d threads.  Index: %dms, parse: %dms, register: %dms.", registeredCount, packEntries.size(), jarIndexes.size(), threads, (parseStart - indexStart) / 1000000, (registerStart - parseStart) / 1000000, (registerEnd - registerStart) / 1000000));
+    }
+
+    /**
+     * Index of a pack jar.  This holds the open jar and all JSON entries in it, so the entries only
+     * need to be listed once no matter how many packs and sub-directories are in the jar.
+     */
+    private static class PackJarIndex {
+        private final ZipFile jarFile;
+        private final List<ZipEntry> jsonEntries = new ArrayList<>();
+
+        private PackJarIndex(File packJar) throws IOException {
+            this.jarFile = new ZipFile(packJar);
+            Enumeration<? extends ZipEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.getName().endsWith(".json")) {
+                    jsonEntries.add(entry);
                 }
             }
         }
     }
 
+    /**
+     * A JSON file in a pack that needs to be parsed.  {@link #parse()} may be called from any thread, as it only touches
+     * this entry's definition.  Entries sort by pack, then by the sub-directory they were found in, then by path.
+     * This keeps the order sub-directories were loaded in, as later ones may override definitions in earlier ones.
+     */
+    private static class PackEntry implements Comparable<PackEntry> {
+        private final JSONPack packDef;
+        private final ZipFile jarFile;
+        private final ZipEntry entry;
+        private final int subDirectoryIndex;
+        private final String fileName;
+        private final String assetPath;
+        private final ItemClassification classification;
+        private AJSONBase definition;
+
+        private PackEntry(JSONPack packDef, ZipFile jarFile, ZipEntry entry, int subDirectoryIndex, String fileName, String assetPath, ItemClassification classification) {
+            this.packDef = packDef;
+            this.jarFile = jarFile;
+            this.entry = entry;
+            this.subDirectoryIndex = subDirectoryIndex;
+            this.fileName = fileName;
+            this.assetPath = assetPath;
+            this.classification = classification;
+        }
+
+        private void parse() {
+            //Create the JSON instance.
+            String systemName = fileName.substring(0, fileName.length() - ".json".length());
+            AJSONBase parsedDefinition;
+            try (InputStream stream = jarFile.getInputStream(entry)) {
+                parsedDefinition = JSONParser.parseStream(stream, classification.representingClass, packDef.packID, systemName);
+            } catch (Exception e) {
+                InterfaceManager.coreInterface.logError("Could not parse: " + packDef.packID + ":" + fileName);
+                InterfaceManager.coreInterface.logError(e.getMessage());
+                return;
+            }
+
+            //Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
+            //Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
+            //if we are loading a non-default pack format.
+            parsedDefinition.packID = packDef.packID;
+            parsedDefinition.systemName = systemName;
+            parsedDefinition.classification = classification;
+            parsedDefinition.prefixFolders = assetPath.substring(classification.toDirectory().length());
+            if (prepareItem(parsedDefinition)) {
+                definition = parsedDefinition;
+            }
+        }
+
+        @Override
+        public int compareTo(PackEntry other) {
+            int result = packDef.packID.compareTo(other.packDef.packID);
+            if (result == 0) {
+                result = Integer.compare(subDirectoryIndex, other.subDirectoryIndex);
+                if (result == 0) {
+                    result = entry.getName().compareTo(other.entry.getName());
+                }
+            }
+            return result;
+        }
+    }
+
     /**
      * Called to add the passed-in component to the pack registry.  While this is normally called automatically by the
      * parser as it goes over the jar files, this may be called manually if other mods (or the core mod) want
@@ -463,12 +590,36 @@ public final class PackParser {
      * A fault in the compatibility system or in the validation will result in the item not being registered.
      */
     public static void registerItem(AJSONBase itemDef) {
+        if (prepareItem(itemDef)) {
+            createItems(itemDef);
+        }
+    }
+
+    /**
+     * Performs the Legacy Compatibility code and JSON validation on the passed-in definition.  Returns true if
+     * the definition is valid and may be registered.  This only touches the definition, so is safe to call
+     * from parsing threads.
+     */
+    private static boolean prepareItem(AJSONBase itemDef) {
         try {
             //Do legacy compats before validating the JSON.
             //This will populate any required fields that were not in older versions.
             LegacyCompatSystem.performLegacyCompats(itemDef);
             JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
+            return true;
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError(e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
 
+    /**
+     * Creates and registers all items for the passed-in prepared definition.  This must only be called from
+     * the main thread, as it modifies the registry maps.
+     */
+    private static void createItems(AJSONBase itemDef) {
+        try {
             //Create all required items.
             if (itemDef instanceof AJSONMultiModelProvider) {
                 //Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
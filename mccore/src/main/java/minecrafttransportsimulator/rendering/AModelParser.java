@@ -1,5 +1,6 @@
 package minecrafttransportsimulator.rendering;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -46,11 +47,23 @@ public abstract class AModelParser {
     /**
      * Attempts to obtain the parser for the passed-in modelLocation.  After this, the model
      * is parsed and returned.  If no parser is found, an exception is thrown.
+     * If the model has been parsed before, it is loaded from the {@link ModelCache} instead.
      */
     public static List<RenderableObject> parseModel(String modelLocation) {
         AModelParser parser = parsers.get(modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
         if (parser != null) {
-            return parser.parseModelInternal(modelLocation);
+            File cacheFile = ModelCache.getCacheFile(modelLocation);
+            if (cacheFile != null) {
+                List<RenderableObject> cachedModel = ModelCache.readCache(cacheFile);
+                if (cachedModel != null) {
+                    return cachedModel;
+                }
+            }
+            List<RenderableObject> parsedModel = parser.parseModelInternal(modelLocation);
+            if (cacheFile != null) {
+                ModelCache.writeCache(cacheFile, parsedModel);
+            }
+            return parsedModel;
         } else {
             throw new IllegalArgumentException("No parser found for model format of " + modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
         }
@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.rendering;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition.AnimationComponentType;
@@ -25,6 +26,7 @@ public class DurationDelayClock {
     private static final double d1 = 2.75;
 
     public final JSONAnimationDefinition animation;
+    public final VariableAccessor variableAccessor;
     public final double animationAxisMagnitude;
     public final Point3D animationAxisNormalized;
     public final boolean isUseful;
@@ -38,8 +40,9 @@ public class DurationDelayClock {
     private boolean startedReverseMovement = false;
     private boolean endedReverseMovement = false;
 
-    public DurationDelayClock(JSONAnimationDefinition animation) {
+    public DurationDelayClock(JSONAnimationDefinition animation, AEntityD_Definable<?> entity) {
         this.animation = animation;
+        this.variableAccessor = entity.getAnimationVariableAccessor(animation.variable);
         this.animationAxisMagnitude = animation.axis != null ? animation.axis.length() : 1.0;
         this.animationAxisNormalized = animation.axis != null ? animation.axis.copy().normalize() : null;
         this.shouldDoFactoring = animation.duration != 0 || animation.forwardsDelay != 0 || animation.reverseDelay != 0;
@@ -153,7 +153,7 @@ public class GIFParser {
 
     public static class GIFImageFrame {
         private final int delay;
-        private final BufferedImage image;
+        private BufferedImage image;
         private final String disposal;
 
         private GIFImageFrame(BufferedImage image, int delay, String disposal) {
@@ -166,6 +166,13 @@ public class GIFParser {
             return image;
         }
 
+        /**
+         * Releases the image of this frame, so it doesn't stay on the heap once it has been uploaded.
+         */
+        void releaseImage() {
+            image = null;
+        }
+
         public int getDelay() {
             return delay;
         }
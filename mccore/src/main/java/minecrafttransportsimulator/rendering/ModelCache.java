@@ -0,0 +1,230 @@
+package minecrafttransportsimulator.rendering;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Class that caches parsed models on disk in a compact binary form.  Cache files are keyed by a hash of the
+ * model location and the size, modification time, and CRC of the model file, so changed models are parsed
+ * again.  Only if the model file doesn't have these is the file itself hashed.  Keys are worked out once a
+ * session, as models are parsed many times for things like treads and levels of detail.  If a model is
+ * changed during the session, {@link #clearCacheFile(String)} must be called to work out its key again.
+ * <br><br>
+ * Loading a cached model reads the file in one go and wraps each object's part of it as that object's
+ * vertices, so no parsing is done.  Each load gets its own copy, as some objects change their vertices.
+ * <br><br>
+ * The version should be incremented any time the output of a parser changes, as this will ensure the
+ * old cache files aren't used.
+ *
+ * @author don_bruce
+ */
+public class ModelCache {
+    private static final int CACHE_MAGIC = 0x4D54534D;
+    private static final int CACHE_VERSION = 1;
+    private static final File cacheDir = new File(InterfaceManager.gameDirectory, "mts_modelcache");
+    private static final Map<String, File> cacheFiles = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the cache file for the passed-in model location.  This will be unique to the contents of the model.
+     * The file may not exist if the model hasn't been cached yet.  Returns null if the model can't be read, in
+     * which case the parser should be used as it will give a better error than we can.
+     */
+    public static File getCacheFile(String modelLocation) {
+        File cacheFile = cacheFiles.get(modelLocation);
+        if (cacheFile == null) {
+            try {
+                URL modelURL = InterfaceManager.coreInterface.getPackResourceURL(modelLocation);
+                if (modelURL == null) {
+                    return null;
+                }
+                MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                digest.update(modelLocation.getBytes(StandardCharsets.UTF_8));
+                URLConnection connection = modelURL.openConnection();
+                if (connection instanceof JarURLConnection) {
+                    JarEntry entry = ((JarURLConnection) connection).getJarEntry();
+                    digest.update((entry.getCrc() + ":" + entry.getSize() + ":" + entry.getTime()).getBytes(StandardCharsets.UTF_8));
+                } else if ("file".equals(modelURL.getProtocol())) {
+                    File modelFile = new File(modelURL.toURI());
+                    digest.update((modelFile.length() + ":" + modelFile.lastModified()).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    //No metadata we can trust, so hash the model itself.
+                    try (InputStream stream = connection.getInputStream()) {
+                        byte[] readBuffer = new byte[8192];
+                        int bytesRead;
+                        while ((bytesRead = stream.read(readBuffer)) != -1) {
+                            digest.update(readBuffer, 0, bytesRead);
+                        }
+                    }
+                }
+                StringBuilder fileName = new StringBuilder();
+                for (byte hashByte : digest.digest()) {
+                    fileName.append(String.format("%02x", hashByte));
+                }
+                cacheFile = new File(cacheDir, fileName.append(".mdl").toString());
+                cacheFiles.put(modelLocation, cacheFile);
+            } catch (Exception e) {
+                //No hash means no cache.  Not ideal, but we can still parse.
+                return null;
+            }
+        }
+        return cacheFile;
+    }
+
+    /**
+     * Clears the cache file for the passed-in model location, so the next call to {@link #getCacheFile(String)}
+     * checks the model again.  Used when models are reloaded, as they may have been changed.
+     */
+    public static void clearCacheFile(String modelLocation) {
+        cacheFiles.remove(modelLocation);
+    }
+
+    /**
+     * Reads the model from the passed-in cache file.  Returns null if the file doesn't exist, or isn't a valid cache file.
+     */
+    public static List<RenderableObject> readCache(File cacheFile) {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            //Check the header before reading, so we don't read files we can't use.
+            ByteBuffer header = ByteBuffer.allocate(12).order(ByteOrder.nativeOrder());
+            if (channel.read(header) != header.capacity() || header.getInt(0) != CACHE_MAGIC || header.getInt(4) != CACHE_VERSION) {
+                return null;
+            }
+            ByteBuffer data = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.nativeOrder());
+            data.put(header.array());
+            while (data.hasRemaining()) {
+                if (channel.read(data) == -1) {
+                    return null;
+                }
+            }
+            data.position(header.capacity());
+            int objectCount = header.getInt(8);
+            List<RenderableObject> objectList = new ArrayList<>(objectCount);
+            for (int i = 0; i < objectCount; ++i) {
+                String name = readString(data);
+                String texture = data.get() != 0 ? readString(data) : null;
+                float red = data.getFloat();
+                float green = data.getFloat();
+                float blue = data.getFloat();
+                boolean cacheVertices = data.get() != 0;
+                int floatCount = data.getInt();
+                align(data);
+
+                //Wrap the floats we read as the vertices.  Slicing ensures the capacity is the vertex count, as some systems rely on this.
+                int verticesEnd = data.position() + floatCount * Float.BYTES;
+                data.limit(verticesEnd);
+                FloatBuffer vertices = data.slice().order(ByteOrder.nativeOrder()).asFloatBuffer();
+                data.limit(data.capacity());
+                data.position(verticesEnd);
+
+                ColorRGB color = red == 1.0F && green == 1.0F && blue == 1.0F ? ColorRGB.WHITE : new ColorRGB(red, green, blue, false);
+                objectList.add(new RenderableObject(name, texture, color, vertices, cacheVertices));
+            }
+            return objectList;
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError("Could not read cached model data from " + cacheFile.getName() + ", will parse the model instead.");
+            return null;
+        }
+    }
+
+    /**
+     * Writes the passed-in parsed model to the cache file.
+     */
+    public static void writeCache(File cacheFile, List<RenderableObject> objectList) {
+        //Get the size first so we can write everything in one buffer.
+        int size = 12;
+        for (RenderableObject object : objectList) {
+            size += 2 + object.name.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (object.texture != null) {
+                size += 2 + object.texture.getBytes(StandardCharsets.UTF_8).length;
+            }
+            size += 3 * Float.BYTES + 1 + Integer.BYTES;
+            size = (size + 3) & ~3;
+            size += object.vertices.limit() * Float.BYTES;
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(size).order(ByteOrder.nativeOrder());
+        data.putInt(CACHE_MAGIC);
+        data.putInt(CACHE_VERSION);
+        data.putInt(objectList.size());
+        for (RenderableObject object : objectList) {
+            writeString(data, object.name);
+            if (object.texture != null) {
+                data.put((byte) 1);
+                writeString(data, object.texture);
+            } else {
+                data.put((byte) 0);
+            }
+            data.putFloat(object.color.red);
+            data.putFloat(object.color.green);
+            data.putFloat(object.color.blue);
+            data.put((byte) (object.cacheVertices ? 1 : 0));
+            int floatCount = object.vertices.limit();
+            data.putInt(floatCount);
+            align(data);
+            for (int i = 0; i < floatCount; ++i) {
+                data.putFloat(object.vertices.get(i));
+            }
+        }
+        data.flip();
+
+        cacheDir.mkdirs();
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheDir);
+            try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            //Not a big deal, we'll just parse again next time.
+            InterfaceManager.coreInterface.logError("Could not write cached model data to " + cacheFile.getName() + ".");
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static String readString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getShort() & 0xFFFF];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(ByteBuffer data, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        data.putShort((short) bytes.length);
+        data.put(bytes);
+    }
+
+    /**
+     * Moves the buffer to the next 4-byte boundary, so floats are aligned.
+     */
+    private static void align(ByteBuffer data) {
+        data.position((data.position() + 3) & ~3);
+    }
+}
@@ -0,0 +1,194 @@
+package minecrafttransportsimulator.rendering;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
+import minecrafttransportsimulator.jsondefs.JSONModelLOD;
+import minecrafttransportsimulator.jsondefs.JSONSubDefinition;
+
+/**
+ * Class that holds the levels of detail for a model.  Level 0 is always the main model, with each
+ * following level being used past a larger distance from the camera.  Levels either come from models
+ * defined in the pack, or are generated from the main model by the {@link ModelSimplifier}.  Generated
+ * levels are used at distances based on the size of the model, so they switch at about the same size
+ * on screen no matter how large the model is.  The main model is parsed once for generated levels, with
+ * all levels made from it, rather than parsing it again for every level.
+ * <br><br>
+ * Each level has a unique model key, which should be used to cache the renderables for that level.
+ * For pack-defined levels this is the location of the model, for generated ones it's the main model
+ * location plus a suffix.  Level selection has no references to the game, so it may be used anywhere.
+ *
+ * @author don_bruce
+ */
+public class ModelLevelsOfDetail {
+    private static final String GENERATED_SUFFIX = "#lod";
+    /**
+     * For generated levels, the distance to switch at, as a multiple of the model size.
+     **/
+    private static final float[] GENERATED_DISTANCE_FACTORS = new float[]{8, 24};
+    /**
+     * For generated levels, the number of grid cells across the model size.  Fewer cells means less detail.
+     **/
+    private static final int[] GENERATED_CELL_COUNTS = new int[]{64, 24};
+
+    public final String modelLocation;
+    private final String[] modelKeys;
+    private final String[] levelLocations;
+    private final float[] distances;
+    private final float[] cellSizes;
+    /**
+     * Objects for levels that were made when we were created, and haven't been parsed yet.
+     **/
+    private final Map<Integer, List<RenderableObject>> parsedLevels = new HashMap<>();
+
+    /**
+     * Creates the levels for a model that only has the main level.
+     */
+    public ModelLevelsOfDetail(String modelLocation) {
+        this.modelLocation = modelLocation;
+        this.modelKeys = new String[]{modelLocation};
+        this.levelLocations = modelKeys;
+        this.distances = new float[]{0};
+        this.cellSizes = new float[]{0};
+    }
+
+    /**
+     * Creates the levels for a model from the passed-in pack-defined levels.
+     */
+    public ModelLevelsOfDetail(String modelLocation, List<String> lodLocations, List<Float> lodDistances) {
+        this.modelLocation = modelLocation;
+        this.modelKeys = new String[lodLocations.size() + 1];
+        this.distances = new float[modelKeys.length];
+        this.cellSizes = new float[modelKeys.length];
+        modelKeys[0] = modelLocation;
+
+        //Sort the levels by distance, as packs may not have them in order.
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < lodLocations.size(); ++i) {
+            order.add(i);
+        }
+        order.sort((first, second) -> Float.compare(lodDistances.get(first), lodDistances.get(second)));
+        for (int i = 0; i < order.size(); ++i) {
+            modelKeys[i + 1] = lodLocations.get(order.get(i));
+            distances[i + 1] = lodDistances.get(order.get(i));
+        }
+        this.levelLocations = modelKeys;
+    }
+
+    /**
+     * Creates generated levels for a model from the passed-in objects of the main model, with the passed-in size,
+     * as returned by {@link ModelSimplifier#getModelExtent(List)}.  The objects are used for the main level.
+     */
+    public ModelLevelsOfDetail(String modelLocation, List<RenderableObject> mainObjects, float modelExtent) {
+        this.modelLocation = modelLocation;
+        this.modelKeys = new String[GENERATED_DISTANCE_FACTORS.length + 1];
+        this.levelLocations = new String[modelKeys.length];
+        this.distances = new float[modelKeys.length];
+        this.cellSizes = new float[modelKeys.length];
+        modelKeys[0] = modelLocation;
+        levelLocations[0] = modelLocation;
+        for (int i = 0; i < GENERATED_DISTANCE_FACTORS.length; ++i) {
+            modelKeys[i + 1] = modelLocation + GENERATED_SUFFIX + (i + 1);
+            levelLocations[i + 1] = modelLocation;
+            distances[i + 1] = modelExtent * GENERATED_DISTANCE_FACTORS[i];
+            cellSizes[i + 1] = modelExtent / GENERATED_CELL_COUNTS[i];
+
+            //Objects that weren't simplified are the main objects themselves.  Renderables may change their
+            //vertices, so copy them to make sure each level has its own.
+            List<RenderableObject> levelObjects = ModelSimplifier.simplify(mainObjects, cellSizes[i + 1]);
+            for (int j = 0; j < levelObjects.size(); ++j) {
+                RenderableObject object = levelObjects.get(j);
+                if (object == mainObjects.get(j)) {
+                    FloatBuffer vertices = FloatBuffer.allocate(object.vertices.limit());
+                    vertices.put(object.vertices.duplicate());
+                    vertices.flip();
+                    levelObjects.set(j, new RenderableObject(object.name, object.texture, object.color, vertices, object.cacheVertices));
+                }
+            }
+            parsedLevels.put(i + 1, levelObjects);
+        }
+        parsedLevels.put(0, mainObjects);
+    }
+
+    /**
+     * Creates the levels for the passed-in definition and sub-definition.  If the definition has
+     * levels, those are used.  If not, levels are generated, unless they are disabled.
+     */
+    public static ModelLevelsOfDetail create(AJSONMultiModelProvider definition, JSONSubDefinition subDefinition, boolean allowGenerated) {
+        String modelLocation = definition.getModelLocation(subDefinition);
+        if (definition.rendering.levelsOfDetail != null && !definition.rendering.levelsOfDetail.isEmpty()) {
+            List<String> lodLocations = new ArrayList<>();
+            List<Float> lodDistances = new ArrayList<>();
+            for (JSONModelLOD lodDef : definition.rendering.levelsOfDetail) {
+                lodLocations.add(definition.getModelLocation(lodDef.modelName));
+                lodDistances.add(lodDef.distance);
+            }
+            return new ModelLevelsOfDetail(modelLocation, lodLocations, lodDistances);
+        } else if (allowGenerated && !definition.rendering.disableAutoLOD) {
+            List<RenderableObject> mainObjects = AModelParser.parseModel(modelLocation);
+            float modelExtent = ModelSimplifier.getModelExtent(mainObjects);
+            if (modelExtent > 0) {
+                return new ModelLevelsOfDetail(modelLocation, mainObjects, modelExtent);
+            }
+        }
+        return new ModelLevelsOfDetail(modelLocation);
+    }
+
+    /**
+     * Returns the number of levels.  This is always at least 1.
+     */
+    public int getLevelCount() {
+        return modelKeys.length;
+    }
+
+    /**
+     * Returns the level to use at the passed-in distance from the camera.  Distances are divided by the passed-in
+     * factor first, so larger factors mean more detail.  A factor of 0 will always return the main level.
+     */
+    public int getLevel(double distance, double distanceFactor) {
+        if (distanceFactor <= 0) {
+            return 0;
+        }
+        double scaledDistance = distance / distanceFactor;
+        int level = 0;
+        while (level + 1 < distances.length && scaledDistance >= distances[level + 1]) {
+            ++level;
+        }
+        return level;
+    }
+
+    /**
+     * Returns the key for the passed-in level.  This is unique to the level's objects.
+     */
+    public String getModelKey(int level) {
+        return modelKeys[level];
+    }
+
+    /**
+     * Parses the objects for the passed-in level.  For generated levels, this parses the main model and simplifies it.
+     * If the objects for the level were made when we were created, those are returned the first time instead.
+     */
+    public List<RenderableObject> parseLevel(int level) {
+        List<RenderableObject> objects = parsedLevels.remove(level);
+        if (objects != null) {
+            return objects;
+        }
+        objects = AModelParser.parseModel(levelLocations[level]);
+        return cellSizes[level] != 0 ? ModelSimplifier.simplify(objects, cellSizes[level]) : objects;
+    }
+
+    /**
+     * Generates the renderables for the passed-in level.  The objects will reference the model they were parsed from.
+     */
+    public List<RenderableModelObject> generateRenderables(int level) {
+        List<RenderableModelObject> modelObjects = new ArrayList<>();
+        for (RenderableObject parsedObject : parseLevel(level)) {
+            modelObjects.add(new RenderableModelObject(levelLocations[level], parsedObject));
+        }
+        return modelObjects;
+    }
+}
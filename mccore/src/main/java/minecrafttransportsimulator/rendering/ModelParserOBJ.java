@@ -1,22 +1,33 @@
 package minecrafttransportsimulator.rendering;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
  * Class responsible for parsing OBJ models into arrays that can be fed to the GPU.
  * Much more versatile than the Forge system.
+ * <br><br>
+ * Models are read into memory and parsed byte-by-byte, so no strings are created for lines or numbers.
+ * Vertex data is stored in primitive arrays, and faces are stored as indexes into those arrays.  Once the
+ * whole file is read, each object is compiled by copying the indexed data right into its buffer.  As objects
+ * don't depend on one another, large models may compile their objects in parallel.
  *
  * @author don_bruce
  */
 public final class ModelParserOBJ extends AModelParser {
+    //Models with fewer face vertices than this are compiled on the calling thread, as it's not worth handing them off.
+    private static final int PARALLEL_VERTEX_THRESHOLD = 30000;
 
     @Override
     protected String getModelSuffix() {
@@ -25,156 +36,411 @@ public final class ModelParserOBJ extends AModelParser {
 
     @Override
     protected List<RenderableObject> parseModelInternal(String modelLocation) {
-        List<RenderableObject> objectList = new ArrayList<>();
-        BufferedReader reader;
-        try {
-            reader = new BufferedReader(new InputStreamReader(InterfaceManager.coreInterface.getPackResource(modelLocation)));
-        } catch (Exception e) {
+        byte[] data;
+        InputStream stream = InterfaceManager.coreInterface.getPackResource(modelLocation);
+        if (stream == null) {
             throw new NullPointerException("Attempted to parse the OBJ model at: " + modelLocation + " but could not find it.  Check the path and try again.");
         }
+        try {
+            ByteArrayOutputStream dataStream = new ByteArrayOutputStream();
+            byte[] readBuffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = stream.read(readBuffer)) != -1) {
+                dataStream.write(readBuffer, 0, bytesRead);
+            }
+            stream.close();
+            data = dataStream.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
+        }
 
-        String objectName = null;
-        final List<float[]> vertexList = new ArrayList<>();
-        final List<float[]> normalList = new ArrayList<>();
-        final List<float[]> textureList = new ArrayList<>();
-        final List<String> faceList = new ArrayList<>();
+        OBJReader reader = new OBJReader(data, modelLocation);
+        reader.read();
 
-        try {
-            int lineNumber = 0;
-            while (reader.ready()) {
-                String line = reader.readLine();
+        //Compile objects, in parallel if they are large enough to make it worth it.
+        RenderableObject[] compiledObjects = new RenderableObject[reader.objects.size()];
+        if (compiledObjects.length > 1 && reader.totalFaceVertices >= PARALLEL_VERTEX_THRESHOLD && ConfigSystem.settings != null && ConfigSystem.settings.general.parallelModelParsing.value) {
+            IntStream.range(0, compiledObjects.length).parallel().forEach(i -> compiledObjects[i] = reader.compileObject(reader.objects.get(i)));
+        } else {
+            for (int i = 0; i < compiledObjects.length; ++i) {
+                compiledObjects[i] = reader.compileObject(reader.objects.get(i));
+            }
+        }
+        List<RenderableObject> objectList = new ArrayList<>();
+        for (RenderableObject object : compiledObjects) {
+            if (object != null) {
+                objectList.add(object);
+            }
+        }
+        return objectList;
+    }
+
+    /**
+     * Reader for OBJ data.  This holds the position in the data, as well as all vertex data read.
+     */
+    private static class OBJReader {
+        //Longs can hold 18 digits without overflow, which is more than floats can represent anyways.
+        private static final int MAX_DIGITS = 18;
+        private static final double[] POWERS_OF_TEN = new double[23];
+
+        static {
+            POWERS_OF_TEN[0] = 1;
+            for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+                POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+            }
+        }
+
+        private final byte[] data;
+        private final String modelLocation;
+        private final List<ParsedObject> objects = new ArrayList<>();
+        private int totalFaceVertices;
+
+        private float[] vertices = new float[3 * 1024];
+        private int vertexCount;
+        private float[] normals = new float[3 * 1024];
+        private int normalCount;
+        private float[] textures = new float[2 * 1024];
+        private int textureCount;
+
+        private int position;
+        private int lineEnd;
+        private int lineNumber;
+
+        private OBJReader(byte[] data, String modelLocation) {
+            this.data = data;
+            this.modelLocation = modelLocation;
+        }
+
+        private void read() {
+            ParsedObject currentObject = null;
+            while (position < data.length) {
+                //Find the end of the line, ignoring any carriage return.
+                int nextLine = position;
+                while (nextLine < data.length && data[nextLine] != '\n') {
+                    ++nextLine;
+                }
+                lineEnd = nextLine;
+                if (lineEnd > position && data[lineEnd - 1] == '\r') {
+                    --lineEnd;
+                }
                 ++lineNumber;
+                skipSpaces();
 
                 //Do normal parsing.
-                if (line.startsWith("o ")) {
-                    //Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
-                    if (objectName != null) {
-                        if (faceList.isEmpty()) {
-                            InterfaceManager.coreInterface.logError("Object " + objectName + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
+                if (isLineType('o', '\0')) {
+                    //Found new object name.  If we are parsing an object, finish it up.
+                    if (currentObject != null) {
+                        if (currentObject.indexCount == 0) {
+                            InterfaceManager.coreInterface.logError("Object " + currentObject.name + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
                         } else {
-                            compileVertexArray(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-                            objectName = null;
+                            objects.add(currentObject);
                         }
                     }
-                    try {
-                        objectName = line.trim().substring(2, line.length());
-                    } catch (Exception e) {
+                    position += 2;
+                    skipSpaces();
+                    int nameEnd = lineEnd;
+                    while (nameEnd > position && isSpace(data[nameEnd - 1])) {
+                        --nameEnd;
+                    }
+                    if (nameEnd > position) {
+                        currentObject = new ParsedObject(new String(data, position, nameEnd - position, StandardCharsets.UTF_8));
+                    } else {
+                        currentObject = null;
                         InterfaceManager.coreInterface.logError("Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
                     }
-                } else if (line.startsWith("v ")) {
+                } else if (isLineType('v', '\0')) {
                     try {
-                        float[] coords = new float[3];
-                        line = line.trim().substring(2).trim();
-                        coords[0] = Float.parseFloat(line.substring(0, line.indexOf(' ')));
-                        coords[1] = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-                        coords[2] = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1));
-                        vertexList.add(coords);
-                    } catch (Exception e) {
+                        position += 2;
+                        float x = nextFloat();
+                        float y = nextFloat();
+                        float z = nextFloat();
+                        vertices = ensureCapacity(vertices, (vertexCount + 1) * 3);
+                        vertices[vertexCount * 3] = x;
+                        vertices[vertexCount * 3 + 1] = y;
+                        vertices[vertexCount * 3 + 2] = z;
+                        ++vertexCount;
+                    } catch (NumberFormatException e) {
                         InterfaceManager.coreInterface.logError("Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
                     }
-                } else if (line.startsWith("vt ")) {
+                } else if (isLineType('v', 't')) {
                     try {
-                        float[] coords = new float[2];
-                        line = line.trim().substring(3).trim();
-                        int space = line.indexOf(' ');
-                        int vertexEnd = line.lastIndexOf(' ') == space ? line.length() : line.lastIndexOf(' ');
-                        coords[0] = Float.parseFloat(line.substring(0, space));
+                        position += 3;
+                        float u = nextFloat();
                         //Need to invert the V of the UV to change from texture origin being top-left to OpenGL origin being bottom-left.
-                        coords[1] = 1 - Float.parseFloat(line.substring(space + 1, vertexEnd));
-                        textureList.add(coords);
-                    } catch (Exception e) {
+                        float v = 1 - nextFloat();
+                        textures = ensureCapacity(textures, (textureCount + 1) * 2);
+                        textures[textureCount * 2] = u;
+                        textures[textureCount * 2 + 1] = v;
+                        ++textureCount;
+                    } catch (NumberFormatException e) {
                         InterfaceManager.coreInterface.logError("Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
                     }
-                } else if (line.startsWith("vn ")) {
+                } else if (isLineType('v', 'n')) {
                     try {
-                        float[] coords = new float[3];
-                        line = line.trim().substring(2).trim();
-                        coords[0] = Float.parseFloat(line.substring(0, line.indexOf(' ')));
-                        coords[1] = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-                        coords[2] = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1));
-                        normalList.add(coords);
-                    } catch (Exception e) {
+                        position += 3;
+                        float x = nextFloat();
+                        float y = nextFloat();
+                        float z = nextFloat();
+                        normals = ensureCapacity(normals, (normalCount + 1) * 3);
+                        normals[normalCount * 3] = x;
+                        normals[normalCount * 3 + 1] = y;
+                        normals[normalCount * 3 + 2] = z;
+                        ++normalCount;
+                    } catch (NumberFormatException e) {
                         InterfaceManager.coreInterface.logError("Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
                     }
-                } else if (line.startsWith("f ")) {
-                    try {
-                        faceList.add(line.trim().substring(2));
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse face info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Face lines must consist of sets of three numbers in the format (V1/T1/N1, V2/T2/N2, ...).");
+                } else if (isLineType('f', '\0')) {
+                    if (currentObject == null) {
+                        //Faces before any object, so make a default one to hold them.
+                        currentObject = new ParsedObject(null);
                     }
+                    position += 2;
+                    readFace(currentObject);
                 }
+                position = nextLine + 1;
             }
 
-            //End of file.  Save the last part in process and close the file.
-            compileVertexArray(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-            reader.close();
-            return objectList;
+            //End of file.  Save the last object in process.
+            if (currentObject != null) {
+                objects.add(currentObject);
+            } else if (objects.isEmpty()) {
+                objects.add(new ParsedObject(null));
+            }
+        }
 
-        } catch (IOException e) {
-            throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
+        /**
+         * Reads a face from the line into the object.  Faces with more than three vertices are split into
+         * triangles by adding the first point, the most recent point, and the new point for each point past the third.
+         */
+        private void readFace(ParsedObject object) {
+            int faceStart = object.indexCount;
+            int faceVertices = 0;
+            try {
+                while (skipSpaces() < lineEnd) {
+                    //Vertex number is the first entry before the slash.
+                    //Texture number is the second entry between the two slashes.
+                    //Normal number is the third entry after the second slash.
+                    int vertexIndex = nextIndex(vertexCount);
+                    int textureIndex = -1;
+                    int normalIndex = -1;
+                    if (position < lineEnd && data[position] == '/') {
+                        ++position;
+                        if (position < lineEnd && data[position] != '/') {
+                            textureIndex = nextIndex(textureCount);
+                        }
+                        if (position < lineEnd && data[position] == '/') {
+                            ++position;
+                            normalIndex = nextIndex(normalCount);
+                        }
+                    }
+                    if (position < lineEnd && !isSpace(data[position])) {
+                        throw new NumberFormatException();
+                    }
+
+                    if (faceVertices >= 3) {
+                        object.addIndexes(object.indexes[faceStart], object.indexes[faceStart + 1], object.indexes[faceStart + 2]);
+                        int prior = object.indexCount - 6;
+                        object.addIndexes(object.indexes[prior], object.indexes[prior + 1], object.indexes[prior + 2]);
+                    }
+                    object.addIndexes(vertexIndex, textureIndex, normalIndex);
+                    ++faceVertices;
+                }
+                totalFaceVertices += (object.indexCount - faceStart) / 3;
+            } catch (NumberFormatException e) {
+                //Drop any partial face, and flag this object, as it can't be compiled right.
+                object.indexCount = faceStart;
+                object.hasBadFaces = true;
+            }
         }
-    }
 
-    private static void compileVertexArray(List<RenderableObject> objectList, List<float[]> vertexList, List<float[]> normalList, List<float[]> textureList, List<String> faceList, String modelLocation, String objectName) {
-        if (objectName == null) {
-            InterfaceManager.coreInterface.logError("No object name found in the entire OBJ model file of " + modelLocation + ".  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
-            objectName = "model";
+        /**
+         * Compiles the object into a renderable.  Returns null if the object could not be compiled.
+         * This only reads vertex data, so may be called from multiple threads at once.
+         */
+        private RenderableObject compileObject(ParsedObject object) {
+            String objectName = object.name;
+            if (objectName == null) {
+                InterfaceManager.coreInterface.logError("No object name found in the entire OBJ model file of " + modelLocation + ".  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
+                objectName = "model";
+            }
+
+            //Compile buffer right from the vertex data.
+            FloatBuffer compiledBuffer = FloatBuffer.allocate(object.indexCount / 3 * 8);
+            float[] compiledData = compiledBuffer.array();
+            int offset = 0;
+            for (int i = 0; !object.hasBadFaces && i < object.indexCount; i += 3) {
+                int vertexIndex = object.indexes[i];
+                int textureIndex = object.indexes[i + 1];
+                int normalIndex = object.indexes[i + 2];
+                if (vertexIndex < 0 || vertexIndex >= vertexCount || textureIndex < 0 || textureIndex >= textureCount || normalIndex < 0 || normalIndex >= normalCount) {
+                    object.hasBadFaces = true;
+                    break;
+                }
+                compiledData[offset++] = normals[normalIndex * 3];
+                compiledData[offset++] = normals[normalIndex * 3 + 1];
+                compiledData[offset++] = normals[normalIndex * 3 + 2];
+                compiledData[offset++] = textures[textureIndex * 2];
+                compiledData[offset++] = textures[textureIndex * 2 + 1];
+                compiledData[offset++] = vertices[vertexIndex * 3];
+                compiledData[offset++] = vertices[vertexIndex * 3 + 1];
+                compiledData[offset++] = vertices[vertexIndex * 3 + 2];
+            }
+            if (object.hasBadFaces) {
+                InterfaceManager.coreInterface.logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
+                return null;
+            }
+            return new RenderableObject(objectName, null, ColorRGB.WHITE, compiledBuffer, true);
         }
 
-        try {
-            List<Integer[]> vertexDataSets = new ArrayList<>();
-            for (String faceString : faceList) {
-                List<Integer[]> faceVertexData = new ArrayList<>();
-                while (!faceString.isEmpty()) {
-                    //Get the face string in format X/Y/Z.  Use the space as a separator between vertices making up the face.
-                    int defEnd = faceString.indexOf(' ');
-                    String faceDef;
-                    if (defEnd != -1) {
-                        //Take the faceDef from the faceString and store it.
-                        faceDef = faceString.substring(0, defEnd);
-                        faceString = faceString.substring(defEnd + 1);
-                    } else {
-                        //We are at the last face vertex here, so just mark the face as the existing string.
-                        faceDef = faceString;
-                        faceString = "";
-                    }
+        /**
+         * Returns true if the current line starts with the passed-in type, followed by a space.
+         * The second char is 0 for single-char types.
+         */
+        private boolean isLineType(char first, char second) {
+            int typeLength = second == 0 ? 1 : 2;
+            return position + typeLength < lineEnd && data[position] == first && (second == 0 || data[position + 1] == second) && isSpace(data[position + typeLength]);
+        }
 
-                    //Vertex number is the first entry before the slash.
-                    //Texture number is the second entry between the two slashes.
-                    //Normal number is the third entry after the second slash.
-                    //Parse all these out and store them in the array.
-                    int firstSlash = faceDef.indexOf('/');
-                    int secondSlash = faceDef.lastIndexOf('/');
-                    int vertexNumber = Integer.parseInt(faceDef.substring(0, firstSlash)) - 1;
-                    int textureNumber = Integer.parseInt(faceDef.substring(firstSlash + 1, secondSlash)) - 1;
-                    int normalNumber = Integer.parseInt(faceDef.substring(secondSlash + 1)) - 1;
-
-                    //If we have three or more points in faceValues, it means we need to make a triangle out of this shape.
-                    //Add the first point, the most recent point, and this point to make a triangle.
-                    //Otherwise, just add the face as-is.
-                    if (faceVertexData.size() >= 3) {
-                        faceVertexData.add(faceVertexData.get(0));
-                        faceVertexData.add(faceVertexData.get(faceVertexData.size() - 2));
+        private int skipSpaces() {
+            while (position < lineEnd && isSpace(data[position])) {
+                ++position;
+            }
+            return position;
+        }
+
+        private static boolean isSpace(byte character) {
+            return character == ' ' || character == '\t';
+        }
+
+        /**
+         * Parses the next float on the line.  Common decimal and exponent forms are parsed right from the data.
+         * Anything else, such as NaN, is handed off to Java to parse.
+         */
+        private float nextFloat() {
+            int start = skipSpaces();
+            boolean negative = false;
+            if (position < lineEnd && (data[position] == '-' || data[position] == '+')) {
+                negative = data[position++] == '-';
+            }
+
+            long mantissa = 0;
+            int exponent = 0;
+            int digits = 0;
+            boolean hasDigits = false;
+            while (position < lineEnd && data[position] >= '0' && data[position] <= '9') {
+                if (digits < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + (data[position] - '0');
+                    if (mantissa != 0) {
+                        ++digits;
+                    }
+                } else {
+                    ++exponent;
+                }
+                ++position;
+                hasDigits = true;
+            }
+            if (position < lineEnd && data[position] == '.') {
+                ++position;
+                while (position < lineEnd && data[position] >= '0' && data[position] <= '9') {
+                    if (digits < MAX_DIGITS) {
+                        mantissa = mantissa * 10 + (data[position] - '0');
+                        --exponent;
+                        if (mantissa != 0) {
+                            ++digits;
+                        }
                     }
-                    faceVertexData.add(new Integer[]{vertexNumber, textureNumber, normalNumber});
+                    ++position;
+                    hasDigits = true;
                 }
-                vertexDataSets.addAll(faceVertexData);
             }
+            if (hasDigits && position < lineEnd && (data[position] == 'e' || data[position] == 'E')) {
+                ++position;
+                boolean negativeExponent = false;
+                if (position < lineEnd && (data[position] == '-' || data[position] == '+')) {
+                    negativeExponent = data[position++] == '-';
+                }
+                int exponentValue = 0;
+                boolean hasExponentDigits = false;
+                while (position < lineEnd && data[position] >= '0' && data[position] <= '9') {
+                    if (exponentValue < 1000) {
+                        exponentValue = exponentValue * 10 + (data[position] - '0');
+                    }
+                    ++position;
+                    hasExponentDigits = true;
+                }
+                if (!hasExponentDigits) {
+                    hasDigits = false;
+                }
+                exponent += negativeExponent ? -exponentValue : exponentValue;
+            }
+
+            if (!hasDigits || (position < lineEnd && !isSpace(data[position]))) {
+                //Not a simple number, let Java try to parse it.  This throws the exception for us if it's bad.
+                while (position < lineEnd && !isSpace(data[position])) {
+                    ++position;
+                }
+                if (position == start) {
+                    throw new NumberFormatException();
+                }
+                return Float.parseFloat(new String(data, start, position - start, StandardCharsets.US_ASCII));
+            }
+
+            double value = mantissa;
+            if (exponent < 0) {
+                value = -exponent < POWERS_OF_TEN.length ? value / POWERS_OF_TEN[-exponent] : value / Math.pow(10, -exponent);
+            } else if (exponent > 0) {
+                value = exponent < POWERS_OF_TEN.length ? value * POWERS_OF_TEN[exponent] : value * Math.pow(10, exponent);
+            }
+            return (float) (negative ? -value : value);
+        }
 
-            //Compile buffer.
-            FloatBuffer compiledBuffer = FloatBuffer.allocate(vertexDataSets.size() * 8);
-            for (Integer[] vertexData : vertexDataSets) {
-                compiledBuffer.put(normalList.get(vertexData[2]));
-                compiledBuffer.put(textureList.get(vertexData[1]));
-                compiledBuffer.put(vertexList.get(vertexData[0]));
+        /**
+         * Parses the next face index on the line, and converts it to a 0-based index.
+         * Negative indexes are relative to the passed-in count of items read so far.
+         */
+        private int nextIndex(int count) {
+            boolean negative = false;
+            if (position < lineEnd && data[position] == '-') {
+                negative = true;
+                ++position;
+            }
+            int start = position;
+            int value = 0;
+            while (position < lineEnd && data[position] >= '0' && data[position] <= '9') {
+                value = value * 10 + (data[position] - '0');
+                ++position;
+            }
+            if (position == start) {
+                throw new NumberFormatException();
             }
-            compiledBuffer.flip();
-            objectList.add(new RenderableObject(objectName, null, ColorRGB.WHITE, compiledBuffer, true));
-        } catch (Exception e) {
-            InterfaceManager.coreInterface.logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
+            return negative ? count - value : value - 1;
         }
 
-        //Clear face list as we don't want to compile them on the next pass.
-        faceList.clear();
+        private static float[] ensureCapacity(float[] array, int size) {
+            return size > array.length ? Arrays.copyOf(array, Math.max(size, array.length * 2)) : array;
+        }
+    }
+
+    /**
+     * An object read from the model.  Faces are stored as sets of vertex, texture, and normal indexes, with three sets per triangle.
+     */
+    private static class ParsedObject {
+        private final String name;
+        private int[] indexes = new int[3 * 256];
+        private int indexCount;
+        private boolean hasBadFaces;
+
+        private ParsedObject(String name) {
+            this.name = name;
+        }
+
+        private void addIndexes(int vertexIndex, int textureIndex, int normalIndex) {
+            if (indexCount + 3 > indexes.length) {
+                indexes = Arrays.copyOf(indexes, indexes.length * 2);
+            }
+            indexes[indexCount++] = vertexIndex;
+            indexes[indexCount++] = textureIndex;
+            indexes[indexCount++] = normalIndex;
+        }
     }
 }
@@ -0,0 +1,185 @@
+package minecrafttransportsimulator.rendering;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class that generates simplified versions of parsed models by vertex clustering.  The model space is split
+ * into a grid of cells, and all vertices in a cell are moved to the average position of the vertices in it.
+ * Triangles that end up with two or more corners in the same cell are removed, as they no longer have any area.
+ * Normals and UVs are left as-is on the remaining vertices, so textures stay where they were on the model.
+ * <br><br>
+ * The grid is shared by all objects in the model, so objects that touch still touch after simplification.
+ * Light objects are never simplified, as their color and cover objects are made from their vertices.  Small
+ * objects, and objects that would be simplified away entirely, are also left as-is, as they're cheap to render
+ * and may be needed by name for text or animations.  This class has no references to the game, so it
+ * may be used anywhere.
+ *
+ * @author don_bruce
+ */
+public class ModelSimplifier {
+    private static final int FLOATS_PER_VERTEX = 8;
+    private static final int FLOATS_PER_TRIANGLE = FLOATS_PER_VERTEX * 3;
+    private static final int MIN_SIMPLIFY_TRIANGLES = 16;
+    private static final int CELL_BITS = 21;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+    private static final long CELL_OFFSET = 1L << (CELL_BITS - 1);
+
+    /**
+     * Returns the largest extent of the passed-in model on any axis, in model units.
+     */
+    public static float getModelExtent(List<RenderableObject> objects) {
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+        for (RenderableObject object : objects) {
+            FloatBuffer vertices = object.vertices;
+            for (int i = 0; i + FLOATS_PER_VERTEX <= vertices.limit(); i += FLOATS_PER_VERTEX) {
+                float x = vertices.get(i + 5);
+                float y = vertices.get(i + 6);
+                float z = vertices.get(i + 7);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                maxZ = Math.max(maxZ, z);
+            }
+        }
+        return minX <= maxX ? Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ)) : 0;
+    }
+
+    /**
+     * Returns a simplified copy of the passed-in model, using the passed-in cell size.  The passed-in objects are not modified.
+     * Objects are returned in the same order, and with the same names and properties, as the passed-in objects.
+     */
+    public static List<RenderableObject> simplify(List<RenderableObject> objects, float cellSize) {
+        //First get the average position of all cells.  This is done over all objects so they share cells.
+        Map<Long, float[]> cellPositions = new HashMap<>();
+        for (RenderableObject object : objects) {
+            if (shouldSimplify(object)) {
+                FloatBuffer vertices = object.vertices;
+                for (int i = 0; i + FLOATS_PER_VERTEX <= vertices.limit(); i += FLOATS_PER_VERTEX) {
+                    float[] cellPosition = cellPositions.computeIfAbsent(getCellKey(vertices, i, cellSize), k -> new float[4]);
+                    cellPosition[0] += vertices.get(i + 5);
+                    cellPosition[1] += vertices.get(i + 6);
+                    cellPosition[2] += vertices.get(i + 7);
+                    ++cellPosition[3];
+                }
+            }
+        }
+        for (float[] cellPosition : cellPositions.values()) {
+            cellPosition[0] /= cellPosition[3];
+            cellPosition[1] /= cellPosition[3];
+            cellPosition[2] /= cellPosition[3];
+        }
+
+        //Now make the simplified objects.
+        List<RenderableObject> simplifiedObjects = new ArrayList<>(objects.size());
+        for (RenderableObject object : objects) {
+            RenderableObject simplifiedObject = null;
+            if (shouldSimplify(object)) {
+                FloatBuffer simplifiedVertices = simplifyVertices(object.vertices, cellSize, cellPositions);
+                if (simplifiedVertices != null) {
+                    simplifiedObject = new RenderableObject(object.name, object.texture, object.color, simplifiedVertices, object.cacheVertices);
+                }
+            }
+            simplifiedObjects.add(simplifiedObject != null ? simplifiedObject : object);
+        }
+        return simplifiedObjects;
+    }
+
+    private static boolean shouldSimplify(RenderableObject object) {
+        return !object.name.startsWith("&") && !object.isLines && object.vertices.limit() >= MIN_SIMPLIFY_TRIANGLES * FLOATS_PER_TRIANGLE;
+    }
+
+    /**
+     * Returns the simplified vertices, or null if there weren't any triangles left after simplification.
+     */
+    private static FloatBuffer simplifyVertices(FloatBuffer vertices, float cellSize, Map<Long, float[]> cellPositions) {
+        float[] simplified = new float[vertices.limit()];
+        int simplifiedIndex = 0;
+        long[] triangleCells = new long[3];
+        Set<TriangleKey> addedTriangles = new HashSet<>();
+        for (int i = 0; i + FLOATS_PER_TRIANGLE <= vertices.limit(); i += FLOATS_PER_TRIANGLE) {
+            for (int j = 0; j < 3; ++j) {
+                triangleCells[j] = getCellKey(vertices, i + j * FLOATS_PER_VERTEX, cellSize);
+            }
+            //Skip triangles that collapsed, or that we already have from another triangle collapsing onto the same cells.
+            if (triangleCells[0] == triangleCells[1] || triangleCells[1] == triangleCells[2] || triangleCells[0] == triangleCells[2]) {
+                continue;
+            }
+            if (!addedTriangles.add(new TriangleKey(triangleCells[0], triangleCells[1], triangleCells[2]))) {
+                continue;
+            }
+            for (int j = 0; j < 3; ++j) {
+                int vertexIndex = i + j * FLOATS_PER_VERTEX;
+                float[] cellPosition = cellPositions.get(triangleCells[j]);
+                for (int k = 0; k < 5; ++k) {
+                    simplified[simplifiedIndex++] = vertices.get(vertexIndex + k);
+                }
+                simplified[simplifiedIndex++] = cellPosition[0];
+                simplified[simplifiedIndex++] = cellPosition[1];
+                simplified[simplifiedIndex++] = cellPosition[2];
+            }
+        }
+        if (simplifiedIndex == 0) {
+            return null;
+        }
+        FloatBuffer buffer = FloatBuffer.allocate(simplifiedIndex);
+        buffer.put(simplified, 0, simplifiedIndex);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long getCellKey(FloatBuffer vertices, int vertexIndex, float cellSize) {
+        long cellX = ((long) Math.floor(vertices.get(vertexIndex + 5) / cellSize) + CELL_OFFSET) & CELL_MASK;
+        long cellY = ((long) Math.floor(vertices.get(vertexIndex + 6) / cellSize) + CELL_OFFSET) & CELL_MASK;
+        long cellZ = ((long) Math.floor(vertices.get(vertexIndex + 7) / cellSize) + CELL_OFFSET) & CELL_MASK;
+        return (cellX << (CELL_BITS * 2)) | (cellY << CELL_BITS) | cellZ;
+    }
+
+    /**
+     * Key for a triangle's cells.  The cells are rotated so the smallest is first, which keeps the winding,
+     * so a triangle and its back-face aren't treated as the same triangle.
+     */
+    private static class TriangleKey {
+        private final long cell1;
+        private final long cell2;
+        private final long cell3;
+
+        private TriangleKey(long cell1, long cell2, long cell3) {
+            if (cell1 < cell2 && cell1 < cell3) {
+                this.cell1 = cell1;
+                this.cell2 = cell2;
+                this.cell3 = cell3;
+            } else if (cell2 < cell3) {
+                this.cell1 = cell2;
+                this.cell2 = cell3;
+                this.cell3 = cell1;
+            } else {
+                this.cell1 = cell3;
+                this.cell2 = cell1;
+                this.cell3 = cell2;
+            }
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (object instanceof TriangleKey) {
+                TriangleKey other = (TriangleKey) object;
+                return cell1 == other.cell1 && cell2 == other.cell2 && cell3 == other.cell3;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(cell1 * 31 * 31 + cell2 * 31 + cell3);
+        }
+    }
+}
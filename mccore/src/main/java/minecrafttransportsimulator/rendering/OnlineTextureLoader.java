@@ -0,0 +1,370 @@
+package minecrafttransportsimulator.rendering;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.GIFParser.GIFImageFrame;
+import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+
+/**
+ * Class that loads textures from URLs for online texture objects.  Textures are downloaded and decoded
+ * on background threads, so a slow URL doesn't freeze the client.  Once decoded, textures are uploaded
+ * by the rendering interface via {@link #uploadTextures(ITextureUploader)}, which should be called once
+ * a frame.  This only uploads as many images as fit in the time budget, so large GIFs are spread over
+ * multiple frames.  Until a texture is loaded, objects should keep rendering with their normal texture.
+ * <br><br>
+ * Downloaded images are cached on disk, along with the ETag and Last-Modified headers the server sent.
+ * The first time a URL is requested, the server is asked if the cached image is still current, and it's
+ * only downloaded again if it isn't.  If the server can't be reached, the cached image is used.  The cache
+ * is in the game directory, so it's shared by all worlds and servers.
+ * <br><br>
+ * All methods other than {@link #fetchTexture(String, File)} are to be called from the client thread only.
+ *
+ * @author don_bruce
+ */
+public class OnlineTextureLoader {
+    private static final int FETCH_THREADS = 2;
+    private static final int CONNECT_TIMEOUT = 10000;
+    private static final int READ_TIMEOUT = 20000;
+    private static final long UPLOAD_BUDGET = 2000000;
+    private static final File cacheDir = new File(InterfaceManager.gameDirectory, "mts_texturecache");
+    private static final ExecutorService executor = Executors.newFixedThreadPool(FETCH_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "MTS Texture Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<String, OnlineTexture> textures = new HashMap<>();
+    private static final ConcurrentLinkedQueue<OnlineTexture> fetchedTextures = new ConcurrentLinkedQueue<>();
+    private static OnlineTexture uploadingTexture;
+
+    /**
+     * Requests the texture at the passed-in URL.  If the texture hasn't been requested yet, it's fetched in the background.
+     * Returns an error message if the texture couldn't be loaded, or null if it's loaded or still loading.
+     * Use {@link #isLoaded(String)} to check if the texture can be rendered.
+     */
+    public static String requestTexture(String textureURL) {
+        OnlineTexture texture = textures.get(textureURL);
+        if (texture == null) {
+            textures.put(textureURL, new OnlineTexture(textureURL));
+            executor.submit(() -> {
+                try {
+                    fetchedTextures.add(fetchTexture(textureURL, cacheDir));
+                } catch (Exception e) {
+                    //Shouldn't happen, as fetching handles its own errors, but we can't leave the texture loading forever.
+                    OnlineTexture failedTexture = new OnlineTexture(textureURL);
+                    failedTexture.error = "Could not load texture.  Error was: " + e.getMessage();
+                    fetchedTextures.add(failedTexture);
+                }
+            });
+            return null;
+        }
+        return texture.error;
+    }
+
+    /**
+     * Returns true if the texture at the passed-in URL has been loaded and uploaded, and may be rendered.
+     */
+    public static boolean isLoaded(String textureURL) {
+        OnlineTexture texture = textures.get(textureURL);
+        return texture != null && texture.loaded;
+    }
+
+    /**
+     * Uploads fetched textures with the passed-in uploader until all are uploaded, or the time budget for this
+     * frame is used up.  At least one image is always uploaded if there is one, so textures always finish loading.
+     * Returns the number of images uploaded.
+     */
+    public static int uploadTextures(ITextureUploader uploader) {
+        return uploadTextures(uploader, UPLOAD_BUDGET);
+    }
+
+    /**
+     * Like {@link #uploadTextures(ITextureUploader)}, but with the passed-in time budget, in nanoseconds.
+     */
+    public static int uploadTextures(ITextureUploader uploader, long budget) {
+        long startTime = System.nanoTime();
+        int uploadedImages = 0;
+        do {
+            if (uploadingTexture == null) {
+                OnlineTexture fetchedTexture = fetchedTextures.poll();
+                if (fetchedTexture == null) {
+                    break;
+                }
+                //Fetching made a new texture object, so swap it in for the one we've been returning.
+                textures.put(fetchedTexture.url, fetchedTexture);
+                if (fetchedTexture.error != null) {
+                    continue;
+                }
+                uploadingTexture = fetchedTexture;
+            }
+            uploader.uploadImage(uploadingTexture, uploadingTexture.uploadedImages);
+            uploadingTexture.releaseImage(uploadingTexture.uploadedImages++);
+            ++uploadedImages;
+            if (uploadingTexture.uploadedImages == uploadingTexture.getImageCount()) {
+                //The renderer has the textures now, so we only need to keep our state.
+                uploadingTexture.loaded = true;
+                uploadingTexture.gif = null;
+                uploadingTexture.gifFrames.clear();
+                uploadingTexture = null;
+            }
+        } while (System.nanoTime() - startTime < budget);
+        return uploadedImages;
+    }
+
+    /**
+     * Fetches and decodes the texture at the passed-in URL, using the passed-in cache directory.  This blocks
+     * until done, so it should only be called on a background thread.  If the texture couldn't be fetched,
+     * the returned texture will have an error rather than images.
+     */
+    public static OnlineTexture fetchTexture(String textureURL, File textureCacheDir) {
+        OnlineTexture texture = new OnlineTexture(textureURL);
+        File imageFile = new File(textureCacheDir, getCacheName(textureURL) + ".img");
+        File infoFile = new File(textureCacheDir, getCacheName(textureURL) + ".properties");
+        Properties cachedInfo = null;
+        if (imageFile.exists() && infoFile.exists()) {
+            cachedInfo = new Properties();
+            try (InputStream stream = new FileInputStream(infoFile)) {
+                cachedInfo.load(stream);
+            } catch (IOException e) {
+                cachedInfo = null;
+            }
+        }
+
+        //Check the server for the image.  If we have it cached, only download it if it's changed.
+        byte[] imageData = null;
+        String contentType;
+        try {
+            URLConnection connection = new URL(textureURL).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT);
+            connection.setReadTimeout(READ_TIMEOUT);
+            if (cachedInfo != null) {
+                if (cachedInfo.getProperty("etag") != null) {
+                    connection.setRequestProperty("If-None-Match", cachedInfo.getProperty("etag"));
+                }
+                if (cachedInfo.getProperty("lastModified") != null) {
+                    connection.setRequestProperty("If-Modified-Since", cachedInfo.getProperty("lastModified"));
+                }
+            }
+            //Get the response code first for HTTP, as this will throw if we can't connect, unlike getting headers.
+            int responseCode = connection instanceof HttpURLConnection ? ((HttpURLConnection) connection).getResponseCode() : -1;
+            if (cachedInfo != null && responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                contentType = cachedInfo.getProperty("contentType");
+            } else {
+                contentType = connection.getHeaderField("Content-Type");
+                if (!isValidContentType(contentType)) {
+                    StringBuilder errorString = new StringBuilder("Invalid content type found.  Found:" + contentType + ", but the only valid types are: ");
+                    for (String validType : getValidContentTypes()) {
+                        errorString.append(validType).append(", ");
+                    }
+                    texture.error = errorString.toString();
+                    return texture;
+                }
+                try (InputStream stream = connection.getInputStream()) {
+                    imageData = readAll(stream);
+                }
+                writeCache(imageFile, infoFile, imageData, contentType, connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+            }
+        } catch (Exception e) {
+            if (cachedInfo == null) {
+                texture.error = "Could not open URL for processing.  Error was: " + e.getMessage();
+                return texture;
+            }
+            //Can't get to the server, but we have a cached image, so use that.
+            contentType = cachedInfo.getProperty("contentType");
+        }
+
+        //Decode the image.
+        try {
+            if (imageData == null) {
+                imageData = Files.readAllBytes(imageFile.toPath());
+            }
+            if (contentType != null && contentType.endsWith("gif")) {
+                ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
+                ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(imageData));
+                reader.setInput(stream);
+                ParsedGIF gif = GIFParser.parseGIF(reader);
+                if (gif != null) {
+                    texture.gif = gif;
+                    texture.gifFrames.addAll(gif.frames.values());
+                } else {
+                    texture.error = "Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?";
+                }
+            } else {
+                texture.image = ImageIO.read(new ByteArrayInputStream(imageData));
+                if (texture.image == null) {
+                    texture.error = "Could not parse images.  Error was: no reader for the image data.";
+                }
+            }
+        } catch (Exception e) {
+            texture.error = "Could not parse images.  Error was: " + e.getMessage();
+        }
+        return texture;
+    }
+
+    private static List<String> getValidContentTypes() {
+        List<String> validContentTypes = new ArrayList<>();
+        for (String imageSuffix : ImageIO.getReaderFileSuffixes()) {
+            validContentTypes.add("image/" + imageSuffix);
+        }
+        return validContentTypes;
+    }
+
+    private static boolean isValidContentType(String contentType) {
+        return contentType != null && getValidContentTypes().contains(contentType);
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] readBuffer = new byte[8192];
+        int bytesRead;
+        while ((bytesRead = stream.read(readBuffer)) != -1) {
+            output.write(readBuffer, 0, bytesRead);
+        }
+        return output.toByteArray();
+    }
+
+    private static void writeCache(File imageFile, File infoFile, byte[] imageData, String contentType, String etag, String lastModified) {
+        Properties info = new Properties();
+        info.setProperty("contentType", contentType);
+        if (etag != null) {
+            info.setProperty("etag", etag);
+        }
+        if (lastModified != null) {
+            info.setProperty("lastModified", lastModified);
+        }
+
+        //Write to temp files and move them, so other threads never see partial files.
+        File cacheFolder = imageFile.getParentFile();
+        cacheFolder.mkdirs();
+        File tempImageFile = null;
+        File tempInfoFile = null;
+        try {
+            tempImageFile = File.createTempFile(imageFile.getName(), ".tmp", cacheFolder);
+            tempInfoFile = File.createTempFile(infoFile.getName(), ".tmp", cacheFolder);
+            Files.write(tempImageFile.toPath(), imageData);
+            try (OutputStream stream = new FileOutputStream(tempInfoFile)) {
+                info.store(stream, null);
+            }
+            Files.move(tempImageFile.toPath(), imageFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempInfoFile.toPath(), infoFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            //Not a big deal, we'll just download again next time.
+            InterfaceManager.coreInterface.logError("Could not cache texture " + imageFile.getName() + ".");
+            if (tempImageFile != null) {
+                tempImageFile.delete();
+            }
+            if (tempInfoFile != null) {
+                tempInfoFile.delete();
+            }
+        }
+    }
+
+    private static String getCacheName(String textureURL) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            StringBuilder fileName = new StringBuilder();
+            for (byte hashByte : digest.digest(textureURL.getBytes(StandardCharsets.UTF_8))) {
+                fileName.append(String.format("%02x", hashByte));
+            }
+            return fileName.toString();
+        } catch (Exception e) {
+            //SHA-1 is always present, but just in case, fall back to something that's still a valid file name.
+            return Integer.toHexString(textureURL.hashCode());
+        }
+    }
+
+    /**
+     * A texture loaded from a URL.  This is either a single image, or a GIF with multiple frames.
+     * Images are released as they are uploaded, so once loaded, this only holds the texture's state.
+     */
+    public static class OnlineTexture {
+        public final String url;
+        /**
+         * The image, if this isn't a GIF.
+         **/
+        public BufferedImage image;
+        /**
+         * The GIF, if this is a GIF.
+         **/
+        public ParsedGIF gif;
+        /**
+         * The frames of the GIF, in order.  Images are uploaded in this order.
+         **/
+        public final List<GIFImageFrame> gifFrames = new ArrayList<>();
+        private String error;
+        private int uploadedImages;
+        private boolean loaded;
+
+        private OnlineTexture(String url) {
+            this.url = url;
+        }
+
+        /**
+         * Returns the error from loading this texture, or null if there wasn't one.
+         */
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Returns the number of images that need to be uploaded for this texture.
+         */
+        public int getImageCount() {
+            return gif != null ? gifFrames.size() : 1;
+        }
+
+        /**
+         * Returns the image at the passed-in index.  For GIFs, this is the image of the frame at that index.
+         */
+        public BufferedImage getImage(int index) {
+            return gif != null ? gifFrames.get(index).getImage() : image;
+        }
+
+        private void releaseImage(int index) {
+            if (gif != null) {
+                gifFrames.get(index).releaseImage();
+            } else {
+                image = null;
+            }
+        }
+    }
+
+    /**
+     * Interface for uploading textures to the rendering system.
+     */
+    @FunctionalInterface
+    public interface ITextureUploader {
+        /**
+         * Uploads the image at the passed-in index of the passed-in texture.  Images are uploaded in order, and the texture
+         * should only be used once the last image is uploaded.
+         */
+        void uploadImage(OnlineTexture texture, int imageIndex);
+    }
+}
@@ -0,0 +1,487 @@
+package minecrafttransportsimulator.rendering;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
+import minecrafttransportsimulator.entities.instances.EntityParticle;
+import minecrafttransportsimulator.jsondefs.JSONParticle;
+import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleRenderingOrientation;
+import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+
+/**
+ * Pool of particles that all share the same {@link JSONParticle} definition.  Rather than each particle being
+ * its own entity with its own renderable, the state of all particles is stored in primitive arrays, with one
+ * slot per particle.  All particles are updated in one loop, and their vertices are written into a buffer
+ * supplied by the caller at render time.  Dead particles are swapped with the last live particle, so live
+ * particles are always in the first {@link #size()} slots.  Each emitter may only have a set number of live
+ * particles in a pool, and pools have a max size, so no number of emitters can make the pool grow unbounded.
+ * <br><br>
+ * Only particles that don't need per-particle objects can be pooled, see {@link #canPool(JSONParticle)}.  Other
+ * particles are still spawned as {@link EntityParticle}s, and both use the static logic there.  Neither
+ * the physics update nor vertex generation use the rendering system, so both may be run without a GL context.
+ *
+ * @author don_bruce
+ */
+public class ParticlePool {
+    /**
+     * Floats written for each particle by {@link #writeVertices(int, FloatBuffer, float, Point3D, Point3D)}.
+     **/
+    public static final int FLOATS_PER_PARTICLE = 6 * 8;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_CAPACITY = 8192;
+    private static final int INDEX_BITS = 13;
+
+    public final JSONParticle definition;
+    public final boolean disableLighting;
+    private final String[] textures;
+    private final boolean cyclesTextures;
+    private final ColorRGB staticColor;
+    private final Point3D collisionCenter = new Point3D();
+    private final BoundingBox collisionBox;
+    private final Map<AEntityC_Renderable, int[]> emitterCounts = new IdentityHashMap<>();
+
+    //Helpers for spawning and rendering.
+    private final TransformationMatrix helperTransform = new TransformationMatrix();
+    private final RotationMatrix helperRotation = new RotationMatrix();
+    private final Point3D helperPoint = new Point3D();
+    private final Point3D helperMotion = new Point3D();
+    private final Point3D helperInitialVelocity = new Point3D();
+    private final ColorRGB helperColor = new ColorRGB();
+    private final Point3D helperRight = new Point3D();
+    private final Point3D helperUp = new Point3D();
+    private final Point3D helperNormal = new Point3D();
+
+    //Particle state.  Only the first size slots are live.
+    private int size;
+    private AEntityC_Renderable[] emitters;
+    private double[] posX, posY, posZ;
+    private double[] prevX, prevY, prevZ;
+    private double[] motionX, motionY, motionZ;
+    private double[] initialX, initialY, initialZ;
+    private float[] scaleX, scaleY;
+    private int[] age, maxAge, lightValue;
+    private boolean[] touchingBlocks;
+    private float[] minU, maxU, minV, maxV;
+    private int[] textureIndex, textureDelayIndex;
+    private float[] timeOfNextTexture;
+    private int[] colorIndex, colorDelayIndex, timeOfCurrentColor, timeOfNextColor;
+
+    //Render state, set in sortForRender.
+    private long[] renderKeys;
+    private float[] renderScale;
+
+    public ParticlePool(JSONParticle definition) {
+        this.definition = definition;
+        this.disableLighting = definition.type == ParticleType.FLAME || definition.isBright;
+        this.collisionBox = new BoundingBox(collisionCenter, definition.hitboxSize / 2D);
+
+        this.textures = EntityParticle.getTextures(definition).toArray(new String[0]);
+        this.cyclesTextures = EntityParticle.cyclesTextures(definition);
+        this.staticColor = EntityParticle.getStaticColor(definition);
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns true if the passed-in definition can be pooled.  Particles with models, sub-particles, sounds,
+     * or fixed orientations need per-particle objects, and so must be spawned as {@link EntityParticle}s.
+     */
+    public static boolean canPool(JSONParticle definition) {
+        return definition.model == null && definition.subParticles == null && definition.groundSounds == null && definition.rotationVelocity == null && (definition.renderingOrientation == ParticleRenderingOrientation.PLAYER || definition.renderingOrientation == ParticleRenderingOrientation.YAXIS);
+    }
+
+    /**
+     * Returns the number of live particles in this pool.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the texture for the passed-in texture index of this pool.  Indexes are obtained from {@link #getRenderKey(int)}.
+     */
+    public String getTexture(int index) {
+        return textures[index];
+    }
+
+    /**
+     * Spawns a particle from the emitter at the passed-in position.  Returns false and does nothing if the emitter
+     * is already at the passed-in budget, or this pool is full.  The block break texture is only required for
+     * {@link ParticleType#BREAK} particles, and should be the UV bounds as returned by the rendering interface.
+     */
+    public boolean spawn(AEntityC_Renderable emitter, Point3D spawningPosition, AnimationSwitchbox switchbox, int emitterBudget, float[] breakTextureBounds) {
+        int[] emitterCount = emitterCounts.get(emitter);
+        if (emitterCount != null && emitterCount[0] >= emitterBudget) {
+            return false;
+        }
+        if (size == emitters.length) {
+            if (size == MAX_CAPACITY) {
+                return false;
+            }
+            allocate(Math.min(size * 2, MAX_CAPACITY));
+        }
+        if (emitterCount == null) {
+            emitterCount = new int[1];
+            emitterCounts.put(emitter, emitterCount);
+        }
+        ++emitterCount[0];
+
+        //Same spawning logic as entity particles.  Orientation isn't needed, as pooled particles always face the player.
+        int i = size++;
+        emitters[i] = emitter;
+        EntityParticle.getSpawnTransform(definition, emitter, switchbox, helperTransform);
+        EntityParticle.getSpawnOffset(definition, emitter, helperTransform, helperPoint);
+        posX[i] = prevX[i] = spawningPosition.x + helperPoint.x;
+        posY[i] = prevY[i] = spawningPosition.y + helperPoint.y;
+        posZ[i] = prevZ[i] = spawningPosition.z + helperPoint.z;
+
+        EntityParticle.getSpawnMotion(definition, helperTransform, helperPoint);
+        motionX[i] = initialX[i] = helperPoint.x;
+        motionY[i] = initialY[i] = helperPoint.y;
+        motionZ[i] = initialZ[i] = helperPoint.z;
+
+        scaleX[i] = (float) emitter.scale.x;
+        scaleY[i] = (float) emitter.scale.y;
+        age[i] = 0;
+        maxAge[i] = EntityParticle.generateMaxAge(definition);
+        lightValue[i] = 0;
+        touchingBlocks[i] = false;
+        if (breakTextureBounds != null) {
+            minU[i] = breakTextureBounds[0];
+            maxU[i] = breakTextureBounds[1];
+            minV[i] = breakTextureBounds[2];
+            maxV[i] = breakTextureBounds[3];
+        } else {
+            minU[i] = 0;
+            maxU[i] = 1;
+            minV[i] = 0;
+            maxV[i] = 1;
+        }
+
+        textureIndex[i] = EntityParticle.getFirstTextureIndex(definition);
+        textureDelayIndex[i] = 0;
+        timeOfNextTexture[i] = EntityParticle.getFirstTextureTime(definition, maxAge[i]);
+        colorIndex[i] = EntityParticle.getFirstColorIndex(definition);
+        colorDelayIndex[i] = 0;
+        timeOfCurrentColor[i] = 0;
+        timeOfNextColor[i] = EntityParticle.getFirstColorTime(definition, maxAge[i]);
+        return true;
+    }
+
+    /**
+     * Updates all particles in this pool, removing those that have expired.
+     * Should be called once a tick.
+     */
+    public void update(AWrapperWorld world) {
+        for (int i = 0; i < size;) {
+            ++age[i];
+            prevX[i] = posX[i];
+            prevY[i] = posY[i];
+            prevZ[i] = posZ[i];
+            if (age[i] == maxAge[i] || !updateMovement(world, i)) {
+                remove(i);
+                continue;
+            }
+            updateTextureAndColor(i);
+            ++i;
+        }
+    }
+
+    /**
+     * Updates the world light values of all particles.  This is separate from {@link #update(AWrapperWorld)}
+     * as it requires the rendering system to get the lighting.
+     */
+    public void updateLighting(LightingProvider lightingProvider) {
+        for (int i = 0; i < size; ++i) {
+            lightValue[i] = lightingProvider.getLightingAtPosition(helperPoint.set(posX[i], posY[i], posZ[i]));
+        }
+    }
+
+    /**
+     * Removes all particles from this pool.
+     */
+    public void clear() {
+        Arrays.fill(emitters, 0, size, null);
+        emitterCounts.clear();
+        size = 0;
+    }
+
+    /**
+     * Calculates the render state of all particles, and sorts them such that particles with the same
+     * texture, color, alpha, and lighting are next to each other.  Returns the number of particles to render.
+     * After this call, {@link #getRenderKey(int)} and {@link #writeVertices(int, FloatBuffer, float, Point3D, Point3D)}
+     * may be called for each sorted index less than the returned value.
+     */
+    public int sortForRender(float partialTicks) {
+        int renderCount = 0;
+        for (int i = 0; i < size; ++i) {
+            //Don't render on the first tick, as we haven't been lit yet.
+            if (age[i] == 0) {
+                continue;
+            }
+            float ageFactor = (age[i] + partialTicks) / maxAge[i];
+            int ticksLeft = maxAge[i] - age[i];
+
+            float alpha = EntityParticle.getAlpha(definition, ageFactor, ticksLeft);
+            float red;
+            float green;
+            float blue;
+            if (staticColor != null) {
+                red = staticColor.red;
+                green = staticColor.green;
+                blue = staticColor.blue;
+            } else {
+                EntityParticle.getColor(definition, colorIndex[i], (age[i] + partialTicks - timeOfCurrentColor[i]) / (timeOfNextColor[i] - timeOfCurrentColor[i]), helperColor);
+                red = helperColor.red;
+                green = helperColor.green;
+                blue = helperColor.blue;
+            }
+
+            renderScale[i] = EntityParticle.getScale(definition, ageFactor, ticksLeft);
+
+            //Pack state into the key, with the particle index in the low bits so we can find it after sorting.
+            //Lighting is packed as the 4-bit block and sky levels, as that's all the lightmap uses.
+            long key = textureIndex[i];
+            key = (key << 6) | quantize(red);
+            key = (key << 6) | quantize(green);
+            key = (key << 6) | quantize(blue);
+            key = (key << 6) | quantize(alpha);
+            key = (key << 8) | ((lightValue[i] >> 16) & 0xF0) | ((lightValue[i] >> 4) & 0xF);
+            renderKeys[renderCount++] = (key << INDEX_BITS) | i;
+        }
+        Arrays.sort(renderKeys, 0, renderCount);
+        return renderCount;
+    }
+
+    /**
+     * Returns the render key for the particle at the passed-in sorted index.  Particles with the same key may be
+     * rendered together.  The state in the key may be obtained via the static key methods in this class.
+     */
+    public long getRenderKey(int sortedIndex) {
+        return renderKeys[sortedIndex] >>> INDEX_BITS;
+    }
+
+    public static int getKeyTextureIndex(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static float getKeyRed(long key) {
+        return ((key >>> 26) & 63) / 63F;
+    }
+
+    public static float getKeyGreen(long key) {
+        return ((key >>> 20) & 63) / 63F;
+    }
+
+    public static float getKeyBlue(long key) {
+        return ((key >>> 14) & 63) / 63F;
+    }
+
+    public static float getKeyAlpha(long key) {
+        return ((key >>> 8) & 63) / 63F;
+    }
+
+    public static int getKeyLightValue(long key) {
+        return (int) (((key & 0xF0) << 16) | ((key & 0xF) << 4));
+    }
+
+    /**
+     * Writes the vertices for the particle at the passed-in sorted index into the buffer.  The buffer must
+     * have at least {@link #FLOATS_PER_PARTICLE} floats remaining.  Vertices are relative to the passed-in
+     * origin, and are oriented to face the passed-in eye position.
+     */
+    public void writeVertices(int sortedIndex, FloatBuffer buffer, float partialTicks, Point3D eyePosition, Point3D origin) {
+        int i = (int) (renderKeys[sortedIndex] & ((1 << INDEX_BITS) - 1));
+        double x = prevX[i] + (posX[i] - prevX[i]) * partialTicks;
+        double y = prevY[i] + (posY[i] - prevY[i]) * partialTicks;
+        double z = prevZ[i] + (posZ[i] - prevZ[i]) * partialTicks;
+
+        //Face the eye position, same as entity particles do.
+        EntityParticle.setFacingOrientation(definition, helperPoint.set(eyePosition.x - x, eyePosition.y - y, eyePosition.z - z), helperRotation);
+        double width = renderScale[i] * scaleX[i];
+        double height = renderScale[i] * scaleY[i];
+        helperRight.set(width, 0, 0).rotate(helperRotation);
+        helperUp.set(0, height, 0).rotate(helperRotation);
+        helperNormal.set(0, 0, 1).rotate(helperRotation);
+        x -= origin.x;
+        y -= origin.y;
+        z -= origin.z;
+
+        //Same vertex order as the standard particle buffer.
+        putVertex(buffer, x, y, z, 0.5, -0.5, maxU[i], maxV[i]);
+        putVertex(buffer, x, y, z, 0.5, 0.5, maxU[i], minV[i]);
+        putVertex(buffer, x, y, z, -0.5, 0.5, minU[i], minV[i]);
+        putVertex(buffer, x, y, z, 0.5, -0.5, maxU[i], maxV[i]);
+        putVertex(buffer, x, y, z, -0.5, 0.5, minU[i], minV[i]);
+        putVertex(buffer, x, y, z, -0.5, -0.5, minU[i], maxV[i]);
+    }
+
+    private void putVertex(FloatBuffer buffer, double x, double y, double z, double rightFactor, double upFactor, float u, float v) {
+        buffer.put((float) helperNormal.x);
+        buffer.put((float) helperNormal.y);
+        buffer.put((float) helperNormal.z);
+        buffer.put(u);
+        buffer.put(v);
+        buffer.put((float) (x + helperRight.x * rightFactor + helperUp.x * upFactor));
+        buffer.put((float) (y + helperRight.y * rightFactor + helperUp.y * upFactor));
+        buffer.put((float) (z + helperRight.z * rightFactor + helperUp.z * upFactor));
+    }
+
+    /**
+     * Applies movement to the particle.  Returns false if the particle should be removed.
+     */
+    private boolean updateMovement(AWrapperWorld world, int i) {
+        if (definition.stopsOnGround && touchingBlocks[i]) {
+            return true;
+        }
+        helperPoint.set(posX[i], posY[i], posZ[i]);
+        helperMotion.set(motionX[i], motionY[i], motionZ[i]);
+        helperInitialVelocity.set(initialX[i], initialY[i], initialZ[i]);
+        if (!EntityParticle.updateMotion(definition, world, helperPoint, helperMotion, helperInitialVelocity, age[i], touchingBlocks[i])) {
+            return false;
+        }
+
+        //Check collision movement.  If we hit a block, don't move.
+        collisionCenter.set(helperPoint);
+        touchingBlocks[i] = EntityParticle.updateCollisions(definition, world, collisionBox, helperMotion, touchingBlocks[i]);
+        motionX[i] = helperMotion.x;
+        motionY[i] = helperMotion.y;
+        motionZ[i] = helperMotion.z;
+        posX[i] += motionX[i];
+        posY[i] += motionY[i];
+        posZ[i] += motionZ[i];
+        return true;
+    }
+
+    private void updateTextureAndColor(int i) {
+        if (cyclesTextures && timeOfNextTexture[i] <= age[i]) {
+            if (++textureIndex[i] == textures.length) {
+                textureIndex[i] = 0;
+            }
+            if (definition.textureDelays != null && ++textureDelayIndex[i] == definition.textureDelays.size()) {
+                textureDelayIndex[i] = 0;
+            }
+            timeOfNextTexture[i] += EntityParticle.getNextTextureTime(definition, textureDelayIndex[i], maxAge[i]);
+        }
+        if (definition.colorDelays != null && timeOfNextColor[i] == age[i]) {
+            if (++colorIndex[i] == definition.colorList.size()) {
+                colorIndex[i] = 0;
+            }
+            if (++colorDelayIndex[i] == definition.colorDelays.size()) {
+                colorDelayIndex[i] = 0;
+            }
+            timeOfCurrentColor[i] = timeOfNextColor[i];
+            timeOfNextColor[i] += definition.colorDelays.get(colorDelayIndex[i]);
+        }
+    }
+
+    /**
+     * Removes the particle at the passed-in slot by moving the last live particle into it.
+     */
+    private void remove(int i) {
+        int[] emitterCount = emitterCounts.get(emitters[i]);
+        if (emitterCount != null && --emitterCount[0] == 0) {
+            emitterCounts.remove(emitters[i]);
+        }
+        int last = --size;
+        emitters[i] = emitters[last];
+        emitters[last] = null;
+        posX[i] = posX[last];
+        posY[i] = posY[last];
+        posZ[i] = posZ[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        prevZ[i] = prevZ[last];
+        motionX[i] = motionX[last];
+        motionY[i] = motionY[last];
+        motionZ[i] = motionZ[last];
+        initialX[i] = initialX[last];
+        initialY[i] = initialY[last];
+        initialZ[i] = initialZ[last];
+        scaleX[i] = scaleX[last];
+        scaleY[i] = scaleY[last];
+        age[i] = age[last];
+        maxAge[i] = maxAge[last];
+        lightValue[i] = lightValue[last];
+        touchingBlocks[i] = touchingBlocks[last];
+        minU[i] = minU[last];
+        maxU[i] = maxU[last];
+        minV[i] = minV[last];
+        maxV[i] = maxV[last];
+        textureIndex[i] = textureIndex[last];
+        textureDelayIndex[i] = textureDelayIndex[last];
+        timeOfNextTexture[i] = timeOfNextTexture[last];
+        colorIndex[i] = colorIndex[last];
+        colorDelayIndex[i] = colorDelayIndex[last];
+        timeOfCurrentColor[i] = timeOfCurrentColor[last];
+        timeOfNextColor[i] = timeOfNextColor[last];
+    }
+
+    private void allocate(int capacity) {
+        emitters = emitters == null ? new AEntityC_Renderable[capacity] : Arrays.copyOf(emitters, capacity);
+        posX = resize(posX, capacity);
+        posY = resize(posY, capacity);
+        posZ = resize(posZ, capacity);
+        prevX = resize(prevX, capacity);
+        prevY = resize(prevY, capacity);
+        prevZ = resize(prevZ, capacity);
+        motionX = resize(motionX, capacity);
+        motionY = resize(motionY, capacity);
+        motionZ = resize(motionZ, capacity);
+        initialX = resize(initialX, capacity);
+        initialY = resize(initialY, capacity);
+        initialZ = resize(initialZ, capacity);
+        scaleX = resize(scaleX, capacity);
+        scaleY = resize(scaleY, capacity);
+        age = resize(age, capacity);
+        maxAge = resize(maxAge, capacity);
+        lightValue = resize(lightValue, capacity);
+        touchingBlocks = touchingBlocks == null ? new boolean[capacity] : Arrays.copyOf(touchingBlocks, capacity);
+        minU = resize(minU, capacity);
+        maxU = resize(maxU, capacity);
+        minV = resize(minV, capacity);
+        maxV = resize(maxV, capacity);
+        textureIndex = resize(textureIndex, capacity);
+        textureDelayIndex = resize(textureDelayIndex, capacity);
+        timeOfNextTexture = resize(timeOfNextTexture, capacity);
+        colorIndex = resize(colorIndex, capacity);
+        colorDelayIndex = resize(colorDelayIndex, capacity);
+        timeOfCurrentColor = resize(timeOfCurrentColor, capacity);
+        timeOfNextColor = resize(timeOfNextColor, capacity);
+        renderKeys = new long[capacity];
+        renderScale = new float[capacity];
+    }
+
+    private static double[] resize(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static float[] resize(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static int[] resize(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static int quantize(float value) {
+        return Math.round((value > 1.0F ? 1.0F : (value < 0.0F ? 0.0F : value)) * 63);
+    }
+
+    /**
+     * Interface for getting the world lighting at a position.
+     */
+    @FunctionalInterface
+    public interface LightingProvider {
+        int getLightingAtPosition(Point3D position);
+    }
+}
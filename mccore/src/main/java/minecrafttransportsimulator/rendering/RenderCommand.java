@@ -0,0 +1,94 @@
+package minecrafttransportsimulator.rendering;
+
+import minecrafttransportsimulator.baseclasses.ColorRGB;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+
+/**
+ * Class that holds a single queued render of a {@link RenderableObject}.  Objects are re-used for multiple
+ * renders a frame, with their states and transforms changed between them, so all render states are copied
+ * into this command when it's queued.  The vertices are not copied, so only objects that don't change their
+ * vertices between renders should be queued.
+ * <br><br>
+ * The transform is the object's transform, and the origin is the offset of the entity that queued the object
+ * from the camera.  The object should be translated by the origin, then transformed, to render it.
+ *
+ * @author don_bruce
+ */
+public class RenderCommand {
+    public RenderableObject object;
+    public final TransformationMatrix transform = new TransformationMatrix();
+    public double originX;
+    public double originY;
+    public double originZ;
+
+    public String texture;
+    public final ColorRGB color = new ColorRGB();
+    public float alpha;
+    public int worldLightValue;
+    public boolean disableLighting;
+    public boolean ignoreWorldShading;
+    public boolean enableBrightBlending;
+
+    /**
+     * Key used to sort this command.  Commands with the same key have the same texture, color, and lighting flags,
+     * though commands with different keys may still have the same states.
+     **/
+    public int sortKey;
+
+    /**
+     * Sets this command to the current state of the passed-in object.
+     */
+    public void setTo(RenderableObject object, double originX, double originY, double originZ) {
+        this.object = object;
+        this.transform.set(object.transform);
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+        this.texture = object.texture;
+        this.color.setTo(object.color);
+        this.alpha = object.alpha;
+        this.worldLightValue = object.worldLightValue;
+        this.disableLighting = object.disableLighting;
+        this.ignoreWorldShading = object.ignoreWorldShading;
+        this.enableBrightBlending = object.enableBrightBlending;
+    }
+
+    /**
+     * Sets the states of the object back to what they were when this command was queued.
+     * This is for interfaces that render objects by their own states rather than the command's.
+     */
+    public void restoreObjectState() {
+        object.transform.set(transform);
+        object.texture = texture;
+        if (!hasSameColor(object.color)) {
+            object.color.setTo(color);
+        }
+        object.alpha = alpha;
+        object.worldLightValue = worldLightValue;
+        object.disableLighting = disableLighting;
+        object.ignoreWorldShading = ignoreWorldShading;
+        object.enableBrightBlending = enableBrightBlending;
+    }
+
+    /**
+     * Returns true if the passed-in command has the same render states as this command.
+     * Transforms aren't states, as they have to be set for every command anyways.
+     */
+    public boolean hasSameState(RenderCommand other) {
+        return hasSameTexture(other) && hasSameColor(other.color) && alpha == other.alpha && worldLightValue == other.worldLightValue && disableLighting == other.disableLighting && ignoreWorldShading == other.ignoreWorldShading && enableBrightBlending == other.enableBrightBlending;
+    }
+
+    /**
+     * Returns true if the passed-in command has the same texture as this command.
+     */
+    public boolean hasSameTexture(RenderCommand other) {
+        return texture == null ? other.texture == null : texture.equals(other.texture);
+    }
+
+    /**
+     * Returns true if the passed-in color is the same as the color of this command.
+     */
+    public boolean hasSameColor(ColorRGB other) {
+        return color.red == other.red && color.green == other.green && color.blue == other.blue;
+    }
+}
@@ -0,0 +1,97 @@
+package minecrafttransportsimulator.rendering;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.ViewFrustum;
+import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
+
+/**
+ * Class that decides which entities need to be rendered each frame.  This should be updated once a frame,
+ * before the first render pass, and the visible list then used for all passes of that frame.  Entities are
+ * culled if their render bounds are outside the camera frustum, or if they are further from the camera than
+ * their max render distance.  Culled entities aren't rendered, which skips all their animations and lights,
+ * but they still have their sounds updated as we can hear things we can't see.
+ * <br><br>
+ * All checks are done relative to the camera position, as that's how the frustum matrices are set up.
+ *
+ * @author don_bruce
+ */
+public class RenderCuller {
+    /**
+     * How far, in blocks, to grow render bounds when checking them.  Bounds are based on collision, and models
+     * often extend past their collision boxes, as well as move a bit between ticks, so we need some slop.
+     */
+    private static final double BOUNDS_MARGIN = 2.0;
+
+    public final ViewFrustum frustum = new ViewFrustum();
+    private final List<AEntityC_Renderable> visibleEntities = new ArrayList<>();
+    private final Point3D cameraPosition = new Point3D();
+
+    /**
+     * Number of entities that were rendered on the last update.
+     **/
+    public int drawnCount;
+    /**
+     * Number of entities that were culled on the last update.
+     **/
+    public int culledCount;
+
+    /**
+     * Updates the visible entities from the passed-in entities.  The frustum should be updated prior to calling this.
+     * If culling is disabled, all entities will be visible.
+     */
+    public void update(Collection<AEntityC_Renderable> entities, Point3D cameraPosition, boolean cullingEnabled, float partialTicks) {
+        this.cameraPosition.set(cameraPosition);
+        visibleEntities.clear();
+        culledCount = 0;
+        for (AEntityC_Renderable entity : entities) {
+            if (!cullingEnabled || isVisible(entity)) {
+                visibleEntities.add(entity);
+            } else {
+                entity.renderCulled(partialTicks);
+                ++culledCount;
+            }
+        }
+        drawnCount = visibleEntities.size();
+    }
+
+    /**
+     * Returns the entities that were visible on the last update.
+     */
+    public List<AEntityC_Renderable> getVisibleEntities() {
+        return visibleEntities;
+    }
+
+    /**
+     * Returns true if the passed-in entity is visible from the camera position this culler was last updated with.
+     */
+    public boolean isVisible(AEntityC_Renderable entity) {
+        BoundingBox bounds = entity.getRenderBounds();
+        double maxDistance = entity.getMaxRenderDistance();
+        if (bounds != null) {
+            double centerX = bounds.globalCenter.x - cameraPosition.x;
+            double centerY = bounds.globalCenter.y - cameraPosition.y;
+            double centerZ = bounds.globalCenter.z - cameraPosition.z;
+            double widthRadius = bounds.widthRadius + BOUNDS_MARGIN;
+            double heightRadius = bounds.heightRadius + BOUNDS_MARGIN;
+            double depthRadius = bounds.depthRadius + BOUNDS_MARGIN;
+            if (maxDistance != 0) {
+                //Check against the furthest extent of the box, so large things don't vanish while we can still see their ends.
+                double maxRadius = Math.max(widthRadius, Math.max(heightRadius, depthRadius));
+                double allowedDistance = maxDistance + maxRadius;
+                if (centerX * centerX + centerY * centerY + centerZ * centerZ > allowedDistance * allowedDistance) {
+                    return false;
+                }
+            }
+            return frustum.isBoxInside(centerX, centerY, centerZ, widthRadius, heightRadius, depthRadius);
+        } else if (maxDistance != 0) {
+            return entity.position.isDistanceToCloserThan(cameraPosition, maxDistance);
+        } else {
+            return true;
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package minecrafttransportsimulator.rendering;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableAccessor;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
@@ -133,39 +137,51 @@ public final class RenderInstrument {
      */
     public static class InstrumentSwitchbox extends AnimationSwitchbox {
         private final JSONInstrumentComponent component;
+        private final Map<DurationDelayClock, Boolean> partNumberSuffixes = new HashMap<>();
+        private final Map<DurationDelayClock, Map<Integer, VariableAccessor>> partNumberAccessors = new HashMap<>();
 
         public InstrumentSwitchbox(AEntityD_Definable<?> entity, JSONInstrumentComponent component) {
             super(entity, component.animations, null);
             this.component = component;
         }
 
-        private String convertAnimationPartNumber(DurationDelayClock clock) {
+        private VariableAccessor getPartNumberAccessor(DurationDelayClock clock) {
             //If the partNumber is non-zero, we need to check if we are applying a part-based animation.
             //If so, we need to let the animation system know by adding a suffix to the variable.
             //Otherwise, as we don't pass-in the part, it will assume it's an entity variable.
             //We also need to set the partNumber to 1 if we have a part number of 0 and we're
             //doing a part-specific animation.
             //Skip adding a suffix if one already exists.
-            int variablePartNumber = AEntityF_Multipart.getVariableNumber(clock.animation.variable);
-            final boolean addSuffix = variablePartNumber == -1 && !(entity instanceof APart) && (clock.animation.variable.startsWith("engine_") || clock.animation.variable.startsWith("propeller_") || clock.animation.variable.startsWith("gun_") || clock.animation.variable.startsWith("seat_"));
+            //Whether we need a suffix and the accessors are cached per part number, as the same component may be in multiple slots.
+            Boolean addSuffix = partNumberSuffixes.get(clock);
+            if (addSuffix == null) {
+                int variablePartNumber = AEntityF_Multipart.getVariableNumber(clock.animation.variable);
+                addSuffix = variablePartNumber == -1 && !(entity instanceof APart) && (clock.animation.variable.startsWith("engine_") || clock.animation.variable.startsWith("propeller_") || clock.animation.variable.startsWith("gun_") || clock.animation.variable.startsWith("seat_"));
+                partNumberSuffixes.put(clock, addSuffix);
+            }
             if (partNumber == 0 && addSuffix) {
                 partNumber = 1;
             }
-            String oldVariable = clock.animation.variable;
-            if (addSuffix) {
-                clock.animation.variable += "_" + partNumber;
+            Map<Integer, VariableAccessor> clockAccessors = partNumberAccessors.computeIfAbsent(clock, k -> new HashMap<>());
+            VariableAccessor accessor = clockAccessors.get(partNumber);
+            if (accessor == null) {
+                if (addSuffix) {
+                    accessor = entity.getAnimationVariableAccessor(clock.animation.variable + "_" + partNumber);
+                } else {
+                    accessor = clock.variableAccessor;
+                }
+                clockAccessors.put(partNumber, accessor);
             }
-            return oldVariable;
+            return accessor;
         }
 
         @Override
         public void runTranslation(DurationDelayClock clock, float partialTicks) {
             //Offset the coords based on the translated amount.
             //Adjust the window to either move or scale depending on settings.
-            String oldVariable = convertAnimationPartNumber(clock);
-            double xTranslation = entity.getAnimatedVariableValue(clock, clock.animation.axis.x, partialTicks);
-            double yTranslation = entity.getAnimatedVariableValue(clock, clock.animation.axis.y, partialTicks);
-            clock.animation.variable = oldVariable;
+            VariableAccessor accessor = getPartNumberAccessor(clock);
+            double xTranslation = entity.getAnimatedVariableValue(clock, accessor, clock.animation.axis.x, 0, partialTicks);
+            double yTranslation = entity.getAnimatedVariableValue(clock, accessor, clock.animation.axis.y, 0, partialTicks);
 
             if (component.extendWindow) {
                 //We need to add to the edge of the window in this case rather than move the entire window.
@@ -210,9 +226,7 @@ public final class RenderInstrument {
 
         @Override
         public void runRotation(DurationDelayClock clock, float partialTicks) {
-            String oldVariable = convertAnimationPartNumber(clock);
-            double variableValue = -entity.getAnimatedVariableValue(clock, clock.animation.axis.z, partialTicks);
-            clock.animation.variable = oldVariable;
+            double variableValue = -entity.getAnimatedVariableValue(clock, getPartNumberAccessor(clock), clock.animation.axis.z, 0, partialTicks);
 
             //Depending on what variables are set we do different rendering operations.
             //If we are rotating the window, but not the texture we should offset the texture points to that rotated point.
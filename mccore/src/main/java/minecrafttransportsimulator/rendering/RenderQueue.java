@@ -0,0 +1,223 @@
+package minecrafttransportsimulator.rendering;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import minecrafttransportsimulator.mcinterface.IInterfaceRender;
+
+/**
+ * Class that queues model objects for rendering rather than rendering them as they are found.  Once all
+ * entities have been rendered for a pass, the queue is sorted by lighting flags, texture, and color, and then
+ * rendered with the fewest state changes possible.  Without this, every object would bind its texture, set its
+ * color, and toggle its lighting, even if the object before it had the exact same states.
+ * <br><br>
+ * Queues should only be used on the solid pass.  On the blended pass, the order things are rendered in changes
+ * what they look like, and not everything goes through the queue, so objects must be rendered as they are found.
+ * Queueing and sorting are done without any calls to the game, so this class may be used anywhere.  Only
+ * {@link #flush(IInterfaceRender)} renders anything.
+ *
+ * @author don_bruce
+ */
+public class RenderQueue {
+    private static final int LIGHTING_SHIFT = 28;
+    private static final int TEXTURE_SHIFT = 14;
+    private static final int TEXTURE_MASK = (1 << 14) - 1;
+    private static final int COLOR_MASK = (1 << 14) - 1;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_SIZE = 1 << RADIX_BITS;
+    private static final int RADIX_PASSES = 4;
+
+    /**
+     * The queue that is currently active, or null if objects should be rendered as they are found.
+     **/
+    private static RenderQueue activeQueue;
+
+    private final List<RenderCommand> commands = new ArrayList<>();
+    private int commandCount;
+    private int[] order = new int[0];
+    private int[] sortBuffer = new int[0];
+    private final int[] radixCounts = new int[RADIX_SIZE];
+    private double originX;
+    private double originY;
+    private double originZ;
+
+    /**
+     * Number of commands that were rendered on the last flush.
+     **/
+    public int renderedCount;
+    /**
+     * Number of times the render state was changed on the last flush.
+     **/
+    public int stateChanges;
+    /**
+     * Number of times the texture was changed on the last flush.  This is included in {@link #stateChanges}.
+     **/
+    public int textureChanges;
+
+    /**
+     * Renders the passed-in object.  If a queue is active, the object is queued instead.
+     */
+    public static void render(RenderableObject object) {
+        if (activeQueue != null) {
+            activeQueue.queue(object);
+        } else {
+            object.render();
+        }
+    }
+
+    /**
+     * Starts queueing objects in this queue.  {@link #flush(IInterfaceRender)} must always be called after this,
+     * even if rendering fails, otherwise all objects rendered after will be queued and never rendered.
+     */
+    public void begin() {
+        commandCount = 0;
+        setOrigin(0, 0, 0);
+        activeQueue = this;
+    }
+
+    /**
+     * Sets the origin for all following objects.  This should be set to the offset of the entity being
+     * rendered from the camera, prior to rendering the entity.
+     */
+    public void setOrigin(double x, double y, double z) {
+        originX = x;
+        originY = y;
+        originZ = z;
+    }
+
+    /**
+     * Queues the passed-in object with its current states.
+     */
+    public void queue(RenderableObject object) {
+        RenderCommand command;
+        if (commandCount < commands.size()) {
+            command = commands.get(commandCount);
+        } else {
+            command = new RenderCommand();
+            commands.add(command);
+        }
+        command.setTo(object, originX, originY, originZ);
+        command.sortKey = getSortKey(command);
+        ++commandCount;
+    }
+
+    /**
+     * Returns the number of commands currently queued.
+     */
+    public int size() {
+        return commandCount;
+    }
+
+    /**
+     * Returns the command that will be rendered at the passed-in index.  Only valid after calling {@link #sort()}.
+     */
+    public RenderCommand getCommand(int index) {
+        return commands.get(order[index]);
+    }
+
+    /**
+     * Sorts the commands by their keys, which sets the order they will be rendered in.
+     * Commands with the same key will always be in the order they were queued.
+     */
+    public void sort() {
+        if (order.length < commandCount) {
+            order = new int[commands.size()];
+            sortBuffer = new int[commands.size()];
+        }
+        for (int i = 0; i < commandCount; ++i) {
+            order[i] = i;
+        }
+        if (commandCount == 0) {
+            return;
+        }
+
+        //LSD radix sort.  Each pass is stable, so after the last pass we're sorted by the whole key.
+        for (int pass = 0; pass < RADIX_PASSES; ++pass) {
+            int shift = pass * RADIX_BITS;
+            for (int i = 0; i < RADIX_SIZE; ++i) {
+                radixCounts[i] = 0;
+            }
+            for (int i = 0; i < commandCount; ++i) {
+                ++radixCounts[(commands.get(order[i]).sortKey >>> shift) & (RADIX_SIZE - 1)];
+            }
+
+            //If all keys have the same digit, this pass won't change anything.
+            if (radixCounts[(commands.get(order[0]).sortKey >>> shift) & (RADIX_SIZE - 1)] == commandCount) {
+                continue;
+            }
+            int total = 0;
+            for (int i = 0; i < RADIX_SIZE; ++i) {
+                int count = radixCounts[i];
+                radixCounts[i] = total;
+                total += count;
+            }
+            for (int i = 0; i < commandCount; ++i) {
+                int index = order[i];
+                sortBuffer[radixCounts[(commands.get(index).sortKey >>> shift) & (RADIX_SIZE - 1)]++] = index;
+            }
+            int[] swap = order;
+            order = sortBuffer;
+            sortBuffer = swap;
+        }
+    }
+
+    /**
+     * Sorts and renders all queued commands, and stops queueing.  States are only set when they differ
+     * from the command before.  After this, objects will be rendered as they are found until the next
+     * call to {@link #begin()}.
+     */
+    public void flush(IInterfaceRender renderer) {
+        if (activeQueue == this) {
+            activeQueue = null;
+        }
+        renderedCount = 0;
+        stateChanges = 0;
+        textureChanges = 0;
+        if (commandCount == 0) {
+            return;
+        }
+
+        sort();
+        RenderCommand lastCommand = null;
+        for (int i = 0; i < commandCount; ++i) {
+            RenderCommand command = getCommand(i);
+            if (lastCommand == null || !command.hasSameState(lastCommand)) {
+                renderer.setRenderState(command, lastCommand);
+                ++stateChanges;
+                if (lastCommand == null || !command.hasSameTexture(lastCommand)) {
+                    ++textureChanges;
+                }
+            }
+            renderer.renderCommand(command);
+            lastCommand = command;
+        }
+        renderer.resetRenderState(lastCommand);
+        renderedCount = commandCount;
+
+        //Clear object references so we don't hold onto objects from models that were removed.
+        for (int i = 0; i < commandCount; ++i) {
+            commands.get(i).object = null;
+        }
+        commandCount = 0;
+    }
+
+    /**
+     * Returns the key for the passed-in command.  Lighting flags are sorted first, as they are the most expensive to
+     * change, then texture, then color.  Textures and colors are hashed into their parts of the key, so different ones
+     * may share a key.  This only means they won't be grouped, as states are always checked before being skipped.
+     */
+    private static int getSortKey(RenderCommand command) {
+        int lightingFlags = (command.disableLighting ? 4 : 0) | (command.ignoreWorldShading ? 2 : 0) | (command.enableBrightBlending ? 1 : 0);
+        int textureKey = command.texture != null ? mixHash(command.texture.hashCode()) % TEXTURE_MASK + 1 : 0;
+        int colorKey = mixHash(command.color.rgbInt * 31 + Float.floatToIntBits(command.alpha)) & COLOR_MASK;
+        return (lightingFlags << LIGHTING_SHIFT) | (textureKey << TEXTURE_SHIFT) | colorKey;
+    }
+
+    /**
+     * Spreads the bits of the passed-in hash, so masking it gives an even spread of values.  Always positive.
+     */
+    private static int mixHash(int hash) {
+        hash *= 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & Integer.MAX_VALUE;
+    }
+}
@@ -21,7 +21,6 @@ import minecrafttransportsimulator.jsondefs.JSONAnimatedObject;
 import minecrafttransportsimulator.jsondefs.JSONLight;
 import minecrafttransportsimulator.jsondefs.JSONLight.JSONLightBlendableComponent;
 import minecrafttransportsimulator.jsondefs.JSONText;
-import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
@@ -42,14 +41,14 @@ public class RenderableModelObject {
     private RenderableObject coverObject;
     private final Map<JSONLight, RenderableObject> flareObjects = new HashMap<>();
     private final Map<JSONLight, RenderableObject> beamObjects = new HashMap<>();
+    private FloatBuffer treadLinkVertices;
+    private RenderableObject treadObject;
 
     /**
      * Map of tread points, keyed by the model the tread is pathing about, then the part slot, then the spacing of the tread.
      * This can be shared for two different treads of the same spacing as they render the same.
      **/
-    private static final Map<String, Map<Integer, Map<Float, List<Double[]>>>> treadPoints = new HashMap<>();
-    private static final TransformationMatrix treadPathBaseTransform = new TransformationMatrix();
-    private static final RotationMatrix treadRotation = new RotationMatrix();
+    private static final Map<String, Map<Integer, Map<Float, TreadPath>>> treadPoints = new HashMap<>();
     private static final float COLOR_OFFSET = RenderableObject.Z_BUFFER_OFFSET;
     private static final float FLARE_OFFSET = COLOR_OFFSET + RenderableObject.Z_BUFFER_OFFSET;
     private static final float COVER_OFFSET = FLARE_OFFSET + RenderableObject.Z_BUFFER_OFFSET;
@@ -93,6 +92,7 @@ public class RenderableModelObject {
     /**
      * Renders this object, applying any transforms that need to happen.  This method also
      * renders any objects that depend on this object's transforms after rendering.
+     * Objects are rendered via the {@link RenderQueue}, so they may not be rendered until the queue is flushed.
      */
     public void render(AEntityD_Definable<?> entity, TransformationMatrix transform, boolean blendingEnabled, float partialTicks) {
         //Do pre-render checks based on the object we are rendering.
@@ -131,10 +131,11 @@ public class RenderableModelObject {
                         if (textDef.fieldName != null && object.name.contains(textDef.fieldName)) {
                             String textValue = entity.text.get(textDef);
                             if (!textValue.isEmpty() && !textValue.contains(" ")) {
-                                String errorString = InterfaceManager.renderingInterface.downloadURLTexture(textValue);
+                                //Textures load in the background, so keep our existing texture until it's ready.
+                                String errorString = OnlineTextureLoader.requestTexture(textValue);
                                 if (errorString != null) {
                                     textEntry.setValue(errorString);
-                                } else {
+                                } else if (OnlineTextureLoader.isLoaded(textValue)) {
                                     object.texture = textValue;
                                 }
                             }
@@ -170,7 +171,7 @@ public class RenderableModelObject {
                         object.disableLighting = ConfigSystem.client.renderingSettings.brightLights.value;
                         object.enableBrightBlending = ConfigSystem.client.renderingSettings.blendedLights.value;
                         object.alpha = Math.min((1 - entity.world.getLightBrightness(entity.position, false)) * lightLevel, 1);
-                        object.render();
+                        RenderQueue.render(object);
                     } else if (blendingEnabled == object.isTranslucent) {
                         //Either solid texture on solid pass, or translucent texture on blended pass.
                         //Need to disable light-mapping from daylight if we are a light-up texture.
@@ -186,11 +187,11 @@ public class RenderableModelObject {
                                 object.alpha = (float) (switchbox.lastVisibilityValue - switchbox.lastVisibilityClock.animation.clampMin) / (switchbox.lastVisibilityClock.animation.clampMax - switchbox.lastVisibilityClock.animation.clampMin);
                             }
                         }
-                        object.render();
+                        RenderQueue.render(object);
                         if (interiorWindowObject != null && ConfigSystem.client.renderingSettings.innerWindows.value) {
                             interiorWindowObject.worldLightValue = object.worldLightValue;
                             interiorWindowObject.transform.set(object.transform);
-                            interiorWindowObject.render();
+                            RenderQueue.render(interiorWindowObject);
                         }
                     }
 
@@ -262,15 +263,15 @@ public class RenderableModelObject {
 
     private void doTreadRendering(PartGroundDevice tread, float partialTicks) {
         String treadPathModel = tread.entityOn.definition.getModelLocation(tread.entityOn.subDefinition);
-        Map<Integer, Map<Float, List<Double[]>>> treadPointsMap = treadPoints.get(treadPathModel);
+        Map<Integer, Map<Float, TreadPath>> treadPointsMap = treadPoints.get(treadPathModel);
         if (treadPointsMap == null) {
             treadPointsMap = new HashMap<>();
         }
-        Map<Float, List<Double[]>> treadPointsSubMap = treadPointsMap.get(tread.placementSlot);
+        Map<Float, TreadPath> treadPointsSubMap = treadPointsMap.get(tread.placementSlot);
         if (treadPointsSubMap == null) {
             treadPointsSubMap = new HashMap<>();
         }
-        List<Double[]> points = treadPointsSubMap.get(tread.definition.ground.spacing);
+        TreadPath points = treadPointsSubMap.get(tread.definition.ground.spacing);
 
         if (points == null) {
             points = generateTreads(tread.entityOn, treadPathModel, treadPointsSubMap, tread);
@@ -279,20 +280,12 @@ public class RenderableModelObject {
             treadPoints.put(treadPathModel, treadPointsMap);
         }
 
-        //Render the treads along their points.
-        //We manually set point 0 here due to the fact it's a joint between two differing angles.
-        //We also need to translate to that point to start rendering as we're currently at 0,0,0.
-        //For each remaining point, we only translate the delta of the point.
+        //Get how far the treads have moved between points.
         float treadLinearPosition = (float) (tread.getRawVariableValue("ground_rotation", partialTicks) / 360D);
         float treadMovementPercentage = (treadLinearPosition % tread.definition.ground.spacing) / tread.definition.ground.spacing;
         if (treadMovementPercentage < 0) {
             ++treadMovementPercentage;
         }
-        Double[] point;
-        Double[] nextPoint;
-        double yDelta;
-        double zDelta;
-        double angleDelta;
 
         //Tread rendering is done via the thing the tread is on, which will assume the part is centered at 0, 0, 0.
         //We need to undo the offset of the tread part for this routine.
@@ -300,10 +293,6 @@ public class RenderableModelObject {
             object.transform.applyTranslation(0, -tread.localOffset.y, -tread.localOffset.z);
         }
 
-        //Add initial translation for the first point
-        point = points.get(0);
-        object.transform.applyTranslation(0, point[0], point[1]);
-
         //Get cycle index for later.
         boolean[] renderIndexes = null;
         if (tread.definition.ground.treadOrder != null) {
@@ -321,64 +310,36 @@ public class RenderableModelObject {
             }
         }
 
-        //Now transform all points.
-        for (int i = 0; i < points.size() - 1; ++i) {
-            //Update variables.
-            //If we're at the last point, set the next point to the first point.
-            //Also adjust angle delta, as it'll likely be almost 360 and needs to be adjusted for this.
-            point = points.get(i);
-            if (i == points.size() - 1) {
-                nextPoint = points.get(0);
-                angleDelta = (nextPoint[2] + 360) - point[2];
+        //Get the link vertices.  If our object has been rendered on its own, it may have cached them and dropped its reference.
+        if (treadLinkVertices == null) {
+            if (object.vertices != null) {
+                treadLinkVertices = object.vertices;
             } else {
-                nextPoint = points.get(i + 1);
-                angleDelta = nextPoint[2] - point[2];
-            }
-            yDelta = nextPoint[0] - point[0];
-            zDelta = nextPoint[1] - point[1];
-
-            //If our angle delta is greater than 180, we can assume that we're inverted.
-            //This happens when we cross the 360 degree rotation barrier.
-            if (angleDelta > 180) {
-                angleDelta -= 360;
-            } else if (angleDelta < -180) {
-                angleDelta += 360;
-            }
-
-            //Check if we should render this object as a link in this position.
-            //This is normally true, but for patterns we need to only render in specific spots.
-            if (renderIndexes != null && !renderIndexes[i % renderIndexes.length]) {
-                object.transform.applyTranslation(0, yDelta, zDelta);
-                continue;
+                for (RenderableObject testObject : AModelParser.parseModel(modelLocation)) {
+                    if (object.name.equals(testObject.name)) {
+                        treadLinkVertices = testObject.vertices;
+                        break;
+                    }
+                }
             }
+        }
 
-            //Translate to the current position of the tread based on the percent it has moved.
-            //This is determined by partial ticks and actual tread position.
-            //Once there, render the tread.  Then translate the remainder of the way to prepare
-            //to render the next tread.
-            object.transform.applyTranslation(0, yDelta * treadMovementPercentage, zDelta * treadMovementPercentage);
-
-            //If there's no rotation to the point, and no delta between points, don't do rotation.  That's just extra math.
-            //Do note that the model needs to be rotated 180 on the X-axis due to all our points
-            //assuming a YZ coordinate system with 0 degrees rotation being in +Y (just how the math comes out).
-            //This is why 180 is added to all points cached in the operations above.
-            if (point[2] != 0 || angleDelta != 0) {
-                //We can't use a running rotation here as we'll end up translating in the rotated
-                //coordinate system.  To combat this, we translate like normal, but then push a
-                //stack and rotate prior to rendering.  This keeps us from having to do another
-                //rotation to get the old coordinate system back.
-                treadPathBaseTransform.set(object.transform);
-                treadRotation.setToAxisAngle(1, 0, 0, point[2] + angleDelta * treadMovementPercentage);
-                object.transform.applyRotation(treadRotation);
-                object.render();
-                object.transform.set(treadPathBaseTransform);
-            } else {
-                //Just render as normal as we didn't rotate.
-                object.render();
+        //Place all links along the path, and put them all in one buffer to render.
+        //This buffer changes every render, so it can't be cached or queued, and has to be rendered now.
+        if (points.updateLinkTransforms(treadMovementPercentage, renderIndexes) > 0) {
+            int requiredCapacity = treadLinkVertices.limit() * points.getMaxLinkCount();
+            if (treadObject == null || treadObject.vertices.capacity() < requiredCapacity) {
+                treadObject = new RenderableObject(object.name, object.texture, object.color, FloatBuffer.allocate(requiredCapacity), false);
             }
-
-            //Add remaining translation.
-            object.transform.applyTranslation(0, yDelta * (1 - treadMovementPercentage), zDelta * (1 - treadMovementPercentage));
+            points.emitLinkVertices(treadLinkVertices, treadObject.vertices);
+            treadObject.texture = object.texture;
+            treadObject.worldLightValue = object.worldLightValue;
+            treadObject.alpha = object.alpha;
+            treadObject.disableLighting = object.disableLighting;
+            treadObject.ignoreWorldShading = object.ignoreWorldShading;
+            treadObject.enableBrightBlending = object.enableBrightBlending;
+            treadObject.transform.set(object.transform);
+            treadObject.render();
         }
     }
 
@@ -399,7 +360,7 @@ public class RenderableModelObject {
             colorObject.color.setTo(color);
             colorObject.alpha = lightLevel;
             colorObject.transform.set(object.transform);
-            colorObject.render();
+            RenderQueue.render(colorObject);
 
         }
         if (blendingEnabled && lightLevel > 0 && lightDef.blendableComponents != null && !lightDef.blendableComponents.isEmpty()) {
@@ -436,7 +397,7 @@ public class RenderableModelObject {
                     flareObject.color.setTo(color);
                     flareObject.alpha = blendableBrightness;
                     flareObject.transform.set(object.transform);
-                    flareObject.render();
+                    RenderQueue.render(flareObject);
                 }
 
                 //Render all beams.
@@ -448,7 +409,7 @@ public class RenderableModelObject {
                     beamObject.color.setTo(color);
                     beamObject.alpha = blendableBrightness;
                     beamObject.transform.set(object.transform);
-                    beamObject.render();
+                    RenderQueue.render(beamObject);
                 }
             }
         }
@@ -466,7 +427,7 @@ public class RenderableModelObject {
             coverObject.worldLightValue = object.worldLightValue;
             coverObject.disableLighting = ConfigSystem.client.renderingSettings.brightLights.value && lightLevel > 0;
             coverObject.transform.set(object.transform);
-            coverObject.render();
+            RenderQueue.render(coverObject);
         }
     }
 
@@ -624,7 +585,7 @@ public class RenderableModelObject {
         return beamObject;
     }
 
-    private static <TreadEntity extends AEntityD_Definable<?>> List<Double[]> generateTreads(TreadEntity entityTreadAttachedTo, String treadPathModel, Map<Float, List<Double[]>> treadPointsMap, PartGroundDevice tread) {
+    private static <TreadEntity extends AEntityD_Definable<?>> TreadPath generateTreads(TreadEntity entityTreadAttachedTo, String treadPathModel, Map<Float, TreadPath> treadPointsMap, PartGroundDevice tread) {
         //If we don't have the deltas, calculate them based on the points of the rollers defined in the JSON.			
         //Search through rotatable parts on the model and grab the rollers.
         List<RenderableObject> parsedModel = AModelParser.parseModel(entityTreadAttachedTo.definition.getModelLocation(entityTreadAttachedTo.definition.definitions.get(0)));
@@ -726,7 +687,7 @@ public class RenderableModelObject {
         double leftoverPathLength = 0;
         double yPoint = 0;
         double zPoint = 0;
-        List<Double[]> points = new ArrayList<>();
+        TreadPath points = new TreadPath();
         for (int i = 0; i < rollers.size(); ++i) {
             TreadRoller roller = rollers.get(i);
             //Follow the curve of the roller from the start and end point.
@@ -749,7 +710,7 @@ public class RenderableModelObject {
             if (i == 0) {
                 yPoint = roller.centerPoint.y + roller.radius * Math.cos(Math.toRadians(currentAngle));
                 zPoint = roller.centerPoint.z + roller.radius * Math.sin(Math.toRadians(currentAngle));
-                points.add(new Double[]{yPoint, zPoint, currentAngle + 180});
+                points.addPoint(yPoint, zPoint, currentAngle + 180);
             }
 
             //If we have any leftover straight path, account for it here to keep spacing consistent.
@@ -774,7 +735,7 @@ public class RenderableModelObject {
                     currentAngle += 360D * (deltaDist / roller.circumference);
                     yPoint = roller.centerPoint.y + roller.radius * Math.cos(Math.toRadians(currentAngle));
                     zPoint = roller.centerPoint.z + roller.radius * Math.sin(Math.toRadians(currentAngle));
-                    points.add(new Double[]{yPoint, zPoint, currentAngle + 180});
+                    points.addPoint(yPoint, zPoint, currentAngle + 180);
                 }
             }
 
@@ -821,7 +782,7 @@ public class RenderableModelObject {
                     catenaryPointY = tread.placementDefinition.treadDroopConstant * Math.cosh(catenaryPointZ / tread.placementDefinition.treadDroopConstant);
                     yPoint = roller.endY + normalizedY * catenaryFunctionPercent + catenaryPointY - catenaryPathEdgeY;
                     zPoint = roller.endZ + catenaryPointZ + straightPathLength / 2D;
-                    points.add(new Double[]{yPoint, zPoint, currentAngle + 180 - Math.toDegrees(Math.asin(catenaryFunctionCurrent / tread.placementDefinition.treadDroopConstant))});
+                    points.addPoint(yPoint, zPoint, currentAngle + 180 - Math.toDegrees(Math.asin(catenaryFunctionCurrent / tread.placementDefinition.treadDroopConstant)));
                 }
                 leftoverPathLength = catenaryPathLength;
             } else {
@@ -837,7 +798,7 @@ public class RenderableModelObject {
                         zPoint += normalizedZ * deltaDist;
                         straightPathLength -= deltaDist;
                     }
-                    points.add(new Double[]{yPoint, zPoint, currentAngle + 180});
+                    points.addPoint(yPoint, zPoint, currentAngle + 180);
                 }
                 leftoverPathLength = straightPathLength;
             }
@@ -0,0 +1,162 @@
+package minecrafttransportsimulator.rendering;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import minecrafttransportsimulator.baseclasses.RotationMatrix;
+import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+
+/**
+ * Class that holds the path a tread follows, as a set of points in the YZ plane with the angle of the link at
+ * each point.  Links are placed between points, moved along the path by how far the tread has moved.  Rather
+ * than rendering each link on its own, the transforms for all links are calculated in one go, and then the
+ * link vertices are transformed into a single buffer, so the whole tread can be rendered in one call.
+ * <br><br>
+ * Link transforms are relative to the start of the path, so the buffer should be rendered with the transform
+ * of the tread.  This class has no references to the game, so it may be used anywhere.
+ *
+ * @author don_bruce
+ */
+public class TreadPath {
+    private static final int FLOATS_PER_VERTEX = 8;
+
+    private double[] pointYs = new double[16];
+    private double[] pointZs = new double[16];
+    private double[] angles = new double[16];
+    private int pointCount;
+
+    private final TransformationMatrix pathTransform = new TransformationMatrix();
+    private final RotationMatrix linkRotation = new RotationMatrix();
+    private TransformationMatrix[] linkTransforms = new TransformationMatrix[0];
+    private int linkCount;
+
+    /**
+     * Adds a point to the end of this path.
+     */
+    public void addPoint(double y, double z, double angle) {
+        if (pointCount == pointYs.length) {
+            pointYs = Arrays.copyOf(pointYs, pointCount * 2);
+            pointZs = Arrays.copyOf(pointZs, pointCount * 2);
+            angles = Arrays.copyOf(angles, pointCount * 2);
+        }
+        pointYs[pointCount] = y;
+        pointZs[pointCount] = z;
+        angles[pointCount] = angle;
+        ++pointCount;
+    }
+
+    /**
+     * Returns the number of points in this path.
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Returns the most links this path can have, which is one between each point.
+     */
+    public int getMaxLinkCount() {
+        return Math.max(pointCount - 1, 0);
+    }
+
+    /**
+     * Calculates the transforms for all links, with the links moved the passed-in percentage of the way to their next points.
+     * If render indexes are passed-in, links are only placed at points where the index for that point is true.  The index
+     * used for each point is the point's index modulo the length of the array.  Returns the number of links placed.
+     */
+    public int updateLinkTransforms(double movementPercentage, boolean[] renderIndexes) {
+        if (linkTransforms.length < getMaxLinkCount()) {
+            int oldLength = linkTransforms.length;
+            linkTransforms = Arrays.copyOf(linkTransforms, getMaxLinkCount());
+            for (int i = oldLength; i < linkTransforms.length; ++i) {
+                linkTransforms[i] = new TransformationMatrix();
+            }
+        }
+        linkCount = 0;
+        if (pointCount == 0) {
+            return 0;
+        }
+
+        //Start at point 0, and move along the path by the delta between each point.
+        pathTransform.resetTransforms();
+        pathTransform.applyTranslation(0, pointYs[0], pointZs[0]);
+        for (int i = 0; i < pointCount - 1; ++i) {
+            double yDelta = pointYs[i + 1] - pointYs[i];
+            double zDelta = pointZs[i + 1] - pointZs[i];
+            double angleDelta = angles[i + 1] - angles[i];
+
+            //If our angle delta is greater than 180, we can assume that we're inverted.
+            //This happens when we cross the 360 degree rotation barrier.
+            if (angleDelta > 180) {
+                angleDelta -= 360;
+            } else if (angleDelta < -180) {
+                angleDelta += 360;
+            }
+
+            //Skip points we don't have links at, but keep moving along the path.
+            if (renderIndexes != null && !renderIndexes[i % renderIndexes.length]) {
+                pathTransform.applyTranslation(0, yDelta, zDelta);
+                continue;
+            }
+
+            //Translate to the current position of the link based on the percent it has moved.
+            //The link is rotated here too, but the path isn't, as we'd be translating in the rotated coordinate system.
+            pathTransform.applyTranslation(0, yDelta * movementPercentage, zDelta * movementPercentage);
+            TransformationMatrix linkTransform = linkTransforms[linkCount++];
+            linkTransform.set(pathTransform);
+            if (angles[i] != 0 || angleDelta != 0) {
+                linkRotation.setToAxisAngle(1, 0, 0, angles[i] + angleDelta * movementPercentage);
+                linkTransform.applyRotation(linkRotation);
+            }
+            pathTransform.applyTranslation(0, yDelta * (1 - movementPercentage), zDelta * (1 - movementPercentage));
+        }
+        return linkCount;
+    }
+
+    /**
+     * Returns the number of links placed on the last call to {@link #updateLinkTransforms(double, boolean[])}.
+     */
+    public int getLinkCount() {
+        return linkCount;
+    }
+
+    /**
+     * Returns the transform of the link at the passed-in index, as of the last call to {@link #updateLinkTransforms(double, boolean[])}.
+     */
+    public TransformationMatrix getLinkTransform(int index) {
+        return linkTransforms[index];
+    }
+
+    /**
+     * Puts the passed-in link vertices into the passed-in buffer once for each link placed on the last call to
+     * {@link #updateLinkTransforms(double, boolean[])}, transformed by that link's transform.  The buffer is cleared
+     * first, and flipped after, so it's ready for rendering.  It must have room for the vertices of all links.
+     * The link vertices are in the format of {@link RenderableObject#vertices}, and are not modified.
+     */
+    public void emitLinkVertices(FloatBuffer linkVertices, FloatBuffer buffer) {
+        int linkFloats = linkVertices.limit();
+        buffer.clear();
+        for (int i = 0; i < linkCount; ++i) {
+            TransformationMatrix transform = linkTransforms[i];
+            for (int j = 0; j + FLOATS_PER_VERTEX <= linkFloats; j += FLOATS_PER_VERTEX) {
+                double normalX = linkVertices.get(j);
+                double normalY = linkVertices.get(j + 1);
+                double normalZ = linkVertices.get(j + 2);
+                double x = linkVertices.get(j + 5);
+                double y = linkVertices.get(j + 6);
+                double z = linkVertices.get(j + 7);
+
+                //Links are only translated and rotated, so normals only need the rotation.
+                buffer.put((float) (transform.m00 * normalX + transform.m01 * normalY + transform.m02 * normalZ));
+                buffer.put((float) (transform.m10 * normalX + transform.m11 * normalY + transform.m12 * normalZ));
+                buffer.put((float) (transform.m20 * normalX + transform.m21 * normalY + transform.m22 * normalZ));
+                buffer.put(linkVertices.get(j + 3));
+                buffer.put(linkVertices.get(j + 4));
+                buffer.put((float) (transform.m00 * x + transform.m01 * y + transform.m02 * z + transform.m03));
+                buffer.put((float) (transform.m10 * x + transform.m11 * y + transform.m12 * z + transform.m13));
+                buffer.put((float) (transform.m20 * x + transform.m21 * y + transform.m22 * z + transform.m23));
+            }
+        }
+        buffer.flip();
+    }
+}
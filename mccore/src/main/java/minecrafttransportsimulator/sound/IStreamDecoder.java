@@ -23,7 +23,9 @@ public interface IStreamDecoder {
     int BUFFER_SIZE = 128 * 1024;
 
     /**
-     * Reads a block of data and returns it as a ByteBuffer.
+     * Reads a block of data and returns it as a ByteBuffer.  Non-mono sources
+     * are combined into mono via a {@link MonoDownmixer} prior to returning,
+     * as all systems expect a mono sound stream.
      * Note that this buffer is re-used, so do NOT make multiple
      * calls to this method without storing the data somewhere in
      * between them.  Once no more blocks are available this method
@@ -38,28 +40,5 @@ public interface IStreamDecoder {
      */
     void stop();
 
-    /**
-     * Combines a stereo-sampled ByteBufer into a mono-sampled one.
-     * This allows us to use mono-only sounds that support attenuation.
-     * This should be done prior to sending the finalized buffer returned in
-     * {@link #readBlock()}, if the source sound file is non-mono as all systems
-     * expect a mono sound stream.
-     */
-    static ByteBuffer stereoToMono(ByteBuffer stereoBuffer) {
-        ByteBuffer monoBuffer = ByteBuffer.allocateDirect(stereoBuffer.limit() / 2);
-        while (stereoBuffer.hasRemaining()) {
-            //Combine samples using little-endian ordering.
-            byte[] sampleSet = new byte[4];
-            stereoBuffer.get(sampleSet);
-            int leftSample = (sampleSet[1] << 8) | (sampleSet[0] & 0xFF);
-            int rightSample = (sampleSet[3] << 8) | (sampleSet[2] & 0xFF);
-            int combinedSample = (leftSample + rightSample) / 2;
-            monoBuffer.put((byte) (combinedSample & 0xFF));
-            monoBuffer.put((byte) (combinedSample >> 8));
-        }
-        monoBuffer.flip();
-        return monoBuffer;
-    }
-
     int getSampleRate();
 }
\ No newline at end of file
@@ -42,6 +42,14 @@ public class MP3Decoder implements IStreamDecoder {
      * Buffer used to store decoded data that can be sent to OpenAL.
      **/
     private final ByteBuffer decodedDataBuffer;
+    /**
+     * Sample view of the decodedDataBuffer, used for downmixing.
+     **/
+    private final ShortBuffer decodedSamples;
+    /**
+     * Downmixer for stereo data, or null if the file is mono.
+     **/
+    private final MonoDownmixer downmixer;
     /**
      * Stereo or not.  Needed to tell OpenAL how to parse the bytes.
      **/
@@ -72,6 +80,8 @@ public class MP3Decoder implements IStreamDecoder {
         this.sampleRate = currentFrameHeader.frequency();
         this.decoderOutputBuffer = new SampleBuffer(sampleRate, isStereo ? 2 : 1);
         this.decodedDataBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+        this.decodedSamples = decodedDataBuffer.asShortBuffer();
+        this.downmixer = isStereo ? new MonoDownmixer(2, ByteBuffer.allocateDirect(BUFFER_SIZE / 2).order(ByteOrder.nativeOrder())) : null;
         this.decoder.setOutputBuffer(decoderOutputBuffer);
     }
 
@@ -121,7 +131,7 @@ public class MP3Decoder implements IStreamDecoder {
         //Rewind the decoded data buffer, set the limit based on the samples read, and return.
         decodedDataBuffer.rewind();
         decodedDataBuffer.limit(totalSamplesRead * 2);
-        return isStereo ? IStreamDecoder.stereoToMono(decodedDataBuffer) : decodedDataBuffer;
+        return downmixer != null ? downmixer.downmix(decodedSamples, totalSamplesRead) : decodedDataBuffer;
     }
 
     @Override
@@ -0,0 +1,56 @@
+package minecrafttransportsimulator.sound;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Class that combines interleaved multi-channel samples into a mono stream.  This allows us to use
+ * mono-only sounds that support attenuation.  Samples are read from and written to native-order
+ * {@link ShortBuffer} views, so no per-sample byte shifting or allocation is done.  The output buffer
+ * is provided by the caller and re-used for every call, so each decoder only needs one downmixer.
+ *
+ * @author don_bruce
+ */
+public class MonoDownmixer {
+    private final int channels;
+    private final ByteBuffer monoBuffer;
+    private final ShortBuffer monoSamples;
+
+    /**
+     * Creates a downmixer for the passed-in number of channels.  The passed-in buffer must be a
+     * direct buffer in native order, and must be large enough to hold the mono samples for the
+     * largest block that will be downmixed.
+     */
+    public MonoDownmixer(int channels, ByteBuffer monoBuffer) {
+        this.channels = channels;
+        this.monoBuffer = monoBuffer;
+        this.monoSamples = monoBuffer.asShortBuffer();
+    }
+
+    /**
+     * Downmixes the first sampleCount interleaved samples from the passed-in view.  Channels are averaged
+     * together for each sample frame.  Returns the mono buffer, ready for reading.  Note that this buffer is
+     * re-used, so the data in it will be overwritten on the next call.
+     */
+    public ByteBuffer downmix(ShortBuffer samples, int sampleCount) {
+        int frames = sampleCount / channels;
+        if (channels == 2) {
+            //Most common case, so use a simple loop the JIT can unroll.
+            for (int frame = 0; frame < frames; ++frame) {
+                monoSamples.put(frame, (short) ((samples.get(2 * frame) + samples.get(2 * frame + 1)) / 2));
+            }
+        } else {
+            int sampleIndex = 0;
+            for (int frame = 0; frame < frames; ++frame) {
+                int combinedSample = 0;
+                for (int channel = 0; channel < channels; ++channel) {
+                    combinedSample += samples.get(sampleIndex++);
+                }
+                monoSamples.put(frame, (short) (combinedSample / channels));
+            }
+        }
+        monoBuffer.clear();
+        monoBuffer.limit(frames * 2);
+        return monoBuffer;
+    }
+}
@@ -25,6 +25,14 @@ public class OGGDecoder implements IStreamDecoder {
      * Buffer used to store decoded data that can be sent to OpenAL.
      **/
     private final ByteBuffer decodedDataBuffer;
+    /**
+     * Sample view of the decodedDataBuffer, used for downmixing.
+     **/
+    private final ShortBuffer decodedSamples;
+    /**
+     * Downmixer for multi-channel data, or null if the file is mono.
+     **/
+    private final MonoDownmixer downmixer;
     /**
      * Internal flag set to true when we are done processing data.  Some data may still be left in buffers for return at this point.
      **/
@@ -134,6 +142,8 @@ public class OGGDecoder implements IStreamDecoder {
         pcmInfo = new float[1][][];
         pcmIndex = new int[info.channels];
         this.decodedDataBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+        this.decodedSamples = decodedDataBuffer.asShortBuffer();
+        this.downmixer = info.channels > 1 ? new MonoDownmixer(info.channels, ByteBuffer.allocateDirect(BUFFER_SIZE / info.channels).order(ByteOrder.nativeOrder())) : null;
     }
 
     @Override
@@ -190,7 +200,7 @@ public class OGGDecoder implements IStreamDecoder {
         //Rewind the decoded data buffer, set the limit based on the samples read, and return.
         decodedDataBuffer.rewind();
         decodedDataBuffer.limit(totalSamplesProcessed * 2 * info.channels);
-        return info.channels == 2 ? IStreamDecoder.stereoToMono(decodedDataBuffer) : decodedDataBuffer;
+        return downmixer != null ? downmixer.downmix(decodedSamples, totalSamplesProcessed * info.channels) : decodedDataBuffer;
     }
 
     private void decodeSamples() {
@@ -0,0 +1,208 @@
+package minecrafttransportsimulator.sound;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Class that loads OGG sounds from packs into mono PCM data for the audio system.  Sounds are decoded
+ * on a background thread, so the client doesn't hitch when playing a long sound for the first time.
+ * Decoded data is also cached on disk, keyed by a hash of the sound name and the OGG file itself.  This
+ * lets later launches skip decoding entirely, and ensures changed sound files are decoded again.
+ * <br><br>
+ * All methods other than the decoding itself are to be called from the client thread only.
+ *
+ * @author don_bruce
+ */
+public class SoundAssetLoader {
+    private static final int CACHE_MAGIC = 0x4D545350;
+    private static final int CACHE_VERSION = 1;
+    private static final File cacheDir = new File(InterfaceManager.gameDirectory, "mts_soundcache");
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MTS Sound Decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<String, Future<DecodedSound>> decodingSounds = new HashMap<>();
+    private static final Future<DecodedSound> FAILED_SOUND = CompletableFuture.completedFuture(null);
+
+    /**
+     * Returns true if the passed-in sound has been decoded and may be obtained via {@link #takeSound(String)}.
+     * If the sound hasn't started decoding yet, it is started here.
+     */
+    public static boolean isDecoded(String soundName) {
+        return decodingSounds.computeIfAbsent(soundName, name -> executor.submit(() -> decode(name))).isDone();
+    }
+
+    /**
+     * Returns the decoded data for the passed-in sound, or null if the sound doesn't exist or couldn't be decoded.
+     * The data is only returned once, as it is expected the caller will load it into the audio system.  Missing
+     * sounds, and sounds that failed to decode, are remembered, so they won't be looked for again.  Only call this after {@link #isDecoded(String)}
+     * returns true.
+     */
+    public static DecodedSound takeSound(String soundName) {
+        try {
+            DecodedSound sound = decodingSounds.get(soundName).get();
+            if (sound != null) {
+                decodingSounds.remove(soundName);
+            }
+            return sound;
+        } catch (Exception e) {
+            //Remember the failure as a missing sound, so we only log it once rather than every time the sound is played.
+            InterfaceManager.coreInterface.logError("Could not decode sound " + soundName + ", it will not be played.");
+            e.printStackTrace();
+            decodingSounds.put(soundName, FAILED_SOUND);
+            return null;
+        }
+    }
+
+    /**
+     * Decodes the passed-in sound, using the cached data if it exists.  Returns null if the sound doesn't exist.
+     */
+    private static DecodedSound decode(String soundName) {
+        String soundDomain = soundName.substring(0, soundName.indexOf(':'));
+        String soundPath = soundName.substring(soundDomain.length() + 1);
+        InputStream soundStream = InterfaceManager.coreInterface.getPackResource("/assets/" + soundDomain + "/sounds/" + soundPath + ".ogg");
+        if (soundStream == null) {
+            return null;
+        }
+
+        //Read in the whole file.  We need it to check the cache anyways, and it's far smaller than the decoded data.
+        byte[] oggData;
+        try {
+            ByteArrayOutputStream oggStream = new ByteArrayOutputStream();
+            byte[] readBuffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = soundStream.read(readBuffer)) != -1) {
+                oggStream.write(readBuffer, 0, bytesRead);
+            }
+            soundStream.close();
+            oggData = oggStream.toByteArray();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+
+        File cacheFile = getCacheFile(soundName, oggData);
+        if (cacheFile != null && cacheFile.exists()) {
+            DecodedSound cachedSound = readCache(cacheFile);
+            if (cachedSound != null) {
+                return cachedSound;
+            }
+        }
+
+        //Decode data into chunks, then copy them into one buffer.  This keeps decoding linear with file length.
+        OGGDecoder decoder = new OGGDecoder(new ByteArrayInputStream(oggData));
+        List<byte[]> chunks = new ArrayList<>();
+        int totalBytes = 0;
+        ByteBuffer blockRead;
+        while ((blockRead = decoder.readBlock()) != null) {
+            byte[] chunk = new byte[blockRead.remaining()];
+            blockRead.get(chunk);
+            chunks.add(chunk);
+            totalBytes += chunk.length;
+        }
+        ByteBuffer decodedData = ByteBuffer.allocateDirect(totalBytes).order(ByteOrder.nativeOrder());
+        for (byte[] chunk : chunks) {
+            decodedData.put(chunk);
+        }
+        decodedData.flip();
+
+        if (cacheFile != null) {
+            writeCache(cacheFile, decoder.getSampleRate(), totalBytes, chunks);
+        }
+        return new DecodedSound(decodedData, decoder.getSampleRate());
+    }
+
+    private static File getCacheFile(String soundName, byte[] oggData) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(soundName.getBytes(StandardCharsets.UTF_8));
+            digest.update(oggData);
+            StringBuilder fileName = new StringBuilder();
+            for (byte hashByte : digest.digest()) {
+                fileName.append(String.format("%02x", hashByte));
+            }
+            return new File(cacheDir, fileName.append(".pcm").toString());
+        } catch (Exception e) {
+            //No SHA-1 means no cache.  Not ideal, but we can still decode.
+            return null;
+        }
+    }
+
+    private static DecodedSound readCache(File cacheFile) {
+        try (DataInputStream stream = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+            if (stream.readInt() != CACHE_MAGIC || stream.readInt() != CACHE_VERSION || stream.readBoolean() != (ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN)) {
+                return null;
+            }
+            int sampleRate = stream.readInt();
+            byte[] data = new byte[stream.readInt()];
+            stream.readFully(data);
+            ByteBuffer decodedData = ByteBuffer.allocateDirect(data.length).order(ByteOrder.nativeOrder());
+            decodedData.put(data).flip();
+            return new DecodedSound(decodedData, sampleRate);
+        } catch (IOException e) {
+            InterfaceManager.coreInterface.logError("Could not read cached sound data from " + cacheFile.getName() + ", will decode the sound instead.");
+            return null;
+        }
+    }
+
+    private static void writeCache(File cacheFile, int sampleRate, int totalBytes, List<byte[]> chunks) {
+        cacheDir.mkdirs();
+        File tempFile = new File(cacheFile.getPath() + ".tmp");
+        try {
+            try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                stream.writeInt(CACHE_MAGIC);
+                stream.writeInt(CACHE_VERSION);
+                stream.writeBoolean(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN);
+                stream.writeInt(sampleRate);
+                stream.writeInt(totalBytes);
+                for (byte[] chunk : chunks) {
+                    stream.write(chunk);
+                }
+            }
+            Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            //Not a big deal, we'll just decode again next time.
+            InterfaceManager.coreInterface.logError("Could not write cached sound data to " + cacheFile.getName() + ".");
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Decoded mono 16-bit PCM data for a sound, in native byte order.
+     */
+    public static class DecodedSound {
+        public final ByteBuffer data;
+        public final int sampleRate;
+
+        private DecodedSound(ByteBuffer data, int sampleRate) {
+            this.data = data;
+            this.sampleRate = sampleRate;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package mcinterface1122;
 
 import java.io.InputStream;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -42,11 +43,21 @@ class InterfaceCore implements IInterfaceCore {
         return InterfaceCore.class.getResourceAsStream(resource);
     }
 
+    @Override
+    public URL getPackResourceURL(String resource) {
+        return InterfaceCore.class.getResource(resource);
+    }
+
     @Override
     public void logError(String message) {
         InterfaceLoader.LOGGER.error("MTSERROR: " + message);
     }
 
+    @Override
+    public void logInfo(String message) {
+        InterfaceLoader.LOGGER.info(message);
+    }
+
     @Override
     public IWrapperNBT getNewNBTWrapper() {
         return new WrapperNBT();
@@ -6,6 +6,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.FloatBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -14,8 +15,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 
+import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
 import minecrafttransportsimulator.items.components.AItemBase;
 import minecrafttransportsimulator.items.components.AItemPack;
@@ -23,6 +26,8 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packloading.PackParser;
 import minecrafttransportsimulator.packloading.PackResourceLoader;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ResourceType;
+import minecrafttransportsimulator.rendering.RenderCuller;
+import minecrafttransportsimulator.rendering.RenderQueue;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.GlStateManager;
@@ -55,6 +60,12 @@ import net.minecraftforge.fml.relauncher.Side;
 @EventBusSubscriber(Side.CLIENT)
 public class InterfaceEventsModelLoader {
     private static boolean enableDebug = true;
+    private static final RenderCuller renderCuller = new RenderCuller();
+    private static final RenderQueue solidRenderQueue = new RenderQueue();
+    private static final Point3D cameraPosition = new Point3D();
+    private static final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+    private static final float[] projectionMatrix = new float[16];
+    private static final float[] modelViewMatrix = new float[16];
 
     /**
      * Event that's called to register models.  We register our render wrapper
@@ -98,17 +109,51 @@ public class InterfaceEventsModelLoader {
                         //This prevents bad lighting.
                         GlStateManager.enableRescaleNormal();
 
-                        //Start master profiling section.
-                        for (AEntityC_Renderable entity : allEntities) {
-                            //Rendering system expects coordinates to be at center of entity when called, translate us so that's the case.
-                            world.beginProfiling("MTSRendering", true);
-                            GL11.glPushMatrix();
-                            GL11.glTranslated(entity.position.x - (cameraEntity.lastTickPosX + (cameraEntity.posX - cameraEntity.lastTickPosX) * partialTicks), entity.position.y - (cameraEntity.lastTickPosY + (cameraEntity.posY - cameraEntity.lastTickPosY) * partialTicks), entity.position.z - (cameraEntity.lastTickPosZ + (cameraEntity.posZ - cameraEntity.lastTickPosZ) * partialTicks));
-                            entity.render(blendingEnabled, partialTicks);
-                            GL11.glPopMatrix();
+                        //Get the entities we can see on the solid pass, and use the same ones on the blended pass.
+                        //The matrices at this point are the camera's, so the frustum is relative to the camera position.
+                        if (!blendingEnabled) {
+                            world.beginProfiling("MTSRendering_Culling", true);
+                            GL11.glGetFloat(GL11.GL_PROJECTION_MATRIX, matrixBuffer);
+                            matrixBuffer.get(projectionMatrix).rewind();
+                            GL11.glGetFloat(GL11.GL_MODELVIEW_MATRIX, matrixBuffer);
+                            matrixBuffer.get(modelViewMatrix).rewind();
+                            renderCuller.frustum.update(projectionMatrix, modelViewMatrix);
+                            cameraPosition.set(cameraEntity.lastTickPosX + (cameraEntity.posX - cameraEntity.lastTickPosX) * partialTicks, cameraEntity.lastTickPosY + (cameraEntity.posY - cameraEntity.lastTickPosY) * partialTicks, cameraEntity.lastTickPosZ + (cameraEntity.posZ - cameraEntity.lastTickPosZ) * partialTicks);
+                            renderCuller.update(allEntities, cameraPosition, ConfigSystem.client.renderingSettings.renderCulling.value, partialTicks);
                             world.endProfiling();
                         }
 
+                        //Queue model objects on the solid pass if we're sorting them, and render them all after the entities.
+                        //The blended pass isn't queued, as it needs to render everything in the order we find it.
+                        boolean queueRendering = !blendingEnabled && ConfigSystem.client.renderingSettings.sortedRendering.value;
+                        if (queueRendering) {
+                            solidRenderQueue.begin();
+                        }
+
+                        //Start master profiling section.
+                        try {
+                            for (AEntityC_Renderable entity : renderCuller.getVisibleEntities()) {
+                                //Rendering system expects coordinates to be at center of entity when called, translate us so that's the case.
+                                world.beginProfiling("MTSRendering", true);
+                                double offsetX = entity.position.x - (cameraEntity.lastTickPosX + (cameraEntity.posX - cameraEntity.lastTickPosX) * partialTicks);
+                                double offsetY = entity.position.y - (cameraEntity.lastTickPosY + (cameraEntity.posY - cameraEntity.lastTickPosY) * partialTicks);
+                                double offsetZ = entity.position.z - (cameraEntity.lastTickPosZ + (cameraEntity.posZ - cameraEntity.lastTickPosZ) * partialTicks);
+                                GL11.glPushMatrix();
+                                GL11.glTranslated(offsetX, offsetY, offsetZ);
+                                solidRenderQueue.setOrigin(offsetX, offsetY, offsetZ);
+                                entity.render(blendingEnabled, partialTicks);
+                                GL11.glPopMatrix();
+                                world.endProfiling();
+                            }
+                        } finally {
+                            //Always flush, even if an entity failed to render, or everything rendered after this would stay queued.
+                            if (queueRendering) {
+                                world.beginProfiling("MTSRendering_Queue", true);
+                                solidRenderQueue.flush(InterfaceManager.renderingInterface);
+                                world.endProfiling();
+                            }
+                        }
+
                         //Reset states.
                         GL11.glShadeModel(GL11.GL_FLAT);
                         if (blendingEnabled) {
@@ -1,17 +1,22 @@
 package mcinterface1122;
 
 import java.io.IOException;
-
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfacePacket;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.components.APacketBase;
+import minecrafttransportsimulator.packets.components.PacketBatcher;
+import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.common.FMLCommonHandler;
@@ -24,7 +29,16 @@ import net.minecraftforge.fml.relauncher.Side;
 
 class InterfacePacket implements IInterfacePacket {
     private static final SimpleNetworkWrapper network = NetworkRegistry.INSTANCE.newSimpleChannel(InterfaceLoader.MODID);
-    private static final BiMap<Byte, Class<? extends APacketBase>> packetMappings = HashBiMap.create();
+    @SuppressWarnings("unchecked")
+    private static final Function<ByteBuf, ? extends APacketBase>[] packetFactories = new Function[256];
+    private static final Map<Class<? extends APacketBase>, Byte> packetIndexes = new HashMap<>();
+    private static final ClassValue<Byte> packetIndexCache = new ClassValue<Byte>() {
+        @Override
+        protected Byte computeValue(Class<?> packetClass) {
+            return packetIndexes.get(packetClass);
+        }
+    };
+    private static final PacketBatcher batcher = new PacketBatcher();
 
     /**
      * Called to init this network.  Needs to be done after networking is ready.
@@ -37,19 +51,24 @@ class InterfacePacket implements IInterfacePacket {
 
         //Register internal packets, then external.
         byte packetIndex = 0;
-        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityCSHandshakeClient.class);
-        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityCSHandshakeServer.class);
+        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityCSHandshakeClient.class, PacketEntityCSHandshakeClient::new);
+        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityCSHandshakeServer.class, PacketEntityCSHandshakeServer::new);
         APacketBase.initPackets(packetIndex);
     }
 
     @Override
-    public void registerPacket(byte packetIndex, Class<? extends APacketBase> packetClass) {
-        packetMappings.put(packetIndex, packetClass);
+    public <PacketType extends APacketBase> void registerPacket(byte packetIndex, Class<PacketType> packetClass, Function<ByteBuf, PacketType> packetFactory) {
+        //Batches use the last index, so packets can't.  If we get here, we need to send indexes as more than a byte.
+        if (packetIndex == WrapperPacket.BATCH_INDEX) {
+            throw new IllegalStateException("Too many packets registered!  Index " + (packetIndex & 0xFF) + " is reserved for packet batches, so " + packetClass.getSimpleName() + " can't use it.");
+        }
+        packetFactories[packetIndex & 0xFF] = packetFactory;
+        packetIndexes.put(packetClass, packetIndex);
     }
 
     @Override
     public byte getPacketIndex(APacketBase packet) {
-        return packetMappings.inverse().get(packet.getClass());
+        return packetIndexCache.get(packet.getClass());
     }
 
     @Override
@@ -59,12 +78,44 @@ class InterfacePacket implements IInterfacePacket {
 
     @Override
     public void sendToAllClients(APacketBase packet) {
-        network.sendToAll(new WrapperPacket(packet));
+        if (batcher.isBatching()) {
+            batcher.queue(packet, null);
+        } else {
+            network.sendToAll(new WrapperPacket(packet));
+        }
     }
 
     @Override
     public void sendToPlayer(APacketBase packet, IWrapperPlayer player) {
-        network.sendTo(new WrapperPacket(packet), (EntityPlayerMP) ((WrapperPlayer) player).player);
+        if (batcher.isBatching()) {
+            batcher.queue(packet, player);
+        } else {
+            network.sendTo(new WrapperPacket(packet), (EntityPlayerMP) ((WrapperPlayer) player).player);
+        }
+    }
+
+    @Override
+    public void beginBatching() {
+        if (ConfigSystem.settings.general.batchPackets.value) {
+            batcher.begin();
+        }
+    }
+
+    @Override
+    public void endBatching() {
+        if (batcher.isBatching()) {
+            List<IWrapperPlayer> players = new ArrayList<>();
+            for (EntityPlayerMP player : FMLCommonHandler.instance().getMinecraftServerInstance().getPlayerList().getPlayers()) {
+                players.add(WrapperPlayer.getWrapperFor(player));
+            }
+            batcher.end(players, packet -> {
+                ByteBuf buf = Unpooled.buffer();
+                packet.writeToBuffer(buf);
+                byte[] bytes = new byte[buf.readableBytes()];
+                buf.readBytes(bytes);
+                return bytes;
+            }, (player, batch) -> network.sendTo(new WrapperPacket(batch), (EntityPlayerMP) ((WrapperPlayer) player).player));
+        }
     }
 
     /**
@@ -98,9 +149,17 @@ class InterfacePacket implements IInterfacePacket {
      * arrives on the other side of the pipeline, MC won't know what class to construct.
      * That's up to us to handle via the packet's first byte.  Also note that this class
      * must be public, as if it is private MC won't be able to construct it due to access violations.
+     * <br><br>
+     * This class may also contain a batch of packets from {@link PacketBatcher}.  These start with
+     * a special index, followed by the number of packets and then each packet with its length.
      */
     public static class WrapperPacket implements IMessage {
-        private APacketBase packet;
+        /**
+         * Index that starts a batch.  This is 255 when read as an unsigned byte, so packets may only use indexes 0-254.
+         **/
+        private static final byte BATCH_INDEX = -1;
+        private final List<APacketBase> packets = new ArrayList<>();
+        private List<byte[]> encodedPackets;
 
         /**
          * Do NOT call!  Required to keep Forge from crashing.
@@ -109,23 +168,74 @@ class InterfacePacket implements IInterfacePacket {
         }
 
         public WrapperPacket(APacketBase packet) {
-            this.packet = packet;
+            packets.add(packet);
+        }
+
+        public WrapperPacket(List<byte[]> encodedPackets) {
+            this.encodedPackets = encodedPackets;
         }
 
         @Override
         public void fromBytes(ByteBuf buf) {
+            if (buf.getByte(buf.readerIndex()) == BATCH_INDEX) {
+                buf.skipBytes(1);
+                PacketBuffer pb = new PacketBuffer(buf);
+                int packetCount = pb.readVarInt();
+                for (int i = 0; i < packetCount; ++i) {
+                    int packetLength = pb.readVarInt();
+                    readPacket(buf.readSlice(packetLength));
+                }
+            } else {
+                readPacket(buf);
+            }
+        }
+
+        private void readPacket(ByteBuf buf) {
             byte packetIndex = buf.readByte();
-            try {
-                Class<? extends APacketBase> packetClass = packetMappings.get(packetIndex);
-                packet = packetClass.getConstructor(ByteBuf.class).newInstance(buf);
-            } catch (Exception e) {
-                e.printStackTrace();
+            Function<ByteBuf, ? extends APacketBase> packetFactory = packetFactories[packetIndex & 0xFF];
+            if (packetFactory != null) {
+                //Don't let one bad packet take out the connection, or the rest of the batch.
+                try {
+                    packets.add(packetFactory.apply(buf));
+                } catch (Exception e) {
+                    InterfaceManager.coreInterface.logError("Could not read packet of index " + packetIndex + ", skipping it.  Error was: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            } else {
+                InterfaceManager.coreInterface.logError("Was asked to create packet of index " + packetIndex + " but we haven't registered that one yet!");
             }
         }
 
         @Override
         public void toBytes(ByteBuf buf) {
-            packet.writeToBuffer(buf);
+            if (encodedPackets == null) {
+                packets.get(0).writeToBuffer(buf);
+            } else if (encodedPackets.size() == 1) {
+                buf.writeBytes(encodedPackets.get(0));
+            } else {
+                buf.writeByte(BATCH_INDEX);
+                PacketBuffer pb = new PacketBuffer(buf);
+                pb.writeVarInt(encodedPackets.size());
+                for (byte[] encodedPacket : encodedPackets) {
+                    pb.writeVarInt(encodedPacket.length);
+                    pb.writeBytes(encodedPacket);
+                }
+            }
+        }
+
+        private boolean runOnMainThread() {
+            for (APacketBase packet : packets) {
+                if (packet.runOnMainThread()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void handle(AWrapperWorld world) {
+            for (APacketBase packet : packets) {
+                packet.handle(world);
+            }
         }
     }
 
@@ -136,7 +246,7 @@ class InterfacePacket implements IInterfacePacket {
     public static class WrapperHandler implements IMessageHandler<WrapperPacket, IMessage> {
         @Override
         public IMessage onMessage(WrapperPacket message, MessageContext ctx) {
-            if (message.packet.runOnMainThread()) {
+            if (message.runOnMainThread()) {
                 //Need to put this in a runnable to not run it on the network thread and get a CME.
                 FMLCommonHandler.instance().getWorldThread(ctx.netHandler).addScheduledTask(() -> {
                     //We need to use side-specific getters here to avoid side-specific classes from trying to be loaded
@@ -149,14 +259,14 @@ class InterfacePacket implements IInterfacePacket {
                         world = InterfaceManager.clientInterface.getClientWorld();
                     }
                     if (world != null) {
-                        message.packet.handle(world);
+                        message.handle(world);
                     }
                 });
             } else {
                 if (ctx.side.isServer()) {
-                    message.packet.handle(getServerWorld(ctx));
+                    message.handle(getServerWorld(ctx));
                 } else {
-                    message.packet.handle(InterfaceManager.clientInterface.getClientWorld());
+                    message.handle(InterfaceManager.clientInterface.getClientWorld());
                 }
             }
             return null;
@@ -1,9 +1,6 @@
 package mcinterface1122;
 
-import java.awt.image.BufferedImage;
 import java.io.InputStream;
-import java.net.URL;
-import java.net.URLConnection;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
@@ -14,9 +11,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
 
 import org.lwjgl.opengl.GL11;
 
@@ -27,9 +21,11 @@ import minecrafttransportsimulator.guis.components.GUIComponentItem;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfaceRender;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.rendering.GIFParser;
 import minecrafttransportsimulator.rendering.GIFParser.GIFImageFrame;
 import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+import minecrafttransportsimulator.rendering.OnlineTextureLoader;
+import minecrafttransportsimulator.rendering.OnlineTextureLoader.OnlineTexture;
+import minecrafttransportsimulator.rendering.RenderCommand;
 import minecrafttransportsimulator.rendering.RenderableObject;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.client.Minecraft;
@@ -118,17 +114,7 @@ public class InterfaceRender implements IInterfaceRender {
 
         GL11.glPushMatrix();
         applyTransformOpenGL(object.transform);
-        if (object.cacheVertices) {
-            if (object.cachedVertexIndex == -1) {
-                object.cachedVertexIndex = cacheVertices(object.vertices);
-                object.vertices = null;
-            }
-            GL11.glCallList(object.cachedVertexIndex);
-        } else if (object.isLines) {
-            renderLines(object.vertices);
-        } else {
-            renderVertices(object.vertices);
-        }
+        renderObjectVertices(object);
         GL11.glPopMatrix();
 
         if (object.texture == null) {
@@ -148,63 +134,62 @@ public class InterfaceRender implements IInterfaceRender {
     }
 
     @Override
-    public String downloadURLTexture(String textureURL) {
-        if (!onlineTextures.containsKey(textureURL) && !animatedGIFs.containsKey(textureURL)) {
-            //Parse the texture, get the OpenGL integer that represents this texture, and save it.
-            //FAR less jank than using MC's resource system.
-            try {
-                URL url = new URL(textureURL);
-                URLConnection connection = url.openConnection();
-                try {
-                    List<String> validContentTypes = new ArrayList<>();
-                    for (String imageSuffix : ImageIO.getReaderFileSuffixes()) {
-                        validContentTypes.add("image/" + imageSuffix);
-                    }
-                    String contentType = connection.getHeaderField("Content-Type");
-                    if (validContentTypes.contains(contentType)) {
-                        if (contentType.endsWith("gif")) {
-                            ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
-                            ImageInputStream stream = ImageIO.createImageInputStream(url.openStream());
-                            reader.setInput(stream);
-                            ParsedGIF gif = GIFParser.parseGIF(reader);
-                            if (gif != null) {
-                                animatedGIFs.put(textureURL, gif);
-                                Map<GIFImageFrame, Integer> gifFrameIndexes = new HashMap<>();
-                                for (GIFImageFrame frame : gif.frames.values()) {
-                                    int glTexturePointer = TextureUtil.glGenTextures();
-                                    TextureUtil.uploadTextureImageAllocate(glTexturePointer, frame.getImage(), false, false);
-                                    gifFrameIndexes.put(frame, glTexturePointer);
-                                }
-                                animatedGIFFrames.put(gif, gifFrameIndexes);
-                            } else {
-                                return "Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?";
-                            }
-                        } else {
-                            BufferedImage bufferedimage = TextureUtil.readBufferedImage(url.openStream());
-                            int glTexturePointer = TextureUtil.glGenTextures();
-                            TextureUtil.uploadTextureImageAllocate(glTexturePointer, bufferedimage, false, false);
-                            onlineTextures.put(textureURL, glTexturePointer);
-                        }
-                    } else {
-                        StringBuilder errorString = new StringBuilder("Invalid content type found.  Found:" + contentType + ", but the only valid types are: ");
-                        for (String validType : validContentTypes) {
-                            errorString.append(validType).append(", ");
-                        }
-                        onlineTextures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-                        return errorString.toString();
-                    }
-                } catch (Exception e) {
-                    onlineTextures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-                    e.printStackTrace();
-                    return "Could not parse images.  Error was: " + e.getMessage();
+    public void setRenderState(RenderCommand command, RenderCommand lastCommand) {
+        //Null last command means default states: textured, lit, and normal blending.
+        boolean lastTextured = lastCommand == null || lastCommand.texture != null;
+        boolean lastSystemLighting = lastCommand == null || !(lastCommand.disableLighting || lastCommand.ignoreWorldShading);
+        boolean lastInternalLighting = lastCommand == null || !lastCommand.disableLighting;
+        boolean lastBrightBlending = lastCommand != null && lastCommand.enableBrightBlending;
+        boolean systemLighting = !(command.disableLighting || command.ignoreWorldShading);
+        boolean internalLighting = !command.disableLighting;
+
+        if (lastCommand == null || !command.hasSameTexture(lastCommand)) {
+            if (command.texture != null) {
+                if (!lastTextured) {
+                    GL11.glEnable(GL11.GL_TEXTURE_2D);
                 }
-            } catch (Exception e) {
-                onlineTextures.put(textureURL, TextureUtil.MISSING_TEXTURE.getGlTextureId());
-                e.printStackTrace();
-                return "Could not open URL for processing.  Error was: " + e.getMessage();
+                bindTexture(command.texture);
+            } else if (lastTextured) {
+                GL11.glDisable(GL11.GL_TEXTURE_2D);
             }
         }
-        return null;
+        if (systemLighting != lastSystemLighting) {
+            setSystemLightingState(systemLighting);
+        }
+        if (internalLighting != lastInternalLighting) {
+            setInternalLightingState(internalLighting);
+        }
+        if (command.enableBrightBlending != lastBrightBlending) {
+            setBlendBright(command.enableBrightBlending);
+        }
+        if (lastCommand == null || !command.hasSameColor(lastCommand.color) || command.alpha != lastCommand.alpha) {
+            GlStateManager.color(command.color.red, command.color.green, command.color.blue, command.alpha);
+        }
+        if (internalLighting && (lastCommand == null || !lastInternalLighting || command.worldLightValue != lastCommand.worldLightValue)) {
+            OpenGlHelper.setLightmapTextureCoords(OpenGlHelper.lightmapTexUnit, command.worldLightValue % 65536, command.worldLightValue / 65536);
+        }
+    }
+
+    @Override
+    public void renderCommand(RenderCommand command) {
+        GL11.glPushMatrix();
+        GL11.glTranslated(command.originX, command.originY, command.originZ);
+        applyTransformOpenGL(command.transform);
+        renderObjectVertices(command.object);
+        GL11.glPopMatrix();
+    }
+
+    @Override
+    public void resetRenderState(RenderCommand lastCommand) {
+        if (lastCommand.texture == null) {
+            GL11.glEnable(GL11.GL_TEXTURE_2D);
+        }
+        if (lastCommand.disableLighting || lastCommand.ignoreWorldShading) {
+            setLightingState(true);
+        }
+        if (lastCommand.enableBrightBlending) {
+            setBlendBright(false);
+        }
     }
 
     @Override
@@ -217,6 +202,24 @@ public class InterfaceRender implements IInterfaceRender {
         return Minecraft.getMinecraft().getRenderManager().isDebugBoundingBox();
     }
 
+    /**
+     * Renders the vertices of the passed-in object, caching them first if the object should be cached.
+     * States and transforms should be set prior to calling this.
+     */
+    private static void renderObjectVertices(RenderableObject object) {
+        if (object.cacheVertices) {
+            if (object.cachedVertexIndex == -1) {
+                object.cachedVertexIndex = cacheVertices(object.vertices);
+                object.vertices = null;
+            }
+            GL11.glCallList(object.cachedVertexIndex);
+        } else if (object.isLines) {
+            renderLines(object.vertices);
+        } else {
+            renderVertices(object.vertices);
+        }
+    }
+
     /**
      * Renders a set of raw vertices without any caching.
      */
@@ -417,6 +420,9 @@ public class InterfaceRender implements IInterfaceRender {
      */
     @SubscribeEvent
     public static void on(RenderWorldLastEvent event) {
+        //Upload any online textures that finished loading.
+        OnlineTextureLoader.uploadTextures(InterfaceRender::uploadOnlineTexture);
+
         //Enable lighting as pass -1 has that disabled.
         RenderHelper.enableStandardItemLighting();
         setLightingState(true);
@@ -443,6 +449,23 @@ public class InterfaceRender implements IInterfaceRender {
         setLightingState(false);
     }
 
+    /**
+     * Uploads the image at the passed-in index of the passed-in online texture.
+     * Once the last image of a texture is uploaded, the texture may be bound.
+     */
+    private static void uploadOnlineTexture(OnlineTexture texture, int imageIndex) {
+        int glTexturePointer = TextureUtil.glGenTextures();
+        TextureUtil.uploadTextureImageAllocate(glTexturePointer, texture.getImage(imageIndex), false, false);
+        if (texture.gif != null) {
+            animatedGIFFrames.computeIfAbsent(texture.gif, k -> new HashMap<>()).put(texture.gifFrames.get(imageIndex), glTexturePointer);
+            if (imageIndex == texture.getImageCount() - 1) {
+                animatedGIFs.put(texture.url, texture.gif);
+            }
+        } else {
+            onlineTextures.put(texture.url, glTexturePointer);
+        }
+    }
+
     /**
      * Helper method to completely disable or enable lighting.
      * This disables both the system lighting and internal lighting.
@@ -4,15 +4,14 @@ import java.io.File;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.SavedDataWriter;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.components.ABlockBase.BlockMaterial;
@@ -60,6 +59,7 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemDye;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.EnumHand;
@@ -71,8 +71,11 @@ import net.minecraft.util.math.RayTraceResult;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
 import net.minecraftforge.common.IPlantable;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.BlockEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
@@ -94,10 +97,11 @@ public class WrapperWorld extends AWrapperWorld {
     private final Map<UUID, BuilderEntityExisting> playerServerGunBuilders = new HashMap<>();
     private final Map<UUID, Integer> ticksSincePlayerJoin = new HashMap<>();
     private final List<AxisAlignedBB> mutableCollidingAABBs = new ArrayList<>();
-    private final Set<BlockPos> knownAirBlocks = new HashSet<>();
+    private final BlockCollisionCache collisionCache;
 
     protected final World world;
     private final IWrapperNBT savedData;
+    private final SavedDataWriter<NBTTagCompound> savedDataWriter;
 
     /**
      * Returns a wrapper instance for the passed-in world instance.
@@ -118,6 +122,7 @@ public class WrapperWorld extends AWrapperWorld {
 
     private WrapperWorld(World world) {
         this.world = world;
+        this.collisionCache = new BlockCollisionCache(world);
         if (world.isRemote) {
             //Send packet to server to request data for this world.
             this.savedData = InterfaceManager.coreInterface.getNewNBTWrapper();
@@ -135,6 +140,7 @@ public class WrapperWorld extends AWrapperWorld {
                 throw new IllegalStateException("Could not load saved data from disk!  This will result in data loss if we continue!");
             }
         }
+        this.savedDataWriter = world.isRemote ? null : new SavedDataWriter<>(getDataFile(), () -> ((WrapperNBT) savedData).tag.copy(), CompressedStreamTools::writeCompressed);
         MinecraftForge.EVENT_BUS.register(this);
     }
 
@@ -185,13 +191,8 @@ public class WrapperWorld extends AWrapperWorld {
     public void setData(String name, IWrapperNBT value) {
         savedData.setData(name, value);
         if (!isClient()) {
-            try {
-                CompressedStreamTools.writeCompressed(((WrapperNBT) savedData).tag, Files.newOutputStream(getDataFile().toPath()));
-                InterfaceManager.packetInterface.sendToAllClients(new PacketWorldSavedDataUpdate(name, value));
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new IllegalStateException("Could not save data to disk!  This will result in data loss if we continue!");
-            }
+            savedDataWriter.markDirty();
+            InterfaceManager.packetInterface.sendToAllClients(new PacketWorldSavedDataUpdate(name, value));
         }
     }
 
@@ -230,6 +231,21 @@ public class WrapperWorld extends AWrapperWorld {
         return players;
     }
 
+    @Override
+    public List<IWrapperPlayer> getPlayers() {
+        List<IWrapperPlayer> players = new ArrayList<>();
+        for (EntityPlayer player : world.playerEntities) {
+            players.add(WrapperPlayer.getWrapperFor(player));
+        }
+        return players;
+    }
+
+    @Override
+    public int getEntityTrackingRange() {
+        //Our entities are registered with a range of 32 chunks, but MC won't track past the view distance.
+        return Math.min(32 * 16, world.getMinecraftServer().getPlayerList().getEntityViewDistance());
+    }
+
     @Override
     public List<IWrapperEntity> getEntitiesHostile(IWrapperEntity lookingEntity, double radius) {
         List<IWrapperEntity> entities = new ArrayList<>();
@@ -452,22 +468,27 @@ public class WrapperWorld extends AWrapperWorld {
     }
 
     @Override
-    public double getHeight(Point3D position) {
-        BlockPos pos = new BlockPos(position.x, position.y, position.z);
-        if (world.canSeeSky(pos)) {
-            return position.y - world.getHeight(pos).getY();
-        } else {
-            //Need to go down till we find a block.
-            while (pos.getY() > 0) {
-                if (!world.isAirBlock(pos)) {
-                    //Adjust up since we need to be above the top block. 
-                    pos = pos.up();
-                    break;
+    protected boolean scanTerrainColumn(int x, int z, long[] solidBits) {
+        Chunk chunk = world.getChunkProvider().getLoadedChunk(x >> 4, z >> 4);
+        if (chunk == null) {
+            return false;
+        }
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        for (int sectionIndex = 0; sectionIndex < sections.length; ++sectionIndex) {
+            ExtendedBlockStorage section = sections[sectionIndex];
+            //Empty sections are all air, so don't bother checking them.
+            if (section != null && !section.isEmpty()) {
+                for (int j = 0; j < 16; ++j) {
+                    int blockY = (sectionIndex << 4) + j;
+                    IBlockState state = section.get(x & 15, j, z & 15);
+                    if (!state.getBlock().isAir(state, world, pos.setPos(x, blockY, z))) {
+                        solidBits[blockY >> 6] |= 1L << blockY;
+                    }
                 }
-                pos = pos.down();
             }
-            return position.y - pos.getY();
         }
+        return true;
     }
 
     @Override
@@ -475,22 +496,26 @@ public class WrapperWorld extends AWrapperWorld {
         AxisAlignedBB mcBox = WrapperWorld.convert(box);
         box.collidingBlockPositions.clear();
         mutableCollidingAABBs.clear();
-        for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
-            for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
-                for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
-                    if (world.isBlockLoaded(pos)) {
-                        IBlockState state = world.getBlockState(pos);
+        collisionCache.beginScan();
+        int maxX = (int) Math.ceil(mcBox.maxX);
+        int maxY = (int) Math.ceil(mcBox.maxY);
+        int maxZ = (int) Math.ceil(mcBox.maxZ);
+        for (int i = (int) Math.floor(mcBox.minX); i < maxX; ++i) {
+            for (int j = (int) Math.floor(mcBox.minY); j < maxY; ++j) {
+                for (int k = (int) Math.floor(mcBox.minZ); k < maxZ; ++k) {
+                    BlockPos pos = collisionCache.moveTo(i, j, k);
+                    IBlockState state = collisionCache.getState();
+                    if (state != null) {
                         if (state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null) {
                             int oldCollidingBlockCount = mutableCollidingAABBs.size();
                             state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
                             if (mutableCollidingAABBs.size() > oldCollidingBlockCount) {
-                                box.collidingBlockPositions.add(new Point3D(i, j, k));
+                                box.addCollidingBlockPosition(i, j, k);
                             }
                         }
                         if (box.collidesWithLiquids && state.getMaterial().isLiquid()) {
                             mutableCollidingAABBs.add(state.getBoundingBox(world, pos).offset(pos));
-                            box.collidingBlockPositions.add(new Point3D(i, j, k));
+                            box.addCollidingBlockPosition(i, j, k);
                         }
                     }
                 }
@@ -562,17 +587,21 @@ public class WrapperWorld extends AWrapperWorld {
     @Override
     public boolean checkForCollisions(BoundingBox box, Point3D offset, boolean clearCache) {
         if (clearCache) {
-            knownAirBlocks.clear();
+            collisionCache.clearKnownAir();
         }
         mutableCollidingAABBs.clear();
+        collisionCache.beginScan();
         AxisAlignedBB mcBox = WrapperWorld.convertWithOffset(box, offset.x, offset.y, offset.z);
-        for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
-            for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
-                for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
-                    if (!knownAirBlocks.contains(pos)) {
-                        if (world.isBlockLoaded(pos)) {
-                            IBlockState state = world.getBlockState(pos);
+        int maxX = (int) Math.ceil(mcBox.maxX);
+        int maxY = (int) Math.ceil(mcBox.maxY);
+        int maxZ = (int) Math.ceil(mcBox.maxZ);
+        for (int i = (int) Math.floor(mcBox.minX); i < maxX; ++i) {
+            for (int j = (int) Math.floor(mcBox.minY); j < maxY; ++j) {
+                for (int k = (int) Math.floor(mcBox.minZ); k < maxZ; ++k) {
+                    BlockPos pos = collisionCache.moveTo(i, j, k);
+                    if (!collisionCache.isKnownAir()) {
+                        IBlockState state = collisionCache.getState();
+                        if (state != null) {
                             if (state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null) {
                                 int oldCollidingBlockCount = mutableCollidingAABBs.size();
                                 state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
@@ -580,7 +609,7 @@ public class WrapperWorld extends AWrapperWorld {
                                     return true;
                                 }
                             } else {
-                                knownAirBlocks.add(pos);
+                                collisionCache.markKnownAir();
                             }
                             if (box.collidesWithLiquids && state.getMaterial().isLiquid()) {
                                 if (mcBox.intersects(state.getBoundingBox(world, pos).offset(pos))) {
@@ -924,6 +953,8 @@ public class WrapperWorld extends AWrapperWorld {
         //Note that the client world never calls this method: to do client ticks we need to use the client interface.
         if (!event.world.isRemote && event.world.equals(world)) {
             if (event.phase.equals(Phase.START)) {
+                //Batch packets sent during the tick.  These get sent at the end of the tick.
+                InterfaceManager.packetInterface.beginBatching();
                 beginProfiling("MTS_ServerVehicleUpdates", true);
                 tickAll();
 
@@ -970,16 +1001,32 @@ public class WrapperWorld extends AWrapperWorld {
                 }
             } else {
                 //Update player guns.  These happen at the end since they need the player to update first.
-                beginProfiling("MTS_PlayerGunUpdates", true);
-                for (EntityPlayerGun gun : getEntitiesOfType(EntityPlayerGun.class)) {
-                    gun.update();
-                    gun.doPostUpdateLogic();
+                //Always end batching, even if an update fails, or packets would never be sent again.
+                try {
+                    beginProfiling("MTS_PlayerGunUpdates", true);
+                    for (EntityPlayerGun gun : getEntitiesOfType(EntityPlayerGun.class)) {
+                        gun.update();
+                        gun.doPostUpdateLogic();
+                    }
+                    savedDataWriter.tick();
+                } finally {
+                    InterfaceManager.packetInterface.endBatching();
                 }
             }
             endProfiling();
         }
     }
 
+    /**
+     * Marks terrain as changed when blocks change, so cached terrain heights stay current.
+     */
+    @SubscribeEvent
+    public void on(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getWorld() == world) {
+            markTerrainChanged(event.getPos().getX(), event.getPos().getZ());
+        }
+    }
+
     /**
      * Remove all entities from our maps if we unload the world.  This will cause duplicates if we don't.
      * Also remove this wrapper from the created lists, as it's invalid.
@@ -991,6 +1038,9 @@ public class WrapperWorld extends AWrapperWorld {
             for (AEntityA_Base entity : allEntities) {
                 entity.remove();
             }
+            if (savedDataWriter != null) {
+                savedDataWriter.flush();
+            }
             worldWrappers.remove(world);
         }
     }
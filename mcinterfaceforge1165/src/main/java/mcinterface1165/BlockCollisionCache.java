@@ -0,0 +1,154 @@
+package mcinterface1165;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+
+/**
+ * Class that handles block lookups for collision checks in a {@link WrapperWorld}.  Collision checks scan
+ * every block in a box, and the boxes of all vehicles in a world overlap the same blocks many times a tick,
+ * so this class does these scans without allocating anything per block.  A single mutable position is used
+ * for all lookups, and loaded chunks are cached for the current tick, so the world's chunk map is only hit
+ * once per chunk rather than once per block.  States are still read from the chunk on every lookup, so blocks
+ * that change mid-tick are always seen.
+ * <br><br>
+ * Blocks that were found to not have collisions may also be marked as known air.  These are stored as a bitmap
+ * per chunk, and only the most recently used chunks are kept, so the memory used is bounded.
+ *
+ * @author don_bruce
+ */
+public class BlockCollisionCache {
+    private static final int WORLD_HEIGHT = 256;
+    private static final int MAX_AIR_CHUNKS = 64;
+
+    private final World world;
+    private final BlockPos.Mutable cursor = new BlockPos.Mutable();
+    private final Map<Long, Chunk> tickChunks = new HashMap<>();
+    private final Map<Long, long[]> knownAirChunks = new LinkedHashMap<Long, long[]>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+            return size() > MAX_AIR_CHUNKS;
+        }
+    };
+    private long cachedTick = -1;
+    private int lastChunkX;
+    private int lastChunkZ;
+    private Chunk lastChunk;
+    private long lastAirKey;
+    private long[] lastAirBits;
+
+    public BlockCollisionCache(World world) {
+        this.world = world;
+    }
+
+    /**
+     * Call this prior to any scan.  Drops the cached chunks if the tick has changed since the last scan.
+     */
+    public void beginScan() {
+        long currentTick = world.getGameTime();
+        if (currentTick != cachedTick) {
+            cachedTick = currentTick;
+            tickChunks.clear();
+            lastChunk = null;
+        }
+    }
+
+    /**
+     * Moves the cursor to the passed-in position and returns it.  The returned position is re-used,
+     * so it should not be stored or used after the next call to this method.
+     */
+    public BlockPos moveTo(int x, int y, int z) {
+        return cursor.set(x, y, z);
+    }
+
+    /**
+     * Returns the state of the block at the cursor, or null if the block isn't loaded.
+     */
+    public BlockState getState() {
+        if (cursor.getY() < 0 || cursor.getY() >= WORLD_HEIGHT) {
+            return null;
+        }
+        int chunkX = cursor.getX() >> 4;
+        int chunkZ = cursor.getZ() >> 4;
+        if (lastChunk == null || chunkX != lastChunkX || chunkZ != lastChunkZ) {
+            long key = ChunkPos.asLong(chunkX, chunkZ);
+            Chunk chunk = tickChunks.get(key);
+            if (chunk == null) {
+                if (tickChunks.containsKey(key)) {
+                    return null;
+                }
+                chunk = world.getChunkSource().getChunkNow(chunkX, chunkZ);
+                tickChunks.put(key, chunk);
+                if (chunk == null) {
+                    return null;
+                }
+            }
+            lastChunkX = chunkX;
+            lastChunkZ = chunkZ;
+            lastChunk = chunk;
+        }
+        return lastChunk.getBlockState(cursor);
+    }
+
+    /**
+     * Returns true if the block at the cursor was marked as known air.
+     */
+    public boolean isKnownAir() {
+        long[] airBits = getAirBits(false);
+        if (airBits != null) {
+            int index = getAirIndex();
+            return (airBits[index >> 6] & (1L << index)) != 0;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Marks the block at the cursor as known air.
+     */
+    public void markKnownAir() {
+        long[] airBits = getAirBits(true);
+        if (airBits != null) {
+            int index = getAirIndex();
+            airBits[index >> 6] |= 1L << index;
+        }
+    }
+
+    /**
+     * Clears all known air blocks.
+     */
+    public void clearKnownAir() {
+        knownAirChunks.clear();
+        lastAirBits = null;
+    }
+
+    private long[] getAirBits(boolean create) {
+        if (cursor.getY() < 0 || cursor.getY() >= WORLD_HEIGHT) {
+            return null;
+        }
+        long key = ChunkPos.asLong(cursor.getX() >> 4, cursor.getZ() >> 4);
+        if (lastAirBits != null && key == lastAirKey) {
+            return lastAirBits;
+        }
+        long[] airBits = knownAirChunks.get(key);
+        if (airBits == null && create) {
+            airBits = new long[16 * 16 * WORLD_HEIGHT / 64];
+            knownAirChunks.put(key, airBits);
+        }
+        if (airBits != null) {
+            lastAirKey = key;
+            lastAirBits = airBits;
+        }
+        return airBits;
+    }
+
+    private int getAirIndex() {
+        return (cursor.getY() << 8) | ((cursor.getZ() & 15) << 4) | (cursor.getX() & 15);
+    }
+}
@@ -1,6 +1,7 @@
 package mcinterface1165;
 
 import java.io.InputStream;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -62,11 +63,31 @@ class InterfaceCore implements IInterfaceCore {
         return Blocks.AIR.getClass().getResourceAsStream(resource);
     }
 
+    @Override
+    public URL getPackResourceURL(String resource) {
+        int assetsIndexEnd = resource.indexOf("assets/") + "assets/".length();
+        int modIDEnd = resource.indexOf("/", assetsIndexEnd + 1);
+        String modID = resource.substring(assetsIndexEnd, modIDEnd);
+        Optional<? extends ModContainer> optional = ModList.get().getModContainerById(modID);
+        if (optional.isPresent()) {
+            URL url = optional.get().getMod().getClass().getResource(resource);
+            if (url != null) {
+                return url;
+            }
+        }
+        return Blocks.AIR.getClass().getResource(resource);
+    }
+
     @Override
     public void logError(String message) {
         InterfaceLoader.LOGGER.error("MTSERROR: " + message);
     }
 
+    @Override
+    public void logInfo(String message) {
+        InterfaceLoader.LOGGER.info(message);
+    }
+
     @Override
     public IWrapperNBT getNewNBTWrapper() {
         return new WrapperNBT();
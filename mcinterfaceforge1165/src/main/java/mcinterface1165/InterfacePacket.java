@@ -1,17 +1,22 @@
 package mcinterface1165;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
-
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfacePacket;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.components.APacketBase;
+import minecrafttransportsimulator.packets.components.PacketBatcher;
+import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
@@ -20,11 +25,21 @@ import net.minecraftforge.fml.network.NetworkEvent.Context;
 import net.minecraftforge.fml.network.NetworkRegistry;
 import net.minecraftforge.fml.network.PacketDistributor;
 import net.minecraftforge.fml.network.simple.SimpleChannel;
+import net.minecraftforge.fml.server.ServerLifecycleHooks;
 
 class InterfacePacket implements IInterfacePacket {
     private static final String PROTOCOL_VERSION = "1";
     private static final SimpleChannel network = NetworkRegistry.newSimpleChannel(new ResourceLocation(InterfaceLoader.MODID, "main"), () -> PROTOCOL_VERSION, PROTOCOL_VERSION::equals, PROTOCOL_VERSION::equals);
-    private static final BiMap<Byte, Class<? extends APacketBase>> packetMappings = HashBiMap.create();
+    @SuppressWarnings("unchecked")
+    private static final Function<ByteBuf, ? extends APacketBase>[] packetFactories = new Function[256];
+    private static final Map<Class<? extends APacketBase>, Byte> packetIndexes = new HashMap<>();
+    private static final ClassValue<Byte> packetIndexCache = new ClassValue<Byte>() {
+        @Override
+        protected Byte computeValue(Class<?> packetClass) {
+            return packetIndexes.get(packetClass);
+        }
+    };
+    private static final PacketBatcher batcher = new PacketBatcher();
 
     /**
      * Called to init this network.  Needs to be done after networking is ready.
@@ -36,19 +51,24 @@ class InterfacePacket implements IInterfacePacket {
 
         //Register internal packets, then external.
         byte packetIndex = 0;
-        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityCSHandshakeClient.class);
-        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityCSHandshakeServer.class);
+        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityCSHandshakeClient.class, PacketEntityCSHandshakeClient::new);
+        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityCSHandshakeServer.class, PacketEntityCSHandshakeServer::new);
         APacketBase.initPackets(packetIndex);
     }
 
     @Override
-    public void registerPacket(byte packetIndex, Class<? extends APacketBase> packetClass) {
-        packetMappings.put(packetIndex, packetClass);
+    public <PacketType extends APacketBase> void registerPacket(byte packetIndex, Class<PacketType> packetClass, Function<ByteBuf, PacketType> packetFactory) {
+        //Batches use the last index, so packets can't.  If we get here, we need to send indexes as more than a byte.
+        if (packetIndex == WrapperPacket.BATCH_INDEX) {
+            throw new IllegalStateException("Too many packets registered!  Index " + (packetIndex & 0xFF) + " is reserved for packet batches, so " + packetClass.getSimpleName() + " can't use it.");
+        }
+        packetFactories[packetIndex & 0xFF] = packetFactory;
+        packetIndexes.put(packetClass, packetIndex);
     }
 
     @Override
     public byte getPacketIndex(APacketBase packet) {
-        return packetMappings.inverse().get(packet.getClass());
+        return packetIndexCache.get(packet.getClass());
     }
 
     @Override
@@ -58,12 +78,44 @@ class InterfacePacket implements IInterfacePacket {
 
     @Override
     public void sendToAllClients(APacketBase packet) {
-        network.send(PacketDistributor.ALL.noArg(), new WrapperPacket(packet));
+        if (batcher.isBatching()) {
+            batcher.queue(packet, null);
+        } else {
+            network.send(PacketDistributor.ALL.noArg(), new WrapperPacket(packet));
+        }
     }
 
     @Override
     public void sendToPlayer(APacketBase packet, IWrapperPlayer player) {
-        network.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) ((WrapperPlayer) player).player), new WrapperPacket(packet));
+        if (batcher.isBatching()) {
+            batcher.queue(packet, player);
+        } else {
+            network.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) ((WrapperPlayer) player).player), new WrapperPacket(packet));
+        }
+    }
+
+    @Override
+    public void beginBatching() {
+        if (ConfigSystem.settings.general.batchPackets.value) {
+            batcher.begin();
+        }
+    }
+
+    @Override
+    public void endBatching() {
+        if (batcher.isBatching()) {
+            List<IWrapperPlayer> players = new ArrayList<>();
+            for (ServerPlayerEntity player : ServerLifecycleHooks.getCurrentServer().getPlayerList().getPlayers()) {
+                players.add(WrapperPlayer.getWrapperFor(player));
+            }
+            batcher.end(players, packet -> {
+                PacketBuffer buf = new PacketBuffer(Unpooled.buffer());
+                packet.writeToBuffer(buf);
+                byte[] bytes = new byte[buf.readableBytes()];
+                buf.readBytes(bytes);
+                return bytes;
+            }, (player, batch) -> network.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) ((WrapperPlayer) player).player), new WrapperPacket(batch)));
+        }
     }
 
     /**
@@ -91,9 +143,17 @@ class InterfacePacket implements IInterfacePacket {
      * arrives on the other side of the pipeline, MC won't know what class to construct.
      * That's up to us to handle via the packet's first byte.  Also note that this class
      * must be public, as if it is private MC won't be able to construct it due to access violations.
+     * <br><br>
+     * This class may also contain a batch of packets from {@link PacketBatcher}.  These start with
+     * a special index, followed by the number of packets and then each packet with its length.
      */
     public static class WrapperPacket {
-        private APacketBase packet;
+        /**
+         * Index that starts a batch.  This is 255 when read as an unsigned byte, so packets may only use indexes 0-254.
+         **/
+        private static final byte BATCH_INDEX = -1;
+        private final List<APacketBase> packets = new ArrayList<>();
+        private List<byte[]> encodedPackets;
 
         /**
          * Do NOT call!  Required to keep Forge from crashing.
@@ -102,26 +162,68 @@ class InterfacePacket implements IInterfacePacket {
         }
 
         public WrapperPacket(APacketBase packet) {
-            this.packet = packet;
+            packets.add(packet);
+        }
+
+        public WrapperPacket(List<byte[]> encodedPackets) {
+            this.encodedPackets = encodedPackets;
         }
 
         public static WrapperPacket fromBytes(PacketBuffer buf) {
+            WrapperPacket message = new WrapperPacket();
+            if (buf.getByte(buf.readerIndex()) == BATCH_INDEX) {
+                buf.skipBytes(1);
+                int packetCount = buf.readVarInt();
+                for (int i = 0; i < packetCount; ++i) {
+                    int packetLength = buf.readVarInt();
+                    readPacket(new PacketBuffer(buf.readSlice(packetLength)), message.packets);
+                }
+            } else {
+                readPacket(buf, message.packets);
+            }
+            return message;
+        }
+
+        private static void readPacket(PacketBuffer buf, List<APacketBase> packets) {
             byte packetIndex = buf.readByte();
-            try {
-                Class<? extends APacketBase> packetClass = packetMappings.get(packetIndex);
-                return new WrapperPacket(packetClass.getConstructor(ByteBuf.class).newInstance(buf));
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new IndexOutOfBoundsException("Was asked to create packet of index " + packetIndex + " but we haven't registered that one yet!");
+            Function<ByteBuf, ? extends APacketBase> packetFactory = packetFactories[packetIndex & 0xFF];
+            if (packetFactory != null) {
+                //Don't let one bad packet take out the connection, or the rest of the batch.
+                try {
+                    packets.add(packetFactory.apply(buf));
+                } catch (Exception e) {
+                    InterfaceManager.coreInterface.logError("Could not read packet of index " + packetIndex + ", skipping it.  Error was: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            } else {
+                InterfaceManager.coreInterface.logError("Was asked to create packet of index " + packetIndex + " but we haven't registered that one yet!");
             }
         }
 
         public static void toBytes(WrapperPacket message, PacketBuffer buf) {
-            message.packet.writeToBuffer(buf);
+            if (message.encodedPackets == null) {
+                message.packets.get(0).writeToBuffer(buf);
+            } else if (message.encodedPackets.size() == 1) {
+                buf.writeBytes(message.encodedPackets.get(0));
+            } else {
+                buf.writeByte(BATCH_INDEX);
+                buf.writeVarInt(message.encodedPackets.size());
+                for (byte[] encodedPacket : message.encodedPackets) {
+                    buf.writeVarInt(encodedPacket.length);
+                    buf.writeBytes(encodedPacket);
+                }
+            }
         }
 
         public static void handle(WrapperPacket message, Supplier<Context> ctx) {
-            if (message.packet.runOnMainThread()) {
+            boolean runOnMainThread = false;
+            for (APacketBase packet : message.packets) {
+                if (packet.runOnMainThread()) {
+                    runOnMainThread = true;
+                    break;
+                }
+            }
+            if (runOnMainThread) {
                 //Need to put this in a runnable to not run it on the network thread and get a CME.
                 ctx.get().enqueueWork(() -> {
                     //We need to use side-specific getters here to avoid side-specific classes from trying to be loaded
@@ -134,14 +236,20 @@ class InterfacePacket implements IInterfacePacket {
                         world = InterfaceManager.clientInterface.getClientWorld();
                     }
                     if (world != null) {
-                        message.packet.handle(world);
+                        for (APacketBase packet : message.packets) {
+                            packet.handle(world);
+                        }
                     }
                 });
             } else {
+                AWrapperWorld world;
                 if (ctx.get().getDirection() == NetworkDirection.PLAY_TO_SERVER) {
-                    message.packet.handle(getServerWorld(ctx));
+                    world = getServerWorld(ctx);
                 } else {
-                    message.packet.handle(InterfaceManager.clientInterface.getClientWorld());
+                    world = InterfaceManager.clientInterface.getClientWorld();
+                }
+                for (APacketBase packet : message.packets) {
+                    packet.handle(world);
                 }
             }
             ctx.get().setPacketHandled(true);
@@ -1,11 +1,8 @@
 package mcinterface1165;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
-import java.net.URL;
-import java.net.URLConnection;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -14,10 +11,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
-import javax.imageio.stream.ImageInputStream;
-
 import org.lwjgl.opengl.GL11;
 
 import com.mojang.blaze3d.matrix.MatrixStack;
@@ -33,10 +26,14 @@ import minecrafttransportsimulator.guis.components.GUIComponentItem;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfaceRender;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.rendering.GIFParser;
 import minecrafttransportsimulator.rendering.GIFParser.GIFImageFrame;
 import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+import minecrafttransportsimulator.rendering.OnlineTextureLoader;
+import minecrafttransportsimulator.rendering.OnlineTextureLoader.OnlineTexture;
+import minecrafttransportsimulator.rendering.RenderCommand;
+import minecrafttransportsimulator.rendering.RenderCuller;
 import minecrafttransportsimulator.rendering.RenderableObject;
+import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.BufferBuilder;
@@ -94,6 +91,11 @@ public class InterfaceRender implements IInterfaceRender {
     private static Point3D renderCameraOffset = new Point3D();
     private static boolean renderingGUI;
     private static float[] matrixConvertArray = new float[16];
+    private static final RenderCuller renderCuller = new RenderCuller();
+    private static final float[] projectionMatrix = new float[16];
+    private static final float[] modelViewMatrix = new float[16];
+    private static final FloatBuffer projectionBuffer = FloatBuffer.wrap(projectionMatrix);
+    private static final FloatBuffer modelViewBuffer = FloatBuffer.wrap(modelViewMatrix);
 
     @Override
     public float[] getBlockBreakTexture(AWrapperWorld world, Point3D position) {
@@ -292,6 +294,26 @@ public class InterfaceRender implements IInterfaceRender {
         }
     }
 
+    @Override
+    public void setRenderState(RenderCommand command, RenderCommand lastCommand) {
+        //States are part of the render types objects are put into, so there's nothing to set here.
+    }
+
+    @Override
+    public void renderCommand(RenderCommand command) {
+        //Render types are already grouped in queuedRenders, so just put the object back how it was and render it like normal.
+        matrixStack.pushPose();
+        matrixStack.translate(command.originX, command.originY, command.originZ);
+        command.restoreObjectState();
+        renderVertices(command.object);
+        matrixStack.popPose();
+    }
+
+    @Override
+    public void resetRenderState(RenderCommand lastCommand) {
+        //Nothing to reset, as we didn't set anything.
+    }
+
     @Override
     public int getLightingAtPosition(Point3D position) {
         BlockPos pos = new BlockPos(position.x, position.y, position.z);
@@ -303,70 +325,33 @@ public class InterfaceRender implements IInterfaceRender {
         return Minecraft.getInstance().getEntityRenderDispatcher().shouldRenderHitBoxes();
     }
 
-    @Override
-    public String downloadURLTexture(String textureURL) {
-        if (!onlineTextures.containsKey(textureURL) && !animatedGIFs.containsKey(textureURL)) {
-            //Parse the texture, get the OpenGL integer that represents this texture, and save it.
-            //FAR less jank than using MC's resource system.
-            try {
-                URL url = new URL(textureURL);
-                URLConnection connection = url.openConnection();
-                try {
-                    List<String> validContentTypes = new ArrayList<>();
-                    for (String imageSuffix : ImageIO.getReaderFileSuffixes()) {
-                        validContentTypes.add("image/" + imageSuffix);
-                    }
-                    String contentType = connection.getHeaderField("Content-Type");
-                    if (validContentTypes.contains(contentType)) {
-                        if (contentType.endsWith("gif")) {
-                            ImageReader reader = ImageIO.getImageReadersByFormatName("gif").next();
-                            ImageInputStream stream = ImageIO.createImageInputStream(url.openStream());
-                            reader.setInput(stream);
-                            ParsedGIF gif = GIFParser.parseGIF(reader);
-                            if (gif != null) {
-                                animatedGIFs.put(textureURL, gif);
-                                Map<GIFImageFrame, ResourceLocation> gifFrameIndexes = new HashMap<>();
-                                for (GIFImageFrame frame : gif.frames.values()) {
-                                    BufferedImage frameBuffer = frame.getImage();
-                                    ByteArrayOutputStream frameArrayStream = new ByteArrayOutputStream();
-                                    ImageIO.write(frameBuffer, "gif", frameArrayStream);
-                                    InputStream frameStream = new ByteArrayInputStream(frameArrayStream.toByteArray());
-
-                                    NativeImage image = NativeImage.read(NativeImage.PixelFormat.RGB, frameStream);
-                                    DynamicTexture texture = new DynamicTexture(image);
-                                    ResourceLocation textureLocation = Minecraft.getInstance().textureManager.register("mts-gif", texture);
-                                    gifFrameIndexes.put(frame, textureLocation);
-                                }
-                                animatedGIFFrames.put(gif, gifFrameIndexes);
-                            } else {
-                                return "Could not parse GIF due to no frames being present.  Is this a real direct link or a fake one?";
-                            }
-                        } else {
-                            NativeImage image = NativeImage.read(NativeImage.PixelFormat.RGB, url.openStream());
-                            DynamicTexture texture = new DynamicTexture(image);
-                            ResourceLocation textureLocation = Minecraft.getInstance().textureManager.register("mts-url", texture);
-                            onlineTextures.put(textureURL, textureLocation);
-                        }
-                    } else {
-                        StringBuilder errorString = new StringBuilder("Invalid content type found.  Found:" + contentType + ", but the only valid types are: ");
-                        for (String validType : validContentTypes) {
-                            errorString.append(validType).append(", ");
-                        }
-                        onlineTextures.put(textureURL, null);
-                        return errorString.toString();
-                    }
-                } catch (Exception e) {
-                    onlineTextures.put(textureURL, null);
-                    e.printStackTrace();
-                    return "Could not parse images.  Error was: " + e.getMessage();
-                }
-            } catch (Exception e) {
-                onlineTextures.put(textureURL, null);
-                e.printStackTrace();
-                return "Could not open URL for processing.  Error was: " + e.getMessage();
+    /**
+     * Uploads the image at the passed-in index of the passed-in online texture.
+     * Once the last image of a texture is uploaded, the texture may be bound.
+     */
+    private static void uploadOnlineTexture(OnlineTexture texture, int imageIndex) {
+        //Copy the pixels over.  Images are ARGB, but NativeImages are ABGR, so we need to swap red and blue.
+        BufferedImage bufferedImage = texture.getImage(imageIndex);
+        int width = bufferedImage.getWidth();
+        int height = bufferedImage.getHeight();
+        int[] pixels = bufferedImage.getRGB(0, 0, width, height, null, 0, width);
+        NativeImage image = new NativeImage(width, height, false);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x) {
+                int pixel = pixels[y * width + x];
+                image.setPixelRGBA(x, y, (pixel & 0xFF00FF00) | ((pixel >> 16) & 0xFF) | ((pixel & 0xFF) << 16));
             }
         }
-        return null;
+        DynamicTexture dynamicTexture = new DynamicTexture(image);
+        if (texture.gif != null) {
+            ResourceLocation textureLocation = Minecraft.getInstance().textureManager.register("mts-gif", dynamicTexture);
+            animatedGIFFrames.computeIfAbsent(texture.gif, k -> new HashMap<>()).put(texture.gifFrames.get(imageIndex), textureLocation);
+            if (imageIndex == texture.getImageCount() - 1) {
+                animatedGIFs.put(texture.url, texture.gif);
+            }
+        } else {
+            onlineTextures.put(texture.url, Minecraft.getInstance().textureManager.register("mts-url", dynamicTexture));
+        }
     }
 
     /**
@@ -517,10 +502,13 @@ public class InterfaceRender implements IInterfaceRender {
         RenderingRegistry.registerEntityRenderingHandler(BuilderEntityLinkedSeat.E_TYPE3.get(), manager -> new BlankRender<BuilderEntityLinkedSeat>(manager));
     }
 
-    public static void doRenderCall(MatrixStack stack, IRenderTypeBuffer buffer, boolean blendingEnabled, float partialTicks) {
+    public static void doRenderCall(MatrixStack stack, Matrix4f projection, IRenderTypeBuffer buffer, boolean blendingEnabled, float partialTicks) {
         if (!blendingEnabled) {
             //Flip the buffer set to the next one prior to rendering.
             onBufferSet2 = !onBufferSet2;
+
+            //Upload any online textures that finished loading.
+            OnlineTextureLoader.uploadTextures(InterfaceRender::uploadOnlineTexture);
         }
 
         //Set camera offfset point for later.
@@ -534,10 +522,21 @@ public class InterfaceRender implements IInterfaceRender {
         AWrapperWorld world = InterfaceManager.clientInterface.getClientWorld();
         ConcurrentLinkedQueue<AEntityC_Renderable> allEntities = world.renderableEntities;
         if (allEntities != null) {
+            //Get the entities we can see on the solid pass, and use the same ones on the blended pass.
+            //The stack only has the camera rotation at this point, so the frustum is relative to the camera position.
+            if (!blendingEnabled) {
+                world.beginProfiling("MTSRendering_Culling", true);
+                projection.store(projectionBuffer);
+                stack.last().pose().store(modelViewBuffer);
+                renderCuller.frustum.update(projectionMatrix, modelViewMatrix);
+                renderCuller.update(allEntities, renderCameraOffset, ConfigSystem.client.renderingSettings.renderCulling.value, partialTicks);
+                world.endProfiling();
+            }
+
             world.beginProfiling("MTSRendering_Setup", true);
-            //NOTE: this operation occurs on a ConcurrentLinkedQueue.  Therefore, updates will
+            //NOTE: the visible list is made from a ConcurrentLinkedQueue.  Therefore, updates will
             //not occur one after another.  Sanitize your inputs!
-            for (AEntityC_Renderable entity : allEntities) {
+            for (AEntityC_Renderable entity : renderCuller.getVisibleEntities()) {
                 matrixStack.pushPose();
                 matrixStack.translate(entity.position.x - renderCameraOffset.x, entity.position.y - renderCameraOffset.y, entity.position.z - renderCameraOffset.z);
                 entity.render(blendingEnabled, partialTicks);
@@ -1,6 +1,5 @@
 package mcinterface1165;
 
-import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
@@ -22,8 +21,9 @@ import minecrafttransportsimulator.mcinterface.IInterfaceSound;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.sound.IStreamDecoder;
-import minecrafttransportsimulator.sound.OGGDecoder;
 import minecrafttransportsimulator.sound.RadioStation;
+import minecrafttransportsimulator.sound.SoundAssetLoader;
+import minecrafttransportsimulator.sound.SoundAssetLoader.DecodedSound;
 import minecrafttransportsimulator.sound.SoundInstance;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import net.minecraftforge.api.distmarker.Dist;
@@ -67,6 +67,11 @@ public class InterfaceSound implements IInterfaceSound {
      **/
     private static final List<SoundInstance> queuedSounds = new ArrayList<>();
 
+    /**
+     * List of sounds waiting on their data to be decoded.  These will be started once the data is ready.
+     **/
+    private static final List<SoundInstance> loadingSounds = new ArrayList<>();
+
     /**
      * This gets incremented whenever we try to get a source and fail.  If we get to 10, the sound system
      * will stop attempting to play sounds.  Used for when mods take all the sources.
@@ -117,6 +122,25 @@ public class InterfaceSound implements IInterfaceSound {
             for (SoundInstance sound : playingSounds) {
                 sound.stopSound = true;
             }
+            for (SoundInstance sound : loadingSounds) {
+                sound.stopSound = true;
+            }
+        }
+
+        //Start any sounds that were waiting on their data to be decoded.
+        if (!loadingSounds.isEmpty()) {
+            Iterator<SoundInstance> loadingIterator = loadingSounds.iterator();
+            while (loadingIterator.hasNext()) {
+                SoundInstance sound = loadingIterator.next();
+                if (sound.stopSound) {
+                    loadingIterator.remove();
+                    sound.entity.sounds.remove(sound);
+                } else if (SoundAssetLoader.isDecoded(sound.soundPlayingName)) {
+                    loadingIterator.remove();
+                    sound.entity.sounds.remove(sound);
+                    startSound(sound);
+                }
+            }
         }
 
         //Start playing all queued sounds.
@@ -212,51 +236,65 @@ public class InterfaceSound implements IInterfaceSound {
     @Override
     public void playQuickSound(SoundInstance sound) {
         if (ALC.getFunctionProvider() != null && sourceGetFailures < 10) {
-            //First get the IntBuffer pointer to where this sound data is stored.
-            Integer dataBufferPointer = loadOGGJarSound(sound.soundPlayingName);
-            if (dataBufferPointer != null) {
-                //Set the sound's source buffer index.
-                IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
-                AL10.alGetError();
-                AL10.alGenSources(sourceBuffer);
-                if (AL10.alGetError() != AL10.AL_NO_ERROR) {
-                    AL10.alDeleteBuffers(dataBufferPointer);
-                    if (++sourceGetFailures == 10) {
-                        InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_SOUNDSLOT);
-                        ///Kill off the sound that's furthest from the player to make room if we have a sound we can remove.
-                        //This keeps the sounds going, even with limited slots.
-                        if (!playingSounds.isEmpty()) {
-                            SoundInstance furthestSound = null;
-                            Point3D playerPosition = InterfaceManager.clientInterface.getClientPlayer().getPosition();
-                            for (SoundInstance testSound : playingSounds) {
-                                if (furthestSound == null || playerPosition.isFirstCloserThanSecond(testSound.position, furthestSound.position)) {
-                                    furthestSound = testSound;
-                                }
+            if (dataSourceBuffers.containsKey(sound.soundPlayingName) || SoundAssetLoader.isDecoded(sound.soundPlayingName)) {
+                startSound(sound);
+            } else {
+                //Sound data is still being decoded.  Hold onto the sound and start it once the data is ready.
+                //Add it to the entity now so the entity knows it's playing and doesn't try to play it again.
+                loadingSounds.add(sound);
+                sound.entity.sounds.add(sound);
+            }
+        }
+    }
+
+    /**
+     * Starts playing the passed-in sound.  The sound's data must be decoded prior to calling this method.
+     */
+    private static void startSound(SoundInstance sound) {
+        //First get the IntBuffer pointer to where this sound data is stored.
+        Integer dataBufferPointer = loadOGGJarSound(sound.soundPlayingName);
+        if (dataBufferPointer != null) {
+            //Set the sound's source buffer index.
+            IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
+            AL10.alGetError();
+            AL10.alGenSources(sourceBuffer);
+            if (AL10.alGetError() != AL10.AL_NO_ERROR) {
+                AL10.alDeleteBuffers(dataBufferPointer);
+                if (++sourceGetFailures == 10) {
+                    InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(JSONConfigLanguage.SYSTEM_SOUNDSLOT);
+                    ///Kill off the sound that's furthest from the player to make room if we have a sound we can remove.
+                    //This keeps the sounds going, even with limited slots.
+                    if (!playingSounds.isEmpty()) {
+                        SoundInstance furthestSound = null;
+                        Point3D playerPosition = InterfaceManager.clientInterface.getClientPlayer().getPosition();
+                        for (SoundInstance testSound : playingSounds) {
+                            if (furthestSound == null || playerPosition.isFirstCloserThanSecond(testSound.position, furthestSound.position)) {
+                                furthestSound = testSound;
                             }
-                            sourceGetFailures = 0;
-                            //Manually stop sound and remove from iterator.
-                            //This makes the source entity think that it's still playing and won't re-add it.
-                            AL10.alSourcei(furthestSound.sourceIndex, AL10.AL_BUFFER, AL10.AL_NONE);
-                            sourceBuffer = BufferUtils.createIntBuffer(1);
-                            sourceBuffer.put(furthestSound.sourceIndex).flip();
-                            AL10.alDeleteSources(sourceBuffer);
-                            playingSounds.remove(furthestSound);
                         }
+                        sourceGetFailures = 0;
+                        //Manually stop sound and remove from iterator.
+                        //This makes the source entity think that it's still playing and won't re-add it.
+                        AL10.alSourcei(furthestSound.sourceIndex, AL10.AL_BUFFER, AL10.AL_NONE);
+                        sourceBuffer = BufferUtils.createIntBuffer(1);
+                        sourceBuffer.put(furthestSound.sourceIndex).flip();
+                        AL10.alDeleteSources(sourceBuffer);
+                        playingSounds.remove(furthestSound);
                     }
-                    return;
                 }
-                sound.sourceIndex = sourceBuffer.get(0);
+                return;
+            }
+            sound.sourceIndex = sourceBuffer.get(0);
 
-                //Set properties and bind data buffer to source.
-                AL10.alGetError();
-                AL10.alSourcei(sound.sourceIndex, AL10.AL_LOOPING, sound.soundDef != null && sound.soundDef.looping ? AL10.AL_TRUE : AL10.AL_FALSE);
-                AL10.alSource3f(sound.sourceIndex, AL10.AL_POSITION, (float) sound.entity.position.x, (float) sound.entity.position.y, (float) sound.entity.position.z);
-                AL10.alSourcei(sound.sourceIndex, AL10.AL_BUFFER, dataBufferPointer);
+            //Set properties and bind data buffer to source.
+            AL10.alGetError();
+            AL10.alSourcei(sound.sourceIndex, AL10.AL_LOOPING, sound.soundDef != null && sound.soundDef.looping ? AL10.AL_TRUE : AL10.AL_FALSE);
+            AL10.alSource3f(sound.sourceIndex, AL10.AL_POSITION, (float) sound.entity.position.x, (float) sound.entity.position.y, (float) sound.entity.position.z);
+            AL10.alSourcei(sound.sourceIndex, AL10.AL_BUFFER, dataBufferPointer);
 
-                //Done setting up buffer.  Queue sound to start playing.
-                queuedSounds.add(sound);
-                sound.entity.sounds.add(sound);
-            }
+            //Done setting up buffer.  Queue sound to start playing.
+            queuedSounds.add(sound);
+            sound.entity.sounds.add(sound);
         }
     }
 
@@ -350,39 +388,25 @@ public class InterfaceSound implements IInterfaceSound {
     }
 
     /**
-     * Loads an OGG file in its entirety using the {@link InterfaceOGGDecoder}.
-     * The sound is then stored in a dataBuffer keyed by soundName located in {@link #dataSourceBuffers}.
-     * The pointer to the dataBuffer is returned for convenience as it allows for transparent sound caching.
-     * If a sound with the same name is passed-in at a later time, it is assumed to be the same and rather
-     * than re-parse the sound the system will simply return the same pointer index to be bound.
+     * Returns the pointer to the buffer with the data for the passed-in sound, or null if the sound doesn't exist.
+     * Data is obtained from the {@link SoundAssetLoader} the first time the sound is played, so it must be decoded
+     * prior to calling this method.
      */
     private static Integer loadOGGJarSound(String soundName) {
         if (dataSourceBuffers.containsKey(soundName)) {
-            //Already parsed the data.  Return the buffer.
+            //Already loaded the data.  Return the buffer.
             return dataSourceBuffers.get(soundName);
         } else {
-            //Need to parse the data.  Do so now.
-            String soundDomain = soundName.substring(0, soundName.indexOf(':'));
-            String soundPath = soundName.substring(soundDomain.length() + 1);
-            InputStream soundStream = InterfaceManager.coreInterface.getPackResource("/assets/" + soundDomain + "/sounds/" + soundPath + ".ogg");
-            if (soundStream != null) {
-                //Create decoder and decode whole file.
-                OGGDecoder decoder = new OGGDecoder(soundStream);
-                ByteBuffer decodedData = ByteBuffer.allocateDirect(0);
-                ByteBuffer blockRead;
-                while ((blockRead = decoder.readBlock()) != null) {
-                    decodedData = ByteBuffer.allocateDirect(decodedData.capacity() + blockRead.limit()).put(decodedData).put(blockRead);
-                    decodedData.rewind();
-                }
-
+            DecodedSound decodedSound = SoundAssetLoader.takeSound(soundName);
+            if (decodedSound != null) {
                 //Generate an IntBuffer to store a pointer to the data buffer.
                 IntBuffer dataBufferPointers = BufferUtils.createIntBuffer(1);
                 AL10.alGenBuffers(dataBufferPointers);
 
-                //Bind the decoder output buffer to the data buffer pointer.
-                AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, decodedData, decoder.getSampleRate());
+                //Bind the decoded data to the data buffer pointer.
+                AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, decodedSound.data, decodedSound.sampleRate);
 
-                //Done parsing.  Map the dataBuffer(s) to the soundName and return the index.
+                //Done loading.  Map the dataBuffer(s) to the soundName and return the index.
                 dataSourceBuffers.put(soundName, dataBufferPointers.get(0));
                 return dataSourceBuffers.get(soundName);
             } else {
@@ -5,15 +5,14 @@ import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.SavedDataWriter;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.components.ABlockBase.BlockMaterial;
@@ -59,6 +58,7 @@ import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.ItemUseContext;
 import net.minecraft.item.Items;
+import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.state.properties.SlabType;
 import net.minecraft.tags.BlockTags;
@@ -80,12 +80,15 @@ import net.minecraft.util.math.vector.Vector3d;
 import net.minecraft.world.Explosion;
 import net.minecraft.world.LightType;
 import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraft.world.storage.DimensionSavedDataManager;
 import net.minecraftforge.common.IPlantable;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.TickEvent.Phase;
+import net.minecraftforge.event.world.BlockEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.items.CapabilityItemHandler;
@@ -106,11 +109,12 @@ public class WrapperWorld extends AWrapperWorld {
     private final Map<UUID, BuilderEntityExisting> playerServerGunBuilders = new HashMap<>();
     private final Map<UUID, Integer> ticksSincePlayerJoin = new HashMap<>();
     private final List<AxisAlignedBB> mutableCollidingAABBs = new ArrayList<>();
-    private final Set<BlockPos> knownAirBlocks = new HashSet<>();
+    private final BlockCollisionCache collisionCache;
 
 
     protected final World world;
     private final IWrapperNBT savedData;
+    private final SavedDataWriter<CompoundNBT> savedDataWriter;
 
     /**
      * Returns a wrapper instance for the passed-in world instance.
@@ -131,6 +135,7 @@ public class WrapperWorld extends AWrapperWorld {
 
     private WrapperWorld(World world) {
         this.world = world;
+        this.collisionCache = new BlockCollisionCache(world);
         if (world.isClientSide) {
             //Send packet to server to request data for this world.
             this.savedData = InterfaceManager.coreInterface.getNewNBTWrapper();
@@ -148,6 +153,7 @@ public class WrapperWorld extends AWrapperWorld {
                 throw new IllegalStateException("Could not load saved data from disk!  This will result in data loss if we continue!");
             }
         }
+        this.savedDataWriter = world.isClientSide ? null : new SavedDataWriter<>(getDataFile(), () -> ((WrapperNBT) savedData).tag.copy(), CompressedStreamTools::writeCompressed);
         MinecraftForge.EVENT_BUS.register(this);
     }
 
@@ -198,13 +204,8 @@ public class WrapperWorld extends AWrapperWorld {
     public void setData(String name, IWrapperNBT value) {
         savedData.setData(name, value);
         if (!isClient()) {
-            try {
-                CompressedStreamTools.writeCompressed(((WrapperNBT) savedData).tag, Files.newOutputStream(getDataFile().toPath()));
-                InterfaceManager.packetInterface.sendToAllClients(new PacketWorldSavedDataUpdate(name, value));
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new IllegalStateException("Could not save data to disk!  This will result in data loss if we continue!");
-            }
+            savedDataWriter.markDirty();
+            InterfaceManager.packetInterface.sendToAllClients(new PacketWorldSavedDataUpdate(name, value));
         }
     }
 
@@ -264,6 +265,21 @@ public class WrapperWorld extends AWrapperWorld {
         return players;
     }
 
+    @Override
+    public List<IWrapperPlayer> getPlayers() {
+        List<IWrapperPlayer> players = new ArrayList<>();
+        for (PlayerEntity player : world.players()) {
+            players.add(WrapperPlayer.getWrapperFor(player));
+        }
+        return players;
+    }
+
+    @Override
+    public int getEntityTrackingRange() {
+        //Our entities are registered with a range of 32 chunks, but MC won't track past the view distance.
+        return Math.min(32 * 16, world.getServer().getPlayerList().getViewDistance() * 16);
+    }
+
     @Override
     public List<IWrapperEntity> getEntitiesHostile(IWrapperEntity lookingEntity, double radius) {
         List<IWrapperEntity> entities = new ArrayList<>();
@@ -481,18 +497,26 @@ public class WrapperWorld extends AWrapperWorld {
     }
 
     @Override
-    public double getHeight(Point3D position) {
-        BlockPos pos = new BlockPos(position.x, position.y, position.z);
-        //Need to go down till we find a block.
-        while (pos.getY() > 0) {
-            if (!world.isEmptyBlock(pos)) {
-                //Adjust up since we need to be above the top block. 
-                pos = pos.above();
-                break;
+    protected boolean scanTerrainColumn(int x, int z, long[] solidBits) {
+        Chunk chunk = world.getChunkSource().getChunkNow(x >> 4, z >> 4);
+        if (chunk == null) {
+            return false;
+        }
+        BlockPos.Mutable pos = new BlockPos.Mutable();
+        ChunkSection[] sections = chunk.getSections();
+        for (int sectionIndex = 0; sectionIndex < sections.length; ++sectionIndex) {
+            ChunkSection section = sections[sectionIndex];
+            //Empty sections are all air, so don't bother checking them.
+            if (!ChunkSection.isEmpty(section)) {
+                for (int j = 0; j < 16; ++j) {
+                    int blockY = (sectionIndex << 4) + j;
+                    if (!section.getBlockState(x & 15, j, z & 15).isAir(world, pos.set(x, blockY, z))) {
+                        solidBits[blockY >> 6] |= 1L << blockY;
+                    }
+                }
             }
-            pos = pos.below();
         }
-        return position.y - pos.getY();
+        return true;
     }
 
     @Override
@@ -501,20 +525,24 @@ public class WrapperWorld extends AWrapperWorld {
         VoxelShape mcShape = VoxelShapes.create(mcBox);
         box.collidingBlockPositions.clear();
         mutableCollidingAABBs.clear();
-        for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
-            for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
-                for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
-                    if (!world.isEmptyBlock(pos)) {
-                        BlockState state = world.getBlockState(pos);
+        collisionCache.beginScan();
+        int maxX = (int) Math.ceil(mcBox.maxX);
+        int maxY = (int) Math.ceil(mcBox.maxY);
+        int maxZ = (int) Math.ceil(mcBox.maxZ);
+        for (int i = (int) Math.floor(mcBox.minX); i < maxX; ++i) {
+            for (int j = (int) Math.floor(mcBox.minY); j < maxY; ++j) {
+                for (int k = (int) Math.floor(mcBox.minZ); k < maxZ; ++k) {
+                    BlockPos pos = collisionCache.moveTo(i, j, k);
+                    BlockState state = collisionCache.getState();
+                    if (state != null && !state.isAir()) {
                         VoxelShape collisionShape = state.getCollisionShape(world, pos).move(i, j, k);
                         if (!collisionShape.isEmpty() && VoxelShapes.joinIsNotEmpty(mcShape, collisionShape, IBooleanFunction.AND)) {
                             mutableCollidingAABBs.addAll(collisionShape.toAabbs());
-                            box.collidingBlockPositions.add(new Point3D(i, j, k));
+                            box.addCollidingBlockPosition(i, j, k);
                         }
                         if (box.collidesWithLiquids && state.getMaterial().isLiquid()) {
                             mutableCollidingAABBs.add(VoxelShapes.block().bounds().move(pos));
-                            box.collidingBlockPositions.add(new Point3D(i, j, k));
+                            box.addCollidingBlockPosition(i, j, k);
                         }
                     }
                 }
@@ -586,23 +614,27 @@ public class WrapperWorld extends AWrapperWorld {
     @Override
     public boolean checkForCollisions(BoundingBox box, Point3D offset, boolean clearCache) {
         if (clearCache) {
-            knownAirBlocks.clear();
+            collisionCache.clearKnownAir();
         }
         mutableCollidingAABBs.clear();
+        collisionCache.beginScan();
         AxisAlignedBB mcBox = WrapperWorld.convertWithOffset(box, offset.x, offset.y, offset.z);
         VoxelShape mcShape = VoxelShapes.create(mcBox);
-        for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
-            for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
-                for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
-                    if (!knownAirBlocks.contains(pos)) {
-                        if (world.isLoaded(pos)) {
-                            BlockState state = world.getBlockState(pos);
+        int maxX = (int) Math.ceil(mcBox.maxX);
+        int maxY = (int) Math.ceil(mcBox.maxY);
+        int maxZ = (int) Math.ceil(mcBox.maxZ);
+        for (int i = (int) Math.floor(mcBox.minX); i < maxX; ++i) {
+            for (int j = (int) Math.floor(mcBox.minY); j < maxY; ++j) {
+                for (int k = (int) Math.floor(mcBox.minZ); k < maxZ; ++k) {
+                    BlockPos pos = collisionCache.moveTo(i, j, k);
+                    if (!collisionCache.isKnownAir()) {
+                        BlockState state = collisionCache.getState();
+                        if (state != null) {
                             VoxelShape collisionShape = state.getCollisionShape(world, pos).move(i, j, k);
                             if (collisionShape != null && !collisionShape.isEmpty() && VoxelShapes.joinIsNotEmpty(mcShape, collisionShape, IBooleanFunction.AND)) {
                                 return true;
                             } else {
-                                knownAirBlocks.add(pos);
+                                collisionCache.markKnownAir();
                             }
                             if (box.collidesWithLiquids && state.getMaterial().isLiquid()) {
                                 if (mcBox.intersects(VoxelShapes.block().bounds().move(pos))) {
@@ -934,6 +966,8 @@ public class WrapperWorld extends AWrapperWorld {
         //Note that the client world never calls this method: to do client ticks we need to use the client interface.
         if (!event.world.isClientSide && event.world.equals(world)) {
             if (event.phase.equals(Phase.START)) {
+                //Batch packets sent during the tick.  These get sent at the end of the tick.
+                InterfaceManager.packetInterface.beginBatching();
                 beginProfiling("MTS_ServerVehicleUpdates", true);
                 tickAll();
 
@@ -986,15 +1020,31 @@ public class WrapperWorld extends AWrapperWorld {
                 }
             } else {
                 //Update player guns.  These happen at the end since they need the player to update first.
-                beginProfiling("MTS_PlayerGunUpdates", true);
-                for (EntityPlayerGun gun : getEntitiesOfType(EntityPlayerGun.class)) {
-                    gun.update();
-                    gun.doPostUpdateLogic();
+                //Always end batching, even if an update fails, or packets would never be sent again.
+                try {
+                    beginProfiling("MTS_PlayerGunUpdates", true);
+                    for (EntityPlayerGun gun : getEntitiesOfType(EntityPlayerGun.class)) {
+                        gun.update();
+                        gun.doPostUpdateLogic();
+                    }
+                    savedDataWriter.tick();
+                } finally {
+                    InterfaceManager.packetInterface.endBatching();
                 }
             }
         }
     }
 
+    /**
+     * Marks terrain as changed when blocks change, so cached terrain heights stay current.
+     */
+    @SubscribeEvent
+    public void on(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getWorld() == world) {
+            markTerrainChanged(event.getPos().getX(), event.getPos().getZ());
+        }
+    }
+
     /**
      * Remove all entities from our maps if we unload the world.  This will cause duplicates if we don't.
      * Also remove this wrapper from the created lists, as it's invalid.
@@ -1006,6 +1056,9 @@ public class WrapperWorld extends AWrapperWorld {
             for (AEntityA_Base entity : allEntities) {
                 entity.remove();
             }
+            if (savedDataWriter != null) {
+                savedDataWriter.flush();
+            }
             worldWrappers.remove(world);
         }
     }
@@ -29,12 +29,12 @@ public abstract class WorldRendererMixin {
     @Inject(method = "renderLevel", at = @At(value = "INVOKE", target = "Lnet/minecraft/client/renderer/RenderTypeBuffers;bufferSource()Lnet/minecraft/client/renderer/IRenderTypeBuffer$Impl;"))
     public void inject_renderLevelSolid(MatrixStack pMatrixStack, float pPartialTicks, long pFinishTimeNano, boolean pDrawBlockOutline, ActiveRenderInfo pActiveRenderInfo, GameRenderer pGameRenderer, LightTexture pLightmap, Matrix4f pProjection, CallbackInfo ci) {
         IRenderTypeBuffer.Impl irendertypebuffer$impl = renderBuffers.bufferSource();
-        InterfaceRender.doRenderCall(pMatrixStack, irendertypebuffer$impl, false, pPartialTicks);
+        InterfaceRender.doRenderCall(pMatrixStack, pProjection, irendertypebuffer$impl, false, pPartialTicks);
     }
 
     @Inject(method = "renderLevel", at = @At(value = "TAIL"))
     public void inject_renderLevelBlended(MatrixStack pMatrixStack, float pPartialTicks, long pFinishTimeNano, boolean pDrawBlockOutline, ActiveRenderInfo pActiveRenderInfo, GameRenderer pGameRenderer, LightTexture pLightmap, Matrix4f pProjection, CallbackInfo ci) {
         IRenderTypeBuffer.Impl irendertypebuffer$impl = renderBuffers.bufferSource();
-        InterfaceRender.doRenderCall(pMatrixStack, irendertypebuffer$impl, true, pPartialTicks);
+        InterfaceRender.doRenderCall(pMatrixStack, pProjection, irendertypebuffer$impl, true, pPartialTicks);
     }
 }